@@ -0,0 +1,83 @@
+package com.hitanshudhawan.sankshipt.configs;
+
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Remembers tokens that were already decoded and verified, so clients reusing a token
+ * skip parsing and signature verification on every request.
+ * <p>
+ * Entries are keyed by the SHA-256 of the token, so raw tokens are not kept in memory,
+ * and are dropped at the token's expiry. Tokens that fail verification are never cached.
+ */
+class CachingJwtDecoder implements JwtDecoder {
+
+    private final JwtDecoder delegate;
+
+    // Least recently used tokens go first once the cache is full
+    private final Map<String, Jwt> verified;
+
+    CachingJwtDecoder(JwtDecoder delegate, int cacheSize) {
+        this.delegate = delegate;
+        this.verified = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Jwt> eldest) {
+                return size() > cacheSize;
+            }
+        };
+    }
+
+    @Override
+    public Jwt decode(String token) throws JwtException {
+        return decode(token, Instant.now());
+    }
+
+    Jwt decode(String token, Instant now) throws JwtException {
+        String key = tokenHash(token);
+        synchronized (verified) {
+            Jwt cached = verified.get(key);
+            if (cached != null) {
+                if (cached.getExpiresAt().isAfter(now)) {
+                    return cached;
+                }
+                verified.remove(key);
+            }
+        }
+
+        // Verify outside the lock; concurrent misses for the same token decode it independently
+        Jwt jwt = delegate.decode(token);
+        // Tokens without an expiry are verified every time
+        if (jwt.getExpiresAt() != null && jwt.getExpiresAt().isAfter(now)) {
+            synchronized (verified) {
+                verified.put(key, jwt);
+            }
+        }
+        return jwt;
+    }
+
+    int size() {
+        synchronized (verified) {
+            return verified.size();
+        }
+    }
+
+    private static String tokenHash(String token) {
+        try {
+            MessageDigest md = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(md.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            // This should never happen as SHA-256 is always available
+            throw new RuntimeException("SHA-256 algorithm not available", e);
+        }
+    }
+
+}
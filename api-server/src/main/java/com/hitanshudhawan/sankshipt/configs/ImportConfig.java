@@ -0,0 +1,25 @@
+package com.hitanshudhawan.sankshipt.configs;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Provides the executor that runs bulk import jobs, separate from request threads.
+ */
+@Configuration
+public class ImportConfig {
+
+    @Bean(name = "importExecutor")
+    public ThreadPoolTaskExecutor importExecutor(@Value("${sankshipt.imports.workers:2}") int workers) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(workers);
+        executor.setMaxPoolSize(workers);
+        executor.setThreadNamePrefix("import-");
+        // Unfinished jobs resume from their checkpoint on the next start, so there is no need to wait for them
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        return executor;
+    }
+
+}
@@ -0,0 +1,101 @@
+package com.hitanshudhawan.sankshipt.configs;
+
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSelector;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.proc.SecurityContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Serves token verification keys from memory, so request threads never wait on the auth server.
+ * <p>
+ * The key set starts from a pinned copy (if configured) and is refreshed from the auth server's
+ * JWKS endpoint in the background, periodically and whenever a token names a key id that is not
+ * known yet. Those on-demand refreshes are rate limited, so a flood of tokens with made-up key ids
+ * cannot turn into a flood of JWKS requests. A token signed with a brand new key is rejected until
+ * the refresh it triggered has completed.
+ */
+class RefreshingJwkSource implements JWKSource<SecurityContext> {
+
+    private static final Logger logger = LoggerFactory.getLogger(RefreshingJwkSource.class);
+
+    private final Callable<JWKSet> fetcher;
+    private final Executor executor;
+    private final long minRefreshIntervalMillis;
+
+    private volatile JWKSet jwkSet;
+
+    // Start of the last on-demand refresh, to rate limit them
+    private final AtomicLong lastRefreshRequestMillis = new AtomicLong(Long.MIN_VALUE / 2);
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+
+    /**
+     * @param pinned                   keys to use until the first refresh succeeds, may be empty
+     * @param fetcher                  loads the current key set from the auth server
+     * @param executor                 runs the refreshes, off the request threads
+     * @param minRefreshIntervalMillis minimum time between two refreshes triggered by unknown key ids
+     */
+    RefreshingJwkSource(JWKSet pinned, Callable<JWKSet> fetcher, Executor executor, long minRefreshIntervalMillis) {
+        this.jwkSet = pinned;
+        this.fetcher = fetcher;
+        this.executor = executor;
+        this.minRefreshIntervalMillis = minRefreshIntervalMillis;
+    }
+
+    @Override
+    public List<JWK> get(JWKSelector jwkSelector, SecurityContext context) {
+        List<JWK> keys = jwkSelector.select(jwkSet);
+        if (keys.isEmpty()) {
+            // Most likely the auth server rotated its key; fetch the new set for the next request
+            requestRefresh(System.currentTimeMillis());
+        }
+        return keys;
+    }
+
+    @Scheduled(fixedDelayString = "${sankshipt.tokens.jwk-refresh-interval-ms:300000}")
+    public void refreshPeriodically() {
+        executor.execute(this::refresh);
+    }
+
+    void requestRefresh(long now) {
+        long last = lastRefreshRequestMillis.get();
+        if (now - last < minRefreshIntervalMillis || !lastRefreshRequestMillis.compareAndSet(last, now)) {
+            return;
+        }
+        executor.execute(this::refresh);
+    }
+
+    void refresh() {
+        // A periodic and an on-demand refresh may be queued together; one fetch is enough
+        if (!refreshing.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            JWKSet fetched = fetcher.call();
+            if (fetched.isEmpty()) {
+                logger.warn("Auth server returned an empty JWK set; keeping the {} known keys", jwkSet.size());
+                return;
+            }
+            jwkSet = fetched;
+            logger.debug("Refreshed JWK set with {} keys", fetched.size());
+        } catch (Exception e) {
+            logger.warn("Failed to refresh JWK set; keeping the {} known keys", jwkSet.size(), e);
+        } finally {
+            refreshing.set(false);
+        }
+    }
+
+    JWKSet getJwkSet() {
+        return jwkSet;
+    }
+
+}
@@ -0,0 +1,12 @@
+package com.hitanshudhawan.sankshipt.configs;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables scheduled background tasks, such as flushing in-memory click counters to the database.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -1,8 +1,15 @@
 package com.hitanshudhawan.sankshipt.configs;
 
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.proc.JWSVerificationKeySelector;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jwt.proc.DefaultJWTProcessor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.convert.converter.Converter;
+import org.springframework.core.io.Resource;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
@@ -11,11 +18,25 @@ import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtValidators;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
 import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
 import org.springframework.security.web.SecurityFilterChain;
 
+import java.io.IOException;
+import java.net.URI;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.text.ParseException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /**
  * Security configuration for the Sankshipt application.
@@ -26,6 +47,9 @@ import java.util.Collection;
 @EnableMethodSecurity
 public class SecurityConfig {
 
+    // A key set holds a handful of public keys; anything larger is not a key set
+    private static final int MAX_JWK_SET_BYTES = 50 * 1024;
+
     @Bean
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
         return http
@@ -44,6 +68,49 @@ public class SecurityConfig {
                 .build();
     }
 
+    @Bean
+    public RefreshingJwkSource jwkSource(
+            @Value("${sankshipt.tokens.jwk-set:}") String jwkSet,
+            @Value("${sankshipt.tokens.jwk-set-location:}") Resource jwkSetLocation,
+            @Value("${sankshipt.tokens.jwk-set-uri}") String jwkSetUri,
+            @Value("${sankshipt.tokens.jwk-fetch-timeout-ms:2000}") int fetchTimeoutMillis,
+            @Value("${sankshipt.tokens.jwk-min-refresh-interval-ms:30000}") long minRefreshIntervalMillis
+    ) throws IOException, ParseException {
+        // Pinned keys let the server verify tokens right away, without reaching the auth server first
+        JWKSet pinned = new JWKSet();
+        if (!jwkSet.isBlank()) {
+            pinned = JWKSet.parse(jwkSet);
+        } else if (jwkSetLocation != null && jwkSetLocation.exists()) {
+            pinned = JWKSet.parse(jwkSetLocation.getContentAsString(StandardCharsets.UTF_8));
+        }
+
+        URL url = URI.create(jwkSetUri).toURL();
+        ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "jwk-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+        return new RefreshingJwkSource(pinned, () -> JWKSet.load(url, fetchTimeoutMillis, fetchTimeoutMillis, MAX_JWK_SET_BYTES),
+                executor, minRefreshIntervalMillis);
+    }
+
+    @Bean
+    public JwtDecoder jwtDecoder(
+            @Value("${spring.security.oauth2.resourceserver.jwt.issuer-uri}") String issuerUri,
+            @Value("${sankshipt.tokens.cache-size:10000}") int cacheSize,
+            RefreshingJwkSource jwkSource
+    ) {
+        DefaultJWTProcessor<SecurityContext> jwtProcessor = new DefaultJWTProcessor<>();
+        jwtProcessor.setJWSKeySelector(new JWSVerificationKeySelector<>(JWSAlgorithm.RS256, jwkSource));
+        // Claims are checked by the Spring validator below instead
+        jwtProcessor.setJWTClaimsSetVerifier((claims, context) -> {
+        });
+
+        NimbusJwtDecoder decoder = new NimbusJwtDecoder(jwtProcessor);
+        decoder.setJwtValidator(JwtValidators.createDefaultWithIssuer(issuerUri));
+        return new CachingJwtDecoder(decoder, cacheSize);
+    }
+
     @Bean
     public JwtAuthenticationConverter jwtAuthenticationConverter() {
         JwtAuthenticationConverter converter = new JwtAuthenticationConverter();
@@ -53,8 +120,29 @@ public class SecurityConfig {
 
     static class JwtGrantedAuthoritiesConverter implements Converter<Jwt, Collection<GrantedAuthority>> {
 
+        // Distinct role and scope combinations are few, so tokens sharing one also share its authorities
+        private static final int MAX_INTERNED = 1024;
+
+        private final Map<List<Object>, Collection<GrantedAuthority>> interned = new ConcurrentHashMap<>();
+
         @Override
         public Collection<GrantedAuthority> convert(Jwt jwt) {
+            List<Object> key = Arrays.asList(jwt.getClaims().get("roles"), jwt.getClaims().get("scope"));
+            Collection<GrantedAuthority> authorities = interned.get(key);
+            if (authorities != null) {
+                return authorities;
+            }
+            authorities = toAuthorities(jwt);
+            if (interned.size() < MAX_INTERNED) {
+                Collection<GrantedAuthority> previous = interned.putIfAbsent(key, authorities);
+                if (previous != null) {
+                    return previous;
+                }
+            }
+            return authorities;
+        }
+
+        private static Collection<GrantedAuthority> toAuthorities(Jwt jwt) {
             Collection<GrantedAuthority> authorities = new ArrayList<>();
 
             // Convert roles to authorities
@@ -69,7 +157,7 @@ public class SecurityConfig {
                 scopes.forEach(scope -> authorities.add(new SimpleGrantedAuthority("SCOPE_" + scope)));
             }
 
-            return authorities;
+            return List.copyOf(authorities);
         }
     }
 
@@ -1,25 +1,40 @@
 package com.hitanshudhawan.sankshipt.controllers;
 
+import com.hitanshudhawan.sankshipt.dtos.ClickCountResponse;
 import com.hitanshudhawan.sankshipt.dtos.ClickResponse;
+import com.hitanshudhawan.sankshipt.dtos.DestinationResponse;
+import com.hitanshudhawan.sankshipt.dtos.ReferrerResponse;
 import com.hitanshudhawan.sankshipt.exceptions.UrlNotFoundException;
-import com.hitanshudhawan.sankshipt.models.Click;
 import com.hitanshudhawan.sankshipt.models.URL;
-import com.hitanshudhawan.sankshipt.models.User;
+import com.hitanshudhawan.sankshipt.models.UrlDestination;
+import com.hitanshudhawan.sankshipt.models.UrlReferrer;
+import com.hitanshudhawan.sankshipt.models.UserPrincipal;
+import com.hitanshudhawan.sankshipt.repositories.ClickRepository;
 import com.hitanshudhawan.sankshipt.services.AuthenticationService;
 import com.hitanshudhawan.sankshipt.services.ClickAnalyticsService;
+import com.hitanshudhawan.sankshipt.services.ClickRateService;
+import com.hitanshudhawan.sankshipt.services.DestinationService;
+import com.hitanshudhawan.sankshipt.services.ReferrerAnalyticsService;
 import com.hitanshudhawan.sankshipt.services.ShortUrlService;
+import com.hitanshudhawan.sankshipt.utils.EntityTags;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.data.domain.Page;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.Date;
+import java.util.List;
+
 @RestController
 @RequestMapping("/api/analytics")
 @Tag(name = "3. Analytics", description = "Analytics API for URL click tracking and statistics")
@@ -27,15 +42,24 @@ public class AnalyticsController {
 
     private final ShortUrlService shortUrlService;
     private final ClickAnalyticsService clickAnalyticsService;
+    private final ReferrerAnalyticsService referrerAnalyticsService;
+    private final ClickRateService clickRateService;
+    private final DestinationService destinationService;
     private final AuthenticationService authenticationService;
 
     public AnalyticsController(
             ShortUrlService shortUrlService,
             ClickAnalyticsService clickAnalyticsService,
+            ReferrerAnalyticsService referrerAnalyticsService,
+            ClickRateService clickRateService,
+            DestinationService destinationService,
             AuthenticationService authenticationService
     ) {
         this.shortUrlService = shortUrlService;
         this.clickAnalyticsService = clickAnalyticsService;
+        this.referrerAnalyticsService = referrerAnalyticsService;
+        this.clickRateService = clickRateService;
+        this.destinationService = destinationService;
         this.authenticationService = authenticationService;
     }
 
@@ -43,13 +67,18 @@ public class AnalyticsController {
     @Operation(
             operationId = "01_getShortUrlClickCount",
             summary = "Get click count for a short URL",
-            description = "Returns the total number of clicks for a given short code. Users can only access analytics for URLs they own."
+            description = "Returns the total number of clicks for a given short code, along with the clicks of the last 5 minutes, hour and day. Responses carry a strong ETag, so clients that send 'If-None-Match' get 304 Not Modified while the counts are unchanged. Users can only access analytics for URLs they own."
     )
     @ApiResponses(value = {
             @ApiResponse(
                     responseCode = "200",
                     description = "Click count retrieved successfully",
-                    content = @Content(schema = @Schema(implementation = Long.class))
+                    content = @Content(schema = @Schema(implementation = ClickCountResponse.class))
+            ),
+            @ApiResponse(
+                    responseCode = "304",
+                    description = "Not Modified - The counts have not changed",
+                    content = @Content
             ),
             @ApiResponse(
                     responseCode = "401",
@@ -68,27 +97,44 @@ public class AnalyticsController {
             )
     })
     @PreAuthorize("hasAuthority('SCOPE_api.read')")
-    public ResponseEntity<Long> getShortUrlClickCount(
+    public ResponseEntity<ClickCountResponse> getShortUrlClickCount(
             @Parameter(description = "The short code to get click count for", required = true)
-            @PathVariable String shortCode
+            @PathVariable String shortCode,
+            @Parameter(description = "ETag of a previously returned count", example = "\"1000-3-2-10-25\"")
+            @RequestHeader(value = "If-None-Match", required = false) String ifNoneMatch
     ) throws UrlNotFoundException {
-        URL url = shortUrlService.resolveShortCode(shortCode);
-        User currentUser = authenticationService.getCurrentUser();
+        UserPrincipal currentUser = authenticationService.getCurrentUser();
 
-        // Check if the current user owns this URL
-        if (!shortUrlService.isUrlOwner(shortCode, currentUser)) {
+        // Look up the URL and check that the current user owns it in one query
+        URL url = shortUrlService.findOwnedUrl(shortCode, currentUser);
+        if (url == null) {
             return ResponseEntity.status(403).build(); // Forbidden
         }
 
-        Long clickCount = clickAnalyticsService.getClickCountForUrl(url);
-        return ResponseEntity.ok(clickCount);
+        // Recent rates come from in-memory windows; the total and its version are one primary key read of the rollup
+        ClickRateService.ClickRates rates = clickRateService.getClickRates(url);
+        ClickAnalyticsService.ClickCount clickCount = clickAnalyticsService.getClickCount(url);
+
+        // The rates slide with time, so they are part of the tag; the total is covered by its version counter
+        String etag = EntityTags.of(url.getId(), clickCount.version(),
+                rates.lastFiveMinutes(), rates.lastHour(), rates.lastDay());
+        if (EntityTags.matches(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+
+        ClickCountResponse response = new ClickCountResponse();
+        response.setTotalClicks(clickCount.totalClicks());
+        response.setClicksLastFiveMinutes(rates.lastFiveMinutes());
+        response.setClicksLastHour(rates.lastHour());
+        response.setClicksLastDay(rates.lastDay());
+        return ResponseEntity.ok().eTag(etag).body(response);
     }
 
     @GetMapping("/{shortCode}/clicks")
     @Operation(
             operationId = "02_getShortUrlClicks",
             summary = "Get paginated clicks for a short URL",
-            description = "Returns a paginated list of all clicks for a given short code with optional sorting. Users can only access analytics for URLs they own."
+            description = "Returns a paginated list of clicks for a given short code, optionally limited to a time range and a User-Agent substring, with optional sorting. Users can only access analytics for URLs they own."
     )
     @ApiResponses(value = {
             @ApiResponse(
@@ -96,6 +142,11 @@ public class AnalyticsController {
                     description = "Clicks retrieved successfully",
                     content = @Content(schema = @Schema(implementation = ClickResponse.class))
             ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Bad request - 'from' is after 'to'",
+                    content = @Content
+            ),
             @ApiResponse(
                     responseCode = "401",
                     description = "Unauthorized - Authentication required",
@@ -116,6 +167,12 @@ public class AnalyticsController {
     public ResponseEntity<Page<ClickResponse>> getShortUrlClicks(
             @Parameter(description = "The short code to get clicks for", required = true)
             @PathVariable String shortCode,
+            @Parameter(description = "Only clicks at or after this time (ISO 8601, e.g. 2024-01-01T00:00:00Z)")
+            @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Date from,
+            @Parameter(description = "Only clicks before this time (ISO 8601, exclusive)")
+            @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Date to,
+            @Parameter(description = "Only clicks whose User-Agent contains this text (case-insensitive)")
+            @RequestParam(value = "userAgent", required = false) String userAgent,
             @Parameter(description = "Page number (0-based)")
             @RequestParam(value = "pageNumber", required = false) Integer pageNumber,
             @Parameter(description = "Number of items per page")
@@ -123,31 +180,160 @@ public class AnalyticsController {
             @Parameter(description = "Sort order (asc/desc)")
             @RequestParam(value = "sortOrder", required = false) String sortOrder
     ) throws UrlNotFoundException {
-        URL url = shortUrlService.resolveShortCode(shortCode);
-        User currentUser = authenticationService.getCurrentUser();
+        UserPrincipal currentUser = authenticationService.getCurrentUser();
+
+        // Look up the URL and check that the current user owns it in one query
+        URL url = shortUrlService.findOwnedUrl(shortCode, currentUser);
+        if (url == null) {
+            return ResponseEntity.status(403).build(); // Forbidden
+        }
+
+        if (from != null && to != null && from.after(to)) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        Page<ClickRepository.ClickView> clicks = clickAnalyticsService.getClicksForUrl(url, from, to, userAgent, pageNumber, pageSize, sortOrder);
+        return ResponseEntity.ok(clicks.map(click -> convertToClickResponse(click, url)));
+    }
+
+    @GetMapping("/{shortCode}/referrers")
+    @Operation(
+            operationId = "03_getShortUrlReferrers",
+            summary = "Get top referrers for a short URL",
+            description = "Returns the hosts that sent the most clicks to a given short code, with approximate counts. Users can only access analytics for URLs they own."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Referrers retrieved successfully",
+                    content = @Content(array = @ArraySchema(schema = @Schema(implementation = ReferrerResponse.class)))
+            ),
+            @ApiResponse(
+                    responseCode = "401",
+                    description = "Unauthorized - Authentication required",
+                    content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "403",
+                    description = "Forbidden - User does not own this URL",
+                    content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "Short URL not found",
+                    content = @Content
+            )
+    })
+    @PreAuthorize("hasAuthority('SCOPE_api.read')")
+    public ResponseEntity<List<ReferrerResponse>> getShortUrlReferrers(
+            @Parameter(description = "The short code to get referrers for", required = true)
+            @PathVariable String shortCode
+    ) throws UrlNotFoundException {
+        UserPrincipal currentUser = authenticationService.getCurrentUser();
+
+        // Look up the URL and check that the current user owns it in one query
+        URL url = shortUrlService.findOwnedUrl(shortCode, currentUser);
+        if (url == null) {
+            return ResponseEntity.status(403).build(); // Forbidden
+        }
+
+        List<ReferrerResponse> response = referrerAnalyticsService.getTopReferrers(url).stream()
+                .map(this::convertToReferrerResponse)
+                .toList();
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/{shortCode}/destinations")
+    @Operation(
+            operationId = "04_getShortUrlDestinations",
+            summary = "Get destinations of a weighted short URL",
+            description = "Returns the weighted destinations of a given short code with the number of redirects each one received. Short URLs without destinations return an empty list. Users can only access analytics for URLs they own."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Destinations retrieved successfully",
+                    content = @Content(array = @ArraySchema(schema = @Schema(implementation = DestinationResponse.class)))
+            ),
+            @ApiResponse(
+                    responseCode = "401",
+                    description = "Unauthorized - Authentication required",
+                    content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "403",
+                    description = "Forbidden - User does not own this URL",
+                    content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "Short URL not found",
+                    content = @Content
+            )
+    })
+    @PreAuthorize("hasAuthority('SCOPE_api.read')")
+    public ResponseEntity<List<DestinationResponse>> getShortUrlDestinations(
+            @Parameter(description = "The short code to get destinations for", required = true)
+            @PathVariable String shortCode
+    ) throws UrlNotFoundException {
+        UserPrincipal currentUser = authenticationService.getCurrentUser();
 
-        // Check if the current user owns this URL
-        if (!shortUrlService.isUrlOwner(shortCode, currentUser)) {
+        // Look up the URL and check that the current user owns it in one query
+        URL url = shortUrlService.findOwnedUrl(shortCode, currentUser);
+        if (url == null) {
             return ResponseEntity.status(403).build(); // Forbidden
         }
 
-        Page<Click> clicks = clickAnalyticsService.getClicksForUrl(url, pageNumber, pageSize, sortOrder);
-        return ResponseEntity.ok(clicks.map(this::convertToClickResponse));
+        List<DestinationResponse> response = destinationService.getDestinations(url).stream()
+                .map(this::convertToDestinationResponse)
+                .toList();
+        return ResponseEntity.ok(response);
     }
 
     /**
-     * Converts a Click entity to a ClickResponse DTO.
+     * Converts a click projection to a ClickResponse DTO.
      *
-     * @param click the Click entity to convert
+     * @param click the click projection to convert
+     * @param url the URL the click belongs to
      * @return the converted ClickResponse DTO
      */
-    private ClickResponse convertToClickResponse(Click click) {
+    private ClickResponse convertToClickResponse(ClickRepository.ClickView click, URL url) {
         ClickResponse response = new ClickResponse();
         response.setId(click.getId());
-        response.setShortCode(click.getUrl().getShortCode());
-        response.setOriginalUrl(click.getUrl().getOriginalUrl());
+        response.setShortCode(url.getShortCode());
+        response.setOriginalUrl(url.getOriginalUrl());
         response.setClickedAt(click.getClickedAt());
         response.setUserAgent(click.getUserAgent());
+        response.setReferrer(click.getReferrer());
+        response.setSampleRate(click.getSampleRate() != null ? click.getSampleRate() : 1);
+        return response;
+    }
+
+    /**
+     * Converts a UrlReferrer entity to a ReferrerResponse DTO.
+     *
+     * @param referrer the UrlReferrer entity to convert
+     * @return the converted ReferrerResponse DTO
+     */
+    private ReferrerResponse convertToReferrerResponse(UrlReferrer referrer) {
+        ReferrerResponse response = new ReferrerResponse();
+        response.setHost(referrer.getHost());
+        response.setClicks(referrer.getClicks());
+        response.setMaxError(referrer.getError());
+        return response;
+    }
+
+    /**
+     * Converts a UrlDestination entity to a DestinationResponse DTO.
+     *
+     * @param destination the UrlDestination entity to convert
+     * @return the converted DestinationResponse DTO
+     */
+    private DestinationResponse convertToDestinationResponse(UrlDestination destination) {
+        DestinationResponse response = new DestinationResponse();
+        response.setUrl(destination.getDestinationUrl());
+        response.setWeight(destination.getWeight());
+        response.setClicks(destination.getClicks());
         return response;
     }
 
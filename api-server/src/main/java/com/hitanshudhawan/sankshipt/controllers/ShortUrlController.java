@@ -1,25 +1,51 @@
 package com.hitanshudhawan.sankshipt.controllers;
 
+import com.hitanshudhawan.sankshipt.dtos.AliasAvailabilityResponse;
+import com.hitanshudhawan.sankshipt.dtos.CreateShortUrlBatchRequest;
+import com.hitanshudhawan.sankshipt.dtos.CreateShortUrlBatchResponse;
 import com.hitanshudhawan.sankshipt.dtos.CreateShortUrlRequest;
 import com.hitanshudhawan.sankshipt.dtos.DeleteShortUrlRequest;
+import com.hitanshudhawan.sankshipt.dtos.DestinationRequest;
+import com.hitanshudhawan.sankshipt.dtos.ShortUrlBatchItemResponse;
+import com.hitanshudhawan.sankshipt.dtos.ShortUrlPageResponse;
 import com.hitanshudhawan.sankshipt.dtos.ShortUrlResponse;
+import com.hitanshudhawan.sankshipt.exceptions.AliasUnavailableException;
+import com.hitanshudhawan.sankshipt.exceptions.IdempotencyKeyMismatchException;
 import com.hitanshudhawan.sankshipt.exceptions.UrlNotFoundException;
 import com.hitanshudhawan.sankshipt.models.URL;
-import com.hitanshudhawan.sankshipt.models.User;
+import com.hitanshudhawan.sankshipt.models.UrlDestination;
+import com.hitanshudhawan.sankshipt.models.UserPrincipal;
+import com.hitanshudhawan.sankshipt.repositories.ShortUrlRepository;
+import com.hitanshudhawan.sankshipt.services.AliasService;
 import com.hitanshudhawan.sankshipt.services.AuthenticationService;
+import com.hitanshudhawan.sankshipt.services.ClickAnalyticsService;
+import com.hitanshudhawan.sankshipt.services.IdempotencyService;
+import com.hitanshudhawan.sankshipt.services.QrCodeService;
 import com.hitanshudhawan.sankshipt.services.ShortUrlService;
+import com.hitanshudhawan.sankshipt.services.UrlSearchService;
+import com.hitanshudhawan.sankshipt.utils.AliasValidator;
+import com.hitanshudhawan.sankshipt.utils.EntityTags;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @RestController
@@ -27,22 +53,53 @@ import java.util.stream.Collectors;
 @Tag(name = "1. URL Management", description = "API for creating and managing short URLs")
 public class ShortUrlController {
 
+    // Keys are stored in a VARCHAR(255) column
+    private static final int MAX_IDEMPOTENCY_KEY_LENGTH = 255;
+
+    // Smallest size that still fits a short link at one pixel per module, and a print-friendly upper bound
+    private static final int MIN_QR_SIZE = 64;
+    private static final int MAX_QR_SIZE = 2048;
+
+    // Listings are paged so that users with many links never load them all at once
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 200;
+
+    // Search results are a short list to pick from, not a way to page through every link
+    private static final int DEFAULT_SEARCH_LIMIT = 20;
+    private static final int MAX_SEARCH_LIMIT = 100;
+    private static final int MAX_SEARCH_QUERY_LENGTH = 200;
+
     private final ShortUrlService shortUrlService;
+    private final ClickAnalyticsService clickAnalyticsService;
+    private final AliasService aliasService;
+    private final IdempotencyService idempotencyService;
+    private final QrCodeService qrCodeService;
     private final AuthenticationService authenticationService;
+    private final UrlSearchService urlSearchService;
 
     public ShortUrlController(
             ShortUrlService shortUrlService,
-            AuthenticationService authenticationService
+            ClickAnalyticsService clickAnalyticsService,
+            AliasService aliasService,
+            IdempotencyService idempotencyService,
+            QrCodeService qrCodeService,
+            AuthenticationService authenticationService,
+            UrlSearchService urlSearchService
     ) {
         this.shortUrlService = shortUrlService;
+        this.clickAnalyticsService = clickAnalyticsService;
+        this.aliasService = aliasService;
+        this.idempotencyService = idempotencyService;
+        this.qrCodeService = qrCodeService;
         this.authenticationService = authenticationService;
+        this.urlSearchService = urlSearchService;
     }
 
     @PostMapping
     @Operation(
             operationId = "01_createShortUrl",
             summary = "Create a new short URL",
-            description = "Creates a short URL mapping for the provided original URL. The URL will be owned by the authenticated user."
+            description = "Creates a short URL mapping for the provided original URL. The URL will be owned by the authenticated user. With 'customAlias', the alias is used as the short code. With 'expiresAt' or 'maxClicks', the short URL stops redirecting once the time passes or the clicks are used up. With 'destinations', redirects are split between several addresses by weight. Without any of these, 'deduplicate' returns the user's existing short URL for the same address instead. Requests retried with the same 'Idempotency-Key' header return the first result without creating another short URL."
     )
     @ApiResponses(value = {
             @ApiResponse(
@@ -59,6 +116,16 @@ public class ShortUrlController {
                     responseCode = "401",
                     description = "Unauthorized - Authentication required",
                     content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "409",
+                    description = "Conflict - Custom alias is already taken",
+                    content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "422",
+                    description = "Unprocessable Entity - Idempotency key was already used for a different request",
+                    content = @Content
             )
     })
     @PreAuthorize("hasAuthority('SCOPE_api.write')")
@@ -68,33 +135,243 @@ public class ShortUrlController {
                     required = true,
                     content = @Content(schema = @Schema(implementation = CreateShortUrlRequest.class))
             )
-            @RequestBody @Valid CreateShortUrlRequest createShortUrlRequest
-    ) {
-        String originalUrl = createShortUrlRequest.getOriginalUrl();
-        User currentUser = authenticationService.getCurrentUser();
+            @RequestBody @Valid CreateShortUrlRequest createShortUrlRequest,
+            @Parameter(description = "Client-chosen key of up to " + MAX_IDEMPOTENCY_KEY_LENGTH + " characters; retries with the same key return the first result", example = "4f6c1a52-8d2e-4e0b-9a51-0c1f7f3b2d9e")
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey
+    ) throws AliasUnavailableException, IdempotencyKeyMismatchException, UrlNotFoundException {
+        String customAlias = createShortUrlRequest.getCustomAlias();
+        if (customAlias != null && AliasValidator.validate(customAlias) != null) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (idempotencyKey != null && (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_IDEMPOTENCY_KEY_LENGTH)) {
+            return ResponseEntity.badRequest().build();
+        }
+        UserPrincipal currentUser = authenticationService.getCurrentUser();
 
-        // Create a new short URL mapping with user ownership
-        URL createdUrl = shortUrlService.createShortUrl(originalUrl, currentUser);
+        // Create a new short URL mapping with user ownership, at most once per idempotency key
+        URL createdUrl;
+        if (idempotencyKey != null) {
+            createdUrl = idempotencyService.createOnce(idempotencyKey, idempotencyFingerprint(createShortUrlRequest), currentUser,
+                    () -> createUrl(createShortUrlRequest, currentUser));
+        } else {
+            createdUrl = createUrl(createShortUrlRequest, currentUser);
+        }
 
         // Prepare response with the created URL information
         ShortUrlResponse response = new ShortUrlResponse();
         response.setOriginalUrl(createdUrl.getOriginalUrl());
         response.setShortCode(createdUrl.getShortCode());
+        response.setExpiresAt(createdUrl.getExpiresAt());
+        response.setMaxClicks(createdUrl.getMaxClicks());
 
         return ResponseEntity.ok(response);
     }
 
+    @PostMapping("/batch")
+    @Operation(
+            operationId = "04_createShortUrlBatch",
+            summary = "Create many short URLs at once",
+            description = "Creates short URL mappings for up to " + CreateShortUrlBatchRequest.MAX_BATCH_SIZE + " original URLs in one call, owned by the authenticated user. Blank URLs are reported as failed items; all other URLs are created together in a single transaction."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Batch processed; see the per-item results",
+                    content = @Content(schema = @Schema(implementation = CreateShortUrlBatchResponse.class))
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Bad Request - Empty or oversized batch",
+                    content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "401",
+                    description = "Unauthorized - Authentication required",
+                    content = @Content
+            )
+    })
+    @PreAuthorize("hasAuthority('SCOPE_api.write')")
+    public ResponseEntity<CreateShortUrlBatchResponse> createShortUrlBatch(
+            @io.swagger.v3.oas.annotations.parameters.RequestBody(
+                    description = "Request containing the original URLs to be shortened",
+                    required = true,
+                    content = @Content(schema = @Schema(implementation = CreateShortUrlBatchRequest.class))
+            )
+            @RequestBody @Valid CreateShortUrlBatchRequest createShortUrlBatchRequest
+    ) {
+        List<String> originalUrls = createShortUrlBatchRequest.getOriginalUrls();
+        UserPrincipal currentUser = authenticationService.getCurrentUser();
+
+        // Reject invalid items individually instead of failing the whole batch
+        List<ShortUrlBatchItemResponse> results = new ArrayList<>(originalUrls.size());
+        List<ShortUrlBatchItemResponse> accepted = new ArrayList<>(originalUrls.size());
+        List<String> acceptedUrls = new ArrayList<>(originalUrls.size());
+        for (int i = 0; i < originalUrls.size(); i++) {
+            String originalUrl = originalUrls.get(i);
+
+            ShortUrlBatchItemResponse result = new ShortUrlBatchItemResponse();
+            result.setIndex(i);
+            result.setOriginalUrl(originalUrl);
+            results.add(result);
+
+            if (originalUrl == null || originalUrl.isBlank()) {
+                result.setError("Original URL cannot be blank");
+            } else {
+                accepted.add(result);
+                acceptedUrls.add(originalUrl);
+            }
+        }
+
+        // Create all valid URLs together
+        if (!acceptedUrls.isEmpty()) {
+            boolean deduplicate = Boolean.TRUE.equals(createShortUrlBatchRequest.getDeduplicate());
+            List<URL> createdUrls = shortUrlService.createShortUrls(acceptedUrls, currentUser, deduplicate);
+            for (int i = 0; i < createdUrls.size(); i++) {
+                accepted.get(i).setShortCode(createdUrls.get(i).getShortCode());
+            }
+        }
+
+        CreateShortUrlBatchResponse response = new CreateShortUrlBatchResponse();
+        response.setCreated(acceptedUrls.size());
+        response.setFailed(originalUrls.size() - acceptedUrls.size());
+        response.setResults(results);
+
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/aliases/{alias}")
+    @Operation(
+            operationId = "07_checkAliasAvailability",
+            summary = "Check whether a custom alias is available",
+            description = "Reports whether the alias is valid and not yet used by any short URL. Meant to be called as the user types, so it usually answers from memory without a database query."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Availability checked",
+                    content = @Content(schema = @Schema(implementation = AliasAvailabilityResponse.class))
+            ),
+            @ApiResponse(
+                    responseCode = "401",
+                    description = "Unauthorized - Authentication required",
+                    content = @Content
+            )
+    })
+    @PreAuthorize("hasAuthority('SCOPE_api.read')")
+    public ResponseEntity<AliasAvailabilityResponse> checkAliasAvailability(
+            @Parameter(description = "The custom alias to check", required = true, example = "summer-sale")
+            @PathVariable("alias") String alias
+    ) {
+        AliasAvailabilityResponse response = new AliasAvailabilityResponse();
+        response.setAlias(alias);
+
+        String invalidReason = AliasValidator.validate(alias);
+        if (invalidReason != null) {
+            response.setAvailable(false);
+            response.setReason(invalidReason);
+        } else if (aliasService.isAliasTaken(alias)) {
+            response.setAvailable(false);
+            response.setReason("Alias is already taken");
+        } else {
+            response.setAvailable(true);
+        }
+
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/{shortCode}/qr")
+    @Operation(
+            operationId = "08_getShortUrlQrCode",
+            summary = "Get a QR code for a short URL",
+            description = "Renders a QR code that opens the short URL, as a PNG or SVG image of the requested size. Images are cached in memory and carry a strong ETag, so clients that send 'If-None-Match' get 304 Not Modified instead of the image. Users can only get QR codes for URLs they own."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "QR code rendered successfully",
+                    content = {
+                            @Content(mediaType = "image/png"),
+                            @Content(mediaType = "image/svg+xml")
+                    }
+            ),
+            @ApiResponse(
+                    responseCode = "304",
+                    description = "Not Modified - The cached image is still current",
+                    content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Bad Request - Unsupported size or format",
+                    content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "401",
+                    description = "Unauthorized - Authentication required",
+                    content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "403",
+                    description = "Forbidden - User does not own this URL",
+                    content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "Short URL not found",
+                    content = @Content
+            )
+    })
+    @PreAuthorize("hasAuthority('SCOPE_api.read')")
+    public ResponseEntity<byte[]> getShortUrlQrCode(
+            @Parameter(description = "The short code to render a QR code for", required = true, example = "abc123")
+            @PathVariable("shortCode") String shortCode,
+            @Parameter(description = "Width and height of the image in pixels, between " + MIN_QR_SIZE + " and " + MAX_QR_SIZE, example = "256")
+            @RequestParam(value = "size", defaultValue = "256") int size,
+            @Parameter(description = "Image format: png or svg", example = "png")
+            @RequestParam(value = "format", defaultValue = "png") String format,
+            @Parameter(description = "ETag of a previously returned image", example = "\"5d41402abc4b2a76b9719d911017c592\"")
+            @RequestHeader(value = "If-None-Match", required = false) String ifNoneMatch
+    ) throws UrlNotFoundException {
+        QrCodeService.Format imageFormat = parseQrFormat(format);
+        if (imageFormat == null || size < MIN_QR_SIZE || size > MAX_QR_SIZE) {
+            return ResponseEntity.badRequest().build();
+        }
+        UserPrincipal currentUser = authenticationService.getCurrentUser();
+        // Check that the URL exists and the current user owns it
+        if (shortUrlService.findOwnedUrl(shortCode, currentUser) == null) {
+            return ResponseEntity.status(403).build(); // Forbidden
+        }
+        QrCodeService.QrCode qrCode = qrCodeService.render(shortCode, size, imageFormat);
+        if (EntityTags.matches(ifNoneMatch, qrCode.etag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(qrCode.etag()).build();
+        }
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(imageFormat.getContentType()))
+                .eTag(qrCode.etag())
+                .cacheControl(CacheControl.maxAge(Duration.ofDays(1)).cachePrivate())
+                .body(qrCode.content());
+    }
+
     @GetMapping
     @Operation(
             operationId = "02_getShortUrlsForUser",
-            summary = "Get all short URLs for the current user",
-            description = "Returns a list of all short URLs owned by the authenticated user."
+            summary = "Get the short URLs of the current user",
+            description = "Returns one page of the short URLs owned by the authenticated user, newest first. Pass the returned nextCursor to get the following page. With includeClicks, each short URL also carries its click total and last click time. Responses carry a strong ETag that changes when the user's short URLs or their click totals change, so clients that send 'If-None-Match' get 304 Not Modified instead of the page."
     )
     @ApiResponses(value = {
             @ApiResponse(
                     responseCode = "200",
                     description = "Short URLs retrieved successfully",
-                    content = @Content(schema = @Schema(implementation = ShortUrlResponse.class))
+                    content = @Content(schema = @Schema(implementation = ShortUrlPageResponse.class))
+            ),
+            @ApiResponse(
+                    responseCode = "304",
+                    description = "Not Modified - The short URLs have not changed",
+                    content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Bad request - Invalid cursor or limit",
+                    content = @Content
             ),
             @ApiResponse(
                     responseCode = "401",
@@ -103,20 +380,97 @@ public class ShortUrlController {
             )
     })
     @PreAuthorize("hasAuthority('SCOPE_api.read')")
-    public ResponseEntity<List<ShortUrlResponse>> getShortUrlsForUser() {
-        User currentUser = authenticationService.getCurrentUser();
-        List<URL> urls = shortUrlService.getUrlsForUser(currentUser);
+    public ResponseEntity<ShortUrlPageResponse> getShortUrlsForUser(
+            @Parameter(description = "Cursor returned with the previous page; omit for the first page")
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @Parameter(description = "Maximum number of short URLs per page, up to " + MAX_PAGE_SIZE)
+            @RequestParam(value = "limit", defaultValue = "" + DEFAULT_PAGE_SIZE) int limit,
+            @Parameter(description = "Whether to include the click total and last click time of each short URL")
+            @RequestParam(value = "includeClicks", defaultValue = "false") boolean includeClicks,
+            @Parameter(description = "ETag of a previously returned page", example = "\"42-7\"")
+            @RequestHeader(value = "If-None-Match", required = false) String ifNoneMatch
+    ) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            return ResponseEntity.badRequest().build();
+        }
+        UserPrincipal currentUser = authenticationService.getCurrentUser();
+
+        // Read before the listing, so a change made meanwhile can only make the tag older than the page
+        String etag = EntityTags.of(currentUser.id(), shortUrlService.getUrlsVersion(currentUser));
+        if (EntityTags.matches(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
 
-        List<ShortUrlResponse> response = urls.stream()
+        ShortUrlService.UrlPage page;
+        try {
+            page = shortUrlService.getUrlsForUser(currentUser, cursor, limit);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        // Totals for the whole page come from one query on the rolled-up counters
+        Map<Long, ClickAnalyticsService.ClickTotals> clickTotals = includeClicks
+                ? clickAnalyticsService.getClickTotals(page.urls().stream().map(ShortUrlRepository.UrlSummary::getId).toList())
+                : Map.of();
+
+        List<ShortUrlResponse> urls = page.urls().stream()
                 .map(url -> {
-                    ShortUrlResponse shortUrlResponse = new ShortUrlResponse();
-                    shortUrlResponse.setOriginalUrl(url.getOriginalUrl());
-                    shortUrlResponse.setShortCode(url.getShortCode());
+                    ShortUrlResponse shortUrlResponse = toShortUrlResponse(url);
+                    if (includeClicks) {
+                        ClickAnalyticsService.ClickTotals totals = clickTotals.get(url.getId());
+                        shortUrlResponse.setTotalClicks(totals != null ? totals.totalClicks() : 0L);
+                        shortUrlResponse.setLastClickedAt(totals != null ? totals.lastClickedAt() : null);
+                    }
                     return shortUrlResponse;
                 })
                 .collect(Collectors.toList());
 
-        return ResponseEntity.ok(response);
+        ShortUrlPageResponse response = new ShortUrlPageResponse();
+        response.setUrls(urls);
+        response.setNextCursor(page.nextCursor());
+        return ResponseEntity.ok().eTag(etag).body(response);
+    }
+
+    @GetMapping("/search")
+    @Operation(
+            operationId = "09_searchShortUrls",
+            summary = "Search the short URLs of the current user",
+            description = "Returns the short URLs owned by the authenticated user whose short code or original URL contains the query, ignoring case, newest first. Searches are answered from an in-memory index of the user's short URLs, built on the first search and kept while the user keeps searching."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Search completed successfully",
+                    content = @Content(schema = @Schema(implementation = ShortUrlResponse.class))
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Bad request - Empty or too long query, or invalid limit",
+                    content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "401",
+                    description = "Unauthorized - Authentication required",
+                    content = @Content
+            )
+    })
+    @PreAuthorize("hasAuthority('SCOPE_api.read')")
+    public ResponseEntity<List<ShortUrlResponse>> searchShortUrls(
+            @Parameter(description = "Text to look for in the short code or original URL, up to " + MAX_SEARCH_QUERY_LENGTH + " characters", required = true, example = "example.com")
+            @RequestParam("q") String query,
+            @Parameter(description = "Maximum number of short URLs to return, up to " + MAX_SEARCH_LIMIT)
+            @RequestParam(value = "limit", defaultValue = "" + DEFAULT_SEARCH_LIMIT) int limit
+    ) {
+        String trimmedQuery = query.trim();
+        if (trimmedQuery.isEmpty() || trimmedQuery.length() > MAX_SEARCH_QUERY_LENGTH || limit < 1 || limit > MAX_SEARCH_LIMIT) {
+            return ResponseEntity.badRequest().build();
+        }
+        UserPrincipal currentUser = authenticationService.getCurrentUser();
+
+        List<ShortUrlResponse> urls = urlSearchService.search(currentUser, trimmedQuery, limit).stream()
+                .map(ShortUrlController::toShortUrlResponse)
+                .collect(Collectors.toList());
+        return ResponseEntity.ok(urls);
     }
 
     @DeleteMapping
@@ -162,25 +516,78 @@ public class ShortUrlController {
             @RequestBody @Valid DeleteShortUrlRequest deleteShortUrlRequest
     ) throws UrlNotFoundException {
         String shortCode = deleteShortUrlRequest.getShortCode();
-        User currentUser = authenticationService.getCurrentUser();
+        UserPrincipal currentUser = authenticationService.getCurrentUser();
 
-        // First, get the URL details before deletion for the response
-        URL urlToDelete = shortUrlService.resolveShortCode(shortCode);
-
-        // Check if the current user owns this URL
-        if (!shortUrlService.isUrlOwner(shortCode, currentUser)) {
+        // Delete the URL if the current user owns it, with a single lookup
+        URL deletedUrl = shortUrlService.deleteShortUrl(shortCode, currentUser);
+        if (deletedUrl == null) {
             return ResponseEntity.status(403).build(); // Forbidden
         }
 
-        // Delete the URL (this will verify ownership again)
-        shortUrlService.deleteShortUrl(shortCode, currentUser);
-
         // Prepare response with the deleted URL information
         ShortUrlResponse response = new ShortUrlResponse();
-        response.setOriginalUrl(urlToDelete.getOriginalUrl());
-        response.setShortCode(urlToDelete.getShortCode());
+        response.setOriginalUrl(deletedUrl.getOriginalUrl());
+        response.setShortCode(deletedUrl.getShortCode());
 
         return ResponseEntity.ok(response);
     }
 
+    private static ShortUrlResponse toShortUrlResponse(ShortUrlRepository.UrlSummary url) {
+        ShortUrlResponse shortUrlResponse = new ShortUrlResponse();
+        shortUrlResponse.setOriginalUrl(url.getOriginalUrl());
+        shortUrlResponse.setShortCode(url.getShortCode());
+        shortUrlResponse.setExpiresAt(url.getExpiresAt());
+        shortUrlResponse.setMaxClicks(url.getMaxClicks());
+        return shortUrlResponse;
+    }
+
+    private static QrCodeService.Format parseQrFormat(String format) {
+        try {
+            return QrCodeService.Format.valueOf(format.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private URL createUrl(CreateShortUrlRequest createShortUrlRequest, UserPrincipal user) throws AliasUnavailableException {
+        String originalUrl = createShortUrlRequest.getOriginalUrl();
+        String customAlias = createShortUrlRequest.getCustomAlias();
+        Date expiresAt = createShortUrlRequest.getExpiresAt();
+        Long maxClicks = createShortUrlRequest.getMaxClicks();
+        List<UrlDestination> destinations = toDestinations(createShortUrlRequest.getDestinations());
+        if (customAlias != null || expiresAt != null || maxClicks != null || destinations != null) {
+            return shortUrlService.createCustomShortUrl(originalUrl, customAlias, expiresAt, maxClicks, destinations, user);
+        }
+        boolean deduplicate = Boolean.TRUE.equals(createShortUrlRequest.getDeduplicate());
+        return shortUrlService.createShortUrl(originalUrl, user, deduplicate);
+    }
+
+    /**
+     * Describes every field that affects the result, so a reused key with a different body can be detected.
+     */
+    private static String idempotencyFingerprint(CreateShortUrlRequest createShortUrlRequest) {
+        Date expiresAt = createShortUrlRequest.getExpiresAt();
+        return String.join("\n",
+                createShortUrlRequest.getOriginalUrl(),
+                String.valueOf(createShortUrlRequest.getCustomAlias()),
+                expiresAt == null ? "null" : String.valueOf(expiresAt.getTime()),
+                String.valueOf(createShortUrlRequest.getMaxClicks()),
+                String.valueOf(Boolean.TRUE.equals(createShortUrlRequest.getDeduplicate())),
+                String.valueOf(createShortUrlRequest.getDestinations()));
+    }
+
+    private static List<UrlDestination> toDestinations(List<DestinationRequest> destinationRequests) {
+        if (destinationRequests == null || destinationRequests.isEmpty()) {
+            return null;
+        }
+        List<UrlDestination> destinations = new ArrayList<>(destinationRequests.size());
+        for (DestinationRequest destinationRequest : destinationRequests) {
+            UrlDestination destination = new UrlDestination();
+            destination.setDestinationUrl(destinationRequest.getUrl());
+            destination.setWeight(destinationRequest.getWeight());
+            destinations.add(destination);
+        }
+        return destinations;
+    }
+
 }
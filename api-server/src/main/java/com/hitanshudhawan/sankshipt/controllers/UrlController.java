@@ -3,6 +3,7 @@ package com.hitanshudhawan.sankshipt.controllers;
 import com.hitanshudhawan.sankshipt.exceptions.UrlNotFoundException;
 import com.hitanshudhawan.sankshipt.models.URL;
 import com.hitanshudhawan.sankshipt.services.ClickAnalyticsService;
+import com.hitanshudhawan.sankshipt.services.DestinationService;
 import com.hitanshudhawan.sankshipt.services.ShortUrlService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -11,6 +12,9 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -22,13 +26,16 @@ import org.springframework.web.servlet.view.RedirectView;
 public class UrlController {
 
     private final ShortUrlService shortUrlService;
+    private final DestinationService destinationService;
     private final ClickAnalyticsService clickAnalyticsService;
 
     public UrlController(
             ShortUrlService shortUrlService,
+            DestinationService destinationService,
             ClickAnalyticsService clickAnalyticsService
     ) {
         this.shortUrlService = shortUrlService;
+        this.destinationService = destinationService;
         this.clickAnalyticsService = clickAnalyticsService;
     }
 
@@ -36,27 +43,39 @@ public class UrlController {
     @Operation(
             operationId = "redirectToUrl",
             summary = "Redirect to original URL",
-            description = "Redirects to the original URL associated with the given short code and records the click for analytics"
+            description = "Redirects to the original URL associated with the given short code and records the click for analytics. Short URLs with weighted destinations redirect to one of them, chosen by weight."
     )
     @ApiResponses(value = {
             @ApiResponse(
-                    responseCode = "301",
-                    description = "Permanent redirect to the original URL",
+                    responseCode = "302",
+                    description = "Temporary redirect to the original URL, or to a destination chosen by weight",
                     content = @Content
             ),
             @ApiResponse(
                     responseCode = "404",
                     description = "Short URL not found",
                     content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "410",
+                    description = "Short URL has expired or reached its click limit",
+                    content = @Content
             )
     })
     public RedirectView redirectToUrl(
             @Parameter(description = "The short code to redirect", required = true)
             @PathVariable String shortCode,
-            HttpServletRequest request
+            HttpServletRequest request,
+            HttpServletResponse response
     ) throws UrlNotFoundException {
         URL url = shortUrlService.resolveShortCode(shortCode);
 
+        // Count the redirect against the click limit before sending the visitor on
+        shortUrlService.recordRedirect(url);
+
+        // Pick the target up front, so an analytics failure cannot change it
+        String destination = destinationService.selectDestination(url);
+
         // Record the click for analytics
         try {
             clickAnalyticsService.recordClick(url, request);
@@ -64,9 +83,12 @@ public class UrlController {
             // Don't fail the redirect if analytics recording fails
         }
 
+        // A temporary redirect, since browsers cache permanent ones and would skip the weighted pick and the click count;
+        // no-store keeps caches from replaying it after the link expires, runs out of clicks or is deleted
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noStore().getHeaderValue());
         RedirectView redirectView = new RedirectView();
-        redirectView.setStatusCode(HttpStatus.MOVED_PERMANENTLY);
-        redirectView.setUrl(url.getOriginalUrl());
+        redirectView.setStatusCode(HttpStatus.FOUND);
+        redirectView.setUrl(destination);
         return redirectView;
     }
 
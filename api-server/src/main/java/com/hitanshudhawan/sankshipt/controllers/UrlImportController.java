@@ -0,0 +1,192 @@
+package com.hitanshudhawan.sankshipt.controllers;
+
+import com.hitanshudhawan.sankshipt.dtos.ImportErrorResponse;
+import com.hitanshudhawan.sankshipt.dtos.ImportJobResponse;
+import com.hitanshudhawan.sankshipt.exceptions.ImportJobNotFoundException;
+import com.hitanshudhawan.sankshipt.models.ImportJob;
+import com.hitanshudhawan.sankshipt.models.ImportJobError;
+import com.hitanshudhawan.sankshipt.models.UserPrincipal;
+import com.hitanshudhawan.sankshipt.services.AuthenticationService;
+import com.hitanshudhawan.sankshipt.services.ImportJobService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+@RestController
+@RequestMapping("/api/urls/imports")
+@Tag(name = "1. URL Management", description = "API for creating and managing short URLs")
+public class UrlImportController {
+
+    private final ImportJobService importJobService;
+    private final AuthenticationService authenticationService;
+
+    public UrlImportController(
+            ImportJobService importJobService,
+            AuthenticationService authenticationService
+    ) {
+        this.importJobService = importJobService;
+        this.authenticationService = authenticationService;
+    }
+
+    @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @Operation(
+            operationId = "05_createImportJob",
+            summary = "Import short URLs from a file",
+            description = "Starts a background job that creates a short URL for every line of an uploaded CSV (URL in the first column) or NDJSON file (one {\"originalUrl\": ...} object per line). The format is taken from the 'format' parameter or the file extension (.csv, .ndjson, .jsonl). Poll GET /api/urls/imports/{id} for progress."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "202",
+                    description = "Import job accepted",
+                    content = @Content(schema = @Schema(implementation = ImportJobResponse.class))
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Bad Request - Empty file or unknown format",
+                    content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "401",
+                    description = "Unauthorized - Authentication required",
+                    content = @Content
+            )
+    })
+    @PreAuthorize("hasAuthority('SCOPE_api.write')")
+    public ResponseEntity<ImportJobResponse> createImportJob(
+            @Parameter(description = "The CSV or NDJSON file to import", required = true)
+            @RequestParam("file") MultipartFile file,
+
+            @Parameter(description = "Format of the file: CSV or NDJSON. Inferred from the file extension when omitted", example = "CSV")
+            @RequestParam(value = "format", required = false) String format,
+
+            @Parameter(description = "Reuse the user's existing short URLs for the same addresses", example = "false")
+            @RequestParam(value = "deduplicate", defaultValue = "false") boolean deduplicate
+    ) throws IOException {
+        if (file.isEmpty()) {
+            return ResponseEntity.badRequest().build();
+        }
+        ImportJob.Format importFormat = resolveFormat(format, file.getOriginalFilename());
+        if (importFormat == null) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        UserPrincipal currentUser = authenticationService.getCurrentUser();
+        // Moving the spooled multipart file is cheap; the import executor reads it from there once the request is done
+        Path upload = Files.createTempFile("sankshipt-import-", ".upload");
+        try {
+            file.transferTo(upload.toFile());
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(upload);
+            throw e;
+        }
+        ImportJob importJob = importJobService.createImportJob(upload, file.getOriginalFilename(), importFormat, deduplicate, currentUser);
+
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(toResponse(importJob, List.of()));
+    }
+
+    @GetMapping("/{id}")
+    @Operation(
+            operationId = "06_getImportJob",
+            summary = "Get the progress of an import job",
+            description = "Returns the state, counters and first line errors of an import job. Users can only see their own import jobs."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Import job retrieved successfully",
+                    content = @Content(schema = @Schema(implementation = ImportJobResponse.class))
+            ),
+            @ApiResponse(
+                    responseCode = "401",
+                    description = "Unauthorized - Authentication required",
+                    content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "403",
+                    description = "Forbidden - User does not own this import job",
+                    content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "Import job not found",
+                    content = @Content
+            )
+    })
+    @PreAuthorize("hasAuthority('SCOPE_api.read')")
+    public ResponseEntity<ImportJobResponse> getImportJob(
+            @Parameter(description = "The id of the import job", required = true, example = "1")
+            @PathVariable("id") Long id
+    ) throws ImportJobNotFoundException {
+        ImportJob importJob = importJobService.getImportJob(id);
+        UserPrincipal currentUser = authenticationService.getCurrentUser();
+
+        // Check if the current user started this import job
+        if (!importJobService.isImportJobOwner(importJob, currentUser)) {
+            return ResponseEntity.status(403).build(); // Forbidden
+        }
+
+        return ResponseEntity.ok(toResponse(importJob, importJobService.getImportJobErrors(importJob)));
+    }
+
+    private ImportJob.Format resolveFormat(String format, String fileName) {
+        if (format != null) {
+            try {
+                return ImportJob.Format.valueOf(format.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                return null;
+            }
+        }
+        if (fileName == null) {
+            return null;
+        }
+        String lowerCaseName = fileName.toLowerCase(Locale.ROOT);
+        if (lowerCaseName.endsWith(".csv")) {
+            return ImportJob.Format.CSV;
+        }
+        if (lowerCaseName.endsWith(".ndjson") || lowerCaseName.endsWith(".jsonl")) {
+            return ImportJob.Format.NDJSON;
+        }
+        return null;
+    }
+
+    private ImportJobResponse toResponse(ImportJob importJob, List<ImportJobError> errors) {
+        ImportJobResponse response = new ImportJobResponse();
+        response.setId(importJob.getId());
+        response.setStatus(importJob.getStatus().name());
+        response.setFormat(importJob.getFormat().name());
+        response.setFileName(importJob.getFileName());
+        response.setLinesRead(importJob.getLinesRead());
+        response.setCreatedUrls(importJob.getCreatedUrls());
+        response.setFailedRows(importJob.getFailedRows());
+        response.setFailureReason(importJob.getFailureReason());
+        response.setErrors(errors.stream()
+                .map(error -> {
+                    ImportErrorResponse errorResponse = new ImportErrorResponse();
+                    errorResponse.setLineNumber(error.getLineNumber());
+                    errorResponse.setMessage(error.getMessage());
+                    return errorResponse;
+                })
+                .collect(Collectors.toList()));
+        response.setCreatedAt(importJob.getCreatedAt());
+        response.setUpdatedAt(importJob.getUpdatedAt());
+        return response;
+    }
+
+}
@@ -0,0 +1,34 @@
+package com.hitanshudhawan.sankshipt.dtos;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+/**
+ * Data Transfer Object (DTO) for alias availability checks.
+ * <p>
+ * This response is returned by:
+ * - GET /api/urls/aliases/{alias} (when checking a custom alias while the user types it)
+ */
+@Data
+@Schema(description = "Whether a custom alias can be used for a new short URL")
+public class AliasAvailabilityResponse {
+
+    /**
+     * The alias that was checked.
+     */
+    @Schema(description = "The alias that was checked", example = "summer-sale")
+    private String alias;
+
+    /**
+     * True if the alias is valid and not used by any short URL.
+     */
+    @Schema(description = "True if the alias is valid and not used by any short URL", example = "true")
+    private Boolean available;
+
+    /**
+     * Why the alias cannot be used, or null if it is available.
+     */
+    @Schema(description = "Why the alias cannot be used, or null if it is available", example = "Alias is already taken")
+    private String reason;
+
+}
@@ -0,0 +1,40 @@
+package com.hitanshudhawan.sankshipt.dtos;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+/**
+ * Data Transfer Object (DTO) for click count responses.
+ * <p>
+ * This response is returned by:
+ * - GET /api/analytics/{shortCode}/count (when retrieving the click count of a short URL)
+ */
+@Data
+@Schema(description = "Response object containing the total and recent click counts of a short URL")
+public class ClickCountResponse {
+
+    /**
+     * Total number of clicks recorded for the short URL.
+     */
+    @Schema(description = "Total number of clicks recorded for the short URL", example = "1542")
+    private Long totalClicks;
+
+    /**
+     * Number of clicks in the last 5 minutes, as seen by the serving instance.
+     */
+    @Schema(description = "Number of clicks in the last 5 minutes", example = "12")
+    private Long clicksLastFiveMinutes;
+
+    /**
+     * Number of clicks in the last hour, as seen by the serving instance.
+     */
+    @Schema(description = "Number of clicks in the last hour", example = "87")
+    private Long clicksLastHour;
+
+    /**
+     * Number of clicks in the last 24 hours, as seen by the serving instance.
+     */
+    @Schema(description = "Number of clicks in the last 24 hours", example = "640")
+    private Long clicksLastDay;
+
+}
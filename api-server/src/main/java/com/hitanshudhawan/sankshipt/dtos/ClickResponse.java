@@ -52,4 +52,17 @@ public class ClickResponse {
     )
     private String userAgent;
 
+    /**
+     * Host of the page that linked to the short URL, if known.
+     */
+    @Schema(description = "Host of the page that linked to the short URL", example = "news.ycombinator.com")
+    private String referrer;
+
+    /**
+     * Number of clicks this record stands for.
+     * Greater than 1 when the URL was receiving too many clicks to store each one.
+     */
+    @Schema(description = "Number of clicks this record stands for (greater than 1 when clicks were sampled)", example = "1")
+    private Integer sampleRate;
+
 }
@@ -0,0 +1,48 @@
+package com.hitanshudhawan.sankshipt.dtos;
+
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object (DTO) for creating many short URLs at once.
+ * Used specifically for POST /api/urls/batch endpoint.
+ */
+@Data
+@Schema(description = "Request object for creating several short URLs in one call")
+public class CreateShortUrlBatchRequest {
+
+    /**
+     * Maximum number of URLs accepted in a single batch.
+     */
+    public static final int MAX_BATCH_SIZE = 1000;
+
+    /**
+     * The original long URLs to be shortened, in order.
+     * Blank entries do not fail the whole batch; they are reported as failed items in the response.
+     */
+    @NotEmpty(message = "At least one original URL is required")
+    @Size(max = MAX_BATCH_SIZE, message = "At most " + MAX_BATCH_SIZE + " URLs can be shortened in one batch")
+    @ArraySchema(
+            arraySchema = @Schema(description = "The original long URLs to be shortened", requiredMode = Schema.RequiredMode.REQUIRED),
+            schema = @Schema(example = "https://www.example.com/products/42"),
+            maxItems = MAX_BATCH_SIZE
+    )
+    private List<String> originalUrls;
+
+    /**
+     * Whether to reuse the user's existing short URLs for the same addresses, and to give
+     * repeated addresses within the batch a single short URL. Optional, defaults to false.
+     */
+    @Schema(
+            description = "Reuse existing short URLs for the same addresses instead of creating new ones",
+            example = "true",
+            defaultValue = "false"
+    )
+    private Boolean deduplicate;
+
+}
@@ -0,0 +1,36 @@
+package com.hitanshudhawan.sankshipt.dtos;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object (DTO) for batch short URL creation responses.
+ * <p>
+ * This response is returned by:
+ * - POST /api/urls/batch (when creating several short URLs at once)
+ */
+@Data
+@Schema(description = "Response object containing the per-item results of a batch")
+public class CreateShortUrlBatchResponse {
+
+    /**
+     * Number of items that received a short code, whether newly created or reused.
+     */
+    @Schema(description = "Number of items that received a short code", example = "998")
+    private Integer created;
+
+    /**
+     * Number of items that were rejected.
+     */
+    @Schema(description = "Number of items that were rejected", example = "2")
+    private Integer failed;
+
+    /**
+     * One result per requested URL, in request order.
+     */
+    @Schema(description = "One result per requested URL, in request order")
+    private List<ShortUrlBatchItemResponse> results;
+
+}
@@ -1,10 +1,19 @@
 package com.hitanshudhawan.sankshipt.dtos;
 
+import com.hitanshudhawan.sankshipt.utils.AliasValidator;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Future;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
 import lombok.Data;
 
+import java.util.Date;
+import java.util.List;
+
 /**
  * Data Transfer Object (DTO) for creating short URL requests.
  * Used specifically for POST /api/urls endpoint.
@@ -13,6 +22,11 @@ import lombok.Data;
 @Schema(description = "Request object for creating a new short URL")
 public class CreateShortUrlRequest {
 
+    /**
+     * Maximum number of weighted destinations of a single short URL.
+     */
+    public static final int MAX_DESTINATIONS = 100;
+
     /**
      * The original long URL to be shortened.
      * Required for creating a new short URL.
@@ -27,4 +41,63 @@ public class CreateShortUrlRequest {
     )
     private String originalUrl;
 
+    /**
+     * Whether to return the user's existing short URL for the same address instead of creating a new one.
+     * Addresses are compared after normalization (case of scheme and host, default port, fragment).
+     * Optional, defaults to false.
+     */
+    @Schema(
+            description = "Return the existing short URL for the same address instead of creating a new one",
+            example = "true",
+            defaultValue = "false"
+    )
+    private Boolean deduplicate;
+
+    /**
+     * A user-chosen alias to use as the short code instead of a generated one.
+     * 3-64 letters, digits, '-' or '_', and must not look like a generated short code.
+     * Optional; when set, {@code deduplicate} is ignored.
+     */
+    @Size(min = AliasValidator.MIN_LENGTH, max = AliasValidator.MAX_LENGTH, message = "Custom alias must be between 3 and 64 characters")
+    @Schema(
+            description = "A custom alias to use as the short code instead of a generated one",
+            example = "summer-sale"
+    )
+    private String customAlias;
+
+    /**
+     * The time after which the short URL stops redirecting and responds with 410 Gone.
+     * Optional; must be in the future. When set, {@code deduplicate} is ignored.
+     */
+    @Future(message = "Expiry time must be in the future")
+    @Schema(
+            description = "The time after which the short URL stops redirecting",
+            example = "2030-01-01T00:00:00.000Z"
+    )
+    private Date expiresAt;
+
+    /**
+     * The number of redirects after which the short URL stops redirecting and responds with 410 Gone.
+     * Optional; must be positive. When set, {@code deduplicate} is ignored.
+     */
+    @Positive(message = "Max clicks must be positive")
+    @Schema(
+            description = "The number of redirects after which the short URL stops redirecting",
+            example = "100"
+    )
+    private Long maxClicks;
+
+    /**
+     * Weighted destinations to split redirects between, e.g. for A/B tests.
+     * Optional; when set, redirects go to these addresses instead of {@code originalUrl},
+     * which remains the address the short URL is listed and deduplicated by. When set, {@code deduplicate} is ignored.
+     */
+    @Valid
+    @Size(max = MAX_DESTINATIONS, message = "At most " + MAX_DESTINATIONS + " destinations are allowed")
+    @ArraySchema(
+            arraySchema = @Schema(description = "Weighted destinations to split redirects between"),
+            maxItems = MAX_DESTINATIONS
+    )
+    private List<DestinationRequest> destinations;
+
 }
@@ -0,0 +1,48 @@
+package com.hitanshudhawan.sankshipt.dtos;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.Data;
+
+/**
+ * Data Transfer Object (DTO) for one weighted destination of a short URL.
+ * Used inside the request of POST /api/urls.
+ */
+@Data
+@Schema(description = "A weighted destination of a short URL")
+public class DestinationRequest {
+
+    /**
+     * Largest weight a single destination may have.
+     */
+    public static final int MAX_WEIGHT = 1_000_000;
+
+    /**
+     * The address that receives this destination's share of the redirects.
+     */
+    @NotBlank(message = "Destination URL cannot be blank")
+    @Schema(
+            description = "The address that receives this destination's share of the redirects",
+            example = "https://www.example.com/landing-b",
+            requiredMode = Schema.RequiredMode.REQUIRED
+    )
+    private String url;
+
+    /**
+     * Relative weight of this destination. A destination with weight 3 gets three times
+     * as many redirects as one with weight 1.
+     */
+    @NotNull(message = "Destination weight is required")
+    @Positive(message = "Destination weight must be positive")
+    @Max(value = MAX_WEIGHT, message = "Destination weight must be at most " + MAX_WEIGHT)
+    @Schema(
+            description = "Relative weight of this destination",
+            example = "3",
+            requiredMode = Schema.RequiredMode.REQUIRED
+    )
+    private Integer weight;
+
+}
@@ -0,0 +1,34 @@
+package com.hitanshudhawan.sankshipt.dtos;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+/**
+ * Data Transfer Object (DTO) for destination analytics responses.
+ * <p>
+ * This response is returned by:
+ * - GET /api/analytics/{shortCode}/destinations (when retrieving the destinations of a weighted short URL)
+ */
+@Data
+@Schema(description = "Response object containing a destination of a weighted short URL and its click count")
+public class DestinationResponse {
+
+    /**
+     * The address of the destination.
+     */
+    @Schema(description = "The address of the destination", example = "https://www.example.com/landing-b")
+    private String url;
+
+    /**
+     * Relative weight of the destination.
+     */
+    @Schema(description = "Relative weight of the destination", example = "3")
+    private Long weight;
+
+    /**
+     * Number of redirects sent to this destination. Recent redirects may take a few seconds to appear.
+     */
+    @Schema(description = "Number of redirects sent to this destination", example = "1280")
+    private Long clicks;
+
+}
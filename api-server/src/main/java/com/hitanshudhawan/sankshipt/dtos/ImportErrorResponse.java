@@ -0,0 +1,25 @@
+package com.hitanshudhawan.sankshipt.dtos;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+/**
+ * Data Transfer Object (DTO) for a line of an import file that could not be imported.
+ */
+@Data
+@Schema(description = "A line of an import file that could not be imported")
+public class ImportErrorResponse {
+
+    /**
+     * The 1-based line number in the uploaded file.
+     */
+    @Schema(description = "The 1-based line number in the uploaded file", example = "17")
+    private Long lineNumber;
+
+    /**
+     * Why the line could not be imported.
+     */
+    @Schema(description = "Why the line could not be imported", example = "Original URL cannot be blank")
+    private String message;
+
+}
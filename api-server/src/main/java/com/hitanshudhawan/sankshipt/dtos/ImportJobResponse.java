@@ -0,0 +1,86 @@
+package com.hitanshudhawan.sankshipt.dtos;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Data Transfer Object (DTO) for the state and progress of a bulk import job.
+ * <p>
+ * This response is returned by:
+ * - POST /api/urls/imports (when starting an import)
+ * - GET /api/urls/imports/{id} (when polling its progress)
+ */
+@Data
+@Schema(description = "State and progress of a bulk import job")
+public class ImportJobResponse {
+
+    /**
+     * Unique identifier of the import job.
+     */
+    @Schema(description = "Unique identifier of the import job", example = "1")
+    private Long id;
+
+    /**
+     * Current state of the job: PENDING, RUNNING, COMPLETED or FAILED.
+     */
+    @Schema(description = "Current state of the job", example = "RUNNING", allowableValues = {"PENDING", "RUNNING", "COMPLETED", "FAILED"})
+    private String status;
+
+    /**
+     * Format of the uploaded file: CSV or NDJSON.
+     */
+    @Schema(description = "Format of the uploaded file", example = "CSV", allowableValues = {"CSV", "NDJSON"})
+    private String format;
+
+    /**
+     * Name of the uploaded file.
+     */
+    @Schema(description = "Name of the uploaded file", example = "links.csv")
+    private String fileName;
+
+    /**
+     * Number of lines of the file processed so far.
+     */
+    @Schema(description = "Number of lines of the file processed so far", example = "25000")
+    private Long linesRead;
+
+    /**
+     * Number of short URLs created so far.
+     */
+    @Schema(description = "Number of short URLs created so far", example = "24990")
+    private Long createdUrls;
+
+    /**
+     * Number of lines that could not be imported so far.
+     */
+    @Schema(description = "Number of lines that could not be imported so far", example = "10")
+    private Long failedRows;
+
+    /**
+     * Why the job failed as a whole, or null if it did not.
+     */
+    @Schema(description = "Why the job failed as a whole, or null if it did not")
+    private String failureReason;
+
+    /**
+     * The first lines that could not be imported.
+     */
+    @Schema(description = "The first lines that could not be imported")
+    private List<ImportErrorResponse> errors;
+
+    /**
+     * When the job was created.
+     */
+    @Schema(description = "When the job was created", example = "2024-01-15T10:30:00.000Z")
+    private Date createdAt;
+
+    /**
+     * When the job last made progress.
+     */
+    @Schema(description = "When the job last made progress", example = "2024-01-15T10:31:12.000Z")
+    private Date updatedAt;
+
+}
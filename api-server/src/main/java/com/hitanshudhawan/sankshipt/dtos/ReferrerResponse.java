@@ -0,0 +1,34 @@
+package com.hitanshudhawan.sankshipt.dtos;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+/**
+ * Data Transfer Object (DTO) for referrer analytics responses.
+ * <p>
+ * This response is returned by:
+ * - GET /api/analytics/{shortCode}/referrers (when retrieving the top referring hosts)
+ */
+@Data
+@Schema(description = "Response object containing the click count of a referring host")
+public class ReferrerResponse {
+
+    /**
+     * The referring host, normalized to lower case without a leading "www.".
+     */
+    @Schema(description = "The referring host", example = "news.ycombinator.com")
+    private String host;
+
+    /**
+     * Estimated number of clicks that came from this host.
+     */
+    @Schema(description = "Estimated number of clicks that came from this host", example = "1280")
+    private Long clicks;
+
+    /**
+     * Maximum amount by which the click estimate may exceed the true count.
+     */
+    @Schema(description = "Maximum amount by which the click estimate may exceed the true count", example = "3")
+    private Long maxError;
+
+}
@@ -0,0 +1,38 @@
+package com.hitanshudhawan.sankshipt.dtos;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+/**
+ * Data Transfer Object (DTO) for the outcome of one URL in a batch.
+ * Either {@code shortCode} or {@code error} is set.
+ */
+@Data
+@Schema(description = "Result of shortening one URL of a batch")
+public class ShortUrlBatchItemResponse {
+
+    /**
+     * Position of the URL in the request (0-based).
+     */
+    @Schema(description = "Position of the URL in the request (0-based)", example = "0")
+    private Integer index;
+
+    /**
+     * The original URL as sent in the request.
+     */
+    @Schema(description = "The original URL as sent in the request", example = "https://www.example.com/products/42")
+    private String originalUrl;
+
+    /**
+     * The generated short code, or null if the item failed.
+     */
+    @Schema(description = "The generated short code, or null if the item failed", example = "1facb5c")
+    private String shortCode;
+
+    /**
+     * Why the item failed, or null if it succeeded.
+     */
+    @Schema(description = "Why the item failed, or null if it succeeded", example = "Original URL cannot be blank")
+    private String error;
+
+}
@@ -0,0 +1,34 @@
+package com.hitanshudhawan.sankshipt.dtos;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object (DTO) for one page of the authenticated user's short URLs.
+ * <p>
+ * This response is returned by:
+ * - GET /api/urls
+ */
+@Data
+@Schema(description = "One page of the authenticated user's short URLs, newest first")
+public class ShortUrlPageResponse {
+
+    /**
+     * The short URLs on this page, newest first.
+     */
+    @Schema(description = "The short URLs on this page, newest first")
+    private List<ShortUrlResponse> urls;
+
+    /**
+     * The cursor to pass to get the next page.
+     * Null if this is the last page.
+     */
+    @Schema(
+            description = "The cursor to pass to get the next page, or null if this is the last page",
+            example = "MTcwMDAwMDAwMDAwMDo0Mg"
+    )
+    private String nextCursor;
+
+}
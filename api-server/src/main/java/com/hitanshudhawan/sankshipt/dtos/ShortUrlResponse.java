@@ -3,12 +3,15 @@ package com.hitanshudhawan.sankshipt.dtos;
 import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.Data;
 
+import java.util.Date;
+
 /**
  * Data Transfer Object (DTO) for Short URL API responses.
  * Used to return information about short URL operations to the client.
  * <p>
  * This response is returned by:
  * - POST /api/urls (when creating a new short URL)
+ * - GET /api/urls (for each short URL on a page)
  * - DELETE /api/urls (when deleting an existing short URL)
  */
 @Data
@@ -35,4 +38,44 @@ public class ShortUrlResponse {
     )
     private String shortCode;
 
+    /**
+     * The time after which the short URL stops redirecting.
+     * Null if the short URL does not expire by time.
+     */
+    @Schema(
+            description = "The time after which the short URL stops redirecting, if any",
+            example = "2030-01-01T00:00:00.000Z"
+    )
+    private Date expiresAt;
+
+    /**
+     * The number of redirects after which the short URL stops redirecting.
+     * Null if the short URL has no click limit.
+     */
+    @Schema(
+            description = "The number of redirects after which the short URL stops redirecting, if any",
+            example = "100"
+    )
+    private Long maxClicks;
+
+    /**
+     * The number of accepted clicks on the short URL.
+     * Only set when listing with includeClicks=true.
+     */
+    @Schema(
+            description = "The number of accepted clicks, only set when listing with includeClicks=true",
+            example = "42"
+    )
+    private Long totalClicks;
+
+    /**
+     * The time of the latest accepted click.
+     * Only set when listing with includeClicks=true, and null if the short URL has not been clicked.
+     */
+    @Schema(
+            description = "The time of the latest accepted click, only set when listing with includeClicks=true",
+            example = "2030-01-01T00:00:00.000Z"
+    )
+    private Date lastClickedAt;
+
 }
@@ -1,5 +1,9 @@
 package com.hitanshudhawan.sankshipt.exceptionhandlers;
 
+import com.hitanshudhawan.sankshipt.exceptions.AliasUnavailableException;
+import com.hitanshudhawan.sankshipt.exceptions.IdempotencyKeyMismatchException;
+import com.hitanshudhawan.sankshipt.exceptions.ImportJobNotFoundException;
+import com.hitanshudhawan.sankshipt.exceptions.UrlExpiredException;
 import com.hitanshudhawan.sankshipt.exceptions.UrlNotFoundException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -14,4 +18,24 @@ public class ExceptionHandlers {
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(urlNotFoundException.getMessage());
     }
 
+    @ExceptionHandler(UrlExpiredException.class)
+    public ResponseEntity<String> handleUrlExpiredException(UrlExpiredException urlExpiredException) {
+        return ResponseEntity.status(HttpStatus.GONE).body(urlExpiredException.getMessage());
+    }
+
+    @ExceptionHandler(ImportJobNotFoundException.class)
+    public ResponseEntity<String> handleImportJobNotFoundException(ImportJobNotFoundException importJobNotFoundException) {
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(importJobNotFoundException.getMessage());
+    }
+
+    @ExceptionHandler(AliasUnavailableException.class)
+    public ResponseEntity<String> handleAliasUnavailableException(AliasUnavailableException aliasUnavailableException) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(aliasUnavailableException.getMessage());
+    }
+
+    @ExceptionHandler(IdempotencyKeyMismatchException.class)
+    public ResponseEntity<String> handleIdempotencyKeyMismatchException(IdempotencyKeyMismatchException idempotencyKeyMismatchException) {
+        return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY).body(idempotencyKeyMismatchException.getMessage());
+    }
+
 }
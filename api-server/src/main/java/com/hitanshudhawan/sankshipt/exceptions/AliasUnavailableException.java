@@ -0,0 +1,9 @@
+package com.hitanshudhawan.sankshipt.exceptions;
+
+public class AliasUnavailableException extends Exception {
+
+    public AliasUnavailableException(String message) {
+        super(message);
+    }
+
+}
@@ -0,0 +1,9 @@
+package com.hitanshudhawan.sankshipt.exceptions;
+
+public class IdempotencyKeyMismatchException extends Exception {
+
+    public IdempotencyKeyMismatchException(String message) {
+        super(message);
+    }
+
+}
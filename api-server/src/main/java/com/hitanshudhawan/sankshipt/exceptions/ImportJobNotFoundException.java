@@ -0,0 +1,9 @@
+package com.hitanshudhawan.sankshipt.exceptions;
+
+public class ImportJobNotFoundException extends Exception {
+
+    public ImportJobNotFoundException(String message) {
+        super(message);
+    }
+
+}
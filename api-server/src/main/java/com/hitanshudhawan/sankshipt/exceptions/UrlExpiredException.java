@@ -0,0 +1,13 @@
+package com.hitanshudhawan.sankshipt.exceptions;
+
+/**
+ * Thrown when a short URL exists but has passed its expiry time or click limit.
+ * It is a {@link UrlNotFoundException}, so every caller that handles missing URLs handles expired ones too.
+ */
+public class UrlExpiredException extends UrlNotFoundException {
+
+    public UrlExpiredException(String message) {
+        super(message);
+    }
+
+}
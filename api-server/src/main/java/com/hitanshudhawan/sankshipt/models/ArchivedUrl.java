@@ -0,0 +1,54 @@
+package com.hitanshudhawan.sankshipt.models;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.util.Date;
+
+/**
+ * A short URL that expired and was moved out of the {@code urls} table by the expiry sweeper.
+ * Only the link itself is kept; its clicks and aggregated stats are deleted with it.
+ */
+@Entity
+@Table(name = "archived_urls", indexes = {
+    @Index(name = "idx_archived_urls_user_id", columnList = "user_id")
+})
+@Data
+public class ArchivedUrl {
+
+    // Same id the URL had while it was live
+    @Id
+    private Long id;
+
+    @Column(name = "short_code")
+    private String shortCode;
+
+    @Column(name = "original_url", columnDefinition = "TEXT")
+    private String originalUrl;
+
+    // Plain column rather than a relation, so archived rows never block changes to users
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "custom_alias", nullable = false)
+    private boolean customAlias;
+
+    @Column(name = "max_clicks")
+    private Long maxClicks;
+
+    @Column(name = "click_count", nullable = false)
+    private long clickCount;
+
+    @Temporal(TemporalType.TIMESTAMP)
+    @Column(name = "created_at")
+    private Date createdAt;
+
+    @Temporal(TemporalType.TIMESTAMP)
+    @Column(name = "expires_at")
+    private Date expiresAt;
+
+    @Temporal(TemporalType.TIMESTAMP)
+    @Column(name = "archived_at")
+    private Date archivedAt;
+
+}
@@ -2,19 +2,25 @@ package com.hitanshudhawan.sankshipt.models;
 
 import jakarta.persistence.*;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
 import org.hibernate.annotations.CreationTimestamp;
 
 import java.util.Date;
 
 @Entity
 @Table(name = "clicks", indexes = {
-    @Index(name = "idx_url", columnList = "url")
+    // Serves URL lookups as well as date ranges and clicked_at ordering within a URL
+    @Index(name = "idx_url_clicked_at", columnList = "url, clicked_at")
 })
 @Data
 public class Click extends BaseModel {
 
-    @ManyToOne
+    // Lazy, since click listings are read as projections that never need the URL row
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "url", nullable = false)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
     private URL url;
 
     @CreationTimestamp
@@ -25,4 +31,12 @@ public class Click extends BaseModel {
     @Column(name = "user_agent", columnDefinition = "TEXT")
     private String userAgent;
 
+    // Host of the Referer header, normalized (e.g. "google.com")
+    @Column(name = "referrer")
+    private String referrer;
+
+    // Number of clicks this row stands for: 1, or more when the URL was being sampled under load
+    @Column(name = "sample_rate")
+    private Integer sampleRate;
+
 }
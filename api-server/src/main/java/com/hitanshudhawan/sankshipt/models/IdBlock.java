@@ -0,0 +1,24 @@
+package com.hitanshudhawan.sankshipt.models;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+/**
+ * High-water mark of an id sequence.
+ * Application instances reserve ids in blocks by advancing {@code nextId} under a row lock,
+ * then hand them out from memory, so most inserts need no extra round trip for their id.
+ */
+@Entity
+@Table(name = "id_blocks")
+@Data
+public class IdBlock {
+
+    @Id
+    @Column(name = "name")
+    private String name;
+
+    // First id that has not been reserved by any instance yet
+    @Column(name = "next_id", nullable = false)
+    private long nextId;
+
+}
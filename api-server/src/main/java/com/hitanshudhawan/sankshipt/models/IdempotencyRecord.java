@@ -0,0 +1,42 @@
+package com.hitanshudhawan.sankshipt.models;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.util.Date;
+
+/**
+ * The result of a short URL creation made with an {@code Idempotency-Key} header.
+ * <p>
+ * The record is inserted before the URL, in the same transaction, and the unique index on
+ * (user_id, idempotency_key) makes a concurrent request with the same key wait for that transaction
+ * before it creates anything; it then fails to insert and replays the stored result instead.
+ */
+@Entity
+@Table(name = "idempotency_keys", indexes = {
+    @Index(name = "idx_idempotency_user_key", columnList = "user_id, idempotency_key", unique = true),
+    @Index(name = "idx_idempotency_expires_at", columnList = "expires_at")
+})
+@Data
+public class IdempotencyRecord extends BaseModel {
+
+    // Keys are scoped per user, so clients cannot see each other's results
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "idempotency_key", nullable = false)
+    private String idempotencyKey;
+
+    // SHA-256 of the request that first used the key; a retry with a different body is rejected
+    @Column(name = "request_hash", columnDefinition = "BINARY(32)", nullable = false)
+    private byte[] requestHash;
+
+    // Null only inside the transaction that reserved the key, until its URL is created
+    @Column(name = "url_id")
+    private Long urlId;
+
+    @Temporal(TemporalType.TIMESTAMP)
+    @Column(name = "expires_at", nullable = false)
+    private Date expiresAt;
+
+}
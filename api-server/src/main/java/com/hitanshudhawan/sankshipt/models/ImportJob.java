@@ -0,0 +1,86 @@
+package com.hitanshudhawan.sankshipt.models;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+/**
+ * A bulk import of short URLs from an uploaded file.
+ * <p>
+ * The file is processed line by line in batches. Every batch of URLs is inserted in the same
+ * transaction that advances {@code linesRead}, so after a restart the job skips exactly the lines
+ * that were already committed and never creates a URL twice.
+ * <p>
+ * The upload itself is kept in {@link ImportJobChunk} rows, so any instance can continue the job.
+ * An instance processes a job only while it holds the job's claim, which it renews as it goes;
+ * every write of the job is conditional on the claim, so two instances never process it together.
+ */
+@Entity
+@Table(name = "import_jobs", indexes = {
+    @Index(name = "idx_import_jobs_status", columnList = "status")
+})
+@Data
+public class ImportJob extends BaseModel {
+
+    public enum Format {
+        CSV,
+        NDJSON
+    }
+
+    public enum Status {
+        PENDING,
+        RUNNING,
+        COMPLETED,
+        FAILED
+    }
+
+    // Lazy, since ownership checks and imports only need the owner's id
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private User user;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "format", nullable = false)
+    private Format format;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false)
+    private Status status;
+
+    // Name of the uploaded file, for display only
+    @Column(name = "file_name")
+    private String fileName;
+
+    // Number of lines in the upload; null until all of its chunks are stored
+    @Column(name = "total_lines")
+    private Long totalLines;
+
+    // Random identity of the instance processing the job, if any
+    @Column(name = "claimed_by")
+    private String claimedBy;
+
+    // Claim expiry in milliseconds since the epoch; an expired claim may be taken over
+    @Column(name = "claim_expires_at", nullable = false)
+    private long claimExpiresAt;
+
+    @Column(name = "deduplicate", nullable = false)
+    private boolean deduplicate;
+
+    // Checkpoint: number of lines whose URLs (or errors) have been committed
+    @Column(name = "lines_read", nullable = false)
+    private long linesRead;
+
+    @Column(name = "created_urls", nullable = false)
+    private long createdUrls;
+
+    @Column(name = "failed_rows", nullable = false)
+    private long failedRows;
+
+    // Why the job as a whole failed, if it did
+    @Column(name = "failure_reason", columnDefinition = "TEXT")
+    private String failureReason;
+
+}
@@ -0,0 +1,36 @@
+package com.hitanshudhawan.sankshipt.models;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+/**
+ * A run of whole lines of an import file, stored in the database until the job finishes.
+ * Chunks of a job cover consecutive lines, starting after {@code firstLine} lines.
+ */
+@Entity
+@Table(name = "import_job_chunks", indexes = {
+    @Index(name = "idx_import_job_chunks_job_line", columnList = "import_job_id, first_line", unique = true)
+})
+@Data
+public class ImportJobChunk extends BaseModel {
+
+    @Column(name = "import_job_id", nullable = false)
+    private Long importJobId;
+
+    // Number of lines of the file before this chunk
+    @Column(name = "first_line", nullable = false)
+    private long firstLine;
+
+    @Column(name = "line_count", nullable = false)
+    private int lineCount;
+
+    // UTF-8 lines, each terminated by a newline
+    @Lob
+    @Column(name = "content", nullable = false, length = 16777215)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private byte[] content;
+
+}
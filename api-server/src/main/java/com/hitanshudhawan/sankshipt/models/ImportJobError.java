@@ -0,0 +1,25 @@
+package com.hitanshudhawan.sankshipt.models;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+/**
+ * A line of an import file that could not be turned into a short URL.
+ */
+@Entity
+@Table(name = "import_job_errors", indexes = {
+    @Index(name = "idx_import_job_errors_job", columnList = "import_job_id, line_number")
+})
+@Data
+public class ImportJobError extends BaseModel {
+
+    @Column(name = "import_job_id", nullable = false)
+    private Long importJobId;
+
+    @Column(name = "line_number", nullable = false)
+    private long lineNumber;
+
+    @Column(name = "message", columnDefinition = "TEXT")
+    private String message;
+
+}
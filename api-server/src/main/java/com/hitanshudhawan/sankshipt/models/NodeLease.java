@@ -0,0 +1,30 @@
+package com.hitanshudhawan.sankshipt.models;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+/**
+ * Lease on a node id of the Snowflake id generator.
+ * <p>
+ * An instance owns a node id while it keeps renewing {@code expiresAt}; once a lease expires another
+ * instance may take it over, and only issues ids for seconds after the previous {@code expiresAt}.
+ * An instance never issues ids for seconds at or past its own lease expiry, so the two never overlap.
+ */
+@Entity
+@Table(name = "node_leases")
+@Data
+public class NodeLease {
+
+    @Id
+    @Column(name = "node_id")
+    private Integer nodeId;
+
+    // Random identity of the instance holding the lease
+    @Column(name = "owner", nullable = false)
+    private String owner;
+
+    // Lease expiry in milliseconds since the epoch, by the owner's clock
+    @Column(name = "expires_at", nullable = false)
+    private long expiresAt;
+
+}
@@ -0,0 +1,22 @@
+package com.hitanshudhawan.sankshipt.models;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+/**
+ * A short code that every instance must drop from its redirect cache, e.g. because its URL was deleted.
+ * <p>
+ * Each instance polls the rows created since its last poll, with some overlap for transactions that commit late,
+ * and rows are purged once no cache entry can be older than they are.
+ */
+@Entity
+@Table(name = "redirect_evictions", indexes = {
+    @Index(name = "idx_redirect_evictions_created_at", columnList = "created_at")
+})
+@Data
+public class RedirectEviction extends BaseModel {
+
+    @Column(name = "short_code", nullable = false)
+    private String shortCode;
+
+}
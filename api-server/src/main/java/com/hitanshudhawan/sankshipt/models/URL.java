@@ -1,29 +1,93 @@
 package com.hitanshudhawan.sankshipt.models;
 
+import com.hitanshudhawan.sankshipt.utils.AliasTable;
 import jakarta.persistence.*;
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+import org.springframework.data.domain.Persistable;
 
-import java.util.List;
+import java.util.Date;
 
 @Entity
 @Table(name = "urls", indexes = {
     @Index(name = "idx_short_code", columnList = "short_code", unique = true),
-    @Index(name = "idx_user_id", columnList = "user_id")
+    @Index(name = "idx_user_created_at_id", columnList = "user_id, created_at, id"),
+    @Index(name = "idx_user_url_hash", columnList = "user_id, url_hash"),
+    @Index(name = "idx_custom_alias_created_at", columnList = "custom_alias, created_at"),
+    @Index(name = "idx_expires_at", columnList = "expires_at")
 })
 @Data
-public class URL extends BaseModel {
+public class URL extends TimestampedModel implements Persistable<Long> {
+
+    // Assigned from reserved ID blocks before insert, so the short code can be derived up front
+    @Id
+    private Long id;
 
     @Column(name = "short_code")
     private String shortCode;
 
+    // True if the short code is a user-chosen alias rather than Base62(id) + checksum
+    @Column(name = "custom_alias", nullable = false)
+    private boolean customAlias;
+
     @Column(name = "original_url", columnDefinition = "TEXT")
     private String originalUrl;
 
-    @ManyToOne
+    // SHA-256 of the normalized original URL, so duplicates can be found without comparing TEXT values
+    @Column(name = "url_hash", columnDefinition = "BINARY(32)")
+    private byte[] urlHash;
+
+    // Optional expiry; once it passes the link stops redirecting and is archived by the sweeper
+    @Temporal(TemporalType.TIMESTAMP)
+    @Column(name = "expires_at")
+    private Date expiresAt;
+
+    // Optional limit on redirects; reaching it sets expiresAt
+    @Column(name = "max_clicks")
+    private Long maxClicks;
+
+    // Redirects served so far, only counted for links with maxClicks
+    @Column(name = "click_count", nullable = false)
+    private long clickCount;
+
+    // True if redirects are split between the rows in url_destinations instead of going to originalUrl
+    @Column(name = "weighted", nullable = false)
+    private boolean weighted;
+
+    // Destinations of a weighted link, loaded on first redirect and cached with the link
+    @Transient
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private volatile AliasTable<UrlDestination> destinationTable;
+
+    // Lazy, and left out of equals/hashCode/toString, so that URLs kept in caches never touch their owner
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
     private User user;
 
-    @OneToMany(mappedBy = "url", cascade = CascadeType.ALL)
-    private List<Click> clicks;
+    // An assigned id makes every URL look persisted to Spring Data; track it so save() inserts without a lookup
+    @Transient
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private boolean newEntity = true;
+
+    @Override
+    public boolean isNew() {
+        return newEntity;
+    }
+
+    @PostPersist
+    @PostLoad
+    void markNotNew() {
+        newEntity = false;
+    }
 
 }
@@ -0,0 +1,40 @@
+package com.hitanshudhawan.sankshipt.models;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.util.Date;
+
+/**
+ * Aggregated per-URL click counters.
+ * Rows are keyed by the URL id and only ever written through additive upserts,
+ * so events that are not stored as individual clicks can still be accounted for.
+ */
+@Entity
+@Table(name = "url_click_stats")
+@Data
+public class UrlClickStats {
+
+    @Id
+    @Column(name = "url_id")
+    private Long urlId;
+
+    // Accepted clicks, including those skipped by sampling, so listings need no SUM over the clicks table
+    @Column(name = "total_clicks", nullable = false)
+    private long totalClicks;
+
+    @Temporal(TemporalType.TIMESTAMP)
+    @Column(name = "last_clicked_at")
+    private Date lastClickedAt;
+
+    // Bumped with every change of total_clicks, to tag the count for conditional GETs
+    @Column(name = "clicks_version", nullable = false)
+    private long clicksVersion;
+
+    @Column(name = "bot_clicks", nullable = false)
+    private long botClicks;
+
+    @Column(name = "duplicate_clicks", nullable = false)
+    private long duplicateClicks;
+
+}
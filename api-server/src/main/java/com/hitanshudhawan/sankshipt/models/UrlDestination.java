@@ -0,0 +1,34 @@
+package com.hitanshudhawan.sankshipt.models;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+/**
+ * One target of a weighted short URL.
+ * Each redirect goes to one of the URL's destinations, chosen with probability proportional to its weight.
+ */
+@Entity
+@Table(name = "url_destinations", indexes = {
+    @Index(name = "idx_url_destinations_url_position", columnList = "url_id, position", unique = true)
+})
+@Data
+public class UrlDestination extends BaseModel {
+
+    @Column(name = "url_id", nullable = false)
+    private Long urlId;
+
+    // Order in which the destinations were given when the URL was created
+    @Column(name = "position", nullable = false)
+    private int position;
+
+    @Column(name = "destination_url", columnDefinition = "TEXT", nullable = false)
+    private String destinationUrl;
+
+    @Column(name = "weight", nullable = false)
+    private long weight;
+
+    // Redirects sent to this destination, flushed in batches
+    @Column(name = "clicks", nullable = false)
+    private long clicks;
+
+}
@@ -0,0 +1,29 @@
+package com.hitanshudhawan.sankshipt.models;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+/**
+ * One entry of a URL's bounded top-K referrer table.
+ * Counts are approximate: each may overestimate the true number of clicks by at most {@code error}.
+ */
+@Entity
+@Table(name = "url_referrers", indexes = {
+    @Index(name = "idx_url_referrers_url_host", columnList = "url_id, host", unique = true)
+})
+@Data
+public class UrlReferrer extends BaseModel {
+
+    @Column(name = "url_id", nullable = false)
+    private Long urlId;
+
+    @Column(name = "host", nullable = false)
+    private String host;
+
+    @Column(name = "clicks", nullable = false)
+    private long clicks;
+
+    @Column(name = "error", nullable = false)
+    private long error;
+
+}
@@ -1,23 +1,32 @@
 package com.hitanshudhawan.sankshipt.models;
 
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Index;
-import jakarta.persistence.OneToMany;
 import jakarta.persistence.Table;
 import lombok.Data;
 
-import java.util.List;
-
 @Entity
 @Table(name = "users", indexes = {
-    @Index(name = "idx_email", columnList = "email", unique = true)
+    @Index(name = "idx_email", columnList = "email", unique = true),
+    @Index(name = "idx_auth_user_id", columnList = "auth_user_id", unique = true)
 })
 @Data
 public class User extends BaseModel {
 
     private String email;
 
-    @OneToMany(mappedBy = "user")
-    private List<URL> urls;
+    /**
+     * Id of the user in the auth server, from the access token's user_id claim.
+     * Null for users only seen with tokens issued before the claim existed.
+     */
+    private Long authUserId;
+
+    /**
+     * Bumped whenever the user's short URL listing may have changed, to tag it for conditional GETs.
+     * Only ever written through {@code UserRepository} increments, so saving a stale entity cannot lower it.
+     */
+    @Column(name = "urls_version", nullable = false, updatable = false)
+    private long urlsVersion;
 
 }
@@ -0,0 +1,12 @@
+package com.hitanshudhawan.sankshipt.models;
+
+/**
+ * The authenticated user a request acts for, as passed to the services.
+ * It is immutable and never managed by JPA; code that needs a {@link User} association
+ * takes a reference by id instead, so a principal can never be saved by accident.
+ *
+ * @param id the id of the User entity
+ * @param email the user's email, the subject of their access token
+ */
+public record UserPrincipal(Long id, String email) {
+}
@@ -0,0 +1,24 @@
+package com.hitanshudhawan.sankshipt.repositories;
+
+import com.hitanshudhawan.sankshipt.models.ArchivedUrl;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+
+@Repository
+public interface ArchivedUrlRepository extends JpaRepository<ArchivedUrl, Long> {
+
+    /**
+     * Copies the given URLs into the archive with a single statement.
+     */
+    @Modifying
+    @Query("INSERT INTO ArchivedUrl (id, shortCode, originalUrl, userId, customAlias, maxClicks, clickCount, createdAt, expiresAt, archivedAt) " +
+            "SELECT u.id, u.shortCode, u.originalUrl, u.user.id, u.customAlias, u.maxClicks, u.clickCount, u.createdAt, u.expiresAt, CURRENT_TIMESTAMP " +
+            "FROM URL u WHERE u.id IN :ids")
+    int archiveUrls(@Param("ids") Collection<Long> ids);
+
+}
@@ -1,17 +1,38 @@
 package com.hitanshudhawan.sankshipt.repositories;
 
 import com.hitanshudhawan.sankshipt.models.Click;
-import com.hitanshudhawan.sankshipt.models.URL;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.Date;
 
 @Repository
-public interface ClickRepository extends JpaRepository<Click, Long> {
+public interface ClickRepository extends JpaRepository<Click, Long>, JpaSpecificationExecutor<Click> {
+
+    /**
+     * The columns of a click listed by the analytics API, read without loading the click's URL.
+     */
+    interface ClickView {
+        Long getId();
+        Date getClickedAt();
+        String getUserAgent();
+        String getReferrer();
+        Integer getSampleRate();
+    }
 
-    Long countByUrlShortCode(String shortCode);
+    @Transactional
+    @Modifying
+    @Query("UPDATE Click c SET c.sampleRate = COALESCE(c.sampleRate, 1) + :clicks WHERE c.id = :id")
+    int addToSampleRate(@Param("id") Long id, @Param("clicks") long clicks);
 
-    Page<Click> findByUrl(URL url, Pageable pageable);
+    @Modifying
+    @Query("DELETE FROM Click c WHERE c.url.id IN :urlIds")
+    int deleteAllByUrlIdIn(@Param("urlIds") Collection<Long> urlIds);
 
 }
@@ -0,0 +1,52 @@
+package com.hitanshudhawan.sankshipt.repositories;
+
+import com.hitanshudhawan.sankshipt.models.Click;
+import com.hitanshudhawan.sankshipt.models.URL;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.Date;
+import java.util.Locale;
+
+/**
+ * Query building blocks for {@link ClickRepository}.
+ * <p>
+ * The URL and clicked-at conditions map onto the (url, clicked_at) index of the clicks table,
+ * so a date range of a single URL is read as one contiguous index range, already in order.
+ */
+public final class ClickSpecifications {
+
+    private ClickSpecifications() {
+    }
+
+    public static Specification<Click> forUrl(URL url) {
+        return (root, query, cb) -> cb.equal(root.get("url"), url);
+    }
+
+    /**
+     * Clicks at or after the given time (inclusive).
+     */
+    public static Specification<Click> clickedFrom(Date from) {
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("clickedAt"), from);
+    }
+
+    /**
+     * Clicks before the given time (exclusive), so consecutive ranges do not overlap.
+     */
+    public static Specification<Click> clickedBefore(Date to) {
+        return (root, query, cb) -> cb.lessThan(root.get("clickedAt"), to);
+    }
+
+    /**
+     * Clicks whose User-Agent contains the given text, ignoring case.
+     * This condition is not indexed; it only filters the rows of the URL and date range.
+     */
+    public static Specification<Click> userAgentContains(String text) {
+        String pattern = "%" + escapeLike(text.toLowerCase(Locale.ROOT)) + "%";
+        return (root, query, cb) -> cb.like(cb.lower(root.get("userAgent")), pattern, '\\');
+    }
+
+    private static String escapeLike(String text) {
+        return text.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+}
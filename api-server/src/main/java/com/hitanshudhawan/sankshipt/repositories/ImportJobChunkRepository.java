@@ -0,0 +1,29 @@
+package com.hitanshudhawan.sankshipt.repositories;
+
+import com.hitanshudhawan.sankshipt.models.ImportJobChunk;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Repository
+public interface ImportJobChunkRepository extends JpaRepository<ImportJobChunk, Long> {
+
+    /**
+     * Lists the ids of the chunks holding lines after the given checkpoint, in file order,
+     * so a job loads one chunk at a time and skips committed chunks without reading them.
+     */
+    @Query("SELECT c.id FROM ImportJobChunk c WHERE c.importJobId = :importJobId AND c.firstLine + c.lineCount > :linesRead " +
+            "ORDER BY c.firstLine")
+    List<Long> findIdsAfterLine(@Param("importJobId") Long importJobId, @Param("linesRead") long linesRead);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM ImportJobChunk c WHERE c.importJobId = :importJobId")
+    int deleteByImportJobId(@Param("importJobId") Long importJobId);
+
+}
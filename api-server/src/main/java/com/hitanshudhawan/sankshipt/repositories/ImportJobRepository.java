@@ -0,0 +1,77 @@
+package com.hitanshudhawan.sankshipt.repositories;
+
+import com.hitanshudhawan.sankshipt.models.ImportJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ImportJobRepository extends JpaRepository<ImportJob, Long> {
+
+    List<ImportJob> findAllByStatusIn(Collection<ImportJob.Status> statuses);
+
+    /**
+     * Claims an unfinished job that is unclaimed or whose claim has expired, and marks it running.
+     *
+     * @return 1 if the job was claimed, 0 if it is finished or another instance holds it
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE ImportJob j SET j.claimedBy = :owner, j.claimExpiresAt = :expiresAt, " +
+            "j.status = com.hitanshudhawan.sankshipt.models.ImportJob.Status.RUNNING, j.updatedAt = CURRENT_TIMESTAMP " +
+            "WHERE j.id = :id AND j.status IN (com.hitanshudhawan.sankshipt.models.ImportJob.Status.PENDING, " +
+            "com.hitanshudhawan.sankshipt.models.ImportJob.Status.RUNNING) " +
+            "AND (j.claimedBy IS NULL OR j.claimExpiresAt < :now)")
+    int claim(@Param("id") Long id, @Param("owner") String owner, @Param("expiresAt") long expiresAt, @Param("now") long now);
+
+    /**
+     * Moves the expiry of a claim still held by the given owner.
+     *
+     * @return 1 if the claim was renewed, 0 if it has been taken over
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE ImportJob j SET j.claimExpiresAt = :expiresAt WHERE j.id = :id AND j.claimedBy = :owner")
+    int renewClaim(@Param("id") Long id, @Param("owner") String owner, @Param("expiresAt") long expiresAt);
+
+    /**
+     * Records that all chunks of an upload are stored and releases the uploader's claim, so any instance can run the job.
+     *
+     * @return 1 if recorded, 0 if the claim has been taken over
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE ImportJob j SET j.totalLines = :totalLines, j.claimedBy = NULL WHERE j.id = :id AND j.claimedBy = :owner")
+    int markUploaded(@Param("id") Long id, @Param("owner") String owner, @Param("totalLines") long totalLines);
+
+    /**
+     * Advances the checkpoint of a job and renews its claim, in the transaction of the batch it covers.
+     *
+     * @return 1 if the checkpoint moved, 0 if the claim has been taken over
+     */
+    @Modifying
+    @Query("UPDATE ImportJob j SET j.linesRead = :linesRead, j.createdUrls = :createdUrls, j.failedRows = :failedRows, " +
+            "j.claimExpiresAt = :expiresAt, j.updatedAt = CURRENT_TIMESTAMP WHERE j.id = :id AND j.claimedBy = :owner")
+    int checkpoint(@Param("id") Long id, @Param("owner") String owner, @Param("linesRead") long linesRead,
+                   @Param("createdUrls") long createdUrls, @Param("failedRows") long failedRows,
+                   @Param("expiresAt") long expiresAt);
+
+    /**
+     * Moves a job to its final status and releases its claim.
+     *
+     * @return 1 if the job was finished, 0 if the claim has been taken over
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE ImportJob j SET j.status = :status, j.failureReason = :failureReason, j.claimedBy = NULL, " +
+            "j.updatedAt = CURRENT_TIMESTAMP WHERE j.id = :id AND j.claimedBy = :owner")
+    int finish(@Param("id") Long id, @Param("owner") String owner, @Param("status") ImportJob.Status status,
+               @Param("failureReason") String failureReason);
+
+}
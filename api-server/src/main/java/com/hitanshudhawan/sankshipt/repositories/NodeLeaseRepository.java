@@ -0,0 +1,39 @@
+package com.hitanshudhawan.sankshipt.repositories;
+
+import com.hitanshudhawan.sankshipt.models.NodeLease;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface NodeLeaseRepository extends JpaRepository<NodeLease, Integer> {
+
+    /**
+     * Claims a node id that has never been leased.
+     * Fails with a constraint violation if another instance inserted it first.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO node_leases (node_id, owner, expires_at) VALUES (:nodeId, :owner, :expiresAt)", nativeQuery = true)
+    int insertLease(@Param("nodeId") int nodeId, @Param("owner") String owner, @Param("expiresAt") long expiresAt);
+
+    /**
+     * Takes over an expired lease, provided nobody renewed or took it since it was read.
+     *
+     * @return 1 if the lease was taken over, 0 otherwise
+     */
+    @Modifying
+    @Query("UPDATE NodeLease l SET l.owner = :owner, l.expiresAt = :expiresAt WHERE l.nodeId = :nodeId AND l.expiresAt = :previousExpiresAt")
+    int takeOverLease(@Param("nodeId") int nodeId, @Param("owner") String owner, @Param("expiresAt") long expiresAt, @Param("previousExpiresAt") long previousExpiresAt);
+
+    /**
+     * Moves the expiry of a lease still held by the given owner.
+     *
+     * @return 1 if the lease was renewed, 0 if it has been taken over
+     */
+    @Modifying
+    @Query("UPDATE NodeLease l SET l.expiresAt = :expiresAt WHERE l.nodeId = :nodeId AND l.owner = :owner")
+    int renewLease(@Param("nodeId") int nodeId, @Param("owner") String owner, @Param("expiresAt") long expiresAt);
+
+}
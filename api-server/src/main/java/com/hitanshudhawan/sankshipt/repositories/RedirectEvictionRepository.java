@@ -0,0 +1,25 @@
+package com.hitanshudhawan.sankshipt.repositories;
+
+import com.hitanshudhawan.sankshipt.models.RedirectEviction;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Date;
+import java.util.List;
+
+@Repository
+public interface RedirectEvictionRepository extends JpaRepository<RedirectEviction, Long> {
+
+    @Query("SELECT e.shortCode FROM RedirectEviction e WHERE e.createdAt >= :since")
+    List<String> findShortCodesCreatedSince(@Param("since") Date since);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM RedirectEviction e WHERE e.createdAt < :before")
+    int deleteCreatedBefore(@Param("before") Date before);
+
+}
@@ -1,20 +1,106 @@
 package com.hitanshudhawan.sankshipt.repositories;
 
 import com.hitanshudhawan.sankshipt.models.URL;
-import com.hitanshudhawan.sankshipt.models.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.Date;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface ShortUrlRepository extends JpaRepository<URL, Long> {
 
-    List<URL> findAllByUser(User user);
+    /**
+     * The columns of a URL shown in listings, read without loading the entity or its owner.
+     */
+    interface UrlSummary {
+        Long getId();
+        String getShortCode();
+        String getOriginalUrl();
+        Date getExpiresAt();
+        Long getMaxClicks();
+        Date getCreatedAt();
+    }
+
+    /**
+     * Lists a user's URLs newest first, through the (user_id, created_at, id) index.
+     */
+    @Query("SELECT u.id AS id, u.shortCode AS shortCode, u.originalUrl AS originalUrl, u.expiresAt AS expiresAt, " +
+            "u.maxClicks AS maxClicks, u.createdAt AS createdAt FROM URL u " +
+            "WHERE u.user.id = :userId ORDER BY u.createdAt DESC, u.id DESC")
+    List<UrlSummary> findSummariesByUserId(@Param("userId") Long userId, Pageable pageable);
+
+    /**
+     * Continues {@link #findSummariesByUserId} after the given (createdAt, id) position, without an offset scan.
+     */
+    @Query("SELECT u.id AS id, u.shortCode AS shortCode, u.originalUrl AS originalUrl, u.expiresAt AS expiresAt, " +
+            "u.maxClicks AS maxClicks, u.createdAt AS createdAt FROM URL u " +
+            "WHERE u.user.id = :userId AND (u.createdAt < :createdAt OR (u.createdAt = :createdAt AND u.id < :id)) " +
+            "ORDER BY u.createdAt DESC, u.id DESC")
+    List<UrlSummary> findSummariesByUserIdBefore(@Param("userId") Long userId, @Param("createdAt") Date createdAt,
+                                                 @Param("id") Long id, Pageable pageable);
+
+    /**
+     * Loads the listed columns of the given URLs of a user, newest first, for search results found in memory.
+     */
+    @Query("SELECT u.id AS id, u.shortCode AS shortCode, u.originalUrl AS originalUrl, u.expiresAt AS expiresAt, " +
+            "u.maxClicks AS maxClicks, u.createdAt AS createdAt FROM URL u " +
+            "WHERE u.user.id = :userId AND u.id IN :ids ORDER BY u.createdAt DESC, u.id DESC")
+    List<UrlSummary> findSummariesByUserIdAndIdIn(@Param("userId") Long userId, @Param("ids") Collection<Long> ids);
 
     Optional<URL> findByShortCode(String shortCode);
 
-    Optional<URL> findByShortCodeAndUser(String shortCode, User user);
+    Optional<URL> findByShortCodeAndUserId(String shortCode, Long userId);
+
+    boolean existsByShortCode(String shortCode);
+
+    List<URL> findAllByUserIdAndUrlHash(Long userId, byte[] urlHash);
+
+    List<URL> findAllByUserIdAndUrlHashIn(Long userId, Collection<byte[]> urlHashes);
+
+    @Query("SELECT u.shortCode FROM URL u WHERE u.customAlias = true")
+    List<String> findAllAliases();
+
+    @Query("SELECT u.shortCode FROM URL u WHERE u.customAlias = true AND u.createdAt >= :since")
+    List<String> findAliasesCreatedSince(@Param("since") Date since);
+
+    /**
+     * Counts one redirect of a click-limited link, unless its limit is reached or it has expired.
+     * The redirect that reaches the limit also sets the expiry, so the sweeper finds the link through the expires_at index.
+     *
+     * @return 1 if the redirect may proceed, 0 otherwise
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE URL u SET u.expiresAt = CASE WHEN u.clickCount + 1 >= u.maxClicks THEN :now ELSE u.expiresAt END, " +
+            "u.clickCount = u.clickCount + 1 " +
+            "WHERE u.id = :id AND u.clickCount < u.maxClicks AND (u.expiresAt IS NULL OR u.expiresAt > :now)")
+    int incrementClickCount(@Param("id") Long id, @Param("now") Date now);
+
+    @Query("SELECT u.id FROM URL u WHERE u.expiresAt <= :now ORDER BY u.expiresAt")
+    List<Long> findExpiredIds(@Param("now") Date now, Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM URL u WHERE u.id IN :ids")
+    int deleteAllByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT COALESCE(MAX(u.id), 0) FROM URL u")
+    Long findMaxId();
+
+    /**
+     * Locks a URL's row until the end of the current transaction, so read-modify-write updates of its
+     * per-URL tables run one at a time across instances.
+     *
+     * @return the id, or empty if the URL no longer exists
+     */
+    @Query(value = "SELECT id FROM urls WHERE id = :id FOR UPDATE", nativeQuery = true)
+    Optional<Long> lockById(@Param("id") Long id);
 
 }
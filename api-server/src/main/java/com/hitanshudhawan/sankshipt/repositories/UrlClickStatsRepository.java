@@ -0,0 +1,59 @@
+package com.hitanshudhawan.sankshipt.repositories;
+
+import com.hitanshudhawan.sankshipt.models.UrlClickStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+
+@Repository
+public interface UrlClickStatsRepository extends JpaRepository<UrlClickStats, Long> {
+
+    /**
+     * Adds filtered click counts to a URL's row. Like every upsert here, it selects the URL row instead of
+     * using VALUES, so counts flushed after the URL was deleted or archived write nothing.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO url_click_stats (url_id, total_clicks, clicks_version, bot_clicks, duplicate_clicks) " +
+            "SELECT id, 0, 0, :botClicks, :duplicateClicks FROM urls WHERE id = :urlId " +
+            "ON DUPLICATE KEY UPDATE bot_clicks = bot_clicks + :botClicks, " +
+            "duplicate_clicks = duplicate_clicks + :duplicateClicks",
+            nativeQuery = true)
+    void incrementFilteredClicks(
+            @Param("urlId") Long urlId,
+            @Param("botClicks") long botClicks,
+            @Param("duplicateClicks") long duplicateClicks
+    );
+
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO url_click_stats (url_id, total_clicks, last_clicked_at, clicks_version, bot_clicks, duplicate_clicks) " +
+            "SELECT id, :clicks, :lastClickedAt, 1, 0, 0 FROM urls WHERE id = :urlId " +
+            "ON DUPLICATE KEY UPDATE total_clicks = total_clicks + :clicks, clicks_version = clicks_version + 1, " +
+            "last_clicked_at = GREATEST(COALESCE(last_clicked_at, :lastClickedAt), :lastClickedAt)",
+            nativeQuery = true)
+    void incrementClicks(
+            @Param("urlId") Long urlId,
+            @Param("clicks") long clicks,
+            @Param("lastClickedAt") Date lastClickedAt
+    );
+
+    List<UrlClickStats> findAllByUrlIdIn(Collection<Long> urlIds);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM UrlClickStats s WHERE s.urlId = :urlId")
+    void deleteByUrlId(@Param("urlId") Long urlId);
+
+    @Modifying
+    @Query("DELETE FROM UrlClickStats s WHERE s.urlId IN :urlIds")
+    int deleteAllByUrlIdIn(@Param("urlIds") Collection<Long> urlIds);
+
+}
@@ -0,0 +1,33 @@
+package com.hitanshudhawan.sankshipt.repositories;
+
+import com.hitanshudhawan.sankshipt.models.UrlDestination;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface UrlDestinationRepository extends JpaRepository<UrlDestination, Long> {
+
+    List<UrlDestination> findByUrlIdOrderByPosition(Long urlId);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE UrlDestination d SET d.clicks = d.clicks + :clicks WHERE d.id = :id")
+    int incrementClicks(@Param("id") Long id, @Param("clicks") long clicks);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM UrlDestination d WHERE d.urlId = :urlId")
+    void deleteByUrlId(@Param("urlId") Long urlId);
+
+    @Modifying
+    @Query("DELETE FROM UrlDestination d WHERE d.urlId IN :urlIds")
+    int deleteAllByUrlIdIn(@Param("urlIds") Collection<Long> urlIds);
+
+}
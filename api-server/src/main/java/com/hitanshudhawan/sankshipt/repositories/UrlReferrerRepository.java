@@ -0,0 +1,28 @@
+package com.hitanshudhawan.sankshipt.repositories;
+
+import com.hitanshudhawan.sankshipt.models.UrlReferrer;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface UrlReferrerRepository extends JpaRepository<UrlReferrer, Long> {
+
+    List<UrlReferrer> findByUrlIdOrderByClicksDesc(Long urlId);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM UrlReferrer r WHERE r.urlId = :urlId")
+    void deleteByUrlId(@Param("urlId") Long urlId);
+
+    @Modifying
+    @Query("DELETE FROM UrlReferrer r WHERE r.urlId IN :urlIds")
+    int deleteAllByUrlIdIn(@Param("urlIds") Collection<Long> urlIds);
+
+}
@@ -2,8 +2,13 @@ package com.hitanshudhawan.sankshipt.repositories;
 
 import com.hitanshudhawan.sankshipt.models.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.Optional;
 
 @Repository
@@ -11,4 +16,46 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     Optional<User> findByEmail(String email);
 
+    /**
+     * Inserts a user with the given email, or does nothing if one already exists.
+     * Either way, LAST_INSERT_ID() on the same connection afterwards returns the user's id.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO users (email, urls_version, created_at, updated_at) VALUES (:email, 0, NOW(6), NOW(6)) " +
+            "ON DUPLICATE KEY UPDATE id = LAST_INSERT_ID(id)",
+            nativeQuery = true)
+    int upsertByEmail(@Param("email") String email);
+
+    /**
+     * Inserts a user with the given auth server id, or links an existing user with the same
+     * id or email to it. Either way, LAST_INSERT_ID() on the same connection afterwards returns the user's id.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO users (auth_user_id, email, urls_version, created_at, updated_at) VALUES (:authUserId, :email, 0, NOW(6), NOW(6)) " +
+            "ON DUPLICATE KEY UPDATE id = LAST_INSERT_ID(id), auth_user_id = :authUserId",
+            nativeQuery = true)
+    int upsertByAuthUserId(@Param("authUserId") Long authUserId, @Param("email") String email);
+
+    @Query("SELECT u.id FROM User u WHERE u.authUserId = :authUserId")
+    Optional<Long> findIdByAuthUserId(@Param("authUserId") Long authUserId);
+
+    @Query(value = "SELECT LAST_INSERT_ID()", nativeQuery = true)
+    Long lastInsertId();
+
+    @Query("SELECT u.urlsVersion FROM User u WHERE u.id = :id")
+    Optional<Long> findUrlsVersionById(@Param("id") Long id);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE User u SET u.urlsVersion = u.urlsVersion + 1 WHERE u.id = :id")
+    int incrementUrlsVersion(@Param("id") Long id);
+
+    /**
+     * Bumps the listing version of every user owning one of the given URLs, in one statement.
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE User u SET u.urlsVersion = u.urlsVersion + 1 WHERE u.id IN (SELECT link.user.id FROM URL link WHERE link.id IN :urlIds)")
+    int incrementUrlsVersionForUrls(@Param("urlIds") Collection<Long> urlIds);
+
 }
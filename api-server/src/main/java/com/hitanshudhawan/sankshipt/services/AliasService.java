@@ -0,0 +1,31 @@
+package com.hitanshudhawan.sankshipt.services;
+
+public interface AliasService {
+
+    /**
+     * Checks whether a custom alias is already used by a short URL.
+     * Answers from memory when the alias was never seen; only possible matches are confirmed in the database.
+     *
+     * @param alias the alias to check
+     * @return true if a short URL already uses the alias
+     */
+    boolean isAliasTaken(String alias);
+
+    /**
+     * Records a newly created alias, so this instance reports it as taken right away.
+     *
+     * @param alias the alias that was just created
+     */
+    void recordAlias(String alias);
+
+    /**
+     * Rebuilds the in-memory alias filter from the database.
+     */
+    void reloadAliases();
+
+    /**
+     * Adds aliases created recently, including by other instances, to the in-memory filter.
+     */
+    void refreshAliases();
+
+}
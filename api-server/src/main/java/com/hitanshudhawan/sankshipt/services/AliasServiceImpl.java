@@ -0,0 +1,96 @@
+package com.hitanshudhawan.sankshipt.services;
+
+import com.hitanshudhawan.sankshipt.repositories.ShortUrlRepository;
+import com.hitanshudhawan.sankshipt.utils.AliasValidator;
+import com.hitanshudhawan.sankshipt.utils.BloomFilter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Date;
+import java.util.List;
+
+@Service
+public class AliasServiceImpl implements AliasService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AliasServiceImpl.class);
+
+    // Aliases created this long before the last refresh are read again, to cover clock differences between instances
+    static final long REFRESH_OVERLAP_MILLIS = 60_000;
+
+    private final ShortUrlRepository shortUrlRepository;
+    private final long expectedAliases;
+    private final double falsePositiveRate;
+
+    // Null until the first load; every check then goes to the database
+    private volatile BloomFilter filter;
+    private volatile long lastRefreshMillis;
+
+    public AliasServiceImpl(
+            ShortUrlRepository shortUrlRepository,
+            @Value("${sankshipt.aliases.expected-count:100000}") long expectedAliases,
+            @Value("${sankshipt.aliases.false-positive-rate:0.01}") double falsePositiveRate
+    ) {
+        this.shortUrlRepository = shortUrlRepository;
+        this.expectedAliases = expectedAliases;
+        this.falsePositiveRate = falsePositiveRate;
+    }
+
+    @Override
+    public boolean isAliasTaken(String alias) {
+        BloomFilter current = filter;
+        if (current != null && !current.mightContain(AliasValidator.normalize(alias))) {
+            return false;
+        }
+        // Possibly taken (or a deleted alias); the unique index on short_code has the final word
+        return shortUrlRepository.existsByShortCode(alias);
+    }
+
+    @Override
+    public void recordAlias(String alias) {
+        BloomFilter current = filter;
+        if (current != null) {
+            current.add(AliasValidator.normalize(alias));
+        }
+    }
+
+    @Override
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void reloadAliases() {
+        long startedAt = System.currentTimeMillis();
+        List<String> aliases = shortUrlRepository.findAllAliases();
+
+        // Leave room to grow before the filter has to be rebuilt
+        BloomFilter reloaded = new BloomFilter(Math.max(expectedAliases, 2L * aliases.size()), falsePositiveRate);
+        aliases.forEach(alias -> reloaded.add(AliasValidator.normalize(alias)));
+
+        filter = reloaded;
+        lastRefreshMillis = startedAt;
+        logger.info("Loaded {} custom aliases", aliases.size());
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${sankshipt.aliases.refresh-interval-ms:30000}")
+    public synchronized void refreshAliases() {
+        BloomFilter current = filter;
+        if (current == null || current.isSaturated()) {
+            reloadAliases();
+            return;
+        }
+
+        long startedAt = System.currentTimeMillis();
+        for (String alias : shortUrlRepository.findAliasesCreatedSince(new Date(lastRefreshMillis - REFRESH_OVERLAP_MILLIS))) {
+            String normalized = AliasValidator.normalize(alias);
+            // Skip aliases seen before, so the overlap does not count towards saturation
+            if (!current.mightContain(normalized)) {
+                current.add(normalized);
+            }
+        }
+        lastRefreshMillis = startedAt;
+    }
+
+}
@@ -1,13 +1,16 @@
 package com.hitanshudhawan.sankshipt.services;
 
-import com.hitanshudhawan.sankshipt.models.User;
+import com.hitanshudhawan.sankshipt.models.UserPrincipal;
 
 public interface AuthenticationService {
 
     /**
-     * Gets the current authenticated user from the security context
-     * @return the current User or null if not authenticated
+     * Gets the current authenticated user from the security context.
+     * The user's id is cached per token subject, so most calls do not touch the database.
+     * On a miss, the user is found by the token's user_id claim, or by email for older tokens.
+     * The returned principal only carries the id and email; it is not loaded from the database.
+     * @return the current user or null if not authenticated
      */
-    User getCurrentUser();
+    UserPrincipal getCurrentUser();
 
 }
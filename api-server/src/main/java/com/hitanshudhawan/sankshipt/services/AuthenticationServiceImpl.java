@@ -1,22 +1,47 @@
 package com.hitanshudhawan.sankshipt.services;
 
-import com.hitanshudhawan.sankshipt.models.User;
+import com.hitanshudhawan.sankshipt.models.UserPrincipal;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.stereotype.Service;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 @Service
 public class AuthenticationServiceImpl implements AuthenticationService {
 
+    // Added by the auth server; holds the user's id there
+    static final String USER_ID_CLAIM = "user_id";
+
+    private record CachedUserId(Long userId, long expiresAtMillis) {
+    }
+
     private final UserService userService;
+    private final long ttlMillis;
 
-    public AuthenticationServiceImpl(UserService userService) {
+    // User ids by auth server id, or by email for tokens without the id claim; least recently used go first once full
+    private final Map<Object, CachedUserId> userIds;
+
+    public AuthenticationServiceImpl(
+            UserService userService,
+            @Value("${sankshipt.users.cache-size:10000}") int cacheSize,
+            @Value("${sankshipt.users.cache-ttl-ms:600000}") long ttlMillis
+    ) {
         this.userService = userService;
+        this.ttlMillis = ttlMillis;
+        this.userIds = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Object, CachedUserId> eldest) {
+                return size() > cacheSize;
+            }
+        };
     }
 
     @Override
-    public User getCurrentUser() {
+    public UserPrincipal getCurrentUser() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         
         if (authentication == null || !authentication.isAuthenticated() || 
@@ -28,11 +53,44 @@ public class AuthenticationServiceImpl implements AuthenticationService {
         if (authentication.getPrincipal() instanceof Jwt jwt) {
             String email = jwt.getSubject(); // The subject is typically the email in our setup
             if (email != null) {
-                return userService.getOrCreateUser(email);
+                Long authUserId = userIdClaim(jwt);
+                return new UserPrincipal(resolveUserId(email, authUserId), email);
             }
         }
 
         return null;
     }
 
+    private static Long userIdClaim(Jwt jwt) {
+        Object claim = jwt.getClaims().get(USER_ID_CLAIM);
+        return claim instanceof Number number ? number.longValue() : null;
+    }
+
+    private Long resolveUserId(String email, Long authUserId) {
+        // The auth server id is stable across email changes; a Long key never collides with an email key
+        Object cacheKey = authUserId != null ? authUserId : email;
+        long now = System.currentTimeMillis();
+        synchronized (userIds) {
+            CachedUserId cached = userIds.get(cacheKey);
+            if (cached != null && cached.expiresAtMillis() > now) {
+                return cached.userId();
+            }
+        }
+
+        // Look up outside the lock; concurrent misses for the same user resolve to the same id
+        Long userId;
+        if (authUserId != null) {
+            // Known users cost one indexed read; only the first request of a new or not yet linked user writes
+            userId = userService.findUserId(authUserId)
+                    .orElseGet(() -> userService.getOrCreateUserId(authUserId, email));
+        } else {
+            // Tokens issued before the auth server added the id claim still identify the user by email
+            userId = userService.getOrCreateUserId(email);
+        }
+        synchronized (userIds) {
+            userIds.put(cacheKey, new CachedUserId(userId, now + ttlMillis));
+        }
+        return userId;
+    }
+
 }
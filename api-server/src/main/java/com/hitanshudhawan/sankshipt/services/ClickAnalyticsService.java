@@ -2,37 +2,87 @@ package com.hitanshudhawan.sankshipt.services;
 
 import com.hitanshudhawan.sankshipt.models.Click;
 import com.hitanshudhawan.sankshipt.models.URL;
+import com.hitanshudhawan.sankshipt.repositories.ClickRepository;
 import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.data.domain.Page;
 
+import java.util.Collection;
+import java.util.Date;
+import java.util.Map;
+
 public interface ClickAnalyticsService {
 
+    /**
+     * Rolled-up click counters of a URL.
+     *
+     * @param totalClicks the number of accepted clicks
+     * @param lastClickedAt the time of the latest accepted click, or null if there was none
+     */
+    record ClickTotals(long totalClicks, Date lastClickedAt) {
+    }
+
+    /**
+     * The rolled-up click count of a URL and the version of the row it was read from.
+     *
+     * @param totalClicks the number of accepted clicks
+     * @param version bumped by every flush that adds to the count
+     */
+    record ClickCount(long totalClicks, long version) {
+    }
+
     /**
      * Records a click event for a given URL, capturing analytics data from the HTTP request.
+     * Clicks from bots and repeated clicks by the same visitor are counted but not stored.
      *
      * @param url the URL that was clicked
      * @param request the HTTP request containing user agent, IP address, and other metadata
-     * @return the recorded Click entity
+     * @return the recorded Click entity, or null if the click was filtered out
      */
     Click recordClick(URL url, HttpServletRequest request);
 
     /**
-     * Retrieves the total number of clicks for a specific URL.
+     * Retrieves the rolled-up click count of a URL together with the version of its stats row.
+     * Both come from the same row, and the flush that adds to the count also bumps the version,
+     * so a tag built from the version always describes the count returned with it.
+     * The count covers flushed clicks only, so it can trail redirects by up to one flush interval.
      *
      * @param url the URL to get the click count for
-     * @return the total number of clicks for the URL
+     * @return the click count and its version, both 0 if no click has been flushed yet
      */
-    Long getClickCountForUrl(URL url);
+    ClickCount getClickCount(URL url);
 
     /**
-     * Retrieves a paginated list of clicks for a specific URL with optional sorting.
+     * Retrieves the rolled-up click totals of several URLs with one query, without reading individual clicks.
+     * Totals lag behind by up to one flush interval, and URLs without any counted click are absent from the result.
+     *
+     * @param urlIds the ids of the URLs to get totals for
+     * @return the click totals keyed by URL id
+     */
+    Map<Long, ClickTotals> getClickTotals(Collection<Long> urlIds);
+
+    /**
+     * Retrieves a paginated list of clicks for a specific URL with optional filters and sorting.
      *
      * @param url the URL to get clicks for
+     * @param from only clicks at or after this time, or null for no lower bound
+     * @param to only clicks before this time, or null for no upper bound
+     * @param userAgent only clicks whose User-Agent contains this text (case-insensitive), or null
      * @param pageNumber the page number to retrieve (0-based)
      * @param pageSize the number of clicks per page
      * @param sortOrder the sort order for the results (e.g., "asc" or "desc")
-     * @return a paginated list of Click entities
+     * @return a paginated list of click projections
+     */
+    Page<ClickRepository.ClickView> getClicksForUrl(URL url, Date from, Date to, String userAgent, Integer pageNumber, Integer pageSize, String sortOrder);
+
+    /**
+     * Adds clicks skipped at the tail of a sampled burst to the last stored click of their URL,
+     * once the URL has gone quiet, so that click totals stay exact.
+     */
+    void flushSampledClicks();
+
+    /**
+     * Writes the accepted click counts and latest click times accumulated in memory to the rolled-up click totals.
      */
-    Page<Click> getClicksForUrl(URL url, Integer pageNumber, Integer pageSize, String sortOrder);
+    void flushClickTotals();
 
 }
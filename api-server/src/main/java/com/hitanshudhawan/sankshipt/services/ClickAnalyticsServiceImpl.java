@@ -2,49 +2,197 @@ package com.hitanshudhawan.sankshipt.services;
 
 import com.hitanshudhawan.sankshipt.models.Click;
 import com.hitanshudhawan.sankshipt.models.URL;
+import com.hitanshudhawan.sankshipt.models.UrlClickStats;
 import com.hitanshudhawan.sankshipt.repositories.ClickRepository;
+import com.hitanshudhawan.sankshipt.repositories.ClickSpecifications;
+import com.hitanshudhawan.sankshipt.repositories.UrlClickStatsRepository;
+import com.hitanshudhawan.sankshipt.repositories.UserRepository;
+import com.hitanshudhawan.sankshipt.utils.AdaptiveSampler;
+import com.hitanshudhawan.sankshipt.utils.UrlNormalizer;
 import jakarta.servlet.http.HttpServletRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 @Service
 public class ClickAnalyticsServiceImpl implements ClickAnalyticsService {
 
+    private static final Logger logger = LoggerFactory.getLogger(ClickAnalyticsServiceImpl.class);
+
     private final ClickRepository clickRepository;
+    private final UrlClickStatsRepository urlClickStatsRepository;
+    private final UserRepository userRepository;
+    private final ClickFilterService clickFilterService;
+    private final ReferrerAnalyticsService referrerAnalyticsService;
+    private final ClickRateService clickRateService;
+    private final AdaptiveSampler sampler;
+    private final long samplingIdleMillis;
+
+    // Accepted clicks waiting to be added to the rolled-up totals, keyed by URL id
+    private final Map<Long, PendingClicks> pendingClicks = new ConcurrentHashMap<>();
 
-    public ClickAnalyticsServiceImpl(ClickRepository clickRepository) {
+    public ClickAnalyticsServiceImpl(
+            ClickRepository clickRepository,
+            UrlClickStatsRepository urlClickStatsRepository,
+            UserRepository userRepository,
+            ClickFilterService clickFilterService,
+            ReferrerAnalyticsService referrerAnalyticsService,
+            ClickRateService clickRateService,
+            @Value("${sankshipt.clicks.sampling-threshold-per-second:50}") int samplingThresholdPerSecond,
+            @Value("${sankshipt.clicks.sampling-idle-ms:5000}") long samplingIdleMillis
+    ) {
         this.clickRepository = clickRepository;
+        this.urlClickStatsRepository = urlClickStatsRepository;
+        this.userRepository = userRepository;
+        this.clickFilterService = clickFilterService;
+        this.referrerAnalyticsService = referrerAnalyticsService;
+        this.clickRateService = clickRateService;
+        this.sampler = new AdaptiveSampler(samplingThresholdPerSecond);
+        this.samplingIdleMillis = samplingIdleMillis;
     }
 
     @Override
     public Click recordClick(URL url, HttpServletRequest request) {
+        String userAgent = request.getHeader("User-Agent");
+
+        // Bots and repeated clicks are only counted, not stored as individual rows
+        if (clickFilterService.evaluate(url, userAgent, request.getRemoteAddr()) != ClickFilterService.Decision.ACCEPT) {
+            return null;
+        }
+
+        // Referrers, rates and totals are counted before sampling so they see every genuine click
+        long now = System.currentTimeMillis();
+        String referrer = UrlNormalizer.referrerHost(request.getHeader("Referer"));
+        referrerAnalyticsService.recordReferrer(url, referrer);
+        clickRateService.recordClick(url);
+        pendingClicks.merge(url.getId(), new PendingClicks(1, now), PendingClicks::plus);
+
+        // Under heavy load only 1-in-N clicks are stored, each standing for the clicks skipped before it
+        long sampleRate = sampler.sample(url.getId(), now);
+        if (sampleRate == 0) {
+            return null;
+        }
+
         Click click = new Click();
         click.setUrl(url);
-        click.setUserAgent(request.getHeader("User-Agent"));
+        click.setUserAgent(userAgent);
+        click.setReferrer(referrer);
+        click.setSampleRate((int) sampleRate);
 
-        return clickRepository.save(click);
+        Click savedClick = clickRepository.save(click);
+        if (savedClick != null && savedClick.getId() != null) {
+            sampler.stored(url.getId(), savedClick.getId());
+        }
+        return savedClick;
     }
 
     @Override
-    public Long getClickCountForUrl(URL url) {
-        return clickRepository.countByUrlShortCode(url.getShortCode());
+    public ClickCount getClickCount(URL url) {
+        return urlClickStatsRepository.findById(url.getId())
+                .map(stats -> new ClickCount(stats.getTotalClicks(), stats.getClicksVersion()))
+                .orElse(new ClickCount(0, 0));
     }
 
     @Override
-    public Page<Click> getClicksForUrl(URL url, Integer pageNumber, Integer pageSize, String sortOrder) {
+    @Scheduled(fixedDelayString = "${sankshipt.clicks.stats-flush-interval-ms:5000}")
+    public void flushSampledClicks() {
+        for (AdaptiveSampler.CarryOver carryOver : sampler.drainIdle(System.currentTimeMillis(), samplingIdleMillis)) {
+            try {
+                clickRepository.addToSampleRate(carryOver.lastStoredId(), carryOver.skipped());
+            } catch (Exception e) {
+                sampler.restore(carryOver);
+                logger.warn("Failed to flush sampled clicks for URL {}", carryOver.key(), e);
+            }
+        }
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${sankshipt.clicks.stats-flush-interval-ms:5000}")
+    public void flushClickTotals() {
+        List<Long> flushedUrlIds = new ArrayList<>();
+        for (Long urlId : pendingClicks.keySet()) {
+            PendingClicks clicks = pendingClicks.remove(urlId);
+            if (clicks == null) {
+                continue;
+            }
+            try {
+                urlClickStatsRepository.incrementClicks(urlId, clicks.count(), new Date(clicks.lastClickedAtMillis()));
+                flushedUrlIds.add(urlId);
+            } catch (Exception e) {
+                // Keep the counts for the next flush instead of dropping them
+                pendingClicks.merge(urlId, clicks, PendingClicks::plus);
+                logger.warn("Failed to flush click totals for URL {}", urlId, e);
+            }
+        }
+
+        // Listings carry these totals, so their owners' listing versions move with them
+        if (!flushedUrlIds.isEmpty()) {
+            try {
+                userRepository.incrementUrlsVersionForUrls(flushedUrlIds);
+            } catch (Exception e) {
+                logger.warn("Failed to bump listing versions for {} URLs", flushedUrlIds.size(), e);
+            }
+        }
+    }
+
+    @Override
+    public Map<Long, ClickTotals> getClickTotals(Collection<Long> urlIds) {
+        Map<Long, ClickTotals> totals = new HashMap<>();
+        if (urlIds.isEmpty()) {
+            return totals;
+        }
+        for (UrlClickStats stats : urlClickStatsRepository.findAllByUrlIdIn(urlIds)) {
+            totals.put(stats.getUrlId(), new ClickTotals(stats.getTotalClicks(), stats.getLastClickedAt()));
+        }
+        return totals;
+    }
+
+    @Override
+    public Page<ClickRepository.ClickView> getClicksForUrl(URL url, Date from, Date to, String userAgent, Integer pageNumber, Integer pageSize, String sortOrder) {
 
         // Set default values
         int page = pageNumber != null ? pageNumber : 0;
         int size = pageSize != null ? pageSize : 20;
 
-        // Create sort - default to DESC by clickedAt
+        // Create sort - default to DESC by clickedAt, with id as a tie-breaker for stable pages
         Sort sort = "ASC".equalsIgnoreCase(sortOrder)
-                ? Sort.by(Sort.Order.asc("clickedAt"))
-                : Sort.by(Sort.Order.desc("clickedAt"));
+                ? Sort.by(Sort.Order.asc("clickedAt"), Sort.Order.asc("id"))
+                : Sort.by(Sort.Order.desc("clickedAt"), Sort.Order.desc("id"));
+
+        Specification<Click> specification = ClickSpecifications.forUrl(url);
+        if (from != null) {
+            specification = specification.and(ClickSpecifications.clickedFrom(from));
+        }
+        if (to != null) {
+            specification = specification.and(ClickSpecifications.clickedBefore(to));
+        }
+        if (userAgent != null && !userAgent.isBlank()) {
+            specification = specification.and(ClickSpecifications.userAgentContains(userAgent.trim()));
+        }
+
+        PageRequest pageRequest = PageRequest.of(page, size, sort);
+        return clickRepository.findBy(specification, query -> query.as(ClickRepository.ClickView.class).page(pageRequest));
+    }
+
+    private record PendingClicks(long count, long lastClickedAtMillis) {
 
-        return clickRepository.findByUrl(url, PageRequest.of(page, size, sort));
+        private PendingClicks plus(PendingClicks other) {
+            return new PendingClicks(count + other.count, Math.max(lastClickedAtMillis, other.lastClickedAtMillis));
+        }
     }
 
 }
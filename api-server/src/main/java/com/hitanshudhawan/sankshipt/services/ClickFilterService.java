@@ -0,0 +1,35 @@
+package com.hitanshudhawan.sankshipt.services;
+
+import com.hitanshudhawan.sankshipt.models.URL;
+
+public interface ClickFilterService {
+
+    /**
+     * Outcome of evaluating a click before it is persisted.
+     */
+    enum Decision {
+        /** The click is a genuine visit and should be stored. */
+        ACCEPT,
+        /** The click came from a known bot, crawler or monitoring tool. */
+        BOT,
+        /** The same visitor already clicked this URL within the dedupe window. */
+        DUPLICATE
+    }
+
+    /**
+     * Decides whether a click should be stored as an individual row.
+     * Rejected clicks are still counted in the URL's aggregated click statistics.
+     *
+     * @param url the URL that was clicked
+     * @param userAgent the User-Agent header of the request, may be null
+     * @param clientAddress the address of the client that made the request, may be null
+     * @return the filtering decision for the click
+     */
+    Decision evaluate(URL url, String userAgent, String clientAddress);
+
+    /**
+     * Writes the filtered click counts accumulated in memory to the database.
+     */
+    void flushFilteredCounts();
+
+}
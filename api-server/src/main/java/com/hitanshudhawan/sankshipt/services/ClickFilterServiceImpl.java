@@ -0,0 +1,116 @@
+package com.hitanshudhawan.sankshipt.services;
+
+import com.hitanshudhawan.sankshipt.models.URL;
+import com.hitanshudhawan.sankshipt.repositories.UrlClickStatsRepository;
+import com.hitanshudhawan.sankshipt.utils.BotDetector;
+import com.hitanshudhawan.sankshipt.utils.SlidingWindowDeduplicator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Service
+public class ClickFilterServiceImpl implements ClickFilterService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ClickFilterServiceImpl.class);
+
+    private final UrlClickStatsRepository urlClickStatsRepository;
+    private final BotDetector botDetector;
+    private final SlidingWindowDeduplicator deduplicator;
+
+    // Filtered counts waiting to be flushed, keyed by URL id
+    private final Map<Long, FilteredCounts> pendingCounts = new ConcurrentHashMap<>();
+
+    public ClickFilterServiceImpl(
+            UrlClickStatsRepository urlClickStatsRepository,
+            @Value("${sankshipt.clicks.bot-cache-size:10000}") int botCacheSize,
+            @Value("${sankshipt.clicks.dedupe-window-ms:10000}") long dedupeWindowMillis,
+            @Value("${sankshipt.clicks.dedupe-stripes:64}") int dedupeStripes
+    ) {
+        this.urlClickStatsRepository = urlClickStatsRepository;
+        this.botDetector = new BotDetector(botCacheSize);
+        this.deduplicator = new SlidingWindowDeduplicator(dedupeWindowMillis, dedupeStripes);
+    }
+
+    @Override
+    public Decision evaluate(URL url, String userAgent, String clientAddress) {
+        Decision decision;
+        if (botDetector.isBot(userAgent)) {
+            decision = Decision.BOT;
+        } else if (deduplicator.isDuplicate(dedupeKey(url.getId(), userAgent, clientAddress), System.currentTimeMillis())) {
+            decision = Decision.DUPLICATE;
+        } else {
+            return Decision.ACCEPT;
+        }
+
+        FilteredCounts delta = decision == Decision.BOT ? FilteredCounts.BOT : FilteredCounts.DUPLICATE;
+        pendingCounts.merge(url.getId(), delta, FilteredCounts::plus);
+        return decision;
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${sankshipt.clicks.stats-flush-interval-ms:5000}")
+    public void flushFilteredCounts() {
+        for (Long urlId : pendingCounts.keySet()) {
+            FilteredCounts counts = pendingCounts.remove(urlId);
+            if (counts == null) {
+                continue;
+            }
+            try {
+                urlClickStatsRepository.incrementFilteredClicks(urlId, counts.bot(), counts.duplicate());
+            } catch (Exception e) {
+                // Keep the counts for the next flush instead of dropping them
+                pendingCounts.merge(urlId, counts, FilteredCounts::plus);
+                logger.warn("Failed to flush filtered click counts for URL {}", urlId, e);
+            }
+        }
+    }
+
+    /**
+     * Builds the dedupe key from the visitor (client address + User-Agent) and the clicked URL.
+     */
+    private static long dedupeKey(Long urlId, String userAgent, String clientAddress) {
+        long visitorHash = hash(clientAddress) * 31 + hash(userAgent);
+        return mix(visitorHash ^ mix(urlId != null ? urlId : 0L));
+    }
+
+    /**
+     * 64-bit FNV-1a hash of the UTF-8 bytes of the given string.
+     */
+    private static long hash(String value) {
+        long h = 0xcbf29ce484222325L;
+        if (value == null) {
+            return h;
+        }
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b & 0xff;
+            h *= 0x100000001b3L;
+        }
+        return h;
+    }
+
+    private static long mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xff51afd7ed558ccdL;
+        value ^= value >>> 33;
+        value *= 0xc4ceb9fe1a85ec53L;
+        value ^= value >>> 33;
+        return value;
+    }
+
+    private record FilteredCounts(long bot, long duplicate) {
+
+        private static final FilteredCounts BOT = new FilteredCounts(1, 0);
+        private static final FilteredCounts DUPLICATE = new FilteredCounts(0, 1);
+
+        private FilteredCounts plus(FilteredCounts other) {
+            return new FilteredCounts(bot + other.bot, duplicate + other.duplicate);
+        }
+    }
+
+}
@@ -0,0 +1,38 @@
+package com.hitanshudhawan.sankshipt.services;
+
+import com.hitanshudhawan.sankshipt.models.URL;
+
+public interface ClickRateService {
+
+    /**
+     * Recent click counts of a URL over sliding windows.
+     *
+     * @param lastFiveMinutes clicks in the last 5 minutes
+     * @param lastHour clicks in the last hour
+     * @param lastDay clicks in the last 24 hours
+     */
+    record ClickRates(long lastFiveMinutes, long lastHour, long lastDay) {
+    }
+
+    /**
+     * Counts a click in the in-memory sliding windows of the URL.
+     *
+     * @param url the URL that was clicked
+     */
+    void recordClick(URL url);
+
+    /**
+     * Retrieves the recent click rates of a URL from memory, without any database access.
+     * Rates reflect the clicks served by this instance since it started.
+     *
+     * @param url the URL to get click rates for
+     * @return the click counts over the last 5 minutes, hour and day
+     */
+    ClickRates getClickRates(URL url);
+
+    /**
+     * Drops the windows of URLs that have not been clicked for a whole day.
+     */
+    void evictIdleWindows();
+
+}
@@ -0,0 +1,95 @@
+package com.hitanshudhawan.sankshipt.services;
+
+import com.hitanshudhawan.sankshipt.models.URL;
+import com.hitanshudhawan.sankshipt.utils.ClickRateWindow;
+import com.hitanshudhawan.sankshipt.utils.LongObjectHashMap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+@Service
+public class ClickRateServiceImpl implements ClickRateService {
+
+    private static final long DAY_MILLIS = 24 * 60 * 60 * 1000L;
+
+    // Windows are spread over lock stripes, each holding a primitive-keyed map from URL id to window
+    private final LongObjectHashMap<ClickRateWindow>[] stripes;
+    private final int stripeMask;
+
+    @SuppressWarnings("unchecked")
+    public ClickRateServiceImpl(@Value("${sankshipt.clicks.rate-stripes:64}") int stripeCount) {
+        int size = Integer.highestOneBit(Math.max(stripeCount, 1));
+        if (size < stripeCount) {
+            size <<= 1;
+        }
+        this.stripes = new LongObjectHashMap[size];
+        this.stripeMask = size - 1;
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new LongObjectHashMap<>();
+        }
+    }
+
+    @Override
+    public void recordClick(URL url) {
+        long urlId = url.getId();
+        LongObjectHashMap<ClickRateWindow> stripe = stripeFor(urlId);
+
+        synchronized (stripe) {
+            ClickRateWindow window = stripe.get(urlId);
+            if (window == null) {
+                window = new ClickRateWindow();
+                stripe.put(urlId, window);
+            }
+            window.record(System.currentTimeMillis());
+        }
+    }
+
+    @Override
+    public ClickRates getClickRates(URL url) {
+        long urlId = url.getId();
+        long now = System.currentTimeMillis();
+        LongObjectHashMap<ClickRateWindow> stripe = stripeFor(urlId);
+
+        synchronized (stripe) {
+            ClickRateWindow window = stripe.get(urlId);
+            if (window == null) {
+                return new ClickRates(0, 0, 0);
+            }
+            return new ClickRates(
+                    window.countLastMinutes(5, now),
+                    window.countLastMinutes(60, now),
+                    window.countLastDay(now)
+            );
+        }
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${sankshipt.clicks.rate-eviction-interval-ms:600000}")
+    public void evictIdleWindows() {
+        long cutoff = System.currentTimeMillis() - DAY_MILLIS;
+        for (LongObjectHashMap<ClickRateWindow> stripe : stripes) {
+            synchronized (stripe) {
+                stripe.removeIf((urlId, window) -> window.lastActivityMillis() < cutoff);
+            }
+        }
+    }
+
+    /**
+     * Returns the number of URLs that currently have a window in memory.
+     */
+    int trackedUrlCount() {
+        int count = 0;
+        for (LongObjectHashMap<ClickRateWindow> stripe : stripes) {
+            synchronized (stripe) {
+                count += stripe.size();
+            }
+        }
+        return count;
+    }
+
+    private LongObjectHashMap<ClickRateWindow> stripeFor(long urlId) {
+        long h = urlId * 0xC2B2AE3D27D4EB4FL;
+        return stripes[(int) (h >>> 40) & stripeMask];
+    }
+
+}
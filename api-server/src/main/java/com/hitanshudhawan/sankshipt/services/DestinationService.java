@@ -0,0 +1,33 @@
+package com.hitanshudhawan.sankshipt.services;
+
+import com.hitanshudhawan.sankshipt.models.URL;
+import com.hitanshudhawan.sankshipt.models.UrlDestination;
+
+import java.util.List;
+
+public interface DestinationService {
+
+    /**
+     * Picks the destination of one redirect and counts the click for it.
+     * The first call for a weighted URL loads its destinations and attaches an alias table to the
+     * URL entity, so later redirects served from the redirect cache choose in constant time.
+     *
+     * @param url the resolved URL entity
+     * @return the address to redirect to; the original URL for links without destinations
+     */
+    String selectDestination(URL url);
+
+    /**
+     * Retrieves the destinations of a URL with their click counts, in the order they were given.
+     *
+     * @param url the URL to get destinations for
+     * @return the destinations, empty for links without destinations
+     */
+    List<UrlDestination> getDestinations(URL url);
+
+    /**
+     * Adds the click counts accumulated in memory to the destination rows.
+     */
+    void flushDestinationClicks();
+
+}
@@ -0,0 +1,77 @@
+package com.hitanshudhawan.sankshipt.services;
+
+import com.hitanshudhawan.sankshipt.models.URL;
+import com.hitanshudhawan.sankshipt.models.UrlDestination;
+import com.hitanshudhawan.sankshipt.repositories.UrlDestinationRepository;
+import com.hitanshudhawan.sankshipt.utils.AliasTable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+@Service
+public class DestinationServiceImpl implements DestinationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DestinationServiceImpl.class);
+
+    private final UrlDestinationRepository urlDestinationRepository;
+
+    // Clicks waiting to be flushed, keyed by destination id
+    private final Map<Long, Long> pendingClicks = new ConcurrentHashMap<>();
+
+    public DestinationServiceImpl(UrlDestinationRepository urlDestinationRepository) {
+        this.urlDestinationRepository = urlDestinationRepository;
+    }
+
+    @Override
+    public String selectDestination(URL url) {
+        if (!url.isWeighted()) {
+            return url.getOriginalUrl();
+        }
+
+        AliasTable<UrlDestination> table = url.getDestinationTable();
+        if (table == null) {
+            // Concurrent first redirects may both build the table; either copy is correct
+            List<UrlDestination> destinations = urlDestinationRepository.findByUrlIdOrderByPosition(url.getId());
+            if (destinations.isEmpty()) {
+                return url.getOriginalUrl();
+            }
+            long[] weights = destinations.stream().mapToLong(UrlDestination::getWeight).toArray();
+            table = new AliasTable<>(destinations, weights);
+            url.setDestinationTable(table);
+        }
+
+        UrlDestination destination = table.sample(ThreadLocalRandom.current());
+        pendingClicks.merge(destination.getId(), 1L, Long::sum);
+        return destination.getDestinationUrl();
+    }
+
+    @Override
+    public List<UrlDestination> getDestinations(URL url) {
+        return urlDestinationRepository.findByUrlIdOrderByPosition(url.getId());
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${sankshipt.clicks.stats-flush-interval-ms:5000}")
+    public void flushDestinationClicks() {
+        for (Long destinationId : pendingClicks.keySet()) {
+            Long clicks = pendingClicks.remove(destinationId);
+            if (clicks == null) {
+                continue;
+            }
+            try {
+                urlDestinationRepository.incrementClicks(destinationId, clicks);
+            } catch (Exception e) {
+                // Keep the clicks for the next flush instead of dropping them
+                pendingClicks.merge(destinationId, clicks, Long::sum);
+                logger.warn("Failed to flush clicks for destination {}", destinationId, e);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,15 @@
+package com.hitanshudhawan.sankshipt.services;
+
+public interface IdAllocationService {
+
+    /**
+     * Returns a new, never used id for a URL.
+     * Ids are unique across all instances but only roughly increasing, since every
+     * instance hands out ids from its own reserved block (or, with the Snowflake
+     * strategy, from its own node id).
+     *
+     * @return the allocated id
+     */
+    long nextUrlId();
+
+}
@@ -0,0 +1,212 @@
+package com.hitanshudhawan.sankshipt.services;
+
+import com.hitanshudhawan.sankshipt.models.IdBlock;
+import com.hitanshudhawan.sankshipt.repositories.IdBlockRepository;
+import com.hitanshudhawan.sankshipt.repositories.ShortUrlRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+
+/**
+ * Hands out URL ids from blocks reserved in the {@code id_blocks} table.
+ * <p>
+ * Callers often hold a pooled connection of their own, so blocks are reserved on a separate thread and
+ * one spare block is always kept ready: crossing a block boundary switches to the spare without a database
+ * round trip, and no caller ever waits for a connection while holding the lock.
+ */
+@Service
+@ConditionalOnProperty(name = "sankshipt.ids.strategy", havingValue = "block", matchIfMissing = true)
+public class IdAllocationServiceImpl implements IdAllocationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(IdAllocationServiceImpl.class);
+
+    static final String URL_SEQUENCE = "urls";
+    private static final int MAX_RESERVE_ATTEMPTS = 3;
+
+    private final IdBlockRepository idBlockRepository;
+    private final ShortUrlRepository shortUrlRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int blockSize;
+    private final long reserveTimeoutMillis;
+    private final Executor reserveExecutor;
+
+    // Remaining ids of the current block: [next, limit); all fields below are guarded by this instance's monitor
+    private long next;
+    private long limit;
+
+    // First id of the spare block, or -1 while none is reserved
+    private long spareStart = -1;
+
+    // Whether a reservation is running on the reserve executor, and how many have failed so far
+    private boolean reserving;
+    private int failedReservations;
+    private RuntimeException lastFailure;
+
+    @Autowired
+    public IdAllocationServiceImpl(
+            IdBlockRepository idBlockRepository,
+            ShortUrlRepository shortUrlRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${sankshipt.ids.block-size:100}") int blockSize,
+            @Value("${sankshipt.ids.reserve-timeout-ms:10000}") long reserveTimeoutMillis
+    ) {
+        this(idBlockRepository, shortUrlRepository, transactionManager, blockSize, reserveTimeoutMillis,
+                Executors.newSingleThreadExecutor(runnable -> {
+                    Thread thread = new Thread(runnable, "id-block-reserve");
+                    thread.setDaemon(true);
+                    return thread;
+                }));
+    }
+
+    IdAllocationServiceImpl(
+            IdBlockRepository idBlockRepository,
+            ShortUrlRepository shortUrlRepository,
+            PlatformTransactionManager transactionManager,
+            int blockSize,
+            long reserveTimeoutMillis,
+            Executor reserveExecutor
+    ) {
+        if (blockSize <= 0) {
+            throw new IllegalArgumentException("Block size must be positive");
+        }
+        this.idBlockRepository = idBlockRepository;
+        this.shortUrlRepository = shortUrlRepository;
+        // Reservations commit on their own, so a rolled back caller never hands out the same block twice
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.blockSize = blockSize;
+        this.reserveTimeoutMillis = reserveTimeoutMillis;
+        this.reserveExecutor = reserveExecutor;
+    }
+
+    /**
+     * Reserves the first blocks at startup, before any request needs an id.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void reserveAhead() {
+        requestReservation();
+    }
+
+    @Override
+    public synchronized long nextUrlId() {
+        long deadline = System.currentTimeMillis() + reserveTimeoutMillis;
+        while (next >= limit) {
+            if (spareStart >= 0) {
+                next = spareStart;
+                limit = spareStart + blockSize;
+                spareStart = -1;
+                continue;
+            }
+            // Only before the first blocks arrive, or if reservations fall behind; wait() releases the lock
+            int failuresBefore = failedReservations;
+            requestReservation();
+            long remaining = deadline - System.currentTimeMillis();
+            if (failedReservations != failuresBefore || remaining <= 0) {
+                throw new IllegalStateException("No URL ids available", lastFailure);
+            }
+            try {
+                wait(remaining);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for URL ids", e);
+            }
+            if (failedReservations != failuresBefore) {
+                throw new IllegalStateException("No URL ids available", lastFailure);
+            }
+        }
+        if (spareStart < 0) {
+            requestReservation();
+        }
+        return next++;
+    }
+
+    private void requestReservation() {
+        if (!reserving) {
+            reserving = true;
+            reserveExecutor.execute(this::reserveMissingBlocks);
+        }
+    }
+
+    /**
+     * Reserves blocks until both the current and the spare block are available, without holding the lock
+     * during the database round trips.
+     */
+    private void reserveMissingBlocks() {
+        while (true) {
+            synchronized (this) {
+                if (next < limit && spareStart >= 0) {
+                    reserving = false;
+                    return;
+                }
+            }
+            long start;
+            try {
+                start = reserveBlock();
+            } catch (RuntimeException e) {
+                logger.error("Failed to reserve URL ids", e);
+                synchronized (this) {
+                    reserving = false;
+                    failedReservations++;
+                    lastFailure = e;
+                    notifyAll();
+                }
+                return;
+            }
+            synchronized (this) {
+                if (next >= limit) {
+                    next = start;
+                    limit = start + blockSize;
+                } else {
+                    spareStart = start;
+                }
+                notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Advances the URL sequence by one block and returns the first id of the reserved block.
+     * Ids of a block that is not used up before shutdown are skipped, never reused.
+     */
+    private long reserveBlock() {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                Long start = transactionTemplate.execute(status -> {
+                    IdBlock block = idBlockRepository.findByNameForUpdate(URL_SEQUENCE).orElseGet(this::newSequence);
+                    long first = block.getNextId();
+                    block.setNextId(first + blockSize);
+                    idBlockRepository.save(block);
+                    return first;
+                });
+                logger.info("Reserved URL ids {} to {}", start, start + blockSize - 1);
+                return start;
+            } catch (DataIntegrityViolationException e) {
+                // Another instance created the sequence row at the same time; read it again
+                if (attempt >= MAX_RESERVE_ATTEMPTS) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    private IdBlock newSequence() {
+        // Continue after the ids handed out by the database before blocks were used
+        IdBlock block = new IdBlock();
+        block.setName(URL_SEQUENCE);
+        block.setNextId(shortUrlRepository.findMaxId() + 1);
+        return block;
+    }
+
+}
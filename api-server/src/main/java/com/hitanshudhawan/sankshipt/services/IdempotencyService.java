@@ -0,0 +1,41 @@
+package com.hitanshudhawan.sankshipt.services;
+
+import com.hitanshudhawan.sankshipt.exceptions.AliasUnavailableException;
+import com.hitanshudhawan.sankshipt.exceptions.IdempotencyKeyMismatchException;
+import com.hitanshudhawan.sankshipt.exceptions.UrlNotFoundException;
+import com.hitanshudhawan.sankshipt.models.URL;
+import com.hitanshudhawan.sankshipt.models.UserPrincipal;
+
+public interface IdempotencyService {
+
+    /**
+     * Creates a short URL; see {@link #createOnce}.
+     */
+    @FunctionalInterface
+    interface UrlCreation {
+        URL create() throws AliasUnavailableException;
+    }
+
+    /**
+     * Runs a short URL creation at most once per user and idempotency key.
+     * The first call creates the URL and records it with the key; calls with the same key
+     * return that URL again until the key expires, without creating anything.
+     *
+     * @param idempotencyKey the client-chosen key from the Idempotency-Key header
+     * @param request a canonical form of the request, compared against the request that first used the key
+     * @param user the user who is creating the short URL
+     * @param creation creates the short URL when the key has not been used yet
+     * @return the created URL, or the URL created by the first request with this key
+     * @throws AliasUnavailableException if the creation fails because its alias is taken
+     * @throws IdempotencyKeyMismatchException if the key was already used for a different request
+     * @throws UrlNotFoundException if the URL created with this key has been deleted since
+     */
+    URL createOnce(String idempotencyKey, String request, UserPrincipal user, UrlCreation creation)
+            throws AliasUnavailableException, IdempotencyKeyMismatchException, UrlNotFoundException;
+
+    /**
+     * Deletes expired idempotency keys.
+     */
+    void purgeExpiredKeys();
+
+}
@@ -0,0 +1,199 @@
+package com.hitanshudhawan.sankshipt.services;
+
+import com.hitanshudhawan.sankshipt.exceptions.AliasUnavailableException;
+import com.hitanshudhawan.sankshipt.exceptions.IdempotencyKeyMismatchException;
+import com.hitanshudhawan.sankshipt.exceptions.UrlNotFoundException;
+import com.hitanshudhawan.sankshipt.models.IdempotencyRecord;
+import com.hitanshudhawan.sankshipt.models.URL;
+import com.hitanshudhawan.sankshipt.models.UserPrincipal;
+import com.hitanshudhawan.sankshipt.repositories.IdempotencyRecordRepository;
+import com.hitanshudhawan.sankshipt.repositories.ShortUrlRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+@Service
+public class IdempotencyServiceImpl implements IdempotencyService {
+
+    private static final Logger logger = LoggerFactory.getLogger(IdempotencyServiceImpl.class);
+
+    private record CachedResult(byte[] requestHash, URL url, long expiresAtMillis) {
+    }
+
+    // Carries a checked creation failure out of the transaction callback, rolling the transaction back
+    private static class CreationFailure extends RuntimeException {
+        CreationFailure(AliasUnavailableException cause) {
+            super(cause);
+        }
+    }
+
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+    private final ShortUrlRepository shortUrlRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final long ttlMillis;
+
+    // Recent results by "userId:key", so most retries skip the key lookup; least recently used go first
+    private final Map<String, CachedResult> recentResults;
+
+    public IdempotencyServiceImpl(
+            IdempotencyRecordRepository idempotencyRecordRepository,
+            ShortUrlRepository shortUrlRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${sankshipt.idempotency.ttl-ms:86400000}") long ttlMillis,
+            @Value("${sankshipt.idempotency.cache-size:10000}") int cacheSize
+    ) {
+        this.idempotencyRecordRepository = idempotencyRecordRepository;
+        this.shortUrlRepository = shortUrlRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.ttlMillis = ttlMillis;
+        this.recentResults = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedResult> eldest) {
+                return size() > cacheSize;
+            }
+        };
+    }
+
+    @Override
+    public URL createOnce(String idempotencyKey, String request, UserPrincipal user, UrlCreation creation)
+            throws AliasUnavailableException, IdempotencyKeyMismatchException, UrlNotFoundException {
+        byte[] requestHash = requestHash(request);
+        String cacheKey = user.id() + ":" + idempotencyKey;
+        long now = System.currentTimeMillis();
+
+        CachedResult cached = cachedResult(cacheKey, now);
+        if (cached != null) {
+            checkSameRequest(cached.requestHash(), requestHash, idempotencyKey);
+            // The URL may have been deleted since, on any instance; a primary key probe is enough to tell
+            if (!shortUrlRepository.existsById(cached.url().getId())) {
+                forget(cacheKey);
+                throw urlDeleted(idempotencyKey);
+            }
+            return cached.url();
+        }
+
+        Optional<IdempotencyRecord> existing = idempotencyRecordRepository.findByUserIdAndIdempotencyKey(user.id(), idempotencyKey);
+        if (existing.isPresent() && existing.get().getExpiresAt().getTime() > now) {
+            return replay(existing.get(), requestHash, cacheKey);
+        }
+
+        URL url;
+        try {
+            url = transactionTemplate.execute(status -> {
+                // An expired record still holds the unique key; remove it before inserting the new one
+                existing.ifPresent(expired -> {
+                    idempotencyRecordRepository.delete(expired);
+                    idempotencyRecordRepository.flush();
+                });
+
+                // Reserve the key before creating anything; a concurrent request with the same key
+                // blocks on the unique index until this transaction ends, then fails and replays our result
+                IdempotencyRecord record = new IdempotencyRecord();
+                record.setUserId(user.id());
+                record.setIdempotencyKey(idempotencyKey);
+                record.setRequestHash(requestHash);
+                record.setExpiresAt(new Date(now + ttlMillis));
+                idempotencyRecordRepository.saveAndFlush(record);
+                URL created;
+                try {
+                    created = creation.create();
+                } catch (AliasUnavailableException e) {
+                    throw new CreationFailure(e);
+                }
+                // The managed record is updated with the URL when the transaction commits
+                record.setUrlId(created.getId());
+                return created;
+            });
+        } catch (CreationFailure e) {
+            throw (AliasUnavailableException) e.getCause();
+        } catch (DataIntegrityViolationException e) {
+            // A concurrent request reserved the key first and has committed; nothing was created here
+            IdempotencyRecord winner = idempotencyRecordRepository.findByUserIdAndIdempotencyKey(user.id(), idempotencyKey)
+                    .orElseThrow(() -> e);
+            logger.debug("Idempotency key {} was used concurrently; replaying the first result", idempotencyKey);
+            return replay(winner, requestHash, cacheKey);
+        }
+
+        cache(cacheKey, new CachedResult(requestHash, url, now + ttlMillis));
+        return url;
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${sankshipt.idempotency.purge-interval-ms:3600000}")
+    public void purgeExpiredKeys() {
+        long now = System.currentTimeMillis();
+        synchronized (recentResults) {
+            recentResults.values().removeIf(result -> result.expiresAtMillis() <= now);
+        }
+        int deleted = idempotencyRecordRepository.deleteExpired(new Date(now));
+        if (deleted > 0) {
+            logger.info("Purged {} expired idempotency keys", deleted);
+        }
+    }
+
+    private URL replay(IdempotencyRecord record, byte[] requestHash, String cacheKey)
+            throws IdempotencyKeyMismatchException, UrlNotFoundException {
+        checkSameRequest(record.getRequestHash(), requestHash, record.getIdempotencyKey());
+        URL url = shortUrlRepository.findById(record.getUrlId())
+                .orElseThrow(() -> urlDeleted(record.getIdempotencyKey()));
+        cache(cacheKey, new CachedResult(record.getRequestHash(), url, record.getExpiresAt().getTime()));
+        return url;
+    }
+
+    private static UrlNotFoundException urlDeleted(String idempotencyKey) {
+        return new UrlNotFoundException(String.format("Short URL created with idempotency key '%s' no longer exists", idempotencyKey));
+    }
+
+    private static void checkSameRequest(byte[] storedHash, byte[] requestHash, String idempotencyKey) throws IdempotencyKeyMismatchException {
+        if (!MessageDigest.isEqual(storedHash, requestHash)) {
+            throw new IdempotencyKeyMismatchException(String.format("Idempotency key '%s' was already used for a different request", idempotencyKey));
+        }
+    }
+
+    private CachedResult cachedResult(String cacheKey, long now) {
+        synchronized (recentResults) {
+            CachedResult cached = recentResults.get(cacheKey);
+            if (cached != null && cached.expiresAtMillis() <= now) {
+                recentResults.remove(cacheKey);
+                return null;
+            }
+            return cached;
+        }
+    }
+
+    private void forget(String cacheKey) {
+        synchronized (recentResults) {
+            recentResults.remove(cacheKey);
+        }
+    }
+
+    private void cache(String cacheKey, CachedResult result) {
+        synchronized (recentResults) {
+            recentResults.put(cacheKey, result);
+        }
+    }
+
+    static byte[] requestHash(String request) {
+        try {
+            MessageDigest md = MessageDigest.getInstance("SHA-256");
+            return md.digest(request.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            // This should never happen as SHA-256 is always available
+            throw new RuntimeException("SHA-256 algorithm not available", e);
+        }
+    }
+
+}
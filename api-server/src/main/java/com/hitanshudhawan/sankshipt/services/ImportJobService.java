@@ -0,0 +1,62 @@
+package com.hitanshudhawan.sankshipt.services;
+
+import com.hitanshudhawan.sankshipt.exceptions.ImportJobNotFoundException;
+import com.hitanshudhawan.sankshipt.models.ImportJob;
+import com.hitanshudhawan.sankshipt.models.ImportJobError;
+import com.hitanshudhawan.sankshipt.models.UserPrincipal;
+
+import java.nio.file.Path;
+import java.util.List;
+
+public interface ImportJobService {
+
+    /**
+     * Creates an import job for an uploaded file, then stores the file in the database and processes it in the background.
+     *
+     * @param upload the uploaded file; the service deletes it once it is stored
+     * @param fileName the name of the uploaded file
+     * @param format the format of the file
+     * @param deduplicate whether to reuse the user's existing short URLs for the same addresses
+     * @param user the user who will own the imported short URLs
+     * @return the created import job, pending until its upload is stored
+     */
+    ImportJob createImportJob(Path upload, String fileName, ImportJob.Format format, boolean deduplicate, UserPrincipal user);
+
+    /**
+     * Retrieves an import job.
+     *
+     * @param id the id of the import job
+     * @return the import job with its current progress
+     * @throws ImportJobNotFoundException if no import job exists with the given id
+     */
+    ImportJob getImportJob(Long id) throws ImportJobNotFoundException;
+
+    /**
+     * Retrieves the recorded errors of an import job, in file order.
+     * Only the first errors of a job are kept; the job's failed row count covers all of them.
+     *
+     * @param importJob the import job
+     * @return the recorded line errors
+     */
+    List<ImportJobError> getImportJobErrors(ImportJob importJob);
+
+    /**
+     * Checks if the specified user started the given import job.
+     *
+     * @param importJob the import job
+     * @param user the user to verify ownership against
+     * @return true if the user owns the import job, false otherwise
+     */
+    boolean isImportJobOwner(ImportJob importJob, UserPrincipal user);
+
+    /**
+     * Schedules all pending and interrupted import jobs that no live instance holds, which continue from their last checkpoint.
+     */
+    void resumeImportJobs();
+
+    /**
+     * Extends the claims of the import jobs running on this instance, so other instances do not take them over.
+     */
+    void renewClaims();
+
+}
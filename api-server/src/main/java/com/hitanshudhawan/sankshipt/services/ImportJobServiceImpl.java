@@ -0,0 +1,403 @@
+package com.hitanshudhawan.sankshipt.services;
+
+import com.hitanshudhawan.sankshipt.exceptions.ImportJobNotFoundException;
+import com.hitanshudhawan.sankshipt.models.ImportJob;
+import com.hitanshudhawan.sankshipt.models.ImportJobChunk;
+import com.hitanshudhawan.sankshipt.models.ImportJobError;
+import com.hitanshudhawan.sankshipt.models.UserPrincipal;
+import com.hitanshudhawan.sankshipt.repositories.ImportJobChunkRepository;
+import com.hitanshudhawan.sankshipt.repositories.ImportJobErrorRepository;
+import com.hitanshudhawan.sankshipt.repositories.ImportJobRepository;
+import com.hitanshudhawan.sankshipt.repositories.UserRepository;
+import com.hitanshudhawan.sankshipt.utils.ImportLineParser;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+
+@Service
+public class ImportJobServiceImpl implements ImportJobService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImportJobServiceImpl.class);
+
+    // Only the first errors are stored, so a completely broken file does not flood the error table
+    static final int MAX_STORED_ERRORS = 100;
+
+    private final ImportJobRepository importJobRepository;
+    private final ImportJobChunkRepository importJobChunkRepository;
+    private final ImportJobErrorRepository importJobErrorRepository;
+    private final UserRepository userRepository;
+    private final ShortUrlService shortUrlService;
+    private final TransactionTemplate transactionTemplate;
+    private final Executor importExecutor;
+    private final int batchSize;
+    private final int chunkBytes;
+    private final long claimTtlMillis;
+
+    // Random identity of this instance in job claims
+    private final String owner = UUID.randomUUID().toString();
+
+    // Jobs queued or running on this instance; the claim in the database keeps other instances away from them
+    private final Set<Long> activeJobs = ConcurrentHashMap.newKeySet();
+
+    public ImportJobServiceImpl(
+            ImportJobRepository importJobRepository,
+            ImportJobChunkRepository importJobChunkRepository,
+            ImportJobErrorRepository importJobErrorRepository,
+            UserRepository userRepository,
+            ShortUrlService shortUrlService,
+            PlatformTransactionManager transactionManager,
+            @Qualifier("importExecutor") Executor importExecutor,
+            @Value("${sankshipt.imports.batch-size:1000}") int batchSize,
+            @Value("${sankshipt.imports.chunk-bytes:1048576}") int chunkBytes,
+            @Value("${sankshipt.imports.claim-ttl-ms:60000}") long claimTtlMillis
+    ) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Batch size must be positive");
+        }
+        if (chunkBytes <= 0) {
+            throw new IllegalArgumentException("Chunk size must be positive");
+        }
+        this.importJobRepository = importJobRepository;
+        this.importJobChunkRepository = importJobChunkRepository;
+        this.importJobErrorRepository = importJobErrorRepository;
+        this.userRepository = userRepository;
+        this.shortUrlService = shortUrlService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.importExecutor = importExecutor;
+        this.batchSize = batchSize;
+        this.chunkBytes = chunkBytes;
+        this.claimTtlMillis = claimTtlMillis;
+    }
+
+    @Override
+    public ImportJob createImportJob(Path upload, String fileName, ImportJob.Format format, boolean deduplicate, UserPrincipal user) {
+        ImportJob importJob = new ImportJob();
+        importJob.setUser(userRepository.getReferenceById(user.id()));
+        importJob.setFormat(format);
+        importJob.setStatus(ImportJob.Status.PENDING);
+        importJob.setFileName(fileName);
+        importJob.setDeduplicate(deduplicate);
+        // Claimed while the upload is stored, so no instance picks the job up before all of its lines are there
+        importJob.setClaimedBy(owner);
+        importJob.setClaimExpiresAt(System.currentTimeMillis() + claimTtlMillis);
+        ImportJob savedJob;
+        try {
+            savedJob = importJobRepository.save(importJob);
+        } catch (RuntimeException e) {
+            deleteUpload(upload);
+            throw e;
+        }
+
+        // The upload is stored on the import executor rather than the request thread; the claim is renewed meanwhile
+        Long jobId = savedJob.getId();
+        activeJobs.add(jobId);
+        try {
+            importExecutor.execute(() -> {
+                try {
+                    if (storeUpload(jobId, upload)) {
+                        runImportJob(jobId);
+                    }
+                } finally {
+                    activeJobs.remove(jobId);
+                }
+            });
+        } catch (RuntimeException e) {
+            activeJobs.remove(jobId);
+            fail(savedJob, "The upload could not be stored");
+            deleteUpload(upload);
+            throw e;
+        }
+        return savedJob;
+    }
+
+    @Override
+    public ImportJob getImportJob(Long id) throws ImportJobNotFoundException {
+        return importJobRepository.findById(id)
+                .orElseThrow(() -> new ImportJobNotFoundException(String.format("No import job found with id: %s", id)));
+    }
+
+    @Override
+    public List<ImportJobError> getImportJobErrors(ImportJob importJob) {
+        return importJobErrorRepository.findAllByImportJobIdOrderByLineNumber(importJob.getId());
+    }
+
+    @Override
+    public boolean isImportJobOwner(ImportJob importJob, UserPrincipal user) {
+        return importJob.getUser().getId().equals(user.id());
+    }
+
+    @Override
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${sankshipt.imports.resume-interval-ms:60000}")
+    public void resumeImportJobs() {
+        long now = System.currentTimeMillis();
+        for (ImportJob importJob : importJobRepository.findAllByStatusIn(List.of(ImportJob.Status.PENDING, ImportJob.Status.RUNNING))) {
+            // Jobs held by a live instance are left to it; the claim in runImportJob settles any race
+            if (importJob.getClaimedBy() != null && importJob.getClaimExpiresAt() >= now) {
+                continue;
+            }
+            logger.info("Resuming import job {} after line {}", importJob.getId(), importJob.getLinesRead());
+            submit(importJob.getId());
+        }
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${sankshipt.imports.claim-heartbeat-ms:20000}")
+    public void renewClaims() {
+        long expiresAt = System.currentTimeMillis() + claimTtlMillis;
+        for (Long jobId : activeJobs) {
+            try {
+                importJobRepository.renewClaim(jobId, owner, expiresAt);
+            } catch (Exception e) {
+                logger.warn("Failed to renew the claim on import job {}", jobId, e);
+            }
+        }
+    }
+
+    private void submit(Long jobId) {
+        if (!activeJobs.add(jobId)) {
+            return;
+        }
+        try {
+            importExecutor.execute(() -> {
+                try {
+                    runImportJob(jobId);
+                } finally {
+                    activeJobs.remove(jobId);
+                }
+            });
+        } catch (RuntimeException e) {
+            activeJobs.remove(jobId);
+            throw e;
+        }
+    }
+
+    /**
+     * Processes an import job from its last checkpoint to the end of its upload, if no other instance holds it.
+     */
+    void runImportJob(Long jobId) {
+        long now = System.currentTimeMillis();
+        if (importJobRepository.claim(jobId, owner, now + claimTtlMillis, now) == 0) {
+            // Finished, or being processed by another instance
+            return;
+        }
+        ImportJob importJob = importJobRepository.findById(jobId).orElse(null);
+        if (importJob == null) {
+            return;
+        }
+        if (importJob.getTotalLines() == null) {
+            // The claim of the instance storing the upload expired before the upload was complete
+            fail(importJob, "The upload was interrupted");
+            return;
+        }
+
+        try {
+            // The job only holds a lazy reference to its owner, so the owner is read once per run
+            UserPrincipal user = userRepository.findById(importJob.getUser().getId())
+                    .map(storedUser -> new UserPrincipal(storedUser.getId(), storedUser.getEmail()))
+                    .orElseThrow(() -> new IllegalStateException("The owner of the import job no longer exists"));
+            List<String> urls = new ArrayList<>(batchSize);
+            List<ImportJobError> errors = new ArrayList<>();
+            long lineNumber = importJob.getLinesRead();
+            // Chunks before the checkpoint are skipped without being loaded
+            for (Long chunkId : importJobChunkRepository.findIdsAfterLine(jobId, importJob.getLinesRead())) {
+                ImportJobChunk chunk = importJobChunkRepository.findById(chunkId)
+                        .orElseThrow(() -> new IllegalStateException("The stored upload is incomplete"));
+                BufferedReader reader = new BufferedReader(new InputStreamReader(
+                        new ByteArrayInputStream(chunk.getContent()), StandardCharsets.UTF_8));
+                long chunkLine = chunk.getFirstLine();
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    chunkLine++;
+                    // Skip the lines committed by an earlier run
+                    if (chunkLine <= lineNumber) {
+                        continue;
+                    }
+                    lineNumber = chunkLine;
+                    try {
+                        String url = importJob.getFormat() == ImportJob.Format.CSV
+                                ? ImportLineParser.parseCsvLine(line, lineNumber)
+                                : ImportLineParser.parseNdjsonLine(line);
+                        if (url != null) {
+                            urls.add(url);
+                        }
+                    } catch (IllegalArgumentException e) {
+                        errors.add(newError(importJob, lineNumber, e.getMessage()));
+                    }
+
+                    if (urls.size() + errors.size() >= batchSize) {
+                        commitBatch(importJob, user, urls, errors, lineNumber);
+                        urls.clear();
+                        errors.clear();
+                    }
+                }
+            }
+            if (lineNumber != importJob.getTotalLines()) {
+                throw new IllegalStateException("The stored upload is incomplete");
+            }
+            commitBatch(importJob, user, urls, errors, lineNumber);
+
+            importJob.setStatus(ImportJob.Status.COMPLETED);
+            importJob.setClaimedBy(null);
+            if (importJobRepository.finish(jobId, owner, ImportJob.Status.COMPLETED, null) == 1) {
+                importJobChunkRepository.deleteByImportJobId(jobId);
+            }
+            logger.info("Import job {} completed: {} URLs created, {} rows failed", jobId, importJob.getCreatedUrls(), importJob.getFailedRows());
+        } catch (ClaimLostException e) {
+            // The last batch was rolled back; the instance that took the job over continues from the checkpoint
+            logger.warn("Import job {} was taken over by another instance", jobId);
+        } catch (Exception e) {
+            logger.error("Import job {} failed", jobId, e);
+            // Counters of the in-memory job may include a batch that was rolled back, so start from the stored state
+            importJobRepository.findById(jobId).ifPresent(storedJob -> fail(storedJob, e.getMessage()));
+        }
+    }
+
+    /**
+     * Copies the upload into the database and deletes the file, so any instance can resume an interrupted job.
+     *
+     * @return whether the job is ready to run
+     */
+    private boolean storeUpload(Long jobId, Path upload) {
+        try (InputStream content = Files.newInputStream(upload)) {
+            long totalLines = storeChunks(jobId, content);
+            if (importJobRepository.markUploaded(jobId, owner, totalLines) == 0) {
+                logger.warn("Import job {} was given up while its upload was stored", jobId);
+                return false;
+            }
+            return true;
+        } catch (IOException | RuntimeException e) {
+            logger.error("Failed to store the upload of import job {}", jobId, e);
+            importJobRepository.findById(jobId).ifPresent(storedJob -> fail(storedJob, "The upload could not be stored"));
+            return false;
+        } finally {
+            deleteUpload(upload);
+        }
+    }
+
+    private void deleteUpload(Path upload) {
+        try {
+            Files.deleteIfExists(upload);
+        } catch (IOException e) {
+            logger.warn("Failed to delete upload {}", upload, e);
+        }
+    }
+
+    /**
+     * Splits the upload into chunks of whole lines and stores them, renewing the claim after each chunk.
+     *
+     * @return the number of lines in the upload
+     */
+    private long storeChunks(Long jobId, InputStream content) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(content, StandardCharsets.UTF_8));
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        long lineNumber = 0;
+        long firstLine = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            buffer.write(line.getBytes(StandardCharsets.UTF_8));
+            buffer.write('\n');
+            lineNumber++;
+            if (buffer.size() >= chunkBytes) {
+                saveChunk(jobId, firstLine, lineNumber - firstLine, buffer);
+                firstLine = lineNumber;
+            }
+        }
+        if (lineNumber > firstLine) {
+            saveChunk(jobId, firstLine, lineNumber - firstLine, buffer);
+        }
+        return lineNumber;
+    }
+
+    private void saveChunk(Long jobId, long firstLine, long lineCount, ByteArrayOutputStream buffer) throws IOException {
+        ImportJobChunk chunk = new ImportJobChunk();
+        chunk.setImportJobId(jobId);
+        chunk.setFirstLine(firstLine);
+        chunk.setLineCount((int) lineCount);
+        chunk.setContent(buffer.toByteArray());
+        importJobChunkRepository.save(chunk);
+        buffer.reset();
+
+        // A large upload takes a while to store, so the claim is kept alive as it goes
+        if (importJobRepository.renewClaim(jobId, owner, System.currentTimeMillis() + claimTtlMillis) == 0) {
+            throw new IOException(String.format("Import job %s was given up while its upload was stored", jobId));
+        }
+    }
+
+    /**
+     * Inserts a batch of URLs and advances the checkpoint in one transaction.
+     */
+    private void commitBatch(ImportJob importJob, UserPrincipal user, List<String> urls, List<ImportJobError> errors, long lineNumber) {
+        if (lineNumber == importJob.getLinesRead()) {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!urls.isEmpty()) {
+                shortUrlService.createShortUrls(urls, user, importJob.isDeduplicate());
+            }
+
+            long storable = Math.max(0, MAX_STORED_ERRORS - importJob.getFailedRows());
+            if (storable > 0 && !errors.isEmpty()) {
+                importJobErrorRepository.saveAll(errors.subList(0, (int) Math.min(storable, errors.size())));
+            }
+
+            long createdUrls = importJob.getCreatedUrls() + urls.size();
+            long failedRows = importJob.getFailedRows() + errors.size();
+            // Conditional on the claim, so the batch of an instance that lost the job is rolled back
+            if (importJobRepository.checkpoint(importJob.getId(), owner, lineNumber, createdUrls, failedRows,
+                    System.currentTimeMillis() + claimTtlMillis) == 0) {
+                throw new ClaimLostException();
+            }
+            importJob.setCreatedUrls(createdUrls);
+            importJob.setFailedRows(failedRows);
+            importJob.setLinesRead(lineNumber);
+        });
+    }
+
+    private void fail(ImportJob importJob, String reason) {
+        importJob.setStatus(ImportJob.Status.FAILED);
+        importJob.setFailureReason(reason);
+        importJob.setClaimedBy(null);
+        if (importJobRepository.finish(importJob.getId(), owner, ImportJob.Status.FAILED, reason) == 1) {
+            importJobChunkRepository.deleteByImportJobId(importJob.getId());
+        }
+    }
+
+    private ImportJobError newError(ImportJob importJob, long lineNumber, String message) {
+        ImportJobError error = new ImportJobError();
+        error.setImportJobId(importJob.getId());
+        error.setLineNumber(lineNumber);
+        error.setMessage(message);
+        return error;
+    }
+
+    /**
+     * Thrown when a checkpoint finds the job claimed by another instance.
+     */
+    private static final class ClaimLostException extends RuntimeException {
+    }
+
+}
@@ -0,0 +1,47 @@
+package com.hitanshudhawan.sankshipt.services;
+
+public interface QrCodeService {
+
+    /**
+     * Image formats a QR code can be rendered in.
+     */
+    enum Format {
+        /** Raster image, sized in pixels. */
+        PNG("image/png"),
+        /** Vector image, scales without loss. */
+        SVG("image/svg+xml");
+
+        private final String contentType;
+
+        Format(String contentType) {
+            this.contentType = contentType;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+    }
+
+    /**
+     * A rendered QR code image.
+     *
+     * @param content the encoded image bytes
+     * @param format the format of the image
+     * @param etag a strong entity tag derived from the image bytes, already quoted
+     */
+    record QrCode(byte[] content, Format format, String etag) {
+    }
+
+    /**
+     * Renders a QR code pointing to the short link of a short code.
+     * Rendered images are kept in a size-bounded in-memory cache, so repeated requests
+     * for the same code, size and format are not encoded again.
+     *
+     * @param shortCode the short code to link to
+     * @param size the width and height of the image in pixels
+     * @param format the image format
+     * @return the rendered QR code
+     */
+    QrCode render(String shortCode, int size, Format format);
+
+}
@@ -0,0 +1,182 @@
+package com.hitanshudhawan.sankshipt.services;
+
+import com.google.zxing.BarcodeFormat;
+import com.google.zxing.EncodeHintType;
+import com.google.zxing.WriterException;
+import com.google.zxing.common.BitMatrix;
+import com.google.zxing.qrcode.QRCodeWriter;
+import com.google.zxing.qrcode.decoder.ErrorCorrectionLevel;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Service
+public class QrCodeServiceImpl implements QrCodeService {
+
+    // Width of the blank border in modules, as required by the QR code specification
+    private static final int QUIET_ZONE_MODULES = 4;
+
+    private final String baseUrl;
+    private final long maxCacheBytes;
+
+    // Least recently used images go first once the cache holds more than maxCacheBytes
+    private final Map<String, QrCode> cache = new LinkedHashMap<>(16, 0.75f, true);
+    private long cachedBytes;
+
+    public QrCodeServiceImpl(
+            @Value("${sankshipt.qr.base-url:http://localhost:8080}") String baseUrl,
+            @Value("${sankshipt.qr.cache-max-bytes:16777216}") long maxCacheBytes
+    ) {
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        this.maxCacheBytes = maxCacheBytes;
+    }
+
+    @Override
+    public QrCode render(String shortCode, int size, Format format) {
+        // The image only depends on these three values, so a cached entry is never stale
+        String key = format + ":" + size + ":" + shortCode;
+        synchronized (this) {
+            QrCode cached = cache.get(key);
+            if (cached != null) {
+                return cached;
+            }
+        }
+
+        // Encode outside the lock; concurrent misses for the same key produce identical images
+        BitMatrix modules = encode(baseUrl + "/" + shortCode);
+        byte[] content = format == Format.SVG ? toSvg(modules, size) : toPng(modules, size);
+        QrCode qrCode = new QrCode(content, format, etag(content));
+        cache(key, qrCode);
+        return qrCode;
+    }
+
+    synchronized long cachedBytes() {
+        return cachedBytes;
+    }
+
+    private synchronized void cache(String key, QrCode qrCode) {
+        if (qrCode.content().length > maxCacheBytes) {
+            return;
+        }
+        QrCode previous = cache.put(key, qrCode);
+        if (previous != null) {
+            cachedBytes -= previous.content().length;
+        }
+        cachedBytes += qrCode.content().length;
+
+        // The new entry is the most recently used, so it is never the one evicted here
+        Iterator<QrCode> eldest = cache.values().iterator();
+        while (cachedBytes > maxCacheBytes) {
+            cachedBytes -= eldest.next().content().length;
+            eldest.remove();
+        }
+    }
+
+    /**
+     * Encodes the text into a matrix of one pixel per module, including the quiet zone.
+     */
+    private static BitMatrix encode(String text) {
+        try {
+            return new QRCodeWriter().encode(text, BarcodeFormat.QR_CODE, 0, 0, Map.of(
+                    EncodeHintType.ERROR_CORRECTION, ErrorCorrectionLevel.M,
+                    EncodeHintType.MARGIN, QUIET_ZONE_MODULES
+            ));
+        } catch (WriterException e) {
+            throw new IllegalStateException("Could not encode QR code for " + text, e);
+        }
+    }
+
+    private static byte[] toPng(BitMatrix modules, int size) {
+        int moduleCount = modules.getWidth();
+        // Whole pixels per module keep the edges sharp; the remainder is split around the code
+        int scale = Math.max(1, size / moduleCount);
+        int dimension = Math.max(size, moduleCount * scale);
+        int offset = (dimension - moduleCount * scale) / 2;
+
+        BufferedImage image = new BufferedImage(dimension, dimension, BufferedImage.TYPE_BYTE_BINARY);
+        Graphics2D graphics = image.createGraphics();
+        try {
+            graphics.setColor(Color.WHITE);
+            graphics.fillRect(0, 0, dimension, dimension);
+            graphics.setColor(Color.BLACK);
+            for (int y = 0; y < moduleCount; y++) {
+                int x = 0;
+                while (x < moduleCount) {
+                    if (!modules.get(x, y)) {
+                        x++;
+                        continue;
+                    }
+                    int start = x;
+                    while (x < moduleCount && modules.get(x, y)) {
+                        x++;
+                    }
+                    graphics.fillRect(offset + start * scale, offset + y * scale, (x - start) * scale, scale);
+                }
+            }
+        } finally {
+            graphics.dispose();
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try {
+            ImageIO.write(image, "png", out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] toSvg(BitMatrix modules, int size) {
+        int moduleCount = modules.getWidth();
+        StringBuilder svg = new StringBuilder(4096)
+                .append("<svg xmlns=\"http://www.w3.org/2000/svg\" width=\"").append(size)
+                .append("\" height=\"").append(size)
+                .append("\" viewBox=\"0 0 ").append(moduleCount).append(' ').append(moduleCount)
+                .append("\" shape-rendering=\"crispEdges\">")
+                .append("<rect width=\"100%\" height=\"100%\" fill=\"#fff\"/>")
+                .append("<path fill=\"#000\" d=\"");
+        // One path segment per horizontal run of dark modules
+        for (int y = 0; y < moduleCount; y++) {
+            int x = 0;
+            while (x < moduleCount) {
+                if (!modules.get(x, y)) {
+                    x++;
+                    continue;
+                }
+                int start = x;
+                while (x < moduleCount && modules.get(x, y)) {
+                    x++;
+                }
+                svg.append('M').append(start).append(' ').append(y)
+                        .append('h').append(x - start).append("v1h-").append(x - start).append('z');
+            }
+        }
+        svg.append("\"/></svg>");
+        return svg.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String etag(byte[] content) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(content);
+            return "\"" + HexFormat.of().formatHex(digest, 0, 16) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            // This should never happen as SHA-256 is always available
+            throw new RuntimeException("SHA-256 algorithm not available", e);
+        }
+    }
+
+}
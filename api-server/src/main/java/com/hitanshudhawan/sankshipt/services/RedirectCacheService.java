@@ -0,0 +1,47 @@
+package com.hitanshudhawan.sankshipt.services;
+
+import com.hitanshudhawan.sankshipt.models.URL;
+
+public interface RedirectCacheService {
+
+    /**
+     * Returns the cached URL for a short code, or null if it is not cached or its entry has expired.
+     *
+     * @param shortCode the short code to look up
+     * @return the cached URL entity, or null
+     */
+    URL get(String shortCode);
+
+    /**
+     * Caches a resolved URL until its expiry time or the cache TTL, whichever comes first.
+     *
+     * @param url the resolved URL entity
+     */
+    void put(URL url);
+
+    /**
+     * Removes a short code from the cache, e.g. after the URL was deleted or reached its click limit.
+     *
+     * @param shortCode the short code to remove
+     */
+    void evict(String shortCode);
+
+    /**
+     * Records in the current transaction that every instance must remove a short code from its cache.
+     * Other instances apply it on their next {@link #pollEvictions()}.
+     *
+     * @param shortCode the short code to remove everywhere
+     */
+    void publishEviction(String shortCode);
+
+    /**
+     * Removes every entry whose deadline has passed.
+     */
+    void evictExpired();
+
+    /**
+     * Removes the short codes whose eviction was published, by this or any other instance, since the last poll.
+     */
+    void pollEvictions();
+
+}
@@ -0,0 +1,125 @@
+package com.hitanshudhawan.sankshipt.services;
+
+import com.hitanshudhawan.sankshipt.models.RedirectEviction;
+import com.hitanshudhawan.sankshipt.models.URL;
+import com.hitanshudhawan.sankshipt.repositories.RedirectEvictionRepository;
+import com.hitanshudhawan.sankshipt.utils.HierarchicalTimerWheel;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Service
+public class RedirectCacheServiceImpl implements RedirectCacheService {
+
+    private record CachedUrl(URL url, long evictAtMillis) {
+    }
+
+    private final RedirectEvictionRepository redirectEvictionRepository;
+    private final long ttlMillis;
+    private final long evictionLookbackMillis;
+
+    // Least recently used entries go first once the cache is full
+    private final Map<String, CachedUrl> entries;
+
+    // Deadlines of all entries; stale keys (replaced or already evicted) are skipped when they come up
+    private final HierarchicalTimerWheel<String> expiryWheel;
+
+    // Start of the previous eviction poll; only touched by the scheduler thread
+    private long lastPollMillis = System.currentTimeMillis();
+
+    public RedirectCacheServiceImpl(
+            RedirectEvictionRepository redirectEvictionRepository,
+            @Value("${sankshipt.redirects.cache-size:10000}") int cacheSize,
+            @Value("${sankshipt.redirects.cache-ttl-ms:300000}") long ttlMillis,
+            @Value("${sankshipt.redirects.expiry-tick-ms:1000}") long expiryTickMillis,
+            @Value("${sankshipt.redirects.eviction-lookback-ms:30000}") long evictionLookbackMillis
+    ) {
+        this.redirectEvictionRepository = redirectEvictionRepository;
+        this.ttlMillis = ttlMillis;
+        this.evictionLookbackMillis = evictionLookbackMillis;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedUrl> eldest) {
+                return size() > cacheSize;
+            }
+        };
+        this.expiryWheel = new HierarchicalTimerWheel<>(expiryTickMillis, System.currentTimeMillis());
+    }
+
+    @Override
+    public synchronized URL get(String shortCode) {
+        CachedUrl cached = entries.get(shortCode);
+        if (cached == null) {
+            return null;
+        }
+        // The wheel runs on a fixed delay, so an entry may still be here shortly after its deadline
+        if (cached.evictAtMillis() <= System.currentTimeMillis()) {
+            entries.remove(shortCode);
+            return null;
+        }
+        return cached.url();
+    }
+
+    @Override
+    public synchronized void put(URL url) {
+        long evictAtMillis = System.currentTimeMillis() + ttlMillis;
+        if (url.getExpiresAt() != null) {
+            evictAtMillis = Math.min(evictAtMillis, url.getExpiresAt().getTime());
+        }
+        entries.put(url.getShortCode(), new CachedUrl(url, evictAtMillis));
+        expiryWheel.schedule(url.getShortCode(), evictAtMillis);
+    }
+
+    @Override
+    public synchronized void evict(String shortCode) {
+        entries.remove(shortCode);
+    }
+
+    @Override
+    public void publishEviction(String shortCode) {
+        RedirectEviction eviction = new RedirectEviction();
+        eviction.setShortCode(shortCode);
+        redirectEvictionRepository.save(eviction);
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${sankshipt.redirects.eviction-poll-ms:1000}")
+    public void pollEvictions() {
+        long now = System.currentTimeMillis();
+        // Polls overlap by the lookback, so rows committed late or stamped by a slightly slower clock are still seen
+        for (String shortCode : redirectEvictionRepository.findShortCodesCreatedSince(new Date(lastPollMillis - evictionLookbackMillis))) {
+            evict(shortCode);
+        }
+        lastPollMillis = now;
+        // Past the cache TTL no entry can predate an eviction, so older rows are no longer needed
+        redirectEvictionRepository.deleteCreatedBefore(new Date(now - ttlMillis - evictionLookbackMillis));
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${sankshipt.redirects.expiry-tick-ms:1000}")
+    public void evictExpired() {
+        evictExpired(System.currentTimeMillis());
+    }
+
+    synchronized void evictExpired(long now) {
+        for (String shortCode : expiryWheel.advance(now)) {
+            CachedUrl cached = entries.get(shortCode);
+            // The entry may have been put again with a later deadline since this one was scheduled
+            if (cached != null && cached.evictAtMillis() <= now) {
+                entries.remove(shortCode);
+            }
+        }
+    }
+
+    /**
+     * Returns the number of cached short codes.
+     */
+    synchronized int size() {
+        return entries.size();
+    }
+
+}
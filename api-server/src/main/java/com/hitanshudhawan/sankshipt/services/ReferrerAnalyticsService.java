@@ -0,0 +1,32 @@
+package com.hitanshudhawan.sankshipt.services;
+
+import com.hitanshudhawan.sankshipt.models.URL;
+import com.hitanshudhawan.sankshipt.models.UrlReferrer;
+
+import java.util.List;
+
+public interface ReferrerAnalyticsService {
+
+    /**
+     * Counts a click coming from the given referring host.
+     * Counts are kept in memory and merged into the URL's top-K referrer table on the next flush.
+     *
+     * @param url the URL that was clicked
+     * @param referrerHost the normalized referring host, ignored if null
+     */
+    void recordReferrer(URL url, String referrerHost);
+
+    /**
+     * Retrieves the top referring hosts of a URL, ordered by descending click count.
+     *
+     * @param url the URL to get referrers for
+     * @return at most K referrer entries with approximate click counts
+     */
+    List<UrlReferrer> getTopReferrers(URL url);
+
+    /**
+     * Merges the referrer counts accumulated in memory into the top-K referrer tables.
+     */
+    void flushReferrers();
+
+}
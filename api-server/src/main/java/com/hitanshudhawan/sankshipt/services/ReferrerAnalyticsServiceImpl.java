@@ -0,0 +1,124 @@
+package com.hitanshudhawan.sankshipt.services;
+
+import com.hitanshudhawan.sankshipt.models.URL;
+import com.hitanshudhawan.sankshipt.models.UrlReferrer;
+import com.hitanshudhawan.sankshipt.repositories.ShortUrlRepository;
+import com.hitanshudhawan.sankshipt.repositories.UrlReferrerRepository;
+import com.hitanshudhawan.sankshipt.utils.SpaceSavingCounter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Service
+public class ReferrerAnalyticsServiceImpl implements ReferrerAnalyticsService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReferrerAnalyticsServiceImpl.class);
+
+    private final UrlReferrerRepository urlReferrerRepository;
+    private final ShortUrlRepository shortUrlRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int topK;
+
+    // Referrer counts since the last flush, keyed by URL id
+    private final Map<Long, SpaceSavingCounter> pendingCounters = new ConcurrentHashMap<>();
+
+    public ReferrerAnalyticsServiceImpl(
+            UrlReferrerRepository urlReferrerRepository,
+            ShortUrlRepository shortUrlRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${sankshipt.clicks.top-referrers:20}") int topK
+    ) {
+        this.urlReferrerRepository = urlReferrerRepository;
+        this.shortUrlRepository = shortUrlRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.topK = topK;
+    }
+
+    @Override
+    public void recordReferrer(URL url, String referrerHost) {
+        if (referrerHost == null) {
+            return;
+        }
+        pendingCounters.compute(url.getId(), (urlId, counter) -> {
+            if (counter == null) {
+                counter = new SpaceSavingCounter(topK);
+            }
+            counter.offer(referrerHost);
+            return counter;
+        });
+    }
+
+    @Override
+    public List<UrlReferrer> getTopReferrers(URL url) {
+        return urlReferrerRepository.findByUrlIdOrderByClicksDesc(url.getId());
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${sankshipt.clicks.stats-flush-interval-ms:5000}")
+    public void flushReferrers() {
+        for (Long urlId : pendingCounters.keySet()) {
+            SpaceSavingCounter pending = pendingCounters.remove(urlId);
+            if (pending == null) {
+                continue;
+            }
+            try {
+                transactionTemplate.executeWithoutResult(status -> mergeIntoTable(urlId, pending));
+            } catch (Exception e) {
+                // Put the counts back so the next flush retries them
+                pendingCounters.merge(urlId, pending, (current, restored) -> {
+                    restored.merge(current);
+                    return restored;
+                });
+                logger.warn("Failed to flush referrer counts for URL {}", urlId, e);
+            }
+        }
+    }
+
+    /**
+     * Merges pending counts with the stored table of a URL and rewrites the table with the new top K.
+     * Rows of hosts that stay in the top K are updated in place, evicted hosts are deleted.
+     */
+    private void mergeIntoTable(Long urlId, SpaceSavingCounter pending) {
+        // The URL row lock makes concurrent flushes from other instances wait instead of overwriting these counts
+        if (shortUrlRepository.lockById(urlId).isEmpty()) {
+            // Deleted or archived since the clicks were counted
+            return;
+        }
+
+        Map<String, UrlReferrer> storedByHost = new HashMap<>();
+        SpaceSavingCounter merged = new SpaceSavingCounter(topK);
+        for (UrlReferrer referrer : urlReferrerRepository.findByUrlIdOrderByClicksDesc(urlId)) {
+            storedByHost.put(referrer.getHost(), referrer);
+            merged.offer(referrer.getHost(), referrer.getClicks(), referrer.getError());
+        }
+        merged.merge(pending);
+
+        List<UrlReferrer> rows = new ArrayList<>();
+        for (SpaceSavingCounter.ItemCount itemCount : merged.top()) {
+            UrlReferrer row = storedByHost.remove(itemCount.item());
+            if (row == null) {
+                row = new UrlReferrer();
+                row.setUrlId(urlId);
+                row.setHost(itemCount.item());
+            }
+            row.setClicks(itemCount.count());
+            row.setError(itemCount.error());
+            rows.add(row);
+        }
+
+        // Whatever is left was pushed out of the top K
+        urlReferrerRepository.deleteAllInBatch(storedByHost.values());
+        urlReferrerRepository.saveAll(rows);
+    }
+
+}
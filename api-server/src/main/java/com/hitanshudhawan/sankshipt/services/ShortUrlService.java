@@ -1,29 +1,84 @@
 package com.hitanshudhawan.sankshipt.services;
 
+import com.hitanshudhawan.sankshipt.exceptions.AliasUnavailableException;
+import com.hitanshudhawan.sankshipt.exceptions.UrlExpiredException;
 import com.hitanshudhawan.sankshipt.exceptions.UrlNotFoundException;
 import com.hitanshudhawan.sankshipt.models.URL;
-import com.hitanshudhawan.sankshipt.models.User;
+import com.hitanshudhawan.sankshipt.models.UrlDestination;
+import com.hitanshudhawan.sankshipt.models.UserPrincipal;
+import com.hitanshudhawan.sankshipt.repositories.ShortUrlRepository;
 
+import java.util.Date;
 import java.util.List;
 
 public interface ShortUrlService {
 
+    /**
+     * One page of a user's URLs, newest first.
+     *
+     * @param urls the URLs on this page
+     * @param nextCursor the cursor of the next page, or null if this is the last page
+     */
+    record UrlPage(List<ShortUrlRepository.UrlSummary> urls, String nextCursor) {
+    }
+
     /**
      * Creates a short URL for the given original URL and associates it with the specified user.
+     * With deduplication, an existing short URL of the same user for the same normalized address
+     * is returned instead of inserting a new one.
      *
      * @param originalUrl the original long URL to be shortened
      * @param user the user who is creating the short URL
-     * @return the created URL entity containing the short code and original URL
+     * @param deduplicate whether to reuse the user's existing short URL for the same address
+     * @return the created (or reused) URL entity containing the short code and original URL
+     */
+    URL createShortUrl(String originalUrl, UserPrincipal user, boolean deduplicate);
+
+    /**
+     * Creates a short URL with any of a user-chosen alias, an expiry time, a click limit and weighted destinations.
+     * Such a URL is never shared through deduplication.
+     *
+     * @param originalUrl the original long URL to be shortened
+     * @param alias the custom alias, which must pass {@link com.hitanshudhawan.sankshipt.utils.AliasValidator}, or null for a generated short code
+     * @param expiresAt the time after which the short URL stops redirecting, or null
+     * @param maxClicks the number of redirects after which the short URL stops redirecting, or null
+     * @param destinations unsaved destinations (address and weight) to split redirects between, or null to always redirect to the original URL
+     * @param user the user who is creating the short URL
+     * @return the created URL entity
+     * @throws AliasUnavailableException if another short URL already uses the alias
+     */
+    URL createCustomShortUrl(String originalUrl, String alias, Date expiresAt, Long maxClicks, List<UrlDestination> destinations, UserPrincipal user) throws AliasUnavailableException;
+
+    /**
+     * Creates short URLs for all the given original URLs in a single transaction.
+     * Rows are written with batched inserts, so either every URL is created or none is.
+     *
+     * @param originalUrls the original long URLs to be shortened
+     * @param user the user who is creating the short URLs
+     * @param deduplicate whether to reuse existing short URLs, and share one new short URL among repeated addresses
+     * @return the created (or reused) URL entities, in the same order as the original URLs
      */
-    URL createShortUrl(String originalUrl, User user);
+    List<URL> createShortUrls(List<String> originalUrls, UserPrincipal user, boolean deduplicate);
 
     /**
-     * Retrieves all URLs associated with the specified user.
+     * Retrieves one page of the URLs associated with the specified user, ordered by creation time and id, newest first.
      *
      * @param user the user whose URLs are to be retrieved
-     * @return a list of URL entities owned by the user
+     * @param cursor the cursor returned with the previous page, or null for the first page
+     * @param limit the maximum number of URLs on the page
+     * @return the page of URLs and the cursor of the next page
+     * @throws IllegalArgumentException if the cursor is malformed
      */
-    List<URL> getUrlsForUser(User user);
+    UrlPage getUrlsForUser(UserPrincipal user, String cursor, int limit);
+
+    /**
+     * Retrieves a counter that changes whenever the user's URL listing may have changed:
+     * on create, delete, archival and every flush of click totals.
+     *
+     * @param user the user whose listing version is to be retrieved
+     * @return the listing version, read with a single primary key lookup
+     */
+    long getUrlsVersion(UserPrincipal user);
 
     /**
      * Resolves a short code to retrieve the corresponding URL entity.
@@ -31,26 +86,37 @@ public interface ShortUrlService {
      * @param shortCode the short code to resolve
      * @return the URL entity associated with the short code
      * @throws UrlNotFoundException if no URL is found for the given short code
+     * @throws UrlExpiredException if the URL has passed its expiry time or click limit
      */
     URL resolveShortCode(String shortCode) throws UrlNotFoundException;
 
+    /**
+     * Counts a redirect against the click limit of the URL, if it has one.
+     *
+     * @param url the resolved URL entity
+     * @throws UrlExpiredException if the click limit was already reached or the URL expired meanwhile
+     */
+    void recordRedirect(URL url) throws UrlExpiredException;
+
     /**
      * Deletes a short URL if the specified user is the owner of the URL.
      *
      * @param shortCode the short code of the URL to delete
      * @param user the user requesting the deletion
+     * @return the deleted URL entity, or null if the URL belongs to another user
      * @throws UrlNotFoundException if no URL is found for the given short code
      */
-    void deleteShortUrl(String shortCode, User user) throws UrlNotFoundException;
+    URL deleteShortUrl(String shortCode, UserPrincipal user) throws UrlNotFoundException;
 
     /**
-     * Checks if the specified user is the owner of the URL with the given short code.
+     * Looks up a URL for an owner-scoped operation, with a single query by short code and owner.
+     * Unlike {@link #resolveShortCode(String)}, expired URLs that have not been archived yet are returned.
      *
-     * @param shortCode the short code to check ownership for
-     * @param user the user to verify ownership against
-     * @return true if the user owns the URL, false otherwise
+     * @param shortCode the short code to look up
+     * @param user the user who must own the URL
+     * @return the URL entity, or null if the URL belongs to another user
      * @throws UrlNotFoundException if no URL is found for the given short code
      */
-    boolean isUrlOwner(String shortCode, User user) throws UrlNotFoundException;
+    URL findOwnedUrl(String shortCode, UserPrincipal user) throws UrlNotFoundException;
 
 }
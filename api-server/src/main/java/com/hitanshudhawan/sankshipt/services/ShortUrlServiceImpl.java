@@ -1,78 +1,330 @@
 package com.hitanshudhawan.sankshipt.services;
 
+import com.hitanshudhawan.sankshipt.exceptions.AliasUnavailableException;
+import com.hitanshudhawan.sankshipt.exceptions.UrlExpiredException;
 import com.hitanshudhawan.sankshipt.exceptions.UrlNotFoundException;
 import com.hitanshudhawan.sankshipt.models.URL;
-import com.hitanshudhawan.sankshipt.models.User;
+import com.hitanshudhawan.sankshipt.models.UrlDestination;
+import com.hitanshudhawan.sankshipt.models.UserPrincipal;
+import com.hitanshudhawan.sankshipt.repositories.ClickRepository;
 import com.hitanshudhawan.sankshipt.repositories.ShortUrlRepository;
+import com.hitanshudhawan.sankshipt.repositories.UrlClickStatsRepository;
+import com.hitanshudhawan.sankshipt.repositories.UrlDestinationRepository;
+import com.hitanshudhawan.sankshipt.repositories.UrlReferrerRepository;
+import com.hitanshudhawan.sankshipt.repositories.UserRepository;
+import com.hitanshudhawan.sankshipt.utils.AliasValidator;
+import com.hitanshudhawan.sankshipt.utils.PageCursor;
 import com.hitanshudhawan.sankshipt.utils.ShortCodeGenerator;
+import com.hitanshudhawan.sankshipt.utils.UrlNormalizer;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
 @Service
 public class ShortUrlServiceImpl implements ShortUrlService {
 
     private final ShortUrlRepository shortUrlRepository;
+    private final ClickRepository clickRepository;
+    private final UrlClickStatsRepository urlClickStatsRepository;
+    private final UrlReferrerRepository urlReferrerRepository;
+    private final UrlDestinationRepository urlDestinationRepository;
+    private final UserRepository userRepository;
+    private final IdAllocationService idAllocationService;
+    private final AliasService aliasService;
+    private final RedirectCacheService redirectCacheService;
+    private final UrlSearchService urlSearchService;
 
-    public ShortUrlServiceImpl(ShortUrlRepository shortUrlRepository) {
+    public ShortUrlServiceImpl(
+            ShortUrlRepository shortUrlRepository,
+            ClickRepository clickRepository,
+            UrlClickStatsRepository urlClickStatsRepository,
+            UrlReferrerRepository urlReferrerRepository,
+            UrlDestinationRepository urlDestinationRepository,
+            UserRepository userRepository,
+            IdAllocationService idAllocationService,
+            AliasService aliasService,
+            RedirectCacheService redirectCacheService,
+            UrlSearchService urlSearchService
+    ) {
         this.shortUrlRepository = shortUrlRepository;
+        this.clickRepository = clickRepository;
+        this.urlClickStatsRepository = urlClickStatsRepository;
+        this.urlReferrerRepository = urlReferrerRepository;
+        this.urlDestinationRepository = urlDestinationRepository;
+        this.userRepository = userRepository;
+        this.idAllocationService = idAllocationService;
+        this.aliasService = aliasService;
+        this.redirectCacheService = redirectCacheService;
+        this.urlSearchService = urlSearchService;
     }
 
     @Override
-    public URL createShortUrl(String originalUrl, User user) {
-        URL url = new URL();
-        url.setOriginalUrl(originalUrl);
-        url.setUser(user);
+    @Transactional
+    public URL createShortUrl(String originalUrl, UserPrincipal user, boolean deduplicate) {
+        if (deduplicate) {
+            // Reuse the user's existing short URL for the same address, found through the hash index
+            String normalizedUrl = UrlNormalizer.normalize(originalUrl);
+            for (URL existing : shortUrlRepository.findAllByUserIdAndUrlHash(user.id(), UrlNormalizer.urlHash(originalUrl))) {
+                if (normalizedUrl.equals(UrlNormalizer.normalize(existing.getOriginalUrl()))) {
+                    return existing;
+                }
+            }
+        }
+
+        // Single insert with the complete row
+        URL savedUrl = shortUrlRepository.save(newUrl(originalUrl, user));
+        userRepository.incrementUrlsVersion(user.id());
+        afterCommit(() -> urlSearchService.addUrls(user, List.of(savedUrl)));
+        return savedUrl;
+    }
+
+    @Override
+    @Transactional(rollbackFor = AliasUnavailableException.class)
+    public URL createCustomShortUrl(String originalUrl, String alias, Date expiresAt, Long maxClicks, List<UrlDestination> destinations, UserPrincipal user) throws AliasUnavailableException {
+        if (maxClicks != null && maxClicks <= 0) {
+            throw new IllegalArgumentException("Max clicks must be positive");
+        }
+        URL url = newUrl(originalUrl, user);
+        url.setExpiresAt(expiresAt);
+        url.setMaxClicks(maxClicks);
+        url.setWeighted(destinations != null && !destinations.isEmpty());
 
-        // Save first to get the auto-generated ID
-        URL savedUrl = shortUrlRepository.save(url);
+        URL savedUrl;
+        if (alias == null) {
+            savedUrl = shortUrlRepository.save(url);
+        } else {
+            String invalidReason = AliasValidator.validate(alias);
+            if (invalidReason != null) {
+                throw new IllegalArgumentException(invalidReason);
+            }
+            if (aliasService.isAliasTaken(alias)) {
+                throw new AliasUnavailableException(String.format("Alias is already taken: %s", alias));
+            }
+            url.setShortCode(alias);
+            url.setCustomAlias(true);
 
-        // Generate short code using the ID and original URL
-        String shortCode = ShortCodeGenerator.generateShortCode(savedUrl.getId(), originalUrl);
-        savedUrl.setShortCode(shortCode);
+            try {
+                savedUrl = shortUrlRepository.saveAndFlush(url);
+            } catch (DataIntegrityViolationException e) {
+                // Taken by a concurrent request; the unique index on short_code decides
+                throw new AliasUnavailableException(String.format("Alias is already taken: %s", alias));
+            }
+            // A rolled back alias must stay free, and the Bloom filter cannot forget one
+            afterCommit(() -> aliasService.recordAlias(alias));
+        }
 
-        // Save again with the generated short code
-        return shortUrlRepository.save(savedUrl);
+        if (savedUrl.isWeighted()) {
+            saveDestinations(savedUrl.getId(), destinations);
+        }
+        userRepository.incrementUrlsVersion(user.id());
+        afterCommit(() -> urlSearchService.addUrls(user, List.of(savedUrl)));
+        return savedUrl;
     }
 
     @Override
-    public List<URL> getUrlsForUser(User user) {
-        return shortUrlRepository.findAllByUser(user);
+    @Transactional
+    public List<URL> createShortUrls(List<String> originalUrls, UserPrincipal user, boolean deduplicate) {
+        // Known URLs by normalized address, so repeated addresses map to one row
+        Map<String, URL> urlsByAddress = new HashMap<>();
+        if (deduplicate) {
+            List<byte[]> urlHashes = originalUrls.stream().map(UrlNormalizer::urlHash).toList();
+            for (URL existing : shortUrlRepository.findAllByUserIdAndUrlHashIn(user.id(), urlHashes)) {
+                urlsByAddress.putIfAbsent(UrlNormalizer.normalize(existing.getOriginalUrl()), existing);
+            }
+        }
+
+        List<URL> urls = new ArrayList<>(originalUrls.size());
+        List<URL> newUrls = new ArrayList<>(originalUrls.size());
+        for (String originalUrl : originalUrls) {
+            URL url = deduplicate ? urlsByAddress.get(UrlNormalizer.normalize(originalUrl)) : null;
+            if (url == null) {
+                url = newUrl(originalUrl, user);
+                newUrls.add(url);
+                if (deduplicate) {
+                    urlsByAddress.put(UrlNormalizer.normalize(originalUrl), url);
+                }
+            }
+            urls.add(url);
+        }
+
+        // Complete rows with assigned IDs, so Hibernate can group them into JDBC batches
+        shortUrlRepository.saveAll(newUrls);
+        if (!newUrls.isEmpty()) {
+            userRepository.incrementUrlsVersion(user.id());
+            afterCommit(() -> urlSearchService.addUrls(user, newUrls));
+        }
+        return urls;
+    }
+
+    @Override
+    public UrlPage getUrlsForUser(UserPrincipal user, String cursor, int limit) {
+        // Fetch one extra row to learn whether another page follows, without a count query
+        Pageable pageable = PageRequest.of(0, limit + 1);
+        List<ShortUrlRepository.UrlSummary> urls;
+        if (cursor == null) {
+            urls = shortUrlRepository.findSummariesByUserId(user.id(), pageable);
+        } else {
+            PageCursor after = PageCursor.decode(cursor);
+            urls = shortUrlRepository.findSummariesByUserIdBefore(user.id(), new Date(after.createdAtMillis()), after.id(), pageable);
+        }
+
+        if (urls.size() <= limit) {
+            return new UrlPage(urls, null);
+        }
+        List<ShortUrlRepository.UrlSummary> page = urls.subList(0, limit);
+        ShortUrlRepository.UrlSummary last = page.get(limit - 1);
+        return new UrlPage(List.copyOf(page), new PageCursor(last.getCreatedAt().getTime(), last.getId()).encode());
+    }
+
+    @Override
+    public long getUrlsVersion(UserPrincipal user) {
+        return userRepository.findUrlsVersionById(user.id()).orElse(0L);
     }
 
     @Override
     public URL resolveShortCode(String shortCode) throws UrlNotFoundException {
+        URL cachedUrl = redirectCacheService.get(shortCode);
+        if (cachedUrl != null) {
+            return cachedUrl;
+        }
+
         URL url = shortUrlRepository.findByShortCode(shortCode)
                 .orElseThrow(() -> new UrlNotFoundException(String.format("No URL mapping found for short code: %s", shortCode)));
 
-        // Validate the short code against the original URL for security
-        if (!ShortCodeGenerator.validateShortCode(shortCode, url.getOriginalUrl())) {
+        // Validate the short code against the original URL for security (aliases carry no checksum)
+        if (!url.isCustomAlias() && !ShortCodeGenerator.validateShortCode(shortCode, url.getOriginalUrl())) {
             // Short code doesn't match the original URL (possibly tampered)
             throw new UrlNotFoundException(String.format("Short code '%s' failed validation for stored URL: %s", shortCode, url.getOriginalUrl()));
         }
 
+        // Expired rows stay in the table until the sweeper archives them
+        if (isExpired(url, System.currentTimeMillis())) {
+            throw new UrlExpiredException(String.format("Short URL has expired: %s", shortCode));
+        }
+
+        redirectCacheService.put(url);
         return url;
     }
 
     @Override
-    public void deleteShortUrl(String shortCode, User user) throws UrlNotFoundException {
-        URL url = shortUrlRepository.findByShortCodeAndUser(shortCode, user)
-                .orElseThrow(() -> new UrlNotFoundException(String.format("No URL mapping found for short code: %s owned by user: %s", shortCode, user.getEmail())));
+    public void recordRedirect(URL url) throws UrlExpiredException {
+        if (url.getMaxClicks() == null) {
+            return;
+        }
+        // Conditional increment, so concurrent redirects on any instance never exceed the limit
+        if (shortUrlRepository.incrementClickCount(url.getId(), new Date()) == 0) {
+            redirectCacheService.evict(url.getShortCode());
+            throw new UrlExpiredException(String.format("Short URL has expired: %s", url.getShortCode()));
+        }
+    }
+
+    @Override
+    @Transactional
+    public URL deleteShortUrl(String shortCode, UserPrincipal user) throws UrlNotFoundException {
+        URL url = findOwnedUrl(shortCode, user);
+        if (url == null) {
+            return null;
+        }
 
-        // Validate the short code against the original URL for security
-        if (!ShortCodeGenerator.validateShortCode(shortCode, url.getOriginalUrl())) {
+        // Validate the short code against the original URL for security (aliases carry no checksum)
+        if (!url.isCustomAlias() && !ShortCodeGenerator.validateShortCode(shortCode, url.getOriginalUrl())) {
             throw new UrlNotFoundException(String.format("Short code '%s' failed validation for stored URL: %s", shortCode, url.getOriginalUrl()));
         }
 
-        shortUrlRepository.delete(url);
+        // Bulk deletes, so the URL's clicks are removed in one statement instead of being loaded and deleted one by one
+        List<Long> ids = List.of(url.getId());
+        clickRepository.deleteAllByUrlIdIn(ids);
+        shortUrlRepository.deleteAllByIdIn(ids);
+        // Other instances drop their cached copy on their next poll; this one once the delete is visible
+        redirectCacheService.publishEviction(shortCode);
+        afterCommit(() -> redirectCacheService.evict(shortCode));
+        urlClickStatsRepository.deleteByUrlId(url.getId());
+        urlReferrerRepository.deleteByUrlId(url.getId());
+        urlDestinationRepository.deleteByUrlId(url.getId());
+        userRepository.incrementUrlsVersion(user.id());
+        afterCommit(() -> urlSearchService.removeUrl(user, url.getId()));
+        return url;
     }
 
     @Override
-    public boolean isUrlOwner(String shortCode, User user) throws UrlNotFoundException {
-        URL url = shortUrlRepository.findByShortCode(shortCode)
-                .orElseThrow(() -> new UrlNotFoundException(String.format("No URL mapping found for short code: %s", shortCode)));
-        
-        return url.getUser().getEmail().equals(user.getEmail());
+    public URL findOwnedUrl(String shortCode, UserPrincipal user) throws UrlNotFoundException {
+        Optional<URL> url = shortUrlRepository.findByShortCodeAndUserId(shortCode, user.id());
+        if (url.isPresent()) {
+            return url.get();
+        }
+        // Only a failed lookup needs a second query, to tell another user's URL from a missing one
+        if (shortUrlRepository.existsByShortCode(shortCode)) {
+            return null;
+        }
+        throw new UrlNotFoundException(String.format("No URL mapping found for short code: %s", shortCode));
+    }
+
+    private void saveDestinations(Long urlId, List<UrlDestination> destinations) {
+        for (int i = 0; i < destinations.size(); i++) {
+            UrlDestination destination = destinations.get(i);
+            if (destination.getWeight() <= 0) {
+                throw new IllegalArgumentException("Destination weights must be positive");
+            }
+            destination.setUrlId(urlId);
+            destination.setPosition(i);
+        }
+        urlDestinationRepository.saveAll(destinations);
+    }
+
+    /**
+     * Runs an update of in-memory state once the current transaction commits, so a rollback leaves it untouched.
+     * Without a transaction the update runs immediately.
+     */
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private static boolean isExpired(URL url, long nowMillis) {
+        if (url.getExpiresAt() != null && url.getExpiresAt().getTime() <= nowMillis) {
+            return true;
+        }
+        return url.getMaxClicks() != null && url.getClickCount() >= url.getMaxClicks();
+    }
+
+    /**
+     * Builds a new URL entity with its ID and short code already assigned.
+     *
+     * @param originalUrl the original long URL
+     * @param user the owner of the URL
+     * @return the unsaved URL entity
+     */
+    private URL newUrl(String originalUrl, UserPrincipal user) {
+        // Allocate the ID up front so the short code is known before the row is written
+        Long id = idAllocationService.nextUrlId();
+
+        URL url = new URL();
+        url.setId(id);
+        url.setOriginalUrl(originalUrl);
+        url.setUrlHash(UrlNormalizer.urlHash(originalUrl));
+        // A reference is enough to write the owner's id; the user row is not read
+        url.setUser(userRepository.getReferenceById(user.id()));
+        url.setShortCode(ShortCodeGenerator.generateShortCode(id, originalUrl));
+        return url;
     }
 
 }
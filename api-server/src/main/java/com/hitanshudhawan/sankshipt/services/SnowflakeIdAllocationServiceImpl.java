@@ -0,0 +1,201 @@
+package com.hitanshudhawan.sankshipt.services;
+
+import com.hitanshudhawan.sankshipt.models.NodeLease;
+import com.hitanshudhawan.sankshipt.repositories.NodeLeaseRepository;
+import com.hitanshudhawan.sankshipt.utils.SnowflakeIdGenerator;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Generates URL ids locally with a {@link SnowflakeIdGenerator}, using a node id leased from the
+ * {@code node_leases} table. The database is only involved when the heartbeat acquires or renews
+ * the lease, never on a request thread.
+ */
+@Service
+@ConditionalOnProperty(name = "sankshipt.ids.strategy", havingValue = "snowflake")
+public class SnowflakeIdAllocationServiceImpl implements IdAllocationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SnowflakeIdAllocationServiceImpl.class);
+
+    static final int MAX_BORROW_SECONDS = 5;
+    private static final long BORROW_WAIT_MILLIS = 10;
+
+    private final NodeLeaseRepository nodeLeaseRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final long leaseTtlMillis;
+    private final long leaseWaitMillis;
+    private final String owner = UUID.randomUUID().toString();
+
+    // Current lease; generator is null while no node id is held
+    private SnowflakeIdGenerator generator;
+    private int nodeId;
+    private long leaseExpiresAt;
+
+    public SnowflakeIdAllocationServiceImpl(
+            NodeLeaseRepository nodeLeaseRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${sankshipt.ids.lease-ttl-ms:30000}") long leaseTtlMillis,
+            @Value("${sankshipt.ids.lease-wait-ms:10000}") long leaseWaitMillis
+    ) {
+        // Ids are only issued while at least half the lease is left, which must cover the borrowed seconds
+        if (leaseTtlMillis < 2 * (MAX_BORROW_SECONDS + 1) * 1000L) {
+            throw new IllegalArgumentException("Lease TTL must be at least " + 2 * (MAX_BORROW_SECONDS + 1) + " seconds");
+        }
+        this.nodeLeaseRepository = nodeLeaseRepository;
+        // Lease changes commit on their own, independent of the caller's transaction
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.leaseTtlMillis = leaseTtlMillis;
+        this.leaseWaitMillis = leaseWaitMillis;
+    }
+
+    @Override
+    public synchronized long nextUrlId() {
+        long deadline = System.currentTimeMillis() + leaseWaitMillis;
+        while (true) {
+            long now = System.currentTimeMillis();
+            long waitMillis;
+            if (generator == null || leaseExpiresAt - now < leaseTtlMillis / 2) {
+                // No lease yet, or the heartbeat fell behind: wait for it rather than going to the database here
+                waitMillis = deadline - now;
+                if (waitMillis <= 0) {
+                    throw new IllegalStateException("No node id lease is held; cannot generate ids");
+                }
+            } else {
+                long id = generator.nextId(now);
+                if (id >= 0) {
+                    return id;
+                }
+                // The sequence is used up several seconds ahead; let the clock catch up
+                waitMillis = BORROW_WAIT_MILLIS;
+            }
+            try {
+                wait(waitMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for the next id", e);
+            }
+        }
+    }
+
+    /**
+     * Acquires or renews the lease in the background, so id generation never waits for the database.
+     * Starts right after startup, and takes a new node id as soon as the held one is lost.
+     */
+    @Scheduled(fixedDelayString = "${sankshipt.ids.lease-heartbeat-ms:10000}")
+    public void heartbeat() {
+        SnowflakeIdGenerator current;
+        int currentNodeId;
+        synchronized (this) {
+            current = generator;
+            currentNodeId = nodeId;
+        }
+        try {
+            long now = System.currentTimeMillis();
+            if (current == null || !renewLease(currentNodeId, current, now)) {
+                acquireLease(now);
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Failed to lease a node id; retrying on the next heartbeat", e);
+        }
+    }
+
+    /**
+     * Hands the node id back on shutdown, recording the last second used so the next owner starts after it.
+     */
+    @PreDestroy
+    public synchronized void releaseLease() {
+        if (generator == null) {
+            return;
+        }
+        try {
+            long lastSecondMillis = generator.lastSecondMillis();
+            transactionTemplate.execute(status -> nodeLeaseRepository.renewLease(nodeId, owner, lastSecondMillis));
+            logger.info("Released node id {}", nodeId);
+        } catch (RuntimeException e) {
+            logger.warn("Failed to release node id {}; it frees up when the lease expires", nodeId, e);
+        }
+        generator = null;
+    }
+
+    private boolean renewLease(int leasedNodeId, SnowflakeIdGenerator leasedGenerator, long now) {
+        long expiresAt = now + leaseTtlMillis;
+        Integer renewed = transactionTemplate.execute(status -> nodeLeaseRepository.renewLease(leasedNodeId, owner, expiresAt));
+        synchronized (this) {
+            if (generator != leasedGenerator) {
+                return false;
+            }
+            if (renewed == null || renewed == 0) {
+                // Another instance took the node id over after our lease expired
+                logger.warn("Lost the lease on node id {}", leasedNodeId);
+                generator = null;
+                return false;
+            }
+            leaseExpiresAt = expiresAt;
+            notifyAll();
+            return true;
+        }
+    }
+
+    private void acquireLease(long now) {
+        long expiresAt = now + leaseTtlMillis;
+        Map<Integer, NodeLease> leases = transactionTemplate.execute(status -> nodeLeaseRepository.findAll()).stream()
+                .collect(Collectors.toMap(NodeLease::getNodeId, Function.identity()));
+
+        // Prefer node ids nobody has used, then the expired ones
+        List<Integer> freeNodeIds = new ArrayList<>();
+        List<NodeLease> expiredLeases = new ArrayList<>();
+        for (int candidate = 0; candidate <= SnowflakeIdGenerator.MAX_NODE_ID; candidate++) {
+            NodeLease lease = leases.get(candidate);
+            if (lease == null) {
+                freeNodeIds.add(candidate);
+            } else if (lease.getExpiresAt() < now) {
+                expiredLeases.add(lease);
+            }
+        }
+
+        for (int candidate : freeNodeIds) {
+            try {
+                transactionTemplate.execute(status -> nodeLeaseRepository.insertLease(candidate, owner, expiresAt));
+                useLease(candidate, 0, expiresAt);
+                return;
+            } catch (DataIntegrityViolationException e) {
+                // Another instance claimed it first
+            }
+        }
+        for (NodeLease lease : expiredLeases) {
+            Integer takenOver = transactionTemplate.execute(status ->
+                    nodeLeaseRepository.takeOverLease(lease.getNodeId(), owner, expiresAt, lease.getExpiresAt()));
+            if (takenOver != null && takenOver == 1) {
+                useLease(lease.getNodeId(), lease.getExpiresAt(), expiresAt);
+                return;
+            }
+        }
+        throw new IllegalStateException("No free node id; at most " + (SnowflakeIdGenerator.MAX_NODE_ID + 1) + " instances can generate ids");
+    }
+
+    private synchronized void useLease(int leasedNodeId, long previousExpiresAt, long expiresAt) {
+        generator = new SnowflakeIdGenerator(leasedNodeId, previousExpiresAt, MAX_BORROW_SECONDS);
+        nodeId = leasedNodeId;
+        leaseExpiresAt = expiresAt;
+        logger.info("Leased node id {} until {}", leasedNodeId, expiresAt);
+        notifyAll();
+    }
+
+}
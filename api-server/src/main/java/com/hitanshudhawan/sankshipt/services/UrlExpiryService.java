@@ -0,0 +1,13 @@
+package com.hitanshudhawan.sankshipt.services;
+
+public interface UrlExpiryService {
+
+    /**
+     * Moves every expired short URL to the archive table and deletes its clicks, stats and destinations.
+     * Work is done in small batches, each in its own transaction.
+     *
+     * @return the number of URLs archived
+     */
+    int archiveExpiredUrls();
+
+}
@@ -0,0 +1,97 @@
+package com.hitanshudhawan.sankshipt.services;
+
+import com.hitanshudhawan.sankshipt.repositories.ArchivedUrlRepository;
+import com.hitanshudhawan.sankshipt.repositories.ClickRepository;
+import com.hitanshudhawan.sankshipt.repositories.ShortUrlRepository;
+import com.hitanshudhawan.sankshipt.repositories.UrlClickStatsRepository;
+import com.hitanshudhawan.sankshipt.repositories.UrlDestinationRepository;
+import com.hitanshudhawan.sankshipt.repositories.UrlReferrerRepository;
+import com.hitanshudhawan.sankshipt.repositories.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Date;
+import java.util.List;
+
+@Service
+public class UrlExpiryServiceImpl implements UrlExpiryService {
+
+    private static final Logger logger = LoggerFactory.getLogger(UrlExpiryServiceImpl.class);
+
+    private final ShortUrlRepository shortUrlRepository;
+    private final ArchivedUrlRepository archivedUrlRepository;
+    private final ClickRepository clickRepository;
+    private final UrlClickStatsRepository urlClickStatsRepository;
+    private final UrlReferrerRepository urlReferrerRepository;
+    private final UrlDestinationRepository urlDestinationRepository;
+    private final UserRepository userRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+
+    public UrlExpiryServiceImpl(
+            ShortUrlRepository shortUrlRepository,
+            ArchivedUrlRepository archivedUrlRepository,
+            ClickRepository clickRepository,
+            UrlClickStatsRepository urlClickStatsRepository,
+            UrlReferrerRepository urlReferrerRepository,
+            UrlDestinationRepository urlDestinationRepository,
+            UserRepository userRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${sankshipt.expiry.sweep-batch-size:500}") int batchSize
+    ) {
+        this.shortUrlRepository = shortUrlRepository;
+        this.archivedUrlRepository = archivedUrlRepository;
+        this.clickRepository = clickRepository;
+        this.urlClickStatsRepository = urlClickStatsRepository;
+        this.urlReferrerRepository = urlReferrerRepository;
+        this.urlDestinationRepository = urlDestinationRepository;
+        this.userRepository = userRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${sankshipt.expiry.sweep-interval-ms:60000}")
+    public int archiveExpiredUrls() {
+        Date now = new Date();
+        int archived = 0;
+        while (true) {
+            // Short transactions keep row locks brief while redirects keep running
+            Integer count = transactionTemplate.execute(status -> archiveBatch(now));
+            if (count == null || count == 0) {
+                break;
+            }
+            archived += count;
+            if (count < batchSize) {
+                break;
+            }
+        }
+        if (archived > 0) {
+            logger.info("Archived {} expired short URLs", archived);
+        }
+        return archived;
+    }
+
+    private int archiveBatch(Date now) {
+        List<Long> ids = shortUrlRepository.findExpiredIds(now, PageRequest.of(0, batchSize));
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        archivedUrlRepository.archiveUrls(ids);
+        // Bumped while the URL rows still exist, since their owners are found through them
+        userRepository.incrementUrlsVersionForUrls(ids);
+        clickRepository.deleteAllByUrlIdIn(ids);
+        urlClickStatsRepository.deleteAllByUrlIdIn(ids);
+        urlReferrerRepository.deleteAllByUrlIdIn(ids);
+        urlDestinationRepository.deleteAllByUrlIdIn(ids);
+        shortUrlRepository.deleteAllByIdIn(ids);
+        return ids.size();
+    }
+
+}
@@ -0,0 +1,44 @@
+package com.hitanshudhawan.sankshipt.services;
+
+import com.hitanshudhawan.sankshipt.models.URL;
+import com.hitanshudhawan.sankshipt.models.UserPrincipal;
+import com.hitanshudhawan.sankshipt.repositories.ShortUrlRepository;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface UrlSearchService {
+
+    /**
+     * Finds the user's URLs whose short code or original URL contains the query, ignoring case.
+     * The user's in-memory index is built on the first search and kept until it is idle or too old.
+     *
+     * @param user the user whose URLs are searched
+     * @param query the text to look for
+     * @param limit the maximum number of URLs to return
+     * @return the matching URLs, newest first
+     */
+    List<ShortUrlRepository.UrlSummary> search(UserPrincipal user, String query, int limit);
+
+    /**
+     * Adds newly created URLs to the owner's index, if one is in memory.
+     *
+     * @param user the owner of the URLs
+     * @param urls the saved URL entities
+     */
+    void addUrls(UserPrincipal user, Collection<URL> urls);
+
+    /**
+     * Removes a deleted URL from the owner's index, if one is in memory.
+     *
+     * @param user the owner of the URL
+     * @param urlId the id of the deleted URL
+     */
+    void removeUrl(UserPrincipal user, Long urlId);
+
+    /**
+     * Drops the indexes of users who have not searched for a while, and those older than their time to live.
+     */
+    void evictIdleIndexes();
+
+}
@@ -0,0 +1,128 @@
+package com.hitanshudhawan.sankshipt.services;
+
+import com.hitanshudhawan.sankshipt.models.URL;
+import com.hitanshudhawan.sankshipt.models.UserPrincipal;
+import com.hitanshudhawan.sankshipt.repositories.ShortUrlRepository;
+import com.hitanshudhawan.sankshipt.utils.TrigramIndex;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Service
+public class UrlSearchServiceImpl implements UrlSearchService {
+
+    /**
+     * The trigram index of one user's URLs.
+     * The index and the loaded flag are guarded by the instance's monitor.
+     */
+    private static final class UserIndex {
+
+        private final TrigramIndex index = new TrigramIndex();
+        private final long builtAtMillis;
+        private volatile long lastUsedMillis;
+        private boolean loaded;
+
+        private UserIndex(long now) {
+            this.builtAtMillis = now;
+            this.lastUsedMillis = now;
+        }
+    }
+
+    private final ShortUrlRepository shortUrlRepository;
+    private final long idleMillis;
+    private final long ttlMillis;
+
+    // Indexes by user id; only users who searched recently have one
+    private final Map<Long, UserIndex> indexes = new ConcurrentHashMap<>();
+
+    public UrlSearchServiceImpl(
+            ShortUrlRepository shortUrlRepository,
+            @Value("${sankshipt.search.idle-ms:600000}") long idleMillis,
+            @Value("${sankshipt.search.index-ttl-ms:1800000}") long ttlMillis
+    ) {
+        this.shortUrlRepository = shortUrlRepository;
+        this.idleMillis = idleMillis;
+        this.ttlMillis = ttlMillis;
+    }
+
+    @Override
+    public List<ShortUrlRepository.UrlSummary> search(UserPrincipal user, String query, int limit) {
+        long now = System.currentTimeMillis();
+        // Indexes only see changes made through this instance, so they are rebuilt once they are too old
+        UserIndex userIndex = indexes.compute(user.id(), (userId, existing) ->
+                existing == null || now - existing.builtAtMillis >= ttlMillis ? new UserIndex(now) : existing);
+        userIndex.lastUsedMillis = now;
+
+        long[] ids;
+        synchronized (userIndex) {
+            if (!userIndex.loaded) {
+                // The index is registered before loading, so URLs created meanwhile wait here and are not missed
+                for (ShortUrlRepository.UrlSummary url : shortUrlRepository.findSummariesByUserId(user.id(), Pageable.unpaged())) {
+                    long createdAt = url.getCreatedAt() != null ? url.getCreatedAt().getTime() : 0L;
+                    userIndex.index.add(url.getId(), createdAt, url.getShortCode(), url.getOriginalUrl());
+                }
+                userIndex.loaded = true;
+            }
+            ids = userIndex.index.search(query, limit);
+        }
+        if (ids.length == 0) {
+            return List.of();
+        }
+
+        // Rows are read back by id, so URLs deleted elsewhere or archived since indexing drop out here
+        List<Long> urlIds = new ArrayList<>(ids.length);
+        for (long id : ids) {
+            urlIds.add(id);
+        }
+        return shortUrlRepository.findSummariesByUserIdAndIdIn(user.id(), urlIds);
+    }
+
+    @Override
+    public void addUrls(UserPrincipal user, Collection<URL> urls) {
+        UserIndex userIndex = indexes.get(user.id());
+        if (userIndex == null) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        synchronized (userIndex) {
+            for (URL url : urls) {
+                long createdAt = url.getCreatedAt() != null ? url.getCreatedAt().getTime() : now;
+                userIndex.index.add(url.getId(), createdAt, url.getShortCode(), url.getOriginalUrl());
+            }
+        }
+    }
+
+    @Override
+    public void removeUrl(UserPrincipal user, Long urlId) {
+        UserIndex userIndex = indexes.get(user.id());
+        if (userIndex == null) {
+            return;
+        }
+        synchronized (userIndex) {
+            userIndex.index.remove(urlId);
+        }
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${sankshipt.search.eviction-interval-ms:60000}")
+    public void evictIdleIndexes() {
+        long now = System.currentTimeMillis();
+        indexes.values().removeIf(userIndex ->
+                now - userIndex.lastUsedMillis >= idleMillis || now - userIndex.builtAtMillis >= ttlMillis);
+    }
+
+    /**
+     * Returns the number of users that currently have an index in memory.
+     */
+    int indexedUserCount() {
+        return indexes.size();
+    }
+
+}
@@ -1,16 +1,37 @@
 package com.hitanshudhawan.sankshipt.services;
 
-import com.hitanshudhawan.sankshipt.models.User;
+import java.util.Optional;
 
 public interface UserService {
 
     /**
-     * Gets or creates a user by email. This is used when a user creates a URL
-     * to ensure we have a User record in the api-server database.
+     * Gets or creates a user by email and returns its id. This is used to make sure
+     * every authenticated caller has a User record in the api-server database.
+     * The user is created with a single upsert, so concurrent first requests of a new
+     * user cannot insert it twice.
      *
      * @param email the email of the user
-     * @return the User entity
+     * @return the id of the User entity
      */
-    User getOrCreateUser(String email);
+    Long getOrCreateUserId(String email);
+
+    /**
+     * Finds the id in this database of a user already linked to the given auth server id.
+     * This is a plain read on the unique auth_user_id index, without a transaction or write.
+     *
+     * @param authUserId the id of the user in the auth server
+     * @return the id of the User entity, or empty if no user is linked to the auth server id yet
+     */
+    Optional<Long> findUserId(Long authUserId);
+
+    /**
+     * Gets or creates a user by its auth server id and returns its id in this database.
+     * An existing user with the same email, created before tokens carried the id, is linked to it.
+     *
+     * @param authUserId the id of the user in the auth server
+     * @param email the email of the user
+     * @return the id of the User entity
+     */
+    Long getOrCreateUserId(Long authUserId, String email);
 
 }
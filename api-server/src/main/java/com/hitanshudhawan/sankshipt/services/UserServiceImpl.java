@@ -1,8 +1,10 @@
 package com.hitanshudhawan.sankshipt.services;
 
-import com.hitanshudhawan.sankshipt.models.User;
 import com.hitanshudhawan.sankshipt.repositories.UserRepository;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
 
 @Service
 public class UserServiceImpl implements UserService {
@@ -14,13 +16,23 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
-    public User getOrCreateUser(String email) {
-        return userRepository.findByEmail(email)
-                .orElseGet(() -> {
-                    User newUser = new User();
-                    newUser.setEmail(email);
-                    return userRepository.save(newUser);
-                });
+    @Transactional
+    public Long getOrCreateUserId(String email) {
+        // Both statements must run on the same connection for LAST_INSERT_ID() to see the upsert
+        userRepository.upsertByEmail(email);
+        return userRepository.lastInsertId();
+    }
+
+    @Override
+    public Optional<Long> findUserId(Long authUserId) {
+        return userRepository.findIdByAuthUserId(authUserId);
+    }
+
+    @Override
+    @Transactional
+    public Long getOrCreateUserId(Long authUserId, String email) {
+        userRepository.upsertByAuthUserId(authUserId, email);
+        return userRepository.lastInsertId();
     }
 
 }
@@ -0,0 +1,163 @@
+package com.hitanshudhawan.sankshipt.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-key adaptive 1-in-N sampler used to bound the number of stored events for hot keys.
+ * <p>
+ * The event rate of every key is measured in one-second windows. While a key stays at or below
+ * the threshold every event is kept. Once it crosses the threshold, only one in N events is kept,
+ * where N = ceil(rate / threshold), so a key never stores much more than {@code threshold} events
+ * per second however hot it gets.
+ * <p>
+ * Each kept event carries a weight equal to the number of events it stands for (itself plus the
+ * ones skipped since the previous kept event), so summing the weights gives an exact total.
+ * Events skipped at the tail of a burst are handed out by {@link #drainIdle} once the key goes quiet.
+ */
+public class AdaptiveSampler {
+
+    private final int thresholdPerSecond;
+    private final Map<Long, State> states = new ConcurrentHashMap<>();
+
+    public AdaptiveSampler(int thresholdPerSecond) {
+        if (thresholdPerSecond <= 0) {
+            throw new IllegalArgumentException("Threshold must be positive");
+        }
+        this.thresholdPerSecond = thresholdPerSecond;
+    }
+
+    /**
+     * Registers an event for the key and decides whether it should be kept.
+     *
+     * @param key       the key the event belongs to
+     * @param nowMillis the current time in milliseconds
+     * @return the weight the kept event should carry, or 0 if the event should be skipped
+     */
+    public long sample(long key, long nowMillis) {
+        long second = nowMillis / 1000;
+        long[] weight = new long[1];
+
+        states.compute(key, (k, state) -> {
+            if (state == null) {
+                state = new State();
+            }
+            state.advance(second);
+            state.count++;
+            state.lastEventMillis = nowMillis;
+
+            long rate = Math.max(state.count, state.previousCount);
+            long sampleRate = rate <= thresholdPerSecond ? 1 : (rate + thresholdPerSecond - 1) / thresholdPerSecond;
+
+            if (state.skipped + 1 >= sampleRate) {
+                weight[0] = state.skipped + 1;
+                state.skipped = 0;
+            } else {
+                state.skipped++;
+            }
+            return state;
+        });
+
+        return weight[0];
+    }
+
+    /**
+     * Remembers the identifier of the last kept event, so that skipped events at the tail
+     * of a burst can later be attributed to it.
+     *
+     * @param key     the key the event belongs to
+     * @param eventId the identifier of the stored event
+     */
+    public void stored(long key, long eventId) {
+        states.computeIfPresent(key, (k, state) -> {
+            state.lastStoredId = eventId;
+            return state;
+        });
+    }
+
+    /**
+     * Removes keys that have not seen any event for the given time and returns the skipped
+     * events that still have to be added to their last kept event.
+     * Skipped events of a key that never had a kept event stored are discarded.
+     *
+     * @param nowMillis  the current time in milliseconds
+     * @param idleMillis how long a key must be quiet before it is drained
+     * @return the pending carry-overs, one per drained key with skipped events
+     */
+    public List<CarryOver> drainIdle(long nowMillis, long idleMillis) {
+        List<CarryOver> carryOvers = new ArrayList<>();
+
+        for (Long key : states.keySet()) {
+            states.computeIfPresent(key, (k, state) -> {
+                if (nowMillis - state.lastEventMillis < idleMillis) {
+                    return state;
+                }
+                // With no stored event to attach them to, the skipped events are dropped along with the key;
+                // keeping the key would hold it forever, since a quiet key never stores another event
+                if (state.skipped > 0 && state.lastStoredId != null) {
+                    carryOvers.add(new CarryOver(k, state.lastStoredId, state.skipped));
+                }
+                return null;
+            });
+        }
+
+        return carryOvers;
+    }
+
+    /**
+     * Puts back skipped events that could not be attributed, so that the next drain retries them.
+     *
+     * @param carryOver the carry-over returned by {@link #drainIdle}
+     */
+    public void restore(CarryOver carryOver) {
+        states.compute(carryOver.key(), (k, state) -> {
+            if (state == null) {
+                state = new State();
+            }
+            state.skipped += carryOver.skipped();
+            if (state.lastStoredId == null) {
+                state.lastStoredId = carryOver.lastStoredId();
+            }
+            return state;
+        });
+    }
+
+    /**
+     * Returns the number of keys currently tracked.
+     */
+    public int size() {
+        return states.size();
+    }
+
+    /**
+     * Skipped events of a drained key that belong to its last kept event.
+     *
+     * @param key          the drained key
+     * @param lastStoredId the identifier of the last kept event of the key
+     * @param skipped      the number of events skipped after it
+     */
+    public record CarryOver(long key, long lastStoredId, long skipped) {
+    }
+
+    private static final class State {
+
+        private long second = Long.MIN_VALUE;
+        private long count;
+        private long previousCount;
+        private long skipped;
+        private long lastEventMillis;
+        private Long lastStoredId;
+
+        private void advance(long newSecond) {
+            if (newSecond == second) {
+                return;
+            }
+            previousCount = newSecond == second + 1 ? count : 0;
+            count = 0;
+            second = newSecond;
+        }
+    }
+
+}
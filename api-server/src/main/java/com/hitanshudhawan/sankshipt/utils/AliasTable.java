@@ -0,0 +1,102 @@
+package com.hitanshudhawan.sankshipt.utils;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.random.RandomGenerator;
+
+/**
+ * Weighted random choice in constant time, using Vose's alias method.
+ * <p>
+ * Building the table takes O(n). Each of the n columns then holds at most two items: its own, kept
+ * with probability {@code probability[i]}, and an alias that receives the rest of the column. A draw
+ * picks a column uniformly and flips one biased coin, so it costs the same for 2 items as for 1000.
+ * <p>
+ * Instances are immutable and can be shared between threads.
+ */
+public class AliasTable<T> {
+
+    private final List<T> items;
+    private final double[] probability;
+    private final int[] alias;
+
+    /**
+     * @param items   the items to choose from
+     * @param weights the positive weight of each item, in the same order
+     */
+    public AliasTable(List<T> items, long[] weights) {
+        int n = items.size();
+        if (n == 0 || weights.length != n) {
+            throw new IllegalArgumentException("Need one weight per item and at least one item");
+        }
+        double total = 0;
+        for (long weight : weights) {
+            if (weight <= 0) {
+                throw new IllegalArgumentException("Weights must be positive");
+            }
+            total += weight;
+        }
+
+        this.items = List.copyOf(items);
+        this.probability = new double[n];
+        this.alias = new int[n];
+
+        // Scale weights so the average column is exactly full (1.0)
+        double[] scaled = new double[n];
+        Deque<Integer> small = new ArrayDeque<>();
+        Deque<Integer> large = new ArrayDeque<>();
+        for (int i = 0; i < n; i++) {
+            scaled[i] = weights[i] * n / total;
+            (scaled[i] < 1.0 ? small : large).push(i);
+        }
+
+        // Top up each under-full column with the remainder of an over-full one
+        while (!small.isEmpty() && !large.isEmpty()) {
+            int less = small.pop();
+            int more = large.pop();
+            probability[less] = scaled[less];
+            alias[less] = more;
+            scaled[more] = scaled[more] + scaled[less] - 1.0;
+            (scaled[more] < 1.0 ? small : large).push(more);
+        }
+        // Whatever is left is full up to rounding error
+        while (!large.isEmpty()) {
+            probability[large.pop()] = 1.0;
+        }
+        while (!small.isEmpty()) {
+            probability[small.pop()] = 1.0;
+        }
+    }
+
+    /**
+     * Picks an item with probability proportional to its weight.
+     */
+    public T sample(RandomGenerator random) {
+        return sample(random.nextInt(items.size()), random.nextDouble());
+    }
+
+    /**
+     * Picks the item for a given column and coin flip.
+     *
+     * @param column a column between 0 (inclusive) and {@link #size()} (exclusive)
+     * @param coin   a number between 0 (inclusive) and 1 (exclusive)
+     */
+    public T sample(int column, double coin) {
+        return items.get(coin < probability[column] ? column : alias[column]);
+    }
+
+    /**
+     * Returns the items in their original order.
+     */
+    public List<T> items() {
+        return items;
+    }
+
+    /**
+     * Returns the number of items.
+     */
+    public int size() {
+        return items.size();
+    }
+
+}
@@ -0,0 +1,55 @@
+package com.hitanshudhawan.sankshipt.utils;
+
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Utility class for checking user-chosen short URL aliases.
+ * <p>
+ * Aliases live in their own namespace next to generated short codes: an alias may never have the
+ * shape of a generated code (Base62 id + 6 hex characters), so neither kind can ever take
+ * the other's code. Aliases are compared case-insensitively.
+ * Example: "summer-sale" and "Docs_v2" are valid aliases; "a1b2c3d4" is not, since it looks generated.
+ */
+public class AliasValidator {
+
+    public static final int MIN_LENGTH = 3;
+    public static final int MAX_LENGTH = 64;
+
+    // First path segments already used by the API server itself
+    private static final Set<String> RESERVED = Set.of("api", "api-docs", "swagger-ui", "actuator", "error", "v3");
+
+    /**
+     * Validates an alias.
+     *
+     * @param alias the alias to check
+     * @return why the alias cannot be used, or null if it is valid
+     */
+    public static String validate(String alias) {
+        if (alias == null || alias.length() < MIN_LENGTH || alias.length() > MAX_LENGTH) {
+            return "Alias must be between " + MIN_LENGTH + " and " + MAX_LENGTH + " characters";
+        }
+        for (int i = 0; i < alias.length(); i++) {
+            char ch = alias.charAt(i);
+            boolean allowed = (ch >= 'a' && ch <= 'z') || (ch >= 'A' && ch <= 'Z') || (ch >= '0' && ch <= '9') || ch == '-' || ch == '_';
+            if (!allowed) {
+                return "Alias may only contain letters, digits, '-' and '_'";
+            }
+        }
+        if (RESERVED.contains(normalize(alias))) {
+            return "Alias is reserved";
+        }
+        if (ShortCodeGenerator.isGeneratedShortCode(alias)) {
+            return "Alias must not look like a generated short code";
+        }
+        return null;
+    }
+
+    /**
+     * Returns the form aliases are compared in.
+     */
+    public static String normalize(String alias) {
+        return alias.toLowerCase(Locale.ROOT);
+    }
+
+}
@@ -0,0 +1,114 @@
+package com.hitanshudhawan.sankshipt.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bloom filter over strings: answers "definitely absent" or "possibly present" in O(k) without allocating.
+ * <p>
+ * The bit array and the number of hash functions are sized from the expected number of entries and the
+ * wanted false positive rate. Adding beyond the expected count still works but raises the false positive
+ * rate; {@link #isSaturated()} tells callers when to rebuild a larger filter.
+ * <p>
+ * This class is thread-safe: bits are set with atomic operations, so readers never block writers.
+ */
+public class BloomFilter {
+
+    private final AtomicLongArray bits;
+    private final long bitCount;
+    private final int hashCount;
+    private final long expectedEntries;
+    private final AtomicLong entries = new AtomicLong();
+
+    /**
+     * @param expectedEntries   the number of entries the filter is sized for
+     * @param falsePositiveRate the wanted false positive rate at that size, between 0 and 1 (exclusive)
+     */
+    public BloomFilter(long expectedEntries, double falsePositiveRate) {
+        if (expectedEntries <= 0) {
+            throw new IllegalArgumentException("Expected entries must be positive");
+        }
+        if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("False positive rate must be between 0 and 1");
+        }
+        // m = -n ln(p) / ln(2)^2, k = m / n ln(2)
+        long optimalBits = (long) Math.ceil(-expectedEntries * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        int words = (int) Math.min(Integer.MAX_VALUE - 8, (optimalBits + 63) / 64);
+        this.bits = new AtomicLongArray(words);
+        this.bitCount = (long) words * 64;
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / expectedEntries * Math.log(2)));
+        this.expectedEntries = expectedEntries;
+    }
+
+    /**
+     * Adds an entry.
+     */
+    public void add(String value) {
+        long hash = hash64(value);
+        long h1 = hash;
+        // An even step would only ever probe half of the positions
+        long h2 = mix(hash) | 1;
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bitCount);
+            int word = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long current;
+            do {
+                current = bits.get(word);
+                if ((current & mask) != 0) {
+                    break;
+                }
+            } while (!bits.compareAndSet(word, current, current | mask));
+        }
+        entries.incrementAndGet();
+    }
+
+    /**
+     * Returns false if the entry was definitely never added, true if it possibly was.
+     */
+    public boolean mightContain(String value) {
+        long hash = hash64(value);
+        long h1 = hash;
+        long h2 = mix(hash) | 1;
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bitCount);
+            if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns true once more entries were added than the filter was sized for.
+     */
+    public boolean isSaturated() {
+        return entries.get() > expectedEntries;
+    }
+
+    /**
+     * Returns the number of entries added so far (counting repeated entries again).
+     */
+    public long size() {
+        return entries.get();
+    }
+
+    // 64-bit FNV-1a over the UTF-8 bytes, finished with a mixing step to spread short inputs
+    private static long hash64(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= (b & 0xff);
+            hash *= 0x100000001b3L;
+        }
+        return mix(hash);
+    }
+
+    // SplitMix64 finalizer
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+}
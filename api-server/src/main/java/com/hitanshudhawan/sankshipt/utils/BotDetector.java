@@ -0,0 +1,86 @@
+package com.hitanshudhawan.sankshipt.utils;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Detects automated clients (crawlers, link-preview fetchers, uptime monitors, HTTP libraries)
+ * by matching the User-Agent header against a list of known substrings.
+ * <p>
+ * The same handful of User-Agent strings make up most of the traffic, so verdicts are cached.
+ * The cache is cleared once it reaches its maximum size, which keeps memory bounded without
+ * the bookkeeping of an LRU.
+ */
+public class BotDetector {
+
+    /**
+     * Lower-case substrings that identify well-known bots and non-browser clients.
+     */
+    public static final List<String> DEFAULT_PATTERNS = List.of(
+            "bot", "crawler", "spider", "slurp", "preview", "monitor",
+            "facebookexternalhit", "whatsapp", "embedly", "pinterest", "vkshare", "skypeuripreview",
+            "uptimerobot", "pingdom", "statuscake", "site24x7", "newrelicpinger", "datadog",
+            "headlesschrome", "phantomjs", "curl/", "wget/", "python-requests", "python-urllib",
+            "go-http-client", "okhttp", "apache-httpclient", "java/", "libwww-perl", "httpie"
+    );
+
+    private final List<String> patterns;
+    private final int maxCacheSize;
+    private final Map<String, Boolean> cache = new ConcurrentHashMap<>();
+
+    public BotDetector(int maxCacheSize) {
+        this(DEFAULT_PATTERNS, maxCacheSize);
+    }
+
+    public BotDetector(List<String> patterns, int maxCacheSize) {
+        if (maxCacheSize <= 0) {
+            throw new IllegalArgumentException("Cache size must be positive");
+        }
+        this.patterns = patterns.stream().map(pattern -> pattern.toLowerCase(Locale.ROOT)).toList();
+        this.maxCacheSize = maxCacheSize;
+    }
+
+    /**
+     * Checks whether the given User-Agent belongs to a known bot.
+     * A missing User-Agent is not treated as a bot, since some privacy tools strip the header.
+     *
+     * @param userAgent the User-Agent header value, may be null
+     * @return true if the User-Agent matches one of the bot patterns
+     */
+    public boolean isBot(String userAgent) {
+        if (userAgent == null || userAgent.isBlank()) {
+            return false;
+        }
+
+        Boolean cached = cache.get(userAgent);
+        if (cached != null) {
+            return cached;
+        }
+
+        boolean bot = matches(userAgent.toLowerCase(Locale.ROOT));
+        if (cache.size() >= maxCacheSize) {
+            cache.clear();
+        }
+        cache.put(userAgent, bot);
+        return bot;
+    }
+
+    /**
+     * Returns the number of cached verdicts.
+     */
+    public int cacheSize() {
+        return cache.size();
+    }
+
+    private boolean matches(String lowerCaseUserAgent) {
+        for (String pattern : patterns) {
+            if (lowerCaseUserAgent.contains(pattern)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+}
@@ -0,0 +1,108 @@
+package com.hitanshudhawan.sankshipt.utils;
+
+/**
+ * Sliding-window event counter made of two ring buffers:
+ * 60 one-minute buckets covering the last hour and 24 one-hour buckets covering the last day.
+ * <p>
+ * Recording an event and reading a window are both O(buckets) at worst and never allocate.
+ * The 5-minute and 1-hour windows have minute resolution; the 24-hour window has hour resolution
+ * (it covers the current partial hour plus the 23 full hours before it).
+ * <p>
+ * This class is not thread-safe; callers must synchronize access.
+ */
+public class ClickRateWindow {
+
+    private static final int MINUTES = 60;
+    private static final int HOURS = 24;
+
+    private final int[] minuteBuckets = new int[MINUTES];
+    private final int[] hourBuckets = new int[HOURS];
+
+    // Epoch minute / hour of the most recent bucket written to
+    private long currentMinute = Long.MIN_VALUE;
+    private long currentHour = Long.MIN_VALUE;
+
+    /**
+     * Counts one event at the given time.
+     *
+     * @param nowMillis the event time in milliseconds since the epoch
+     */
+    public void record(long nowMillis) {
+        long minute = nowMillis / 60_000;
+        long hour = minute / 60;
+        advance(minute, hour);
+
+        // Events older than the window would land in a bucket that now belongs to a newer minute
+        if (currentMinute - minute >= MINUTES) {
+            return;
+        }
+        minuteBuckets[(int) Math.floorMod(minute, (long) MINUTES)]++;
+        hourBuckets[(int) Math.floorMod(hour, (long) HOURS)]++;
+    }
+
+    /**
+     * Returns the number of events in the last {@code minutes} minutes, including the current one.
+     *
+     * @param minutes the window length in minutes, between 1 and 60
+     * @param nowMillis the current time in milliseconds since the epoch
+     */
+    public long countLastMinutes(int minutes, long nowMillis) {
+        if (minutes < 1 || minutes > MINUTES) {
+            throw new IllegalArgumentException("Window must be between 1 and " + MINUTES + " minutes");
+        }
+        long minute = nowMillis / 60_000;
+        long total = 0;
+        for (int i = 0; i < minutes; i++) {
+            long bucketMinute = minute - i;
+            if (bucketMinute > currentMinute || currentMinute - bucketMinute >= MINUTES) {
+                continue;
+            }
+            total += minuteBuckets[(int) Math.floorMod(bucketMinute, (long) MINUTES)];
+        }
+        return total;
+    }
+
+    /**
+     * Returns the number of events in the current hour and the 23 hours before it.
+     *
+     * @param nowMillis the current time in milliseconds since the epoch
+     */
+    public long countLastDay(long nowMillis) {
+        long hour = nowMillis / 3_600_000;
+        long total = 0;
+        for (int i = 0; i < HOURS; i++) {
+            long bucketHour = hour - i;
+            if (bucketHour > currentHour || currentHour - bucketHour >= HOURS) {
+                continue;
+            }
+            total += hourBuckets[(int) Math.floorMod(bucketHour, (long) HOURS)];
+        }
+        return total;
+    }
+
+    /**
+     * Returns the time of the most recent bucket in milliseconds, or Long.MIN_VALUE if empty.
+     */
+    public long lastActivityMillis() {
+        return currentMinute == Long.MIN_VALUE ? Long.MIN_VALUE : currentMinute * 60_000;
+    }
+
+    private void advance(long minute, long hour) {
+        if (minute > currentMinute) {
+            // Clear every bucket between the last written minute and now
+            long stale = currentMinute == Long.MIN_VALUE ? MINUTES : Math.min(minute - currentMinute, MINUTES);
+            for (long i = 0; i < stale; i++) {
+                minuteBuckets[(int) Math.floorMod(minute - i, (long) MINUTES)] = 0;
+            }
+            currentMinute = minute;
+        }
+        if (hour > currentHour) {
+            long stale = currentHour == Long.MIN_VALUE ? HOURS : Math.min(hour - currentHour, HOURS);
+            for (long i = 0; i < stale; i++) {
+                hourBuckets[(int) Math.floorMod(hour - i, (long) HOURS)] = 0;
+            }
+            currentHour = hour;
+        }
+    }
+
+}
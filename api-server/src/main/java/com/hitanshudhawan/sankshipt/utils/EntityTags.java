@@ -0,0 +1,50 @@
+package com.hitanshudhawan.sankshipt.utils;
+
+/**
+ * Utility class for building and checking HTTP entity tags (ETags).
+ */
+public class EntityTags {
+
+    /**
+     * Builds a quoted strong entity tag from values that together identify a representation.
+     * Example: of(42, 7) -> "\"42-7\""
+     *
+     * @param parts the identifying values, such as an id and a version counter
+     * @return the quoted entity tag
+     */
+    public static String of(Object... parts) {
+        StringBuilder tag = new StringBuilder("\"");
+        for (int i = 0; i < parts.length; i++) {
+            if (i > 0) {
+                tag.append('-');
+            }
+            tag.append(parts[i]);
+        }
+        return tag.append('"').toString();
+    }
+
+    /**
+     * Checks an If-None-Match header value, which may list several tags or be "*".
+     * Weak tags match too, since If-None-Match uses weak comparison.
+     *
+     * @param ifNoneMatch the header value, may be null
+     * @param etag the quoted entity tag of the current representation
+     * @return true if the client already has the current representation
+     */
+    public static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+}
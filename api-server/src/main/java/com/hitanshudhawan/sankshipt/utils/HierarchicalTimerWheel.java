@@ -0,0 +1,129 @@
+package com.hitanshudhawan.sankshipt.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hierarchical timer wheel: schedules keys for a deadline and hands them back once time passes it.
+ * <p>
+ * Four wheels of 64 slots each cover 64, 64^2, 64^3 and 64^4 ticks; with one-second ticks that is
+ * about a minute, an hour, three days and half a year. A key is filed in the coarsest wheel it fits in
+ * and moved down a level each time its slot comes up, so scheduling is O(1) and advancing costs
+ * O(1) per tick plus O(1) per key that expires. Deadlines beyond the last wheel wait in an overflow
+ * list that is re-filed whenever the last wheel turns.
+ * <p>
+ * Keys cannot be cancelled; callers re-check a key when it expires and ignore it if it is stale.
+ * This class is not thread-safe; callers must synchronize access.
+ */
+public class HierarchicalTimerWheel<K> {
+
+    private static final int LEVELS = 4;
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+
+    private record Entry<K>(K key, long deadlineTick) {
+    }
+
+    private final long tickMillis;
+    private final List<List<Entry<K>>> slots = new ArrayList<>(LEVELS * SLOTS);
+    private final List<Entry<K>> overflow = new ArrayList<>();
+
+    // Last tick that has been processed
+    private long currentTick;
+    private int size;
+
+    /**
+     * @param tickMillis resolution of the wheel in milliseconds
+     * @param nowMillis  the current time in milliseconds since the epoch
+     */
+    public HierarchicalTimerWheel(long tickMillis, long nowMillis) {
+        if (tickMillis <= 0) {
+            throw new IllegalArgumentException("Tick must be positive");
+        }
+        this.tickMillis = tickMillis;
+        this.currentTick = nowMillis / tickMillis;
+        for (int i = 0; i < LEVELS * SLOTS; i++) {
+            slots.add(new ArrayList<>());
+        }
+    }
+
+    /**
+     * Schedules a key. It is returned by the first {@link #advance} call at or after the deadline
+     * (rounded up to the next tick); deadlines in the past are returned by the next call.
+     */
+    public void schedule(K key, long deadlineMillis) {
+        long deadlineTick = Math.floorDiv(deadlineMillis + tickMillis - 1, tickMillis);
+        file(new Entry<>(key, Math.max(deadlineTick, currentTick + 1)));
+        size++;
+    }
+
+    /**
+     * Moves the wheel forward to the given time.
+     *
+     * @param nowMillis the current time in milliseconds since the epoch
+     * @return the keys whose deadline has passed, in deadline order
+     */
+    public List<K> advance(long nowMillis) {
+        long targetTick = nowMillis / tickMillis;
+        List<K> expired = new ArrayList<>();
+        while (currentTick < targetTick) {
+            currentTick++;
+            cascade();
+
+            List<Entry<K>> slot = slots.get((int) (currentTick & SLOT_MASK));
+            if (slot.isEmpty()) {
+                continue;
+            }
+            for (Entry<K> entry : slot) {
+                expired.add(entry.key());
+            }
+            size -= slot.size();
+            slot.clear();
+        }
+        return expired;
+    }
+
+    /**
+     * Returns the number of keys waiting for their deadline.
+     */
+    public int size() {
+        return size;
+    }
+
+    private void file(Entry<K> entry) {
+        long delta = entry.deadlineTick() - currentTick;
+        for (int level = 0; level < LEVELS; level++) {
+            if (delta < 1L << (SLOT_BITS * (level + 1))) {
+                int index = (int) ((entry.deadlineTick() >>> (SLOT_BITS * level)) & SLOT_MASK);
+                slots.get(level * SLOTS + index).add(entry);
+                return;
+            }
+        }
+        overflow.add(entry);
+    }
+
+    // When a wheel completes a turn, the next slot of the wheel above it is spread over the lower wheels
+    private void cascade() {
+        for (int level = 1; level < LEVELS; level++) {
+            if ((currentTick & ((1L << (SLOT_BITS * level)) - 1)) != 0) {
+                return;
+            }
+            int index = (int) ((currentTick >>> (SLOT_BITS * level)) & SLOT_MASK);
+            refile(slots.get(level * SLOTS + index));
+        }
+        if ((currentTick & ((1L << (SLOT_BITS * LEVELS)) - 1)) == 0) {
+            refile(overflow);
+        }
+    }
+
+    private void refile(List<Entry<K>> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        List<Entry<K>> moved = new ArrayList<>(entries);
+        entries.clear();
+        moved.forEach(this::file);
+    }
+
+}
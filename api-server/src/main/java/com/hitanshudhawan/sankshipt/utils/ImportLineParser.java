@@ -0,0 +1,109 @@
+package com.hitanshudhawan.sankshipt.utils;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Extracts the original URL from one line of an import file.
+ * <p>
+ * Both supported formats hold one record per line, so files can be read as a stream of lines
+ * without loading them into memory:
+ * - CSV: the URL is the first column; a header row ("original_url", "originalUrl" or "url") on the first line is skipped.
+ *   Quoted fields with escaped quotes ("") are supported, line breaks inside fields are not.
+ * - NDJSON: every line is a JSON object with an "originalUrl" (or "url") string field.
+ * <p>
+ * Blank lines are skipped in both formats.
+ */
+public class ImportLineParser {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final Set<String> CSV_HEADERS = Set.of("original_url", "originalurl", "url");
+
+    /**
+     * Parses one CSV line.
+     *
+     * @param line       the line, without its line terminator
+     * @param lineNumber the 1-based line number, used to recognize a header row
+     * @return the original URL, or null if the line should be skipped
+     * @throws IllegalArgumentException if the line has no usable URL
+     */
+    public static String parseCsvLine(String line, long lineNumber) {
+        if (line.isBlank()) {
+            return null;
+        }
+        // Files saved by spreadsheet tools often start with a byte order mark
+        if (lineNumber == 1 && line.charAt(0) == '\uFEFF') {
+            line = line.substring(1);
+        }
+
+        String url = firstCsvField(line).trim();
+        if (lineNumber == 1 && CSV_HEADERS.contains(url.toLowerCase(Locale.ROOT))) {
+            return null;
+        }
+        if (url.isEmpty()) {
+            throw new IllegalArgumentException("Original URL cannot be blank");
+        }
+        return url;
+    }
+
+    /**
+     * Parses one NDJSON line.
+     *
+     * @param line the line, without its line terminator
+     * @return the original URL, or null if the line should be skipped
+     * @throws IllegalArgumentException if the line is not a JSON object with a usable URL
+     */
+    public static String parseNdjsonLine(String line) {
+        if (line.isBlank()) {
+            return null;
+        }
+
+        JsonNode node;
+        try {
+            node = OBJECT_MAPPER.readTree(line);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Invalid JSON: " + e.getOriginalMessage());
+        }
+        if (node == null || !node.isObject()) {
+            throw new IllegalArgumentException("Expected a JSON object");
+        }
+
+        JsonNode url = node.has("originalUrl") ? node.get("originalUrl") : node.get("url");
+        if (url == null || !url.isTextual()) {
+            throw new IllegalArgumentException("Missing \"originalUrl\" string field");
+        }
+        if (url.asText().isBlank()) {
+            throw new IllegalArgumentException("Original URL cannot be blank");
+        }
+        return url.asText().trim();
+    }
+
+    private static String firstCsvField(String line) {
+        if (line.isEmpty() || line.charAt(0) != '"') {
+            int comma = line.indexOf(',');
+            return comma >= 0 ? line.substring(0, comma) : line;
+        }
+
+        // Quoted field: read up to the closing quote, unescaping doubled quotes
+        StringBuilder field = new StringBuilder();
+        for (int i = 1; i < line.length(); i++) {
+            char ch = line.charAt(i);
+            if (ch == '"') {
+                if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else {
+                    return field.toString();
+                }
+            } else {
+                field.append(ch);
+            }
+        }
+        throw new IllegalArgumentException("Unterminated quoted field");
+    }
+
+}
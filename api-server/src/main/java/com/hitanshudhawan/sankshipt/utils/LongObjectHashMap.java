@@ -0,0 +1,243 @@
+package com.hitanshudhawan.sankshipt.utils;
+
+import java.util.Arrays;
+import java.util.function.BiConsumer;
+import java.util.function.BiPredicate;
+
+/**
+ * Open-addressing hash map with primitive {@code long} keys.
+ * <p>
+ * Keys are stored in a plain {@code long[]}, so looking up or inserting an entry never allocates
+ * a boxed {@code Long}. This matters for maps that hold an entry for every one of millions of
+ * rarely used ids. Collisions are resolved with linear probing and removals use backward-shift
+ * deletion, so there are no tombstones.
+ * <p>
+ * This class is not thread-safe; callers must synchronize access.
+ *
+ * @param <V> the type of mapped values
+ */
+public class LongObjectHashMap<V> {
+
+    private static final float LOAD_FACTOR = 0.5f;
+    private static final long EMPTY = 0L;
+
+    private long[] keys;
+    private Object[] values;
+    private int mask;
+    private int size;
+
+    // The empty marker cannot be stored in the table, so key 0 is kept aside
+    private boolean hasZeroKey;
+    private V zeroValue;
+
+    public LongObjectHashMap() {
+        this(16);
+    }
+
+    public LongObjectHashMap(int expectedSize) {
+        int capacity = tableSizeFor((int) Math.ceil(Math.max(expectedSize, 2) / LOAD_FACTOR));
+        this.keys = new long[capacity];
+        this.values = new Object[capacity];
+        this.mask = capacity - 1;
+    }
+
+    /**
+     * Returns the value mapped to the key, or null if there is none.
+     */
+    @SuppressWarnings("unchecked")
+    public V get(long key) {
+        if (key == EMPTY) {
+            return zeroValue;
+        }
+        int index = indexOf(key);
+        return index >= 0 ? (V) values[index] : null;
+    }
+
+    /**
+     * Maps the key to the value.
+     *
+     * @return the previous value, or null if there was none
+     */
+    @SuppressWarnings("unchecked")
+    public V put(long key, V value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Null values are not supported");
+        }
+        if (key == EMPTY) {
+            V previous = zeroValue;
+            if (!hasZeroKey) {
+                hasZeroKey = true;
+                size++;
+            }
+            zeroValue = value;
+            return previous;
+        }
+
+        int index = slot(key);
+        while (keys[index] != EMPTY) {
+            if (keys[index] == key) {
+                V previous = (V) values[index];
+                values[index] = value;
+                return previous;
+            }
+            index = (index + 1) & mask;
+        }
+
+        keys[index] = key;
+        values[index] = value;
+        size++;
+        if (size > keys.length * LOAD_FACTOR) {
+            resize(keys.length << 1);
+        }
+        return null;
+    }
+
+    /**
+     * Removes the mapping of the key.
+     *
+     * @return the removed value, or null if there was none
+     */
+    @SuppressWarnings("unchecked")
+    public V remove(long key) {
+        if (key == EMPTY) {
+            V previous = zeroValue;
+            if (hasZeroKey) {
+                hasZeroKey = false;
+                zeroValue = null;
+                size--;
+            }
+            return previous;
+        }
+
+        int index = indexOf(key);
+        if (index < 0) {
+            return null;
+        }
+        V previous = (V) values[index];
+        deleteAt(index);
+        return previous;
+    }
+
+    /**
+     * Removes every entry for which the predicate returns true.
+     *
+     * @return the number of removed entries
+     */
+    @SuppressWarnings("unchecked")
+    public int removeIf(BiPredicate<Long, V> predicate) {
+        int removed = 0;
+        if (hasZeroKey && predicate.test(EMPTY, zeroValue)) {
+            remove(EMPTY);
+            removed++;
+        }
+
+        int index = 0;
+        while (index < keys.length) {
+            if (keys[index] != EMPTY && predicate.test(keys[index], (V) values[index])) {
+                deleteAt(index);
+                removed++;
+                // Backward shift may have moved another entry into this slot; check it again
+            } else {
+                index++;
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * Calls the action for every entry, in no particular order.
+     */
+    @SuppressWarnings("unchecked")
+    public void forEach(BiConsumer<Long, V> action) {
+        if (hasZeroKey) {
+            action.accept(EMPTY, zeroValue);
+        }
+        for (int index = 0; index < keys.length; index++) {
+            if (keys[index] != EMPTY) {
+                action.accept(keys[index], (V) values[index]);
+            }
+        }
+    }
+
+    /**
+     * Returns the number of entries.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Removes all entries.
+     */
+    public void clear() {
+        Arrays.fill(keys, EMPTY);
+        Arrays.fill(values, null);
+        hasZeroKey = false;
+        zeroValue = null;
+        size = 0;
+    }
+
+    private int indexOf(long key) {
+        int index = slot(key);
+        while (keys[index] != EMPTY) {
+            if (keys[index] == key) {
+                return index;
+            }
+            index = (index + 1) & mask;
+        }
+        return -1;
+    }
+
+    private void deleteAt(int index) {
+        keys[index] = EMPTY;
+        values[index] = null;
+        size--;
+
+        // Shift back following entries whose probe sequence passes through the freed slot
+        int free = index;
+        int next = (free + 1) & mask;
+        while (keys[next] != EMPTY) {
+            int home = slot(keys[next]);
+            boolean movable = free <= next ? (home <= free || home > next) : (home <= free && home > next);
+            if (movable) {
+                keys[free] = keys[next];
+                values[free] = values[next];
+                keys[next] = EMPTY;
+                values[next] = null;
+                free = next;
+            }
+            next = (next + 1) & mask;
+        }
+    }
+
+    private void resize(int newCapacity) {
+        long[] oldKeys = keys;
+        Object[] oldValues = values;
+
+        keys = new long[newCapacity];
+        values = new Object[newCapacity];
+        mask = newCapacity - 1;
+
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                int index = slot(oldKeys[i]);
+                while (keys[index] != EMPTY) {
+                    index = (index + 1) & mask;
+                }
+                keys[index] = oldKeys[i];
+                values[index] = oldValues[i];
+            }
+        }
+    }
+
+    private int slot(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+
+    private static int tableSizeFor(int capacity) {
+        int size = Integer.highestOneBit(Math.max(capacity, 2));
+        return size < capacity ? size << 1 : size;
+    }
+
+}
@@ -0,0 +1,52 @@
+package com.hitanshudhawan.sankshipt.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Position in a listing ordered by (created_at, id), passed to clients as an opaque string.
+ * The next page starts right after the row the cursor points at, so pages stay stable while rows are inserted.
+ *
+ * @param createdAtMillis the creation time of the last row of the previous page
+ * @param id the id of the last row of the previous page
+ */
+public record PageCursor(long createdAtMillis, long id) {
+
+    private static final int MAX_ENCODED_LENGTH = 64;
+
+    /**
+     * Encodes this cursor as a URL-safe string.
+     * Example: PageCursor(1700000000000, 42) -> "MTcwMDAwMDAwMDAwMDo0Mg"
+     *
+     * @return the encoded cursor
+     */
+    public String encode() {
+        String value = createdAtMillis + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * Decodes a cursor previously returned by {@link #encode()}.
+     *
+     * @param cursor the encoded cursor
+     * @return the decoded cursor
+     * @throws IllegalArgumentException if the value is not a valid cursor
+     */
+    public static PageCursor decode(String cursor) {
+        if (cursor == null || cursor.isEmpty() || cursor.length() > MAX_ENCODED_LENGTH) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.US_ASCII);
+            int separator = value.indexOf(':');
+            if (separator < 0) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return new PageCursor(Long.parseLong(value.substring(0, separator)), Long.parseLong(value.substring(separator + 1)));
+        } catch (IllegalArgumentException e) {
+            // Covers malformed Base64 as well as NumberFormatException
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+
+}
@@ -89,6 +89,30 @@ public class ShortCodeGenerator {
         return providedChecksum.equals(expectedChecksum);
     }
 
+    /**
+     * Checks whether a code has the shape of a generated short code: at least one Base62 character
+     * followed by a CHECKSUM_LENGTH-character hex checksum, in any letter case. Custom aliases never
+     * have this shape, so the two kinds of codes can never collide, even in a case-insensitive column.
+     *
+     * @param shortCode The code to check
+     * @return true if the code could have been produced by generateShortCode
+     */
+    public static boolean isGeneratedShortCode(String shortCode) {
+        if (shortCode == null || shortCode.length() <= CHECKSUM_LENGTH) {
+            return false;
+        }
+        for (int i = 0; i < shortCode.length(); i++) {
+            char ch = shortCode.charAt(i);
+            boolean valid = i < shortCode.length() - CHECKSUM_LENGTH
+                    ? BASE62_CHARS.indexOf(ch) != -1
+                    : (ch >= '0' && ch <= '9') || (ch >= 'a' && ch <= 'f') || (ch >= 'A' && ch <= 'F');
+            if (!valid) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     /**
      * Encodes a number to Base62 string
      * 
@@ -0,0 +1,117 @@
+package com.hitanshudhawan.sankshipt.utils;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Remembers recently seen keys for a fixed time window so that repeated events
+ * (e.g. a double-click on the same link) can be recognized as duplicates.
+ * <p>
+ * Keys are spread over a power-of-two number of stripes, each guarded by its own lock,
+ * so concurrent callers rarely contend. Every stripe keeps two time buckets of one window
+ * each: the current bucket and the previous one. When time moves past the current bucket,
+ * the previous bucket is dropped wholesale, which bounds memory to roughly two windows of
+ * distinct keys without per-entry expiry.
+ */
+public class SlidingWindowDeduplicator {
+
+    private final long windowMillis;
+    private final Stripe[] stripes;
+    private final int stripeMask;
+
+    /**
+     * @param windowMillis the window during which a repeated key is considered a duplicate
+     * @param stripeCount  the number of lock stripes, rounded up to a power of two
+     */
+    public SlidingWindowDeduplicator(long windowMillis, int stripeCount) {
+        if (windowMillis <= 0) {
+            throw new IllegalArgumentException("Window must be positive");
+        }
+        if (stripeCount <= 0) {
+            throw new IllegalArgumentException("Stripe count must be positive");
+        }
+
+        int size = Integer.highestOneBit(stripeCount);
+        if (size < stripeCount) {
+            size <<= 1;
+        }
+
+        this.windowMillis = windowMillis;
+        this.stripes = new Stripe[size];
+        this.stripeMask = size - 1;
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    /**
+     * Records the key at the given time unless it was already recorded within the window.
+     *
+     * @param key        the event key
+     * @param nowMillis  the current time in milliseconds
+     * @return true if the key was seen less than one window ago, false if this is a new event
+     */
+    public boolean isDuplicate(long key, long nowMillis) {
+        Stripe stripe = stripes[spread(key) & stripeMask];
+        long bucket = nowMillis / windowMillis;
+
+        synchronized (stripe) {
+            stripe.rotate(bucket);
+
+            Long lastSeen = stripe.current.get(key);
+            if (lastSeen == null) {
+                lastSeen = stripe.previous.get(key);
+            }
+            if (lastSeen != null && nowMillis - lastSeen < windowMillis) {
+                return true;
+            }
+
+            stripe.current.put(key, nowMillis);
+            return false;
+        }
+    }
+
+    /**
+     * Returns the number of keys currently held across all stripes.
+     */
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                size += stripe.current.size() + stripe.previous.size();
+            }
+        }
+        return size;
+    }
+
+    private static int spread(long key) {
+        long h = key ^ (key >>> 33);
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        return (int) h;
+    }
+
+    private static final class Stripe {
+
+        private long bucket = Long.MIN_VALUE;
+        private Map<Long, Long> current = new HashMap<>();
+        private Map<Long, Long> previous = new HashMap<>();
+
+        private void rotate(long newBucket) {
+            if (newBucket <= bucket) {
+                return;
+            }
+            if (newBucket == bucket + 1) {
+                Map<Long, Long> recycled = previous;
+                recycled.clear();
+                previous = current;
+                current = recycled;
+            } else {
+                current.clear();
+                previous.clear();
+            }
+            bucket = newBucket;
+        }
+    }
+
+}
@@ -0,0 +1,107 @@
+package com.hitanshudhawan.sankshipt.utils;
+
+/**
+ * Snowflake-style id generator: every id packs the time, the node id and a per-node sequence,
+ * so nodes with different node ids never produce the same id without talking to each other.
+ * <p>
+ * Layout (51 bits, always positive): seconds since {@link #EPOCH_MILLIS} | 8-bit node id | 12-bit sequence.
+ * Seconds rather than milliseconds keep the ids small, so their Base62 form stays at 8 characters for
+ * the first few years and never exceeds 9. Each node can issue {@value #SEQUENCE_LIMIT} ids per second;
+ * a burst beyond that borrows sequence numbers from up to {@code maxBorrowSeconds} future seconds.
+ * <p>
+ * The clock never runs backwards as far as the generator is concerned: if the wall clock does,
+ * ids keep being issued from the last second used.
+ * <p>
+ * This class is not thread-safe; callers must synchronize access.
+ */
+public class SnowflakeIdGenerator {
+
+    /**
+     * Custom epoch (2025-01-01T00:00:00Z); ids are only valid for times after it.
+     */
+    public static final long EPOCH_MILLIS = 1_735_689_600_000L;
+
+    public static final int NODE_BITS = 8;
+    public static final int SEQUENCE_BITS = 12;
+    public static final int MAX_NODE_ID = (1 << NODE_BITS) - 1;
+    static final int SEQUENCE_LIMIT = 1 << SEQUENCE_BITS;
+
+    private final long nodeId;
+    private final int maxBorrowSeconds;
+
+    // Second (relative to the epoch) and sequence of the last id issued
+    private long lastSecond;
+    private int sequence;
+
+    /**
+     * @param nodeId           the node id, between 0 and {@value #MAX_NODE_ID}
+     * @param startAfterMillis ids are only issued for seconds after the one containing this time,
+     *                         so a node id taken over from another instance never repeats its ids
+     * @param maxBorrowSeconds how far ahead of the clock a burst may run before {@link #nextId} gives up
+     */
+    public SnowflakeIdGenerator(int nodeId, long startAfterMillis, int maxBorrowSeconds) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("Node id must be between 0 and " + MAX_NODE_ID);
+        }
+        if (maxBorrowSeconds < 0) {
+            throw new IllegalArgumentException("Borrow limit cannot be negative");
+        }
+        this.nodeId = nodeId;
+        this.maxBorrowSeconds = maxBorrowSeconds;
+        this.lastSecond = secondOf(Math.max(startAfterMillis, EPOCH_MILLIS - 1000));
+        // Make the next id move on to a new second
+        this.sequence = SEQUENCE_LIMIT - 1;
+    }
+
+    /**
+     * Issues the next id.
+     *
+     * @param nowMillis the current time in milliseconds since the Unix epoch
+     * @return the id, or -1 if this second's sequence is used up and the borrow limit is reached
+     */
+    public long nextId(long nowMillis) {
+        if (nowMillis < EPOCH_MILLIS) {
+            throw new IllegalStateException("Clock is set before the id epoch");
+        }
+        long second = secondOf(nowMillis);
+        if (second > lastSecond) {
+            lastSecond = second;
+            sequence = 0;
+        } else if (sequence < SEQUENCE_LIMIT - 1) {
+            sequence++;
+        } else if (lastSecond + 1 - second <= maxBorrowSeconds) {
+            lastSecond++;
+            sequence = 0;
+        } else {
+            return -1;
+        }
+        return (lastSecond << (NODE_BITS + SEQUENCE_BITS)) | (nodeId << SEQUENCE_BITS) | sequence;
+    }
+
+    /**
+     * Returns the start of the last second ids were issued for, in milliseconds since the Unix epoch.
+     * A later owner of the same node id must start after it.
+     */
+    public long lastSecondMillis() {
+        return EPOCH_MILLIS + lastSecond * 1000;
+    }
+
+    /**
+     * Returns the node id packed into an id.
+     */
+    public static int nodeIdOf(long id) {
+        return (int) ((id >>> SEQUENCE_BITS) & MAX_NODE_ID);
+    }
+
+    /**
+     * Returns the start of the second an id was issued for, in milliseconds since the Unix epoch.
+     */
+    public static long timestampMillisOf(long id) {
+        return EPOCH_MILLIS + (id >>> (NODE_BITS + SEQUENCE_BITS)) * 1000;
+    }
+
+    private static long secondOf(long millis) {
+        return Math.floorDiv(millis - EPOCH_MILLIS, 1000L);
+    }
+
+}
@@ -0,0 +1,121 @@
+package com.hitanshudhawan.sankshipt.utils;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Approximate top-K frequency counter based on the Space-Saving algorithm.
+ * <p>
+ * At most {@code capacity} items are tracked. When a new item arrives and the counter is full,
+ * the item with the smallest count is evicted and the new item inherits that count as its error.
+ * Every tracked count is an upper bound of the true count and overestimates it by at most its error,
+ * so memory stays constant no matter how long the tail of distinct items is.
+ * <p>
+ * This class is not thread-safe; callers must synchronize access.
+ */
+public class SpaceSavingCounter {
+
+    private final int capacity;
+    private final Map<String, Entry> entries;
+
+    public SpaceSavingCounter(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        this.capacity = capacity;
+        this.entries = new HashMap<>(capacity * 2);
+    }
+
+    /**
+     * Counts one occurrence of the item.
+     *
+     * @param item the item to count
+     */
+    public void offer(String item) {
+        offer(item, 1, 0);
+    }
+
+    /**
+     * Adds a pre-aggregated count for the item, e.g. when merging another counter.
+     *
+     * @param item  the item to count
+     * @param count the number of occurrences to add
+     * @param error the overestimation already carried by the count
+     */
+    public void offer(String item, long count, long error) {
+        Entry entry = entries.get(item);
+        if (entry != null) {
+            entry.count += count;
+            entry.error += error;
+            return;
+        }
+
+        if (entries.size() < capacity) {
+            entries.put(item, new Entry(item, count, error));
+            return;
+        }
+
+        // Replace the least frequent item; the newcomer may have occurred up to that many times before
+        Entry min = null;
+        for (Entry candidate : entries.values()) {
+            if (min == null || candidate.count < min.count) {
+                min = candidate;
+            }
+        }
+        entries.remove(min.item);
+        entries.put(item, new Entry(item, min.count + count, min.count + error));
+    }
+
+    /**
+     * Merges all counts of another counter into this one.
+     *
+     * @param other the counter to merge
+     */
+    public void merge(SpaceSavingCounter other) {
+        for (Entry entry : other.entries.values()) {
+            offer(entry.item, entry.count, entry.error);
+        }
+    }
+
+    /**
+     * Returns the tracked items ordered by descending count.
+     */
+    public List<ItemCount> top() {
+        List<ItemCount> result = new ArrayList<>(entries.size());
+        for (Entry entry : entries.values()) {
+            result.add(new ItemCount(entry.item, entry.count, entry.error));
+        }
+        result.sort(Comparator.comparingLong(ItemCount::count).reversed().thenComparing(ItemCount::item));
+        return result;
+    }
+
+    /**
+     * Returns the number of tracked items.
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * A tracked item with its estimated count and the maximum overestimation of that count.
+     */
+    public record ItemCount(String item, long count, long error) {
+    }
+
+    private static final class Entry {
+
+        private final String item;
+        private long count;
+        private long error;
+
+        private Entry(String item, long count, long error) {
+            this.item = item;
+            this.count = count;
+            this.error = error;
+        }
+    }
+
+}
@@ -0,0 +1,212 @@
+package com.hitanshudhawan.sankshipt.utils;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * In-memory trigram index for case-insensitive substring search over a few short text fields per document.
+ * <p>
+ * Every run of three characters in a document's fields maps to a posting list of the ids of the
+ * documents containing it. Posting lists are sorted {@code long[]} arrays kept in a primitive-keyed
+ * map, so the index holds no boxed ids. A query is answered by intersecting the posting lists of its
+ * trigrams, shortest first, and then checking the few remaining candidates against their stored text,
+ * since matching every trigram does not guarantee that the trigrams are adjacent.
+ * <p>
+ * This class is not thread-safe; callers must synchronize access.
+ */
+public class TrigramIndex {
+
+    private static final int GRAM_LENGTH = 3;
+
+    private record Document(long rank, String[] texts) {
+    }
+
+    /**
+     * Sorted, duplicate-free ids of the documents containing one trigram.
+     */
+    private static final class Postings {
+
+        private long[] ids = new long[2];
+        private int size;
+
+        void add(long id) {
+            // Ids mostly arrive in increasing order, so appending is the common case
+            if (size == 0 || ids[size - 1] < id) {
+                ensureCapacity();
+                ids[size++] = id;
+                return;
+            }
+            int index = Arrays.binarySearch(ids, 0, size, id);
+            if (index >= 0) {
+                return;
+            }
+            int insertAt = -index - 1;
+            ensureCapacity();
+            System.arraycopy(ids, insertAt, ids, insertAt + 1, size - insertAt);
+            ids[insertAt] = id;
+            size++;
+        }
+
+        void remove(long id) {
+            int index = Arrays.binarySearch(ids, 0, size, id);
+            if (index < 0) {
+                return;
+            }
+            System.arraycopy(ids, index + 1, ids, index, size - index - 1);
+            size--;
+        }
+
+        boolean contains(long id) {
+            return Arrays.binarySearch(ids, 0, size, id) >= 0;
+        }
+
+        private void ensureCapacity() {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, ids.length + (ids.length >> 1) + 1);
+            }
+        }
+    }
+
+    private final LongObjectHashMap<Postings> postings = new LongObjectHashMap<>();
+    private final LongObjectHashMap<Document> documents = new LongObjectHashMap<>();
+
+    /**
+     * Adds a document, replacing any earlier document with the same id.
+     *
+     * @param id the document id
+     * @param rank the sort key of the document in search results, highest first
+     * @param texts the fields to make searchable; null fields are skipped
+     */
+    public void add(long id, long rank, String... texts) {
+        remove(id);
+        String[] lowerCased = new String[texts.length];
+        for (int i = 0; i < texts.length; i++) {
+            lowerCased[i] = texts[i] != null ? texts[i].toLowerCase(Locale.ROOT) : "";
+        }
+        documents.put(id, new Document(rank, lowerCased));
+        for (String text : lowerCased) {
+            for (int i = 0; i + GRAM_LENGTH <= text.length(); i++) {
+                long gram = gram(text, i);
+                Postings list = postings.get(gram);
+                if (list == null) {
+                    list = new Postings();
+                    postings.put(gram, list);
+                }
+                list.add(id);
+            }
+        }
+    }
+
+    /**
+     * Removes a document.
+     *
+     * @param id the document id
+     * @return true if the document was in the index
+     */
+    public boolean remove(long id) {
+        Document document = documents.remove(id);
+        if (document == null) {
+            return false;
+        }
+        for (String text : document.texts()) {
+            for (int i = 0; i + GRAM_LENGTH <= text.length(); i++) {
+                long gram = gram(text, i);
+                Postings list = postings.get(gram);
+                if (list != null) {
+                    list.remove(id);
+                    if (list.size == 0) {
+                        postings.remove(gram);
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Finds the documents with a field containing the query, ignoring case.
+     * Queries shorter than three characters have no trigrams and are checked against every document.
+     *
+     * @param query the text to look for
+     * @param limit the maximum number of ids to return
+     * @return the ids of matching documents, highest rank first, ties broken by the higher id
+     */
+    public long[] search(String query, int limit) {
+        String needle = query.toLowerCase(Locale.ROOT);
+        long[] candidates = needle.length() < GRAM_LENGTH ? allIds() : candidates(needle);
+
+        // Matching every trigram does not mean the trigrams are adjacent, so confirm against the text
+        long[][] matches = new long[candidates.length][];
+        int matchCount = 0;
+        for (long id : candidates) {
+            Document document = documents.get(id);
+            for (String text : document.texts()) {
+                if (text.contains(needle)) {
+                    matches[matchCount++] = new long[]{document.rank(), id};
+                    break;
+                }
+            }
+        }
+
+        Arrays.sort(matches, 0, matchCount, (a, b) -> a[0] != b[0] ? Long.compare(b[0], a[0]) : Long.compare(b[1], a[1]));
+        long[] result = new long[Math.min(matchCount, limit)];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = matches[i][1];
+        }
+        return result;
+    }
+
+    /**
+     * Returns the number of documents in the index.
+     */
+    public int size() {
+        return documents.size();
+    }
+
+    /**
+     * Returns the number of distinct trigrams in the index.
+     */
+    int gramCount() {
+        return postings.size();
+    }
+
+    private long[] candidates(String needle) {
+        // The posting list of every trigram of the query; one missing trigram rules out every document
+        int gramCount = needle.length() - GRAM_LENGTH + 1;
+        Postings[] lists = new Postings[gramCount];
+        for (int i = 0; i < gramCount; i++) {
+            Postings list = postings.get(gram(needle, i));
+            if (list == null) {
+                return new long[0];
+            }
+            lists[i] = list;
+        }
+
+        // Start from the shortest list, so each later step only probes the survivors
+        Arrays.sort(lists, (a, b) -> Integer.compare(a.size, b.size));
+        long[] candidates = Arrays.copyOf(lists[0].ids, lists[0].size);
+        int count = candidates.length;
+        for (int i = 1; i < lists.length && count > 0; i++) {
+            int kept = 0;
+            for (int j = 0; j < count; j++) {
+                if (lists[i].contains(candidates[j])) {
+                    candidates[kept++] = candidates[j];
+                }
+            }
+            count = kept;
+        }
+        return Arrays.copyOf(candidates, count);
+    }
+
+    private long[] allIds() {
+        long[] ids = new long[documents.size()];
+        int[] count = {0};
+        documents.forEach((id, document) -> ids[count[0]++] = id);
+        return ids;
+    }
+
+    private static long gram(String text, int start) {
+        return ((long) text.charAt(start) << 32) | ((long) text.charAt(start + 1) << 16) | text.charAt(start + 2);
+    }
+
+}
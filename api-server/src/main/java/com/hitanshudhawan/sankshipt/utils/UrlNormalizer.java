@@ -0,0 +1,121 @@
+package com.hitanshudhawan.sankshipt.utils;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Locale;
+
+/**
+ * Utility class for normalizing URLs and URL fragments before they are stored or compared.
+ */
+public class UrlNormalizer {
+
+    private static final int MAX_HOST_LENGTH = 255;
+
+    /**
+     * Length in bytes of the hash returned by {@link #urlHash(String)}.
+     */
+    public static final int URL_HASH_LENGTH = 32;
+
+    /**
+     * Reduces a Referer header value to its host, lower-cased and without a leading "www.".
+     * Example: "https://WWW.Google.com/search?q=x" -> "google.com"
+     *
+     * @param referrer the raw Referer header value, may be null
+     * @return the normalized host, or null if the value is missing or has no host
+     */
+    public static String referrerHost(String referrer) {
+        if (referrer == null || referrer.isBlank()) {
+            return null;
+        }
+
+        String host;
+        try {
+            host = new URI(referrer.trim()).getHost();
+        } catch (URISyntaxException e) {
+            return null;
+        }
+        if (host == null || host.isEmpty() || host.length() > MAX_HOST_LENGTH) {
+            return null;
+        }
+
+        host = host.toLowerCase(Locale.ROOT);
+        if (host.endsWith(".")) {
+            host = host.substring(0, host.length() - 1);
+        }
+        if (host.startsWith("www.")) {
+            host = host.substring(4);
+        }
+        return host.isEmpty() ? null : host;
+    }
+
+    /**
+     * Normalizes a URL so that trivially different spellings of the same address compare equal.
+     * The scheme and host are lower-cased, default ports and the fragment are dropped and an empty
+     * path becomes "/". The path and query are kept as they are, since servers may treat them case-sensitively.
+     * Example: "HTTPS://Example.COM:443#top" -> "https://example.com/"
+     *
+     * @param url the URL to normalize
+     * @return the normalized URL, or the trimmed input if it cannot be parsed as an absolute URL
+     */
+    public static String normalize(String url) {
+        if (url == null) {
+            return null;
+        }
+        String trimmed = url.trim();
+
+        URI uri;
+        try {
+            uri = new URI(trimmed);
+        } catch (URISyntaxException e) {
+            return trimmed;
+        }
+        if (uri.getScheme() == null || uri.getRawAuthority() == null || uri.getHost() == null) {
+            return trimmed;
+        }
+
+        String scheme = uri.getScheme().toLowerCase(Locale.ROOT);
+        StringBuilder normalized = new StringBuilder(trimmed.length())
+                .append(scheme)
+                .append("://");
+        if (uri.getRawUserInfo() != null) {
+            normalized.append(uri.getRawUserInfo()).append('@');
+        }
+        normalized.append(uri.getHost().toLowerCase(Locale.ROOT));
+
+        int port = uri.getPort();
+        boolean defaultPort = ("http".equals(scheme) && port == 80) || ("https".equals(scheme) && port == 443);
+        if (port != -1 && !defaultPort) {
+            normalized.append(':').append(port);
+        }
+
+        String path = uri.getRawPath();
+        normalized.append(path == null || path.isEmpty() ? "/" : path);
+        if (uri.getRawQuery() != null) {
+            normalized.append('?').append(uri.getRawQuery());
+        }
+        return normalized.toString();
+    }
+
+    /**
+     * Computes a fixed-width SHA-256 hash of the normalized URL, suitable for an indexed lookup column.
+     *
+     * @param url the URL to hash
+     * @return the {@value #URL_HASH_LENGTH}-byte hash of {@link #normalize(String) normalize(url)}
+     */
+    public static byte[] urlHash(String url) {
+        if (url == null) {
+            throw new IllegalArgumentException("URL cannot be null");
+        }
+        try {
+            MessageDigest md = MessageDigest.getInstance("SHA-256");
+            return md.digest(normalize(url).getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            // This should never happen as SHA-256 is always available
+            throw new RuntimeException("SHA-256 algorithm not available", e);
+        }
+    }
+
+}
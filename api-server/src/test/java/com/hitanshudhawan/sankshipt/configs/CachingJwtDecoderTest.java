@@ -0,0 +1,116 @@
+package com.hitanshudhawan.sankshipt.configs;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CachingJwtDecoderTest {
+
+    @Mock
+    private JwtDecoder delegate;
+
+    private CachingJwtDecoder cachingJwtDecoder;
+
+    private final Instant now = Instant.parse("2025-06-01T12:00:00Z");
+
+    @BeforeEach
+    void setUp() {
+        cachingJwtDecoder = new CachingJwtDecoder(delegate, 2);
+    }
+
+    @Test
+    void decode_SameToken_ShouldVerifyOnce() {
+        // Arrange
+        Jwt jwt = jwt("token-a", now.plusSeconds(3600));
+        when(delegate.decode("token-a")).thenReturn(jwt);
+
+        // Act
+        Jwt first = cachingJwtDecoder.decode("token-a", now);
+        Jwt second = cachingJwtDecoder.decode("token-a", now.plusSeconds(60));
+
+        // Assert
+        assertSame(jwt, first);
+        assertSame(jwt, second);
+        verify(delegate, times(1)).decode("token-a");
+    }
+
+    @Test
+    void decode_TokenExpired_ShouldVerifyAgain() {
+        // Arrange
+        Jwt jwt = jwt("token-a", now.plusSeconds(60));
+        when(delegate.decode("token-a")).thenReturn(jwt);
+        cachingJwtDecoder.decode("token-a", now);
+
+        // Act
+        cachingJwtDecoder.decode("token-a", now.plusSeconds(60));
+
+        // Assert
+        verify(delegate, times(2)).decode("token-a");
+    }
+
+    @Test
+    void decode_InvalidToken_ShouldNotBeCached() {
+        // Arrange
+        when(delegate.decode("bad")).thenThrow(new BadJwtException("Invalid signature"));
+
+        // Act & Assert
+        assertThrows(BadJwtException.class, () -> cachingJwtDecoder.decode("bad", now));
+        assertThrows(BadJwtException.class, () -> cachingJwtDecoder.decode("bad", now));
+        verify(delegate, times(2)).decode("bad");
+        assertEquals(0, cachingJwtDecoder.size());
+    }
+
+    @Test
+    void decode_TokenWithoutExpiry_ShouldNotBeCached() {
+        // Arrange
+        when(delegate.decode("token-a")).thenReturn(jwt("token-a", null));
+
+        // Act
+        cachingJwtDecoder.decode("token-a", now);
+        cachingJwtDecoder.decode("token-a", now);
+
+        // Assert
+        verify(delegate, times(2)).decode("token-a");
+    }
+
+    @Test
+    void decode_CacheFull_ShouldEvictLeastRecentlyUsed() {
+        // Arrange
+        for (String token : new String[]{"token-a", "token-b", "token-c"}) {
+            when(delegate.decode(token)).thenReturn(jwt(token, now.plusSeconds(3600)));
+        }
+        cachingJwtDecoder.decode("token-a", now);
+        cachingJwtDecoder.decode("token-b", now);
+        cachingJwtDecoder.decode("token-a", now);
+
+        // Act
+        cachingJwtDecoder.decode("token-c", now);
+        cachingJwtDecoder.decode("token-a", now);
+        cachingJwtDecoder.decode("token-b", now);
+
+        // Assert
+        assertEquals(2, cachingJwtDecoder.size());
+        verify(delegate, times(1)).decode("token-a");
+        verify(delegate, times(2)).decode("token-b");
+    }
+
+    private Jwt jwt(String token, Instant expiresAt) {
+        return Jwt.withTokenValue(token)
+                .header("alg", "RS256")
+                .subject("test@example.com")
+                .issuedAt(now.minusSeconds(10))
+                .expiresAt(expiresAt)
+                .build();
+    }
+}
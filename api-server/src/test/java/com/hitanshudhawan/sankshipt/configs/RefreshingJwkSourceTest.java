@@ -0,0 +1,128 @@
+package com.hitanshudhawan.sankshipt.configs;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKMatcher;
+import com.nimbusds.jose.jwk.JWKSelector;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RefreshingJwkSourceTest {
+
+    private static RSAKey oldKey;
+    private static RSAKey newKey;
+
+    @BeforeAll
+    static void generateKeys() throws JOSEException {
+        oldKey = new RSAKeyGenerator(2048).keyID("old").generate().toPublicJWK();
+        newKey = new RSAKeyGenerator(2048).keyID("new").generate().toPublicJWK();
+    }
+
+    @Test
+    void get_PinnedKey_ShouldNotFetch() {
+        // Arrange
+        AtomicInteger fetches = new AtomicInteger();
+        RefreshingJwkSource source = new RefreshingJwkSource(new JWKSet(oldKey), counting(fetches, new JWKSet(newKey)), Runnable::run, 30_000);
+
+        // Act
+        List<JWK> keys = source.get(selector("old"), null);
+
+        // Assert
+        assertEquals(List.of(oldKey), keys);
+        assertEquals(0, fetches.get());
+    }
+
+    @Test
+    void get_UnknownKeyId_ShouldRefreshInBackgroundAndFindItNextTime() {
+        // Arrange
+        AtomicInteger fetches = new AtomicInteger();
+        List<Runnable> queued = new ArrayList<>();
+        RefreshingJwkSource source = new RefreshingJwkSource(new JWKSet(oldKey), counting(fetches, new JWKSet(newKey)), queued::add, 30_000);
+
+        // Act
+        List<JWK> beforeRefresh = source.get(selector("new"), null);
+        queued.forEach(Runnable::run);
+        List<JWK> afterRefresh = source.get(selector("new"), null);
+
+        // Assert
+        assertTrue(beforeRefresh.isEmpty());
+        assertEquals(List.of(newKey), afterRefresh);
+        assertEquals(1, fetches.get());
+    }
+
+    @Test
+    void requestRefresh_WithinMinInterval_ShouldBeRateLimited() {
+        // Arrange
+        AtomicInteger fetches = new AtomicInteger();
+        RefreshingJwkSource source = new RefreshingJwkSource(new JWKSet(), counting(fetches, new JWKSet(oldKey)), Runnable::run, 30_000);
+
+        // Act
+        source.requestRefresh(100_000);
+        source.requestRefresh(110_000);
+        source.requestRefresh(129_999);
+        source.requestRefresh(130_000);
+
+        // Assert
+        assertEquals(2, fetches.get());
+    }
+
+    @Test
+    void refresh_FetchFails_ShouldKeepKnownKeys() {
+        // Arrange
+        RefreshingJwkSource source = new RefreshingJwkSource(new JWKSet(oldKey), () -> {
+            throw new IOException("Connection refused");
+        }, Runnable::run, 30_000);
+
+        // Act
+        source.refresh();
+
+        // Assert
+        assertEquals(List.of(oldKey), source.getJwkSet().getKeys());
+    }
+
+    @Test
+    void refresh_EmptyResponse_ShouldKeepKnownKeys() {
+        // Arrange
+        RefreshingJwkSource source = new RefreshingJwkSource(new JWKSet(oldKey), JWKSet::new, Runnable::run, 30_000);
+
+        // Act
+        source.refresh();
+
+        // Assert
+        assertEquals(List.of(oldKey), source.getJwkSet().getKeys());
+    }
+
+    @Test
+    void refreshPeriodically_ShouldReplaceKeys() {
+        // Arrange
+        RefreshingJwkSource source = new RefreshingJwkSource(new JWKSet(oldKey), () -> new JWKSet(newKey), Runnable::run, 30_000);
+
+        // Act
+        source.refreshPeriodically();
+
+        // Assert
+        assertEquals(List.of(newKey), source.getJwkSet().getKeys());
+    }
+
+    private static Callable<JWKSet> counting(AtomicInteger fetches, JWKSet result) {
+        return () -> {
+            fetches.incrementAndGet();
+            return result;
+        };
+    }
+
+    private static JWKSelector selector(String keyId) {
+        return new JWKSelector(new JWKMatcher.Builder().keyID(keyId).build());
+    }
+}
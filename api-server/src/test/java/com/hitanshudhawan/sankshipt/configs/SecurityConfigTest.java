@@ -0,0 +1,62 @@
+package com.hitanshudhawan.sankshipt.configs;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SecurityConfigTest {
+
+    private final SecurityConfig.JwtGrantedAuthoritiesConverter converter = new SecurityConfig.JwtGrantedAuthoritiesConverter();
+
+    @Test
+    void convert_ShouldMapRolesAndScopes() {
+        // Act
+        Collection<GrantedAuthority> authorities = converter.convert(jwt("a@example.com", List.of("ROLE_USER"), List.of("api.read", "api.write")));
+
+        // Assert
+        assertEquals(List.of(
+                new SimpleGrantedAuthority("ROLE_USER"),
+                new SimpleGrantedAuthority("SCOPE_api.read"),
+                new SimpleGrantedAuthority("SCOPE_api.write")
+        ), authorities);
+    }
+
+    @Test
+    void convert_SameClaims_ShouldShareOneImmutableCollection() {
+        // Act
+        Collection<GrantedAuthority> first = converter.convert(jwt("a@example.com", List.of("ROLE_USER"), List.of("api.read")));
+        Collection<GrantedAuthority> second = converter.convert(jwt("b@example.com", List.of("ROLE_USER"), List.of("api.read")));
+        Collection<GrantedAuthority> other = converter.convert(jwt("c@example.com", List.of("ROLE_USER"), List.of("api.write")));
+
+        // Assert
+        assertSame(first, second);
+        assertNotSame(first, other);
+        assertThrows(UnsupportedOperationException.class, () -> first.add(new SimpleGrantedAuthority("SCOPE_api.delete")));
+    }
+
+    @Test
+    void convert_NoRolesOrScopes_ShouldReturnEmpty() {
+        // Act
+        Collection<GrantedAuthority> authorities = converter.convert(jwt("a@example.com", null, null));
+
+        // Assert
+        assertTrue(authorities.isEmpty());
+    }
+
+    private static Jwt jwt(String subject, List<String> roles, List<String> scopes) {
+        Jwt.Builder builder = Jwt.withTokenValue("token").header("alg", "RS256").subject(subject);
+        if (roles != null) {
+            builder.claim("roles", roles);
+        }
+        if (scopes != null) {
+            builder.claim("scope", scopes);
+        }
+        return builder.build();
+    }
+}
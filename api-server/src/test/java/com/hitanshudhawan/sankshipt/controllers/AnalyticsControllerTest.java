@@ -4,9 +4,16 @@ import com.hitanshudhawan.sankshipt.configs.SecurityConfig;
 import com.hitanshudhawan.sankshipt.exceptions.UrlNotFoundException;
 import com.hitanshudhawan.sankshipt.models.Click;
 import com.hitanshudhawan.sankshipt.models.URL;
+import com.hitanshudhawan.sankshipt.models.UrlDestination;
+import com.hitanshudhawan.sankshipt.models.UrlReferrer;
 import com.hitanshudhawan.sankshipt.models.User;
+import com.hitanshudhawan.sankshipt.models.UserPrincipal;
+import com.hitanshudhawan.sankshipt.repositories.ClickRepository;
 import com.hitanshudhawan.sankshipt.services.AuthenticationService;
 import com.hitanshudhawan.sankshipt.services.ClickAnalyticsService;
+import com.hitanshudhawan.sankshipt.services.ClickRateService;
+import com.hitanshudhawan.sankshipt.services.DestinationService;
+import com.hitanshudhawan.sankshipt.services.ReferrerAnalyticsService;
 import com.hitanshudhawan.sankshipt.services.ShortUrlService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -19,12 +26,16 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.Import;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.projection.ProjectionFactory;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.time.Instant;
 import java.util.Arrays;
 import java.util.Date;
+import java.util.List;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
@@ -46,27 +57,40 @@ class AnalyticsControllerTest {
     @MockBean
     private ClickAnalyticsService clickAnalyticsService;
 
+    @MockBean
+    private ReferrerAnalyticsService referrerAnalyticsService;
+
+    @MockBean
+    private ClickRateService clickRateService;
+
+    @MockBean
+    private DestinationService destinationService;
+
     @MockBean
     private AuthenticationService authenticationService;
 
-    private User testUser;
+    private UserPrincipal testUser;
+
+    private User testOwner;
     private URL testUrl;
     private Click testClick;
+    private final ProjectionFactory projectionFactory = new SpelAwareProxyProjectionFactory();
     private final String originalUrl = "https://www.example.com";
     private final String shortCode = "abc123";
     private final String userAgent = "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36";
 
     @BeforeEach
     void setUp() {
-        testUser = new User();
-        testUser.setId(1L);
-        testUser.setEmail("test@example.com");
+        testUser = new UserPrincipal(1L, "test@example.com");
+        testOwner = new User();
+        testOwner.setId(1L);
+        testOwner.setEmail("test@example.com");
 
         testUrl = new URL();
         testUrl.setId(1L);
         testUrl.setOriginalUrl(originalUrl);
         testUrl.setShortCode(shortCode);
-        testUrl.setUser(testUser);
+        testUrl.setUser(testOwner);
 
         testClick = new Click();
         testClick.setId(1L);
@@ -80,54 +104,88 @@ class AnalyticsControllerTest {
     void getShortUrlClickCount_ValidRequestAndOwner_ShouldReturnClickCount() throws Exception {
         // Arrange
         Long expectedCount = 42L;
-        when(shortUrlService.resolveShortCode(shortCode)).thenReturn(testUrl);
         when(authenticationService.getCurrentUser()).thenReturn(testUser);
-        when(shortUrlService.isUrlOwner(shortCode, testUser)).thenReturn(true);
-        when(clickAnalyticsService.getClickCountForUrl(testUrl)).thenReturn(expectedCount);
+        when(shortUrlService.findOwnedUrl(shortCode, testUser)).thenReturn(testUrl);
+        when(clickAnalyticsService.getClickCount(testUrl)).thenReturn(new ClickAnalyticsService.ClickCount(expectedCount, 3));
+        when(clickRateService.getClickRates(testUrl)).thenReturn(new ClickRateService.ClickRates(2, 10, 30));
 
         // Act & Assert
         mockMvc.perform(get("/api/analytics/" + shortCode + "/count"))
                 .andExpect(status().isOk())
-                .andExpect(content().string(expectedCount.toString()));
+                .andExpect(jsonPath("$.totalClicks").value(expectedCount))
+                .andExpect(jsonPath("$.clicksLastFiveMinutes").value(2))
+                .andExpect(jsonPath("$.clicksLastHour").value(10))
+                .andExpect(jsonPath("$.clicksLastDay").value(30));
 
-        verify(shortUrlService).resolveShortCode(shortCode);
         verify(authenticationService).getCurrentUser();
-        verify(shortUrlService).isUrlOwner(shortCode, testUser);
-        verify(clickAnalyticsService).getClickCountForUrl(testUrl);
+        verify(shortUrlService).findOwnedUrl(shortCode, testUser);
+        verify(clickAnalyticsService).getClickCount(testUrl);
+        verify(clickRateService).getClickRates(testUrl);
+    }
+
+    @Test
+    @WithMockUser(authorities = "SCOPE_api.read")
+    void getShortUrlClickCount_ShouldTagCountWithVersionAndRates() throws Exception {
+        // Arrange
+        when(authenticationService.getCurrentUser()).thenReturn(testUser);
+        when(shortUrlService.findOwnedUrl(shortCode, testUser)).thenReturn(testUrl);
+        when(clickAnalyticsService.getClickCount(testUrl)).thenReturn(new ClickAnalyticsService.ClickCount(42, 3));
+        when(clickRateService.getClickRates(testUrl)).thenReturn(new ClickRateService.ClickRates(2, 10, 30));
+
+        // Act & Assert - the previous tag differs only in a rate that has since slid out of its window
+        mockMvc.perform(get("/api/analytics/" + shortCode + "/count").header("If-None-Match", "\"1-3-3-10-30\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"1-3-2-10-30\""))
+                .andExpect(jsonPath("$.totalClicks").value(42));
+    }
+
+    @Test
+    @WithMockUser(authorities = "SCOPE_api.read")
+    void getShortUrlClickCount_MatchingIfNoneMatch_ShouldReturnNotModifiedWithoutBody() throws Exception {
+        // Arrange
+        when(authenticationService.getCurrentUser()).thenReturn(testUser);
+        when(shortUrlService.findOwnedUrl(shortCode, testUser)).thenReturn(testUrl);
+        when(clickAnalyticsService.getClickCount(testUrl)).thenReturn(new ClickAnalyticsService.ClickCount(42, 3));
+        when(clickRateService.getClickRates(testUrl)).thenReturn(new ClickRateService.ClickRates(2, 10, 30));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/analytics/" + shortCode + "/count").header("If-None-Match", "\"1-3-2-10-30\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"1-3-2-10-30\""))
+                .andExpect(content().string(""));
     }
 
     @Test
     @WithMockUser(authorities = "SCOPE_api.read")
     void getShortUrlClickCount_NotOwner_ShouldReturnForbidden() throws Exception {
         // Arrange
-        when(shortUrlService.resolveShortCode(shortCode)).thenReturn(testUrl);
         when(authenticationService.getCurrentUser()).thenReturn(testUser);
-        when(shortUrlService.isUrlOwner(shortCode, testUser)).thenReturn(false);
+        when(shortUrlService.findOwnedUrl(shortCode, testUser)).thenReturn(null);
 
         // Act & Assert
         mockMvc.perform(get("/api/analytics/" + shortCode + "/count"))
                 .andExpect(status().isForbidden());
 
-        verify(shortUrlService).resolveShortCode(shortCode);
         verify(authenticationService).getCurrentUser();
-        verify(shortUrlService).isUrlOwner(shortCode, testUser);
-        verify(clickAnalyticsService, never()).getClickCountForUrl(any());
+        verify(shortUrlService).findOwnedUrl(shortCode, testUser);
+        verify(clickAnalyticsService, never()).getClickCount(any());
+        verify(clickRateService, never()).getClickRates(any());
     }
 
     @Test
     @WithMockUser(authorities = "SCOPE_api.read")
     void getShortUrlClickCount_NonExistentUrl_ShouldReturnNotFound() throws Exception {
         // Arrange
-        when(shortUrlService.resolveShortCode(shortCode))
+        when(authenticationService.getCurrentUser()).thenReturn(testUser);
+        when(shortUrlService.findOwnedUrl(shortCode, testUser))
                 .thenThrow(new UrlNotFoundException("URL not found"));
 
         // Act & Assert
         mockMvc.perform(get("/api/analytics/" + shortCode + "/count"))
                 .andExpect(status().isNotFound());
 
-        verify(shortUrlService).resolveShortCode(shortCode);
-        verify(authenticationService, never()).getCurrentUser();
-        verify(clickAnalyticsService, never()).getClickCountForUrl(any());
+        verify(shortUrlService).findOwnedUrl(shortCode, testUser);
+        verify(clickAnalyticsService, never()).getClickCount(any());
     }
 
     @Test
@@ -136,7 +194,7 @@ class AnalyticsControllerTest {
         mockMvc.perform(get("/api/analytics/" + shortCode + "/count"))
                 .andExpect(status().isUnauthorized());
 
-        verify(shortUrlService, never()).resolveShortCode(any());
+        verify(shortUrlService, never()).findOwnedUrl(any(), any());
         verify(authenticationService, never()).getCurrentUser();
     }
 
@@ -144,12 +202,11 @@ class AnalyticsControllerTest {
     @WithMockUser(authorities = "SCOPE_api.read")
     void getShortUrlClicks_ValidRequestAndOwner_ShouldReturnClicks() throws Exception {
         // Arrange
-        Page<Click> clickPage = new PageImpl<>(Arrays.asList(testClick));
+        Page<ClickRepository.ClickView> clickPage = new PageImpl<>(List.of(projectionFactory.createProjection(ClickRepository.ClickView.class, testClick)));
         
-        when(shortUrlService.resolveShortCode(shortCode)).thenReturn(testUrl);
         when(authenticationService.getCurrentUser()).thenReturn(testUser);
-        when(shortUrlService.isUrlOwner(shortCode, testUser)).thenReturn(true);
-        when(clickAnalyticsService.getClicksForUrl(eq(testUrl), any(), any(), any()))
+        when(shortUrlService.findOwnedUrl(shortCode, testUser)).thenReturn(testUrl);
+        when(clickAnalyticsService.getClicksForUrl(eq(testUrl), any(), any(), any(), any(), any(), any()))
                 .thenReturn(clickPage);
 
         // Act & Assert
@@ -161,25 +218,23 @@ class AnalyticsControllerTest {
                 .andExpect(jsonPath("$.content[0].originalUrl").value(originalUrl))
                 .andExpect(jsonPath("$.content[0].userAgent").value(userAgent));
 
-        verify(shortUrlService).resolveShortCode(shortCode);
         verify(authenticationService).getCurrentUser();
-        verify(shortUrlService).isUrlOwner(shortCode, testUser);
-        verify(clickAnalyticsService).getClicksForUrl(eq(testUrl), eq(null), eq(null), eq(null));
+        verify(shortUrlService).findOwnedUrl(shortCode, testUser);
+        verify(clickAnalyticsService).getClicksForUrl(eq(testUrl), eq(null), eq(null), eq(null), eq(null), eq(null), eq(null));
     }
 
     @Test
     @WithMockUser(authorities = "SCOPE_api.read")
     void getShortUrlClicks_WithPaginationParameters_ShouldPassParametersCorrectly() throws Exception {
         // Arrange
-        Page<Click> clickPage = new PageImpl<>(Arrays.asList(testClick));
+        Page<ClickRepository.ClickView> clickPage = new PageImpl<>(List.of(projectionFactory.createProjection(ClickRepository.ClickView.class, testClick)));
         Integer pageNumber = 2;
         Integer pageSize = 10;
         String sortOrder = "ASC";
         
-        when(shortUrlService.resolveShortCode(shortCode)).thenReturn(testUrl);
         when(authenticationService.getCurrentUser()).thenReturn(testUser);
-        when(shortUrlService.isUrlOwner(shortCode, testUser)).thenReturn(true);
-        when(clickAnalyticsService.getClicksForUrl(eq(testUrl), eq(pageNumber), eq(pageSize), eq(sortOrder)))
+        when(shortUrlService.findOwnedUrl(shortCode, testUser)).thenReturn(testUrl);
+        when(clickAnalyticsService.getClicksForUrl(eq(testUrl), eq(null), eq(null), eq(null), eq(pageNumber), eq(pageSize), eq(sortOrder)))
                 .thenReturn(clickPage);
 
         // Act & Assert
@@ -191,37 +246,85 @@ class AnalyticsControllerTest {
                 .andExpect(jsonPath("$.content").isArray())
                 .andExpect(jsonPath("$.content[0].id").value(testClick.getId()));
 
-        verify(clickAnalyticsService).getClicksForUrl(eq(testUrl), eq(pageNumber), eq(pageSize), eq(sortOrder));
+        verify(clickAnalyticsService).getClicksForUrl(eq(testUrl), eq(null), eq(null), eq(null), eq(pageNumber), eq(pageSize), eq(sortOrder));
+    }
+
+    @Test
+    @WithMockUser(authorities = "SCOPE_api.read")
+    void getShortUrlClicks_WithFilters_ShouldPassFiltersCorrectly() throws Exception {
+        // Arrange
+        Page<ClickRepository.ClickView> clickPage = new PageImpl<>(List.of(projectionFactory.createProjection(ClickRepository.ClickView.class, testClick)));
+        Date from = Date.from(Instant.parse("2024-01-01T00:00:00Z"));
+        Date to = Date.from(Instant.parse("2024-02-01T00:00:00Z"));
+
+        when(authenticationService.getCurrentUser()).thenReturn(testUser);
+        when(shortUrlService.findOwnedUrl(shortCode, testUser)).thenReturn(testUrl);
+        when(clickAnalyticsService.getClicksForUrl(eq(testUrl), eq(from), eq(to), eq("Firefox"), any(), any(), any()))
+                .thenReturn(clickPage);
+
+        // Act & Assert
+        mockMvc.perform(get("/api/analytics/" + shortCode + "/clicks")
+                        .param("from", "2024-01-01T00:00:00Z")
+                        .param("to", "2024-02-01T00:00:00Z")
+                        .param("userAgent", "Firefox"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id").value(testClick.getId()));
+
+        verify(clickAnalyticsService).getClicksForUrl(eq(testUrl), eq(from), eq(to), eq("Firefox"), eq(null), eq(null), eq(null));
+    }
+
+    @Test
+    @WithMockUser(authorities = "SCOPE_api.read")
+    void getShortUrlClicks_FromAfterTo_ShouldReturnBadRequest() throws Exception {
+        // Arrange
+        when(authenticationService.getCurrentUser()).thenReturn(testUser);
+        when(shortUrlService.findOwnedUrl(shortCode, testUser)).thenReturn(testUrl);
+
+        // Act & Assert
+        mockMvc.perform(get("/api/analytics/" + shortCode + "/clicks")
+                        .param("from", "2024-02-01T00:00:00Z")
+                        .param("to", "2024-01-01T00:00:00Z"))
+                .andExpect(status().isBadRequest());
+
+        verify(clickAnalyticsService, never()).getClicksForUrl(any(), any(), any(), any(), any(), any(), any());
+    }
+
+    @Test
+    @WithMockUser(authorities = "SCOPE_api.read")
+    void getShortUrlClicks_InvalidDate_ShouldReturnBadRequest() throws Exception {
+        // Act & Assert
+        mockMvc.perform(get("/api/analytics/" + shortCode + "/clicks")
+                        .param("from", "yesterday"))
+                .andExpect(status().isBadRequest());
+
+        verify(clickAnalyticsService, never()).getClicksForUrl(any(), any(), any(), any(), any(), any(), any());
     }
 
     @Test
     @WithMockUser(authorities = "SCOPE_api.read")
     void getShortUrlClicks_NotOwner_ShouldReturnForbidden() throws Exception {
         // Arrange
-        when(shortUrlService.resolveShortCode(shortCode)).thenReturn(testUrl);
         when(authenticationService.getCurrentUser()).thenReturn(testUser);
-        when(shortUrlService.isUrlOwner(shortCode, testUser)).thenReturn(false);
+        when(shortUrlService.findOwnedUrl(shortCode, testUser)).thenReturn(null);
 
         // Act & Assert
         mockMvc.perform(get("/api/analytics/" + shortCode + "/clicks"))
                 .andExpect(status().isForbidden());
 
-        verify(shortUrlService).resolveShortCode(shortCode);
         verify(authenticationService).getCurrentUser();
-        verify(shortUrlService).isUrlOwner(shortCode, testUser);
-        verify(clickAnalyticsService, never()).getClicksForUrl(any(), any(), any(), any());
+        verify(shortUrlService).findOwnedUrl(shortCode, testUser);
+        verify(clickAnalyticsService, never()).getClicksForUrl(any(), any(), any(), any(), any(), any(), any());
     }
 
     @Test
     @WithMockUser(authorities = "SCOPE_api.read")
     void getShortUrlClicks_EmptyResults_ShouldReturnEmptyPage() throws Exception {
         // Arrange
-        Page<Click> emptyPage = new PageImpl<>(Arrays.asList());
+        Page<ClickRepository.ClickView> emptyPage = new PageImpl<>(List.of());
         
-        when(shortUrlService.resolveShortCode(shortCode)).thenReturn(testUrl);
         when(authenticationService.getCurrentUser()).thenReturn(testUser);
-        when(shortUrlService.isUrlOwner(shortCode, testUser)).thenReturn(true);
-        when(clickAnalyticsService.getClicksForUrl(eq(testUrl), any(), any(), any()))
+        when(shortUrlService.findOwnedUrl(shortCode, testUser)).thenReturn(testUrl);
+        when(clickAnalyticsService.getClicksForUrl(eq(testUrl), any(), any(), any(), any(), any(), any()))
                 .thenReturn(emptyPage);
 
         // Act & Assert
@@ -231,7 +334,7 @@ class AnalyticsControllerTest {
                 .andExpect(jsonPath("$.content").isEmpty())
                 .andExpect(jsonPath("$.totalElements").value(0));
 
-        verify(clickAnalyticsService).getClicksForUrl(eq(testUrl), any(), any(), any());
+        verify(clickAnalyticsService).getClicksForUrl(eq(testUrl), any(), any(), any(), any(), any(), any());
     }
 
     @Test
@@ -240,7 +343,7 @@ class AnalyticsControllerTest {
         mockMvc.perform(get("/api/analytics/" + shortCode + "/clicks"))
                 .andExpect(status().isUnauthorized());
 
-        verify(shortUrlService, never()).resolveShortCode(any());
+        verify(shortUrlService, never()).findOwnedUrl(any(), any());
         verify(authenticationService, never()).getCurrentUser();
     }
 
@@ -251,10 +354,98 @@ class AnalyticsControllerTest {
         mockMvc.perform(get("/api/analytics/" + shortCode + "/clicks"))
                 .andExpect(status().isForbidden());
 
-        verify(shortUrlService, never()).resolveShortCode(any());
+        verify(shortUrlService, never()).findOwnedUrl(any(), any());
         verify(authenticationService, never()).getCurrentUser();
     }
 
+    @Test
+    @WithMockUser(authorities = "SCOPE_api.read")
+    void getShortUrlReferrers_ValidRequestAndOwner_ShouldReturnReferrers() throws Exception {
+        // Arrange
+        UrlReferrer referrer = new UrlReferrer();
+        referrer.setUrlId(testUrl.getId());
+        referrer.setHost("news.ycombinator.com");
+        referrer.setClicks(120);
+        referrer.setError(3);
+
+        when(authenticationService.getCurrentUser()).thenReturn(testUser);
+        when(shortUrlService.findOwnedUrl(shortCode, testUser)).thenReturn(testUrl);
+        when(referrerAnalyticsService.getTopReferrers(testUrl)).thenReturn(List.of(referrer));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/analytics/" + shortCode + "/referrers"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$").isArray())
+                .andExpect(jsonPath("$[0].host").value("news.ycombinator.com"))
+                .andExpect(jsonPath("$[0].clicks").value(120))
+                .andExpect(jsonPath("$[0].maxError").value(3));
+
+        verify(referrerAnalyticsService).getTopReferrers(testUrl);
+        verify(clickAnalyticsService, never()).getClicksForUrl(any(), any(), any(), any(), any(), any(), any());
+    }
+
+    @Test
+    @WithMockUser(authorities = "SCOPE_api.read")
+    void getShortUrlReferrers_NotOwner_ShouldReturnForbidden() throws Exception {
+        // Arrange
+        when(authenticationService.getCurrentUser()).thenReturn(testUser);
+        when(shortUrlService.findOwnedUrl(shortCode, testUser)).thenReturn(null);
+
+        // Act & Assert
+        mockMvc.perform(get("/api/analytics/" + shortCode + "/referrers"))
+                .andExpect(status().isForbidden());
+
+        verify(referrerAnalyticsService, never()).getTopReferrers(any());
+    }
+
+    @Test
+    void getShortUrlReferrers_WithoutAuthentication_ShouldReturnUnauthorized() throws Exception {
+        // Act & Assert
+        mockMvc.perform(get("/api/analytics/" + shortCode + "/referrers"))
+                .andExpect(status().isUnauthorized());
+
+        verify(referrerAnalyticsService, never()).getTopReferrers(any());
+    }
+
+    @Test
+    @WithMockUser(authorities = "SCOPE_api.read")
+    void getShortUrlDestinations_ValidRequestAndOwner_ShouldReturnDestinations() throws Exception {
+        // Arrange
+        UrlDestination destination = new UrlDestination();
+        destination.setUrlId(testUrl.getId());
+        destination.setDestinationUrl("https://b.example.com/landing");
+        destination.setWeight(3);
+        destination.setClicks(42);
+
+        when(authenticationService.getCurrentUser()).thenReturn(testUser);
+        when(shortUrlService.findOwnedUrl(shortCode, testUser)).thenReturn(testUrl);
+        when(destinationService.getDestinations(testUrl)).thenReturn(List.of(destination));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/analytics/" + shortCode + "/destinations"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$").isArray())
+                .andExpect(jsonPath("$[0].url").value("https://b.example.com/landing"))
+                .andExpect(jsonPath("$[0].weight").value(3))
+                .andExpect(jsonPath("$[0].clicks").value(42));
+
+        verify(destinationService).getDestinations(testUrl);
+    }
+
+    @Test
+    @WithMockUser(authorities = "SCOPE_api.read")
+    void getShortUrlDestinations_NotOwner_ShouldReturnForbidden() throws Exception {
+        // Arrange
+        when(authenticationService.getCurrentUser()).thenReturn(testUser);
+        when(shortUrlService.findOwnedUrl(shortCode, testUser)).thenReturn(null);
+
+        // Act & Assert
+        mockMvc.perform(get("/api/analytics/" + shortCode + "/destinations"))
+                .andExpect(status().isForbidden());
+
+        verify(destinationService, never()).getDestinations(any());
+    }
+
     @TestConfiguration
     @EnableMethodSecurity
     static class TestSecurityConfig {
@@ -2,16 +2,29 @@ package com.hitanshudhawan.sankshipt.controllers;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.hitanshudhawan.sankshipt.configs.SecurityConfig;
+import com.hitanshudhawan.sankshipt.dtos.CreateShortUrlBatchRequest;
 import com.hitanshudhawan.sankshipt.dtos.CreateShortUrlRequest;
 import com.hitanshudhawan.sankshipt.dtos.DeleteShortUrlRequest;
+import com.hitanshudhawan.sankshipt.dtos.DestinationRequest;
+import com.hitanshudhawan.sankshipt.exceptions.AliasUnavailableException;
+import com.hitanshudhawan.sankshipt.exceptions.IdempotencyKeyMismatchException;
 import com.hitanshudhawan.sankshipt.exceptions.UrlNotFoundException;
 import com.hitanshudhawan.sankshipt.models.URL;
+import com.hitanshudhawan.sankshipt.models.UrlDestination;
 import com.hitanshudhawan.sankshipt.models.User;
+import com.hitanshudhawan.sankshipt.models.UserPrincipal;
+import com.hitanshudhawan.sankshipt.repositories.ShortUrlRepository;
+import com.hitanshudhawan.sankshipt.services.AliasService;
 import com.hitanshudhawan.sankshipt.services.AuthenticationService;
+import com.hitanshudhawan.sankshipt.services.ClickAnalyticsService;
+import com.hitanshudhawan.sankshipt.services.IdempotencyService;
+import com.hitanshudhawan.sankshipt.services.QrCodeService;
 import com.hitanshudhawan.sankshipt.services.ShortUrlService;
+import com.hitanshudhawan.sankshipt.services.UrlSearchService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
@@ -24,9 +37,16 @@ import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
 import java.util.List;
+import java.util.Map;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
@@ -44,28 +64,46 @@ class ShortUrlControllerTest {
     @MockBean
     private ShortUrlService shortUrlService;
 
+    @MockBean
+    private ClickAnalyticsService clickAnalyticsService;
+
+    @MockBean
+    private AliasService aliasService;
+
+    @MockBean
+    private IdempotencyService idempotencyService;
+
+    @MockBean
+    private QrCodeService qrCodeService;
+
     @MockBean
     private AuthenticationService authenticationService;
 
+    @MockBean
+    private UrlSearchService urlSearchService;
+
     @Autowired
     private ObjectMapper objectMapper;
 
-    private User testUser;
+    private UserPrincipal testUser;
+
+    private User testOwner;
     private URL testUrl;
     private final String originalUrl = "https://www.example.com";
     private final String shortCode = "abc123";
 
     @BeforeEach
     void setUp() {
-        testUser = new User();
-        testUser.setId(1L);
-        testUser.setEmail("test@example.com");
+        testUser = new UserPrincipal(1L, "test@example.com");
+        testOwner = new User();
+        testOwner.setId(1L);
+        testOwner.setEmail("test@example.com");
 
         testUrl = new URL();
         testUrl.setId(1L);
         testUrl.setOriginalUrl(originalUrl);
         testUrl.setShortCode(shortCode);
-        testUrl.setUser(testUser);
+        testUrl.setUser(testOwner);
     }
 
     @Test
@@ -76,7 +114,7 @@ class ShortUrlControllerTest {
         request.setOriginalUrl(originalUrl);
 
         when(authenticationService.getCurrentUser()).thenReturn(testUser);
-        when(shortUrlService.createShortUrl(originalUrl, testUser)).thenReturn(testUrl);
+        when(shortUrlService.createShortUrl(originalUrl, testUser, false)).thenReturn(testUrl);
 
         // Act & Assert
         mockMvc.perform(post("/api/urls")
@@ -88,7 +126,29 @@ class ShortUrlControllerTest {
                 .andExpect(jsonPath("$.shortCode").value(shortCode));
 
         verify(authenticationService).getCurrentUser();
-        verify(shortUrlService).createShortUrl(originalUrl, testUser);
+        verify(shortUrlService).createShortUrl(originalUrl, testUser, false);
+    }
+
+    @Test
+    @WithMockUser(authorities = "SCOPE_api.write")
+    void createShortUrl_WithDeduplicate_ShouldPassFlagToService() throws Exception {
+        // Arrange
+        CreateShortUrlRequest request = new CreateShortUrlRequest();
+        request.setOriginalUrl(originalUrl);
+        request.setDeduplicate(true);
+
+        when(authenticationService.getCurrentUser()).thenReturn(testUser);
+        when(shortUrlService.createShortUrl(originalUrl, testUser, true)).thenReturn(testUrl);
+
+        // Act & Assert
+        mockMvc.perform(post("/api/urls")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.shortCode").value(shortCode));
+
+        verify(shortUrlService).createShortUrl(originalUrl, testUser, true);
     }
 
     @Test
@@ -106,7 +166,7 @@ class ShortUrlControllerTest {
                 .andExpect(status().isBadRequest());
 
         verify(authenticationService, never()).getCurrentUser();
-        verify(shortUrlService, never()).createShortUrl(any(), any());
+        verify(shortUrlService, never()).createShortUrl(any(), any(), anyBoolean());
     }
 
     @Test
@@ -123,7 +183,184 @@ class ShortUrlControllerTest {
                 .andExpect(status().isUnauthorized());
 
         verify(authenticationService, never()).getCurrentUser();
-        verify(shortUrlService, never()).createShortUrl(any(), any());
+        verify(shortUrlService, never()).createShortUrl(any(), any(), anyBoolean());
+    }
+
+    @Test
+    @WithMockUser(authorities = "SCOPE_api.read")
+    void getShortUrlsForUser_ShouldReturnPageWithNextCursor() throws Exception {
+        // Arrange
+        ShortUrlRepository.UrlSummary summary = mock(ShortUrlRepository.UrlSummary.class);
+        when(summary.getShortCode()).thenReturn(shortCode);
+        when(summary.getOriginalUrl()).thenReturn(originalUrl);
+        when(authenticationService.getCurrentUser()).thenReturn(testUser);
+        when(shortUrlService.getUrlsForUser(testUser, "cursor1", 1))
+                .thenReturn(new ShortUrlService.UrlPage(List.of(summary), "cursor2"));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/urls").param("cursor", "cursor1").param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.urls.length()").value(1))
+                .andExpect(jsonPath("$.urls[0].shortCode").value(shortCode))
+                .andExpect(jsonPath("$.urls[0].originalUrl").value(originalUrl))
+                .andExpect(jsonPath("$.nextCursor").value("cursor2"));
+    }
+
+    @Test
+    @WithMockUser(authorities = "SCOPE_api.read")
+    void getShortUrlsForUser_WithoutParameters_ShouldRequestFirstPageOfDefaultSize() throws Exception {
+        // Arrange
+        when(authenticationService.getCurrentUser()).thenReturn(testUser);
+        when(shortUrlService.getUrlsForUser(testUser, null, 50))
+                .thenReturn(new ShortUrlService.UrlPage(List.of(), null));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/urls"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.urls").isEmpty())
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+    }
+
+    @Test
+    @WithMockUser(authorities = "SCOPE_api.read")
+    void getShortUrlsForUser_ShouldTagPageWithListingVersion() throws Exception {
+        // Arrange
+        when(authenticationService.getCurrentUser()).thenReturn(testUser);
+        when(shortUrlService.getUrlsVersion(testUser)).thenReturn(7L);
+        when(shortUrlService.getUrlsForUser(testUser, null, 50))
+                .thenReturn(new ShortUrlService.UrlPage(List.of(), null));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/urls").header("If-None-Match", "\"1-6\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"1-7\""));
+    }
+
+    @Test
+    @WithMockUser(authorities = "SCOPE_api.read")
+    void getShortUrlsForUser_MatchingIfNoneMatch_ShouldReturnNotModifiedWithoutListing() throws Exception {
+        // Arrange
+        when(authenticationService.getCurrentUser()).thenReturn(testUser);
+        when(shortUrlService.getUrlsVersion(testUser)).thenReturn(7L);
+
+        // Act & Assert
+        mockMvc.perform(get("/api/urls").param("includeClicks", "true").header("If-None-Match", "\"1-7\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"1-7\""))
+                .andExpect(content().string(""));
+
+        verify(shortUrlService, never()).getUrlsForUser(any(), any(), anyInt());
+        verifyNoInteractions(clickAnalyticsService);
+    }
+
+    @Test
+    @WithMockUser(authorities = "SCOPE_api.read")
+    void getShortUrlsForUser_WithIncludeClicks_ShouldAddTotalsOfWholePage() throws Exception {
+        // Arrange
+        ShortUrlRepository.UrlSummary clicked = mock(ShortUrlRepository.UrlSummary.class);
+        when(clicked.getId()).thenReturn(1L);
+        ShortUrlRepository.UrlSummary unclicked = mock(ShortUrlRepository.UrlSummary.class);
+        when(unclicked.getId()).thenReturn(2L);
+        when(authenticationService.getCurrentUser()).thenReturn(testUser);
+        when(shortUrlService.getUrlsForUser(testUser, null, 50))
+                .thenReturn(new ShortUrlService.UrlPage(List.of(clicked, unclicked), null));
+        when(clickAnalyticsService.getClickTotals(List.of(1L, 2L)))
+                .thenReturn(Map.of(1L, new ClickAnalyticsService.ClickTotals(42, new Date(0))));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/urls").param("includeClicks", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.urls[0].totalClicks").value(42))
+                .andExpect(jsonPath("$.urls[0].lastClickedAt").exists())
+                .andExpect(jsonPath("$.urls[1].totalClicks").value(0))
+                .andExpect(jsonPath("$.urls[1].lastClickedAt").doesNotExist());
+
+        verify(clickAnalyticsService).getClickTotals(List.of(1L, 2L));
+    }
+
+    @Test
+    @WithMockUser(authorities = "SCOPE_api.read")
+    void getShortUrlsForUser_WithoutIncludeClicks_ShouldNotReadTotals() throws Exception {
+        // Arrange
+        when(authenticationService.getCurrentUser()).thenReturn(testUser);
+        when(shortUrlService.getUrlsForUser(testUser, null, 50))
+                .thenReturn(new ShortUrlService.UrlPage(List.of(mock(ShortUrlRepository.UrlSummary.class)), null));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/urls"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.urls[0].totalClicks").doesNotExist());
+
+        verifyNoInteractions(clickAnalyticsService);
+    }
+
+    @Test
+    @WithMockUser(authorities = "SCOPE_api.read")
+    void getShortUrlsForUser_InvalidLimitOrCursor_ShouldReturnBadRequest() throws Exception {
+        // Arrange
+        when(authenticationService.getCurrentUser()).thenReturn(testUser);
+        when(shortUrlService.getUrlsForUser(testUser, "bad", 50)).thenThrow(new IllegalArgumentException("Invalid cursor"));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/urls").param("limit", "0"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/urls").param("limit", "201"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/urls").param("cursor", "bad"))
+                .andExpect(status().isBadRequest());
+
+        verify(shortUrlService).getUrlsForUser(any(), any(), anyInt());
+    }
+
+    @Test
+    @WithMockUser(authorities = "SCOPE_api.read")
+    void searchShortUrls_ShouldReturnMatchingUrls() throws Exception {
+        // Arrange
+        ShortUrlRepository.UrlSummary summary = mock(ShortUrlRepository.UrlSummary.class);
+        when(summary.getShortCode()).thenReturn(shortCode);
+        when(summary.getOriginalUrl()).thenReturn(originalUrl);
+        when(authenticationService.getCurrentUser()).thenReturn(testUser);
+        when(urlSearchService.search(testUser, "example", 5)).thenReturn(List.of(summary));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/urls/search").param("q", "  example ").param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].shortCode").value(shortCode))
+                .andExpect(jsonPath("$[0].originalUrl").value(originalUrl));
+    }
+
+    @Test
+    @WithMockUser(authorities = "SCOPE_api.read")
+    void searchShortUrls_WithoutLimit_ShouldUseDefaultLimit() throws Exception {
+        // Arrange
+        when(authenticationService.getCurrentUser()).thenReturn(testUser);
+        when(urlSearchService.search(testUser, "abc", 20)).thenReturn(List.of());
+
+        // Act & Assert
+        mockMvc.perform(get("/api/urls/search").param("q", "abc"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$").isEmpty());
+
+        verify(urlSearchService).search(testUser, "abc", 20);
+    }
+
+    @Test
+    @WithMockUser(authorities = "SCOPE_api.read")
+    void searchShortUrls_InvalidQueryOrLimit_ShouldReturnBadRequest() throws Exception {
+        // Act & Assert
+        mockMvc.perform(get("/api/urls/search"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/urls/search").param("q", "   "))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/urls/search").param("q", "a".repeat(201)))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/urls/search").param("q", "abc").param("limit", "0"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/urls/search").param("q", "abc").param("limit", "101"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(urlSearchService);
     }
 
     @Test
@@ -134,8 +371,7 @@ class ShortUrlControllerTest {
         request.setShortCode(shortCode);
 
         when(authenticationService.getCurrentUser()).thenReturn(testUser);
-        when(shortUrlService.resolveShortCode(shortCode)).thenReturn(testUrl);
-        when(shortUrlService.isUrlOwner(shortCode, testUser)).thenReturn(true);
+        when(shortUrlService.deleteShortUrl(shortCode, testUser)).thenReturn(testUrl);
 
         // Act & Assert
         mockMvc.perform(delete("/api/urls")
@@ -147,9 +383,9 @@ class ShortUrlControllerTest {
                 .andExpect(jsonPath("$.shortCode").value(shortCode));
 
         verify(authenticationService).getCurrentUser();
-        verify(shortUrlService).resolveShortCode(shortCode);
-        verify(shortUrlService).isUrlOwner(shortCode, testUser);
         verify(shortUrlService).deleteShortUrl(shortCode, testUser);
+        verify(shortUrlService, never()).findOwnedUrl(any(), any());
+        verify(shortUrlService, never()).resolveShortCode(any());
     }
 
     @Test
@@ -160,8 +396,7 @@ class ShortUrlControllerTest {
         request.setShortCode(shortCode);
 
         when(authenticationService.getCurrentUser()).thenReturn(testUser);
-        when(shortUrlService.resolveShortCode(shortCode)).thenReturn(testUrl);
-        when(shortUrlService.isUrlOwner(shortCode, testUser)).thenReturn(false);
+        when(shortUrlService.deleteShortUrl(shortCode, testUser)).thenReturn(null);
 
         // Act & Assert
         mockMvc.perform(delete("/api/urls")
@@ -171,9 +406,7 @@ class ShortUrlControllerTest {
                 .andExpect(status().isForbidden());
 
         verify(authenticationService).getCurrentUser();
-        verify(shortUrlService).resolveShortCode(shortCode);
-        verify(shortUrlService).isUrlOwner(shortCode, testUser);
-        verify(shortUrlService, never()).deleteShortUrl(any(), any());
+        verify(shortUrlService).deleteShortUrl(shortCode, testUser);
     }
 
     @Test
@@ -184,7 +417,7 @@ class ShortUrlControllerTest {
         request.setShortCode(shortCode);
 
         when(authenticationService.getCurrentUser()).thenReturn(testUser);
-        when(shortUrlService.resolveShortCode(shortCode))
+        when(shortUrlService.deleteShortUrl(shortCode, testUser))
                 .thenThrow(new UrlNotFoundException("URL not found"));
 
         // Act & Assert
@@ -195,9 +428,7 @@ class ShortUrlControllerTest {
                 .andExpect(status().isNotFound());
 
         verify(authenticationService).getCurrentUser();
-        verify(shortUrlService).resolveShortCode(shortCode);
-        verify(shortUrlService, never()).isUrlOwner(any(), any());
-        verify(shortUrlService, never()).deleteShortUrl(any(), any());
+        verify(shortUrlService).deleteShortUrl(shortCode, testUser);
     }
 
     @Test
@@ -214,7 +445,7 @@ class ShortUrlControllerTest {
                 .andExpect(status().isUnauthorized());
 
         verify(authenticationService, never()).getCurrentUser();
-        verify(shortUrlService, never()).resolveShortCode(any());
+        verify(shortUrlService, never()).deleteShortUrl(any(), any());
     }
 
     @Test
@@ -232,7 +463,537 @@ class ShortUrlControllerTest {
                 .andExpect(status().isForbidden());
 
         verify(authenticationService, never()).getCurrentUser();
-        verify(shortUrlService, never()).resolveShortCode(any());
+        verify(shortUrlService, never()).deleteShortUrl(any(), any());
+    }
+
+    @Test
+    @WithMockUser(authorities = "SCOPE_api.write")
+    void createShortUrlBatch_ValidRequest_ShouldReturnPerItemResults() throws Exception {
+        // Arrange
+        CreateShortUrlBatchRequest request = new CreateShortUrlBatchRequest();
+        request.setOriginalUrls(List.of("https://www.example.com/a", "https://www.example.com/b"));
+
+        URL first = new URL();
+        first.setOriginalUrl("https://www.example.com/a");
+        first.setShortCode("1aaaaaa");
+        URL second = new URL();
+        second.setOriginalUrl("https://www.example.com/b");
+        second.setShortCode("2bbbbbb");
+
+        when(authenticationService.getCurrentUser()).thenReturn(testUser);
+        when(shortUrlService.createShortUrls(request.getOriginalUrls(), testUser, false)).thenReturn(List.of(first, second));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/urls/batch")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created").value(2))
+                .andExpect(jsonPath("$.failed").value(0))
+                .andExpect(jsonPath("$.results[0].index").value(0))
+                .andExpect(jsonPath("$.results[0].shortCode").value("1aaaaaa"))
+                .andExpect(jsonPath("$.results[1].index").value(1))
+                .andExpect(jsonPath("$.results[1].originalUrl").value("https://www.example.com/b"))
+                .andExpect(jsonPath("$.results[1].shortCode").value("2bbbbbb"));
+
+        verify(authenticationService).getCurrentUser();
+        verify(shortUrlService).createShortUrls(request.getOriginalUrls(), testUser, false);
+    }
+
+    @Test
+    @WithMockUser(authorities = "SCOPE_api.write")
+    void createShortUrlBatch_BlankItems_ShouldReportThemAndCreateTheRest() throws Exception {
+        // Arrange
+        CreateShortUrlBatchRequest request = new CreateShortUrlBatchRequest();
+        request.setOriginalUrls(Arrays.asList("  ", originalUrl, null));
+
+        when(authenticationService.getCurrentUser()).thenReturn(testUser);
+        when(shortUrlService.createShortUrls(List.of(originalUrl), testUser, false)).thenReturn(List.of(testUrl));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/urls/batch")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created").value(1))
+                .andExpect(jsonPath("$.failed").value(2))
+                .andExpect(jsonPath("$.results[0].error").value("Original URL cannot be blank"))
+                .andExpect(jsonPath("$.results[0].shortCode").doesNotExist())
+                .andExpect(jsonPath("$.results[1].shortCode").value(shortCode))
+                .andExpect(jsonPath("$.results[1].error").doesNotExist())
+                .andExpect(jsonPath("$.results[2].error").value("Original URL cannot be blank"));
+
+        verify(shortUrlService).createShortUrls(List.of(originalUrl), testUser, false);
+    }
+
+    @Test
+    @WithMockUser(authorities = "SCOPE_api.write")
+    void createShortUrlBatch_WithDeduplicate_ShouldPassFlagToService() throws Exception {
+        // Arrange
+        CreateShortUrlBatchRequest request = new CreateShortUrlBatchRequest();
+        request.setOriginalUrls(List.of(originalUrl, originalUrl));
+        request.setDeduplicate(true);
+
+        when(authenticationService.getCurrentUser()).thenReturn(testUser);
+        when(shortUrlService.createShortUrls(request.getOriginalUrls(), testUser, true)).thenReturn(List.of(testUrl, testUrl));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/urls/batch")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.results[0].shortCode").value(shortCode))
+                .andExpect(jsonPath("$.results[1].shortCode").value(shortCode));
+
+        verify(shortUrlService).createShortUrls(request.getOriginalUrls(), testUser, true);
+    }
+
+    @Test
+    @WithMockUser(authorities = "SCOPE_api.write")
+    void createShortUrlBatch_AllItemsBlank_ShouldNotCallService() throws Exception {
+        // Arrange
+        CreateShortUrlBatchRequest request = new CreateShortUrlBatchRequest();
+        request.setOriginalUrls(List.of(""));
+
+        when(authenticationService.getCurrentUser()).thenReturn(testUser);
+
+        // Act & Assert
+        mockMvc.perform(post("/api/urls/batch")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created").value(0))
+                .andExpect(jsonPath("$.failed").value(1));
+
+        verify(shortUrlService, never()).createShortUrls(any(), any(), anyBoolean());
+    }
+
+    @Test
+    @WithMockUser(authorities = "SCOPE_api.write")
+    void createShortUrlBatch_EmptyBatch_ShouldReturnBadRequest() throws Exception {
+        // Arrange
+        CreateShortUrlBatchRequest request = new CreateShortUrlBatchRequest();
+        request.setOriginalUrls(List.of());
+
+        // Act & Assert
+        mockMvc.perform(post("/api/urls/batch")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isBadRequest());
+
+        verify(shortUrlService, never()).createShortUrls(any(), any(), anyBoolean());
+    }
+
+    @Test
+    @WithMockUser(authorities = "SCOPE_api.write")
+    void createShortUrlBatch_OversizedBatch_ShouldReturnBadRequest() throws Exception {
+        // Arrange
+        CreateShortUrlBatchRequest request = new CreateShortUrlBatchRequest();
+        request.setOriginalUrls(Collections.nCopies(CreateShortUrlBatchRequest.MAX_BATCH_SIZE + 1, originalUrl));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/urls/batch")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isBadRequest());
+
+        verify(shortUrlService, never()).createShortUrls(any(), any(), anyBoolean());
+    }
+
+    @Test
+    @WithMockUser(authorities = "SCOPE_api.read") // Wrong authority
+    void createShortUrlBatch_WithoutWriteAuthority_ShouldReturnForbidden() throws Exception {
+        // Arrange
+        CreateShortUrlBatchRequest request = new CreateShortUrlBatchRequest();
+        request.setOriginalUrls(List.of(originalUrl));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/urls/batch")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isForbidden());
+
+        verify(shortUrlService, never()).createShortUrls(any(), any(), anyBoolean());
+    }
+
+    @Test
+    @WithMockUser(authorities = "SCOPE_api.write")
+    void createShortUrl_WithCustomAlias_ShouldUseAlias() throws Exception {
+        // Arrange
+        CreateShortUrlRequest request = new CreateShortUrlRequest();
+        request.setOriginalUrl(originalUrl);
+        request.setCustomAlias("summer-sale");
+        request.setDeduplicate(true);
+        testUrl.setShortCode("summer-sale");
+
+        when(authenticationService.getCurrentUser()).thenReturn(testUser);
+        when(shortUrlService.createCustomShortUrl(originalUrl, "summer-sale", null, null, null, testUser)).thenReturn(testUrl);
+
+        // Act & Assert
+        mockMvc.perform(post("/api/urls")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.shortCode").value("summer-sale"));
+
+        verify(shortUrlService, never()).createShortUrl(anyString(), any(), anyBoolean());
+    }
+
+    @Test
+    @WithMockUser(authorities = "SCOPE_api.write")
+    void createShortUrl_WithGeneratedLookingAlias_ShouldReturnBadRequest() throws Exception {
+        // Arrange
+        CreateShortUrlRequest request = new CreateShortUrlRequest();
+        request.setOriginalUrl(originalUrl);
+        request.setCustomAlias("a1b2c3d4");
+
+        // Act & Assert
+        mockMvc.perform(post("/api/urls")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isBadRequest());
+
+        verify(shortUrlService, never()).createCustomShortUrl(any(), any(), any(), any(), any(), any());
+    }
+
+    @Test
+    @WithMockUser(authorities = "SCOPE_api.write")
+    void createShortUrl_WithTakenAlias_ShouldReturnConflict() throws Exception {
+        // Arrange
+        CreateShortUrlRequest request = new CreateShortUrlRequest();
+        request.setOriginalUrl(originalUrl);
+        request.setCustomAlias("summer-sale");
+
+        when(authenticationService.getCurrentUser()).thenReturn(testUser);
+        when(shortUrlService.createCustomShortUrl(originalUrl, "summer-sale", null, null, null, testUser))
+                .thenThrow(new AliasUnavailableException("Alias is already taken: summer-sale"));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/urls")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isConflict())
+                .andExpect(content().string("Alias is already taken: summer-sale"));
+    }
+
+    @Test
+    @WithMockUser(authorities = "SCOPE_api.write")
+    void createShortUrl_WithClickLimit_ShouldCreateCustomShortUrl() throws Exception {
+        // Arrange
+        CreateShortUrlRequest request = new CreateShortUrlRequest();
+        request.setOriginalUrl(originalUrl);
+        request.setMaxClicks(10L);
+        request.setDeduplicate(true);
+        testUrl.setMaxClicks(10L);
+
+        when(authenticationService.getCurrentUser()).thenReturn(testUser);
+        when(shortUrlService.createCustomShortUrl(originalUrl, null, null, 10L, null, testUser)).thenReturn(testUrl);
+
+        // Act & Assert
+        mockMvc.perform(post("/api/urls")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.shortCode").value(shortCode))
+                .andExpect(jsonPath("$.maxClicks").value(10));
+
+        verify(shortUrlService, never()).createShortUrl(anyString(), any(), anyBoolean());
+    }
+
+    @Test
+    @WithMockUser(authorities = "SCOPE_api.write")
+    void createShortUrl_WithDestinations_ShouldCreateWeightedShortUrl() throws Exception {
+        // Arrange
+        DestinationRequest first = new DestinationRequest();
+        first.setUrl("https://a.example.com");
+        first.setWeight(3);
+        DestinationRequest second = new DestinationRequest();
+        second.setUrl("https://b.example.com");
+        second.setWeight(1);
+        CreateShortUrlRequest request = new CreateShortUrlRequest();
+        request.setOriginalUrl(originalUrl);
+        request.setDestinations(List.of(first, second));
+
+        when(authenticationService.getCurrentUser()).thenReturn(testUser);
+        when(shortUrlService.createCustomShortUrl(eq(originalUrl), isNull(), isNull(), isNull(), anyList(), eq(testUser))).thenReturn(testUrl);
+
+        // Act & Assert
+        mockMvc.perform(post("/api/urls")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.shortCode").value(shortCode));
+
+        ArgumentCaptor<List<UrlDestination>> destinations = ArgumentCaptor.forClass(List.class);
+        verify(shortUrlService).createCustomShortUrl(eq(originalUrl), isNull(), isNull(), isNull(), destinations.capture(), eq(testUser));
+        assertEquals(2, destinations.getValue().size());
+        assertEquals("https://a.example.com", destinations.getValue().get(0).getDestinationUrl());
+        assertEquals(3L, destinations.getValue().get(0).getWeight());
+        assertEquals("https://b.example.com", destinations.getValue().get(1).getDestinationUrl());
+        assertEquals(1L, destinations.getValue().get(1).getWeight());
+    }
+
+    @Test
+    @WithMockUser(authorities = "SCOPE_api.write")
+    void createShortUrl_WithPastExpiry_ShouldReturnBadRequest() throws Exception {
+        // Arrange
+        CreateShortUrlRequest request = new CreateShortUrlRequest();
+        request.setOriginalUrl(originalUrl);
+        request.setExpiresAt(new Date(System.currentTimeMillis() - 60_000));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/urls")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isBadRequest());
+
+        verify(shortUrlService, never()).createCustomShortUrl(any(), any(), any(), any(), any(), any());
+    }
+
+    @Test
+    @WithMockUser(authorities = "SCOPE_api.write")
+    void createShortUrl_WithIdempotencyKey_ShouldCreateThroughIdempotencyService() throws Exception {
+        // Arrange
+        CreateShortUrlRequest request = new CreateShortUrlRequest();
+        request.setOriginalUrl(originalUrl);
+
+        when(authenticationService.getCurrentUser()).thenReturn(testUser);
+        when(shortUrlService.createShortUrl(originalUrl, testUser, false)).thenReturn(testUrl);
+        when(idempotencyService.createOnce(eq("retry-1"), anyString(), eq(testUser), any()))
+                .thenAnswer(invocation -> invocation.getArgument(3, IdempotencyService.UrlCreation.class).create());
+
+        // Act & Assert
+        mockMvc.perform(post("/api/urls")
+                        .with(csrf())
+                        .header("Idempotency-Key", "retry-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.shortCode").value(shortCode));
+
+        verify(shortUrlService).createShortUrl(originalUrl, testUser, false);
+    }
+
+    @Test
+    @WithMockUser(authorities = "SCOPE_api.write")
+    void createShortUrl_RetriedWithSameBody_ShouldSendSameFingerprint() throws Exception {
+        // Arrange
+        CreateShortUrlRequest request = new CreateShortUrlRequest();
+        request.setOriginalUrl(originalUrl);
+        request.setMaxClicks(5L);
+
+        when(authenticationService.getCurrentUser()).thenReturn(testUser);
+        when(idempotencyService.createOnce(eq("retry-1"), anyString(), eq(testUser), any())).thenReturn(testUrl);
+
+        // Act
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(post("/api/urls")
+                            .with(csrf())
+                            .header("Idempotency-Key", "retry-1")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(request)))
+                    .andExpect(status().isOk());
+        }
+        request.setMaxClicks(6L);
+        mockMvc.perform(post("/api/urls")
+                        .with(csrf())
+                        .header("Idempotency-Key", "retry-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk());
+
+        // Assert
+        ArgumentCaptor<String> fingerprints = ArgumentCaptor.forClass(String.class);
+        verify(idempotencyService, times(3)).createOnce(eq("retry-1"), fingerprints.capture(), eq(testUser), any());
+        assertEquals(fingerprints.getAllValues().get(0), fingerprints.getAllValues().get(1));
+        assertNotEquals(fingerprints.getAllValues().get(0), fingerprints.getAllValues().get(2));
+        verifyNoInteractions(shortUrlService);
+    }
+
+    @Test
+    @WithMockUser(authorities = "SCOPE_api.write")
+    void createShortUrl_WithBlankOrOversizedIdempotencyKey_ShouldReturnBadRequest() throws Exception {
+        // Arrange
+        CreateShortUrlRequest request = new CreateShortUrlRequest();
+        request.setOriginalUrl(originalUrl);
+
+        // Act & Assert
+        for (String key : List.of(" ", "k".repeat(256))) {
+            mockMvc.perform(post("/api/urls")
+                            .with(csrf())
+                            .header("Idempotency-Key", key)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(request)))
+                    .andExpect(status().isBadRequest());
+        }
+
+        verifyNoInteractions(idempotencyService, shortUrlService);
+    }
+
+    @Test
+    @WithMockUser(authorities = "SCOPE_api.write")
+    void createShortUrl_WithReusedIdempotencyKey_ShouldReturnUnprocessableEntity() throws Exception {
+        // Arrange
+        CreateShortUrlRequest request = new CreateShortUrlRequest();
+        request.setOriginalUrl(originalUrl);
+
+        when(authenticationService.getCurrentUser()).thenReturn(testUser);
+        when(idempotencyService.createOnce(eq("retry-1"), anyString(), eq(testUser), any()))
+                .thenThrow(new IdempotencyKeyMismatchException("Idempotency key 'retry-1' was already used for a different request"));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/urls")
+                        .with(csrf())
+                        .header("Idempotency-Key", "retry-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isUnprocessableEntity());
+    }
+
+    @Test
+    @WithMockUser(authorities = "SCOPE_api.read")
+    void checkAliasAvailability_FreeAlias_ShouldReturnAvailable() throws Exception {
+        // Arrange
+        when(aliasService.isAliasTaken("summer-sale")).thenReturn(false);
+
+        // Act & Assert
+        mockMvc.perform(get("/api/urls/aliases/summer-sale"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.alias").value("summer-sale"))
+                .andExpect(jsonPath("$.available").value(true))
+                .andExpect(jsonPath("$.reason").doesNotExist());
+    }
+
+    @Test
+    @WithMockUser(authorities = "SCOPE_api.read")
+    void checkAliasAvailability_TakenAlias_ShouldReturnUnavailable() throws Exception {
+        // Arrange
+        when(aliasService.isAliasTaken("summer-sale")).thenReturn(true);
+
+        // Act & Assert
+        mockMvc.perform(get("/api/urls/aliases/summer-sale"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.available").value(false))
+                .andExpect(jsonPath("$.reason").value("Alias is already taken"));
+    }
+
+    @Test
+    @WithMockUser(authorities = "SCOPE_api.read")
+    void checkAliasAvailability_InvalidAlias_ShouldNotQueryService() throws Exception {
+        // Act & Assert
+        mockMvc.perform(get("/api/urls/aliases/ab"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.available").value(false))
+                .andExpect(jsonPath("$.reason").exists());
+
+        verifyNoInteractions(aliasService);
+    }
+
+    @Test
+    @WithMockUser(authorities = "SCOPE_api.read")
+    void getShortUrlQrCode_ValidRequestAndOwner_ShouldReturnImageWithEtag() throws Exception {
+        // Arrange
+        byte[] png = {(byte) 0x89, 'P', 'N', 'G'};
+        when(authenticationService.getCurrentUser()).thenReturn(testUser);
+        when(shortUrlService.findOwnedUrl(shortCode, testUser)).thenReturn(testUrl);
+        when(qrCodeService.render(shortCode, 300, QrCodeService.Format.PNG))
+                .thenReturn(new QrCodeService.QrCode(png, QrCodeService.Format.PNG, "\"abc\""));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/urls/" + shortCode + "/qr").param("size", "300"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("image/png"))
+                .andExpect(content().bytes(png))
+                .andExpect(header().string("ETag", "\"abc\""))
+                .andExpect(header().string("Cache-Control", "max-age=86400, private"));
+    }
+
+    @Test
+    @WithMockUser(authorities = "SCOPE_api.read")
+    void getShortUrlQrCode_SvgFormat_ShouldReturnSvg() throws Exception {
+        // Arrange
+        byte[] svg = "<svg/>".getBytes();
+        when(authenticationService.getCurrentUser()).thenReturn(testUser);
+        when(shortUrlService.findOwnedUrl(shortCode, testUser)).thenReturn(testUrl);
+        when(qrCodeService.render(shortCode, 256, QrCodeService.Format.SVG))
+                .thenReturn(new QrCodeService.QrCode(svg, QrCodeService.Format.SVG, "\"def\""));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/urls/" + shortCode + "/qr").param("format", "SVG"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("image/svg+xml"))
+                .andExpect(content().bytes(svg));
+    }
+
+    @Test
+    @WithMockUser(authorities = "SCOPE_api.read")
+    void getShortUrlQrCode_MatchingIfNoneMatch_ShouldReturnNotModified() throws Exception {
+        // Arrange
+        when(authenticationService.getCurrentUser()).thenReturn(testUser);
+        when(shortUrlService.findOwnedUrl(shortCode, testUser)).thenReturn(testUrl);
+        when(qrCodeService.render(shortCode, 256, QrCodeService.Format.PNG))
+                .thenReturn(new QrCodeService.QrCode(new byte[]{1}, QrCodeService.Format.PNG, "\"abc\""));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/urls/" + shortCode + "/qr").header("If-None-Match", "\"old\", W/\"abc\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"abc\""))
+                .andExpect(content().bytes(new byte[0]));
+    }
+
+    @Test
+    @WithMockUser(authorities = "SCOPE_api.read")
+    void getShortUrlQrCode_InvalidSizeOrFormat_ShouldReturnBadRequest() throws Exception {
+        // Act & Assert
+        mockMvc.perform(get("/api/urls/" + shortCode + "/qr").param("size", "16"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/urls/" + shortCode + "/qr").param("size", "10000"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/urls/" + shortCode + "/qr").param("format", "gif"))
+                .andExpect(status().isBadRequest());
+
+        verify(qrCodeService, never()).render(any(), anyInt(), any());
+    }
+
+    @Test
+    @WithMockUser(authorities = "SCOPE_api.read")
+    void getShortUrlQrCode_NotOwner_ShouldReturnForbidden() throws Exception {
+        // Arrange
+        when(authenticationService.getCurrentUser()).thenReturn(testUser);
+        when(shortUrlService.findOwnedUrl(shortCode, testUser)).thenReturn(null);
+
+        // Act & Assert
+        mockMvc.perform(get("/api/urls/" + shortCode + "/qr"))
+                .andExpect(status().isForbidden());
+
+        verify(qrCodeService, never()).render(any(), anyInt(), any());
+    }
+
+    @Test
+    @WithMockUser(authorities = "SCOPE_api.read")
+    void getShortUrlQrCode_UrlNotFound_ShouldReturnNotFound() throws Exception {
+        // Arrange
+        when(authenticationService.getCurrentUser()).thenReturn(testUser);
+        when(shortUrlService.findOwnedUrl(shortCode, testUser)).thenThrow(new UrlNotFoundException("URL not found"));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/urls/" + shortCode + "/qr"))
+                .andExpect(status().isNotFound());
+
+        verify(qrCodeService, never()).render(any(), anyInt(), any());
     }
 
     @TestConfiguration
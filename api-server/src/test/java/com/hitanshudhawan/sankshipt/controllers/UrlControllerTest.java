@@ -1,9 +1,11 @@
 package com.hitanshudhawan.sankshipt.controllers;
 
+import com.hitanshudhawan.sankshipt.exceptions.UrlExpiredException;
 import com.hitanshudhawan.sankshipt.exceptions.UrlNotFoundException;
 import com.hitanshudhawan.sankshipt.models.URL;
 import com.hitanshudhawan.sankshipt.models.User;
 import com.hitanshudhawan.sankshipt.services.ClickAnalyticsService;
+import com.hitanshudhawan.sankshipt.services.DestinationService;
 import com.hitanshudhawan.sankshipt.services.ShortUrlService;
 import jakarta.servlet.http.HttpServletRequest;
 import org.junit.jupiter.api.BeforeEach;
@@ -34,6 +36,9 @@ class UrlControllerTest {
     @MockBean
     private ShortUrlService shortUrlService;
 
+    @MockBean
+    private DestinationService destinationService;
+
     @MockBean
     private ClickAnalyticsService clickAnalyticsService;
 
@@ -53,6 +58,8 @@ class UrlControllerTest {
         testUrl.setOriginalUrl(originalUrl);
         testUrl.setShortCode(shortCode);
         testUrl.setUser(testUser);
+
+        when(destinationService.selectDestination(any())).thenAnswer(invocation -> invocation.getArgument(0, URL.class).getOriginalUrl());
     }
 
     @Test
@@ -62,10 +69,12 @@ class UrlControllerTest {
 
         // Act & Assert
         mockMvc.perform(get("/" + shortCode))
-                .andExpect(status().isMovedPermanently())
+                .andExpect(status().isFound())
+                .andExpect(header().string("Cache-Control", "no-store"))
                 .andExpect(redirectedUrl(originalUrl));
 
         verify(shortUrlService).resolveShortCode(shortCode);
+        verify(shortUrlService).recordRedirect(testUrl);
         verify(clickAnalyticsService).recordClick(eq(testUrl), any(HttpServletRequest.class));
     }
 
@@ -83,6 +92,48 @@ class UrlControllerTest {
         verify(clickAnalyticsService, never()).recordClick(any(), any());
     }
 
+    @Test
+    void redirectToUrl_ExpiredShortCode_ShouldReturnGone() throws Exception {
+        // Arrange
+        when(shortUrlService.resolveShortCode(shortCode))
+                .thenThrow(new UrlExpiredException("Short URL has expired: " + shortCode));
+
+        // Act & Assert
+        mockMvc.perform(get("/" + shortCode))
+                .andExpect(status().isGone());
+
+        verify(clickAnalyticsService, never()).recordClick(any(), any());
+    }
+
+    @Test
+    void redirectToUrl_ClickLimitReached_ShouldReturnGoneWithoutRecordingClick() throws Exception {
+        // Arrange
+        when(shortUrlService.resolveShortCode(shortCode)).thenReturn(testUrl);
+        doThrow(new UrlExpiredException("Short URL has expired: " + shortCode))
+                .when(shortUrlService).recordRedirect(testUrl);
+
+        // Act & Assert
+        mockMvc.perform(get("/" + shortCode))
+                .andExpect(status().isGone());
+
+        verify(clickAnalyticsService, never()).recordClick(any(), any());
+    }
+
+    @Test
+    void redirectToUrl_WeightedUrl_ShouldRedirectToSelectedDestination() throws Exception {
+        // Arrange
+        testUrl.setWeighted(true);
+        when(shortUrlService.resolveShortCode(shortCode)).thenReturn(testUrl);
+        when(destinationService.selectDestination(testUrl)).thenReturn("https://b.example.com/landing");
+
+        // Act & Assert
+        mockMvc.perform(get("/" + shortCode))
+                .andExpect(status().isFound())
+                .andExpect(redirectedUrl("https://b.example.com/landing"));
+
+        verify(clickAnalyticsService).recordClick(eq(testUrl), any(HttpServletRequest.class));
+    }
+
     @Test
     void redirectToUrl_AnalyticsFailure_ShouldStillRedirect() throws Exception {
         // Arrange
@@ -92,7 +143,7 @@ class UrlControllerTest {
 
         // Act & Assert
         mockMvc.perform(get("/" + shortCode))
-                .andExpect(status().isMovedPermanently())
+                .andExpect(status().isFound())
                 .andExpect(redirectedUrl(originalUrl));
 
         verify(shortUrlService).resolveShortCode(shortCode);
@@ -123,7 +174,7 @@ class UrlControllerTest {
 
         // Act & Assert
         mockMvc.perform(get("/" + longShortCode))
-                .andExpect(status().isMovedPermanently())
+                .andExpect(status().isFound())
                 .andExpect(redirectedUrl("https://www.longurl.com"));
 
         verify(shortUrlService).resolveShortCode(longShortCode);
@@ -144,7 +195,7 @@ class UrlControllerTest {
 
         // Act & Assert
         mockMvc.perform(get("/" + specialShortCode))
-                .andExpect(status().isMovedPermanently())
+                .andExpect(status().isFound())
                 .andExpect(redirectedUrl("https://www.special-url.com"));
 
         verify(shortUrlService).resolveShortCode(specialShortCode);
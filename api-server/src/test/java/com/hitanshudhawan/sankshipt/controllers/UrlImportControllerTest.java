@@ -0,0 +1,207 @@
+package com.hitanshudhawan.sankshipt.controllers;
+
+import com.hitanshudhawan.sankshipt.exceptions.ImportJobNotFoundException;
+import com.hitanshudhawan.sankshipt.models.ImportJob;
+import com.hitanshudhawan.sankshipt.models.ImportJobError;
+import com.hitanshudhawan.sankshipt.models.User;
+import com.hitanshudhawan.sankshipt.models.UserPrincipal;
+import com.hitanshudhawan.sankshipt.services.AuthenticationService;
+import com.hitanshudhawan.sankshipt.services.ImportJobService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@ExtendWith(MockitoExtension.class)
+@WebMvcTest(UrlImportController.class)
+@Import(UrlImportControllerTest.TestSecurityConfig.class)
+class UrlImportControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ImportJobService importJobService;
+
+    @MockBean
+    private AuthenticationService authenticationService;
+
+    private UserPrincipal testUser;
+
+    private User testOwner;
+    private ImportJob testJob;
+
+    @BeforeEach
+    void setUp() {
+        testUser = new UserPrincipal(1L, "test@example.com");
+        testOwner = new User();
+        testOwner.setId(1L);
+        testOwner.setEmail("test@example.com");
+
+        testJob = new ImportJob();
+        testJob.setId(7L);
+        testJob.setUser(testOwner);
+        testJob.setFormat(ImportJob.Format.CSV);
+        testJob.setStatus(ImportJob.Status.PENDING);
+        testJob.setFileName("links.csv");
+    }
+
+    private MockMultipartFile file(String fileName, String content) {
+        return new MockMultipartFile("file", fileName, "text/plain", content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @WithMockUser(authorities = "SCOPE_api.write")
+    void createImportJob_CsvFile_ShouldReturnAcceptedJob() throws Exception {
+        // Arrange
+        when(authenticationService.getCurrentUser()).thenReturn(testUser);
+        when(importJobService.createImportJob(any(), eq("links.csv"), eq(ImportJob.Format.CSV), eq(false), eq(testUser)))
+                .thenReturn(testJob);
+
+        // Act & Assert
+        mockMvc.perform(multipart("/api/urls/imports")
+                        .file(file("links.csv", "https://www.example.com\n"))
+                        .with(csrf()))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.id").value(7))
+                .andExpect(jsonPath("$.status").value("PENDING"))
+                .andExpect(jsonPath("$.format").value("CSV"))
+                .andExpect(jsonPath("$.fileName").value("links.csv"));
+    }
+
+    @Test
+    @WithMockUser(authorities = "SCOPE_api.write")
+    void createImportJob_ExplicitFormatAndDeduplicate_ShouldPassThemToService() throws Exception {
+        // Arrange
+        testJob.setFormat(ImportJob.Format.NDJSON);
+        when(authenticationService.getCurrentUser()).thenReturn(testUser);
+        when(importJobService.createImportJob(any(), eq("links.txt"), eq(ImportJob.Format.NDJSON), eq(true), eq(testUser)))
+                .thenReturn(testJob);
+
+        // Act & Assert
+        mockMvc.perform(multipart("/api/urls/imports")
+                        .file(file("links.txt", "{\"originalUrl\":\"https://www.example.com\"}\n"))
+                        .param("format", "ndjson")
+                        .param("deduplicate", "true")
+                        .with(csrf()))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.format").value("NDJSON"));
+    }
+
+    @Test
+    @WithMockUser(authorities = "SCOPE_api.write")
+    void createImportJob_UnknownFormat_ShouldReturnBadRequest() throws Exception {
+        // Act & Assert
+        mockMvc.perform(multipart("/api/urls/imports")
+                        .file(file("links.txt", "https://www.example.com\n"))
+                        .with(csrf()))
+                .andExpect(status().isBadRequest());
+
+        verify(importJobService, never()).createImportJob(any(), any(), any(), anyBoolean(), any());
+    }
+
+    @Test
+    @WithMockUser(authorities = "SCOPE_api.write")
+    void createImportJob_EmptyFile_ShouldReturnBadRequest() throws Exception {
+        // Act & Assert
+        mockMvc.perform(multipart("/api/urls/imports")
+                        .file(file("links.csv", ""))
+                        .with(csrf()))
+                .andExpect(status().isBadRequest());
+
+        verify(importJobService, never()).createImportJob(any(), any(), any(), anyBoolean(), any());
+    }
+
+    @Test
+    @WithMockUser(authorities = "SCOPE_api.read")
+    void createImportJob_WithoutWriteScope_ShouldReturnForbidden() throws Exception {
+        // Act & Assert
+        mockMvc.perform(multipart("/api/urls/imports")
+                        .file(file("links.csv", "https://www.example.com\n"))
+                        .with(csrf()))
+                .andExpect(status().isForbidden());
+
+        verify(importJobService, never()).createImportJob(any(), any(), any(), anyBoolean(), any());
+    }
+
+    @Test
+    @WithMockUser(authorities = "SCOPE_api.read")
+    void getImportJob_Owner_ShouldReturnProgressAndErrors() throws Exception {
+        // Arrange
+        testJob.setStatus(ImportJob.Status.RUNNING);
+        testJob.setLinesRead(2000);
+        testJob.setCreatedUrls(1999);
+        testJob.setFailedRows(1);
+
+        ImportJobError error = new ImportJobError();
+        error.setImportJobId(7L);
+        error.setLineNumber(17);
+        error.setMessage("Original URL cannot be blank");
+
+        when(importJobService.getImportJob(7L)).thenReturn(testJob);
+        when(authenticationService.getCurrentUser()).thenReturn(testUser);
+        when(importJobService.isImportJobOwner(testJob, testUser)).thenReturn(true);
+        when(importJobService.getImportJobErrors(testJob)).thenReturn(List.of(error));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/urls/imports/7"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("RUNNING"))
+                .andExpect(jsonPath("$.linesRead").value(2000))
+                .andExpect(jsonPath("$.createdUrls").value(1999))
+                .andExpect(jsonPath("$.failedRows").value(1))
+                .andExpect(jsonPath("$.errors[0].lineNumber").value(17))
+                .andExpect(jsonPath("$.errors[0].message").value("Original URL cannot be blank"));
+    }
+
+    @Test
+    @WithMockUser(authorities = "SCOPE_api.read")
+    void getImportJob_NotOwner_ShouldReturnForbidden() throws Exception {
+        // Arrange
+        when(importJobService.getImportJob(7L)).thenReturn(testJob);
+        when(authenticationService.getCurrentUser()).thenReturn(testUser);
+        when(importJobService.isImportJobOwner(testJob, testUser)).thenReturn(false);
+
+        // Act & Assert
+        mockMvc.perform(get("/api/urls/imports/7"))
+                .andExpect(status().isForbidden());
+
+        verify(importJobService, never()).getImportJobErrors(any());
+    }
+
+    @Test
+    @WithMockUser(authorities = "SCOPE_api.read")
+    void getImportJob_NotFound_ShouldReturnNotFound() throws Exception {
+        // Arrange
+        when(importJobService.getImportJob(99L)).thenThrow(new ImportJobNotFoundException("No import job found with id: 99"));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/urls/imports/99"))
+                .andExpect(status().isNotFound())
+                .andExpect(content().string("No import job found with id: 99"));
+    }
+
+    @TestConfiguration
+    @EnableMethodSecurity
+    static class TestSecurityConfig {
+        // This enables method-level security for the test
+    }
+}
@@ -31,6 +31,7 @@ class ClickResponseTest {
         clickResponse.setOriginalUrl(originalUrl);
         clickResponse.setClickedAt(clickedAt);
         clickResponse.setUserAgent(userAgent);
+        clickResponse.setSampleRate(4);
 
         // Assert
         assertEquals(id, clickResponse.getId());
@@ -38,6 +39,7 @@ class ClickResponseTest {
         assertEquals(originalUrl, clickResponse.getOriginalUrl());
         assertEquals(clickedAt, clickResponse.getClickedAt());
         assertEquals(userAgent, clickResponse.getUserAgent());
+        assertEquals(4, clickResponse.getSampleRate());
     }
 
     @Test
@@ -0,0 +1,101 @@
+package com.hitanshudhawan.sankshipt.dtos;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CreateShortUrlBatchRequestTest {
+
+    private Validator validator;
+    private CreateShortUrlBatchRequest request;
+
+    @BeforeEach
+    void setUp() {
+        validator = Validation.buildDefaultValidatorFactory().getValidator();
+        request = new CreateShortUrlBatchRequest();
+    }
+
+    @Test
+    void validRequest_ShouldPassValidation() {
+        // Arrange
+        request.setOriginalUrls(List.of("https://www.example.com/a", "https://www.example.com/b"));
+
+        // Act
+        Set<ConstraintViolation<CreateShortUrlBatchRequest>> violations = validator.validate(request);
+
+        // Assert
+        assertTrue(violations.isEmpty());
+    }
+
+    @Test
+    void blankItems_ShouldPassValidation() {
+        // Arrange
+        request.setOriginalUrls(Arrays.asList("", null, "https://www.example.com"));
+
+        // Act
+        Set<ConstraintViolation<CreateShortUrlBatchRequest>> violations = validator.validate(request);
+
+        // Assert
+        assertTrue(violations.isEmpty()); // Blank items are reported per item, not rejected up front
+    }
+
+    @Test
+    void nullOriginalUrls_ShouldFailValidation() {
+        // Arrange
+        request.setOriginalUrls(null);
+
+        // Act
+        Set<ConstraintViolation<CreateShortUrlBatchRequest>> violations = validator.validate(request);
+
+        // Assert
+        assertEquals(1, violations.size());
+        assertEquals("At least one original URL is required", violations.iterator().next().getMessage());
+    }
+
+    @Test
+    void emptyOriginalUrls_ShouldFailValidation() {
+        // Arrange
+        request.setOriginalUrls(List.of());
+
+        // Act
+        Set<ConstraintViolation<CreateShortUrlBatchRequest>> violations = validator.validate(request);
+
+        // Assert
+        assertEquals(1, violations.size());
+    }
+
+    @Test
+    void maximumBatchSize_ShouldPassValidation() {
+        // Arrange
+        request.setOriginalUrls(Collections.nCopies(CreateShortUrlBatchRequest.MAX_BATCH_SIZE, "https://www.example.com"));
+
+        // Act
+        Set<ConstraintViolation<CreateShortUrlBatchRequest>> violations = validator.validate(request);
+
+        // Assert
+        assertTrue(violations.isEmpty());
+    }
+
+    @Test
+    void oversizedBatch_ShouldFailValidation() {
+        // Arrange
+        request.setOriginalUrls(Collections.nCopies(CreateShortUrlBatchRequest.MAX_BATCH_SIZE + 1, "https://www.example.com"));
+
+        // Act
+        Set<ConstraintViolation<CreateShortUrlBatchRequest>> violations = validator.validate(request);
+
+        // Assert
+        assertEquals(1, violations.size());
+        assertEquals("At most 1000 URLs can be shortened in one batch", violations.iterator().next().getMessage());
+    }
+
+}
@@ -6,6 +6,7 @@ import jakarta.validation.Validator;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.List;
 import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -127,4 +128,46 @@ class CreateShortUrlRequestTest {
         // Assert
         assertTrue(violations.isEmpty());
     }
+
+    @Test
+    void customAliasTooShort_ShouldFailValidation() {
+        // Arrange
+        request.setOriginalUrl("https://www.example.com");
+        request.setCustomAlias("ab");
+
+        // Act
+        Set<ConstraintViolation<CreateShortUrlRequest>> violations = validator.validate(request);
+
+        // Assert
+        assertEquals(1, violations.size());
+    }
+
+    @Test
+    void customAlias_ShouldPassValidation() {
+        // Arrange
+        request.setOriginalUrl("https://www.example.com");
+        request.setCustomAlias("summer-sale");
+
+        // Act
+        Set<ConstraintViolation<CreateShortUrlRequest>> violations = validator.validate(request);
+
+        // Assert
+        assertTrue(violations.isEmpty());
+    }
+
+    @Test
+    void destinationWithZeroWeight_ShouldFailValidation() {
+        // Arrange
+        DestinationRequest destination = new DestinationRequest();
+        destination.setUrl("https://a.example.com");
+        destination.setWeight(0);
+        request.setOriginalUrl("https://www.example.com");
+        request.setDestinations(List.of(destination));
+
+        // Act
+        Set<ConstraintViolation<CreateShortUrlRequest>> violations = validator.validate(request);
+
+        // Assert
+        assertEquals(1, violations.size());
+    }
 }
@@ -1,5 +1,9 @@
 package com.hitanshudhawan.sankshipt.exceptionhandlers;
 
+import com.hitanshudhawan.sankshipt.exceptions.AliasUnavailableException;
+import com.hitanshudhawan.sankshipt.exceptions.IdempotencyKeyMismatchException;
+import com.hitanshudhawan.sankshipt.exceptions.ImportJobNotFoundException;
+import com.hitanshudhawan.sankshipt.exceptions.UrlExpiredException;
 import com.hitanshudhawan.sankshipt.exceptions.UrlNotFoundException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -77,4 +81,52 @@ class ExceptionHandlersTest {
         assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
         assertEquals(longMessage, response.getBody());
     }
+
+    @Test
+    void handleImportJobNotFoundException_ShouldReturnNotFoundWithMessage() {
+        // Arrange
+        ImportJobNotFoundException importJobNotFoundException = new ImportJobNotFoundException("No import job found with id: 1");
+
+        // Act
+        ResponseEntity<String> response = exceptionHandlers.handleImportJobNotFoundException(importJobNotFoundException);
+
+        // Assert
+        assertNotNull(response);
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+        assertEquals("No import job found with id: 1", response.getBody());
+    }
+
+    @Test
+    void handleAliasUnavailableException_ShouldReturnConflictWithMessage() {
+        // Act
+        ResponseEntity<String> response = exceptionHandlers.handleAliasUnavailableException(new AliasUnavailableException("Alias is already taken: promo"));
+
+        // Assert
+        assertNotNull(response);
+        assertEquals(HttpStatus.CONFLICT, response.getStatusCode());
+        assertEquals("Alias is already taken: promo", response.getBody());
+    }
+
+    @Test
+    void handleUrlExpiredException_ShouldReturnGoneWithMessage() {
+        // Act
+        ResponseEntity<String> response = exceptionHandlers.handleUrlExpiredException(new UrlExpiredException("Short URL has expired: promo"));
+
+        // Assert
+        assertNotNull(response);
+        assertEquals(HttpStatus.GONE, response.getStatusCode());
+        assertEquals("Short URL has expired: promo", response.getBody());
+    }
+
+    @Test
+    void handleIdempotencyKeyMismatchException_ShouldReturnUnprocessableEntityWithMessage() {
+        // Act
+        ResponseEntity<String> response = exceptionHandlers.handleIdempotencyKeyMismatchException(
+                new IdempotencyKeyMismatchException("Idempotency key 'retry-1' was already used for a different request"));
+
+        // Assert
+        assertNotNull(response);
+        assertEquals(HttpStatus.UNPROCESSABLE_ENTITY, response.getStatusCode());
+        assertEquals("Idempotency key 'retry-1' was already used for a different request", response.getBody());
+    }
 }
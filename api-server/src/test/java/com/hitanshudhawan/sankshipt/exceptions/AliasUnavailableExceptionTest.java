@@ -0,0 +1,30 @@
+package com.hitanshudhawan.sankshipt.exceptions;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AliasUnavailableExceptionTest {
+
+    @Test
+    void constructor_WithMessage_ShouldCreateExceptionWithCorrectMessage() {
+        // Arrange
+        String expectedMessage = "Alias is already taken: summer-sale";
+
+        // Act
+        AliasUnavailableException exception = new AliasUnavailableException(expectedMessage);
+
+        // Assert
+        assertEquals(expectedMessage, exception.getMessage());
+        assertNull(exception.getCause());
+    }
+
+    @Test
+    void exception_ShouldBeCheckedException() {
+        // This test verifies that AliasUnavailableException is a checked exception
+        // by ensuring it doesn't extend RuntimeException
+        Exception exception = new AliasUnavailableException("test");
+
+        assertFalse(exception instanceof RuntimeException);
+    }
+}
@@ -0,0 +1,30 @@
+package com.hitanshudhawan.sankshipt.exceptions;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IdempotencyKeyMismatchExceptionTest {
+
+    @Test
+    void constructor_WithMessage_ShouldCreateExceptionWithCorrectMessage() {
+        // Arrange
+        String expectedMessage = "Idempotency key 'retry-1' was already used for a different request";
+
+        // Act
+        IdempotencyKeyMismatchException exception = new IdempotencyKeyMismatchException(expectedMessage);
+
+        // Assert
+        assertEquals(expectedMessage, exception.getMessage());
+        assertNull(exception.getCause());
+    }
+
+    @Test
+    void exception_ShouldBeCheckedException() {
+        // This test verifies that IdempotencyKeyMismatchException is a checked exception
+        // by ensuring it doesn't extend RuntimeException
+        Exception exception = new IdempotencyKeyMismatchException("test");
+
+        assertFalse(exception instanceof RuntimeException);
+    }
+}
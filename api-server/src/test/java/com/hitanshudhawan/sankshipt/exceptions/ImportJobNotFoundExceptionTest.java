@@ -0,0 +1,30 @@
+package com.hitanshudhawan.sankshipt.exceptions;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ImportJobNotFoundExceptionTest {
+
+    @Test
+    void constructor_WithMessage_ShouldCreateExceptionWithCorrectMessage() {
+        // Arrange
+        String expectedMessage = "No import job found with id: 1";
+
+        // Act
+        ImportJobNotFoundException exception = new ImportJobNotFoundException(expectedMessage);
+
+        // Assert
+        assertEquals(expectedMessage, exception.getMessage());
+        assertNull(exception.getCause());
+    }
+
+    @Test
+    void exception_ShouldBeCheckedException() {
+        // This test verifies that ImportJobNotFoundException is a checked exception
+        // by ensuring it doesn't extend RuntimeException
+        Exception exception = new ImportJobNotFoundException("test");
+
+        assertFalse(exception instanceof RuntimeException);
+    }
+}
@@ -0,0 +1,30 @@
+package com.hitanshudhawan.sankshipt.exceptions;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UrlExpiredExceptionTest {
+
+    @Test
+    void constructor_WithMessage_ShouldCreateExceptionWithCorrectMessage() {
+        // Arrange
+        String expectedMessage = "Short URL has expired: abc123";
+
+        // Act
+        UrlExpiredException exception = new UrlExpiredException(expectedMessage);
+
+        // Assert
+        assertEquals(expectedMessage, exception.getMessage());
+        assertNull(exception.getCause());
+    }
+
+    @Test
+    void exception_ShouldBeUrlNotFoundException() {
+        // Callers that handle missing URLs handle expired ones too
+        Exception exception = new UrlExpiredException("test");
+
+        assertInstanceOf(UrlNotFoundException.class, exception);
+        assertFalse(exception instanceof RuntimeException);
+    }
+}
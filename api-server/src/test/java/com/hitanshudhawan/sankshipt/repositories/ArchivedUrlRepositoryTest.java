@@ -0,0 +1,72 @@
+package com.hitanshudhawan.sankshipt.repositories;
+
+import com.hitanshudhawan.sankshipt.models.ArchivedUrl;
+import com.hitanshudhawan.sankshipt.models.URL;
+import com.hitanshudhawan.sankshipt.models.User;
+import com.hitanshudhawan.sankshipt.utils.UrlNormalizer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+class ArchivedUrlRepositoryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ArchivedUrlRepository archivedUrlRepository;
+
+    @Test
+    void archiveUrls_ShouldCopyOnlyGivenUrls() {
+        // Arrange
+        User user = new User();
+        user.setEmail("test@example.com");
+        entityManager.persist(user);
+
+        Date expiresAt = new Date(System.currentTimeMillis() - 1_000);
+        URL expired = url(1L, user, "https://www.example.com/a");
+        expired.setExpiresAt(expiresAt);
+        expired.setMaxClicks(5L);
+        expired.setClickCount(5);
+        entityManager.persist(expired);
+        entityManager.persist(url(2L, user, "https://www.example.com/b"));
+        entityManager.flush();
+        entityManager.clear();
+
+        // Act
+        int archived = archivedUrlRepository.archiveUrls(List.of(1L));
+
+        // Assert
+        assertEquals(1, archived);
+        List<ArchivedUrl> archivedUrls = archivedUrlRepository.findAll();
+        assertEquals(1, archivedUrls.size());
+        ArchivedUrl archivedUrl = archivedUrls.get(0);
+        assertEquals(1L, archivedUrl.getId());
+        assertEquals("code1", archivedUrl.getShortCode());
+        assertEquals("https://www.example.com/a", archivedUrl.getOriginalUrl());
+        assertEquals(user.getId(), archivedUrl.getUserId());
+        assertEquals(5L, archivedUrl.getMaxClicks());
+        assertEquals(5, archivedUrl.getClickCount());
+        assertEquals(expiresAt.getTime(), archivedUrl.getExpiresAt().getTime());
+        assertNotNull(archivedUrl.getCreatedAt());
+        assertNotNull(archivedUrl.getArchivedAt());
+    }
+
+    private URL url(Long id, User owner, String originalUrl) {
+        URL url = new URL();
+        url.setId(id);
+        url.setOriginalUrl(originalUrl);
+        url.setUrlHash(UrlNormalizer.urlHash(originalUrl));
+        url.setShortCode("code" + id);
+        url.setUser(owner);
+        return url;
+    }
+
+}
@@ -0,0 +1,173 @@
+package com.hitanshudhawan.sankshipt.repositories;
+
+import com.hitanshudhawan.sankshipt.models.Click;
+import com.hitanshudhawan.sankshipt.models.URL;
+import com.hitanshudhawan.sankshipt.models.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+class ClickRepositoryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ClickRepository clickRepository;
+
+    private URL testUrl;
+    private URL otherUrl;
+
+    @BeforeEach
+    void setUp() {
+        User user = new User();
+        user.setEmail("test@example.com");
+        entityManager.persist(user);
+
+        testUrl = url(user, 1L, "abc123");
+        otherUrl = url(user, 2L, "def456");
+
+        click(testUrl, "2024-01-01T10:00:00Z", "Mozilla/5.0 Firefox/120.0");
+        click(testUrl, "2024-01-15T10:00:00Z", "Mozilla/5.0 Chrome/120.0");
+        click(testUrl, "2024-02-01T00:00:00Z", "Mozilla/5.0 Firefox/121.0");
+        click(testUrl, "2024-03-01T10:00:00Z", "100%_agent");
+        click(otherUrl, "2024-01-15T10:00:00Z", "Mozilla/5.0 Firefox/120.0");
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void findAll_DateRange_ShouldIncludeFromAndExcludeTo() {
+        // Act
+        List<Click> clicks = findAll(ClickSpecifications.forUrl(testUrl)
+                .and(ClickSpecifications.clickedFrom(date("2024-01-01T10:00:00Z")))
+                .and(ClickSpecifications.clickedBefore(date("2024-02-01T00:00:00Z"))));
+
+        // Assert
+        assertEquals(2, clicks.size());
+        assertEquals(date("2024-01-15T10:00:00Z"), clicks.get(0).getClickedAt());
+        assertEquals(date("2024-01-01T10:00:00Z"), clicks.get(1).getClickedAt());
+    }
+
+    @Test
+    void findAll_UserAgentContains_ShouldIgnoreCase() {
+        // Act
+        List<Click> clicks = findAll(ClickSpecifications.forUrl(testUrl)
+                .and(ClickSpecifications.userAgentContains("FIREFOX")));
+
+        // Assert
+        assertEquals(2, clicks.size());
+        assertTrue(clicks.stream().allMatch(click -> click.getUserAgent().contains("Firefox")));
+    }
+
+    @Test
+    void findAll_UserAgentContainsWildcards_ShouldMatchLiterally() {
+        // Act
+        List<Click> percent = findAll(ClickSpecifications.forUrl(testUrl)
+                .and(ClickSpecifications.userAgentContains("%_")));
+        List<Click> underscore = findAll(ClickSpecifications.forUrl(testUrl)
+                .and(ClickSpecifications.userAgentContains("o_")));
+
+        // Assert
+        assertEquals(1, percent.size());
+        assertEquals("100%_agent", percent.get(0).getUserAgent());
+        assertTrue(underscore.isEmpty());
+    }
+
+    @Test
+    void findAll_Paged_ShouldCountOnlyMatchingClicks() {
+        // Act
+        Page<Click> page = clickRepository.findAll(
+                ClickSpecifications.forUrl(testUrl).and(ClickSpecifications.clickedFrom(date("2024-01-10T00:00:00Z"))),
+                PageRequest.of(0, 2, Sort.by(Sort.Order.asc("clickedAt"), Sort.Order.asc("id")))
+        );
+
+        // Assert
+        assertEquals(3, page.getTotalElements());
+        assertEquals(2, page.getContent().size());
+        assertEquals(date("2024-01-15T10:00:00Z"), page.getContent().get(0).getClickedAt());
+    }
+
+    @Test
+    void dateRangeQuery_ShouldUseUrlClickedAtIndex() {
+        // Act
+        String plan = explain("SELECT c.id, c.clicked_at FROM clicks c"
+                + " WHERE c.url = " + testUrl.getId()
+                + " AND c.clicked_at >= TIMESTAMP '2024-01-01 00:00:00'"
+                + " AND c.clicked_at < TIMESTAMP '2024-02-01 00:00:00'"
+                + " ORDER BY c.clicked_at");
+
+        // Assert
+        // Both the URL and the date range are index conditions, not filters applied after a scan
+        String indexConditions = plan.substring(plan.indexOf("/*"), plan.indexOf("*/"));
+        assertTrue(indexConditions.contains("IDX_URL_CLICKED_AT"), plan);
+        assertTrue(indexConditions.contains("URL ="), plan);
+        assertTrue(indexConditions.contains("CLICKED_AT >="), plan);
+        assertTrue(indexConditions.contains("CLICKED_AT <"), plan);
+    }
+
+    @Test
+    void countQuery_ShouldUseUrlClickedAtIndex() {
+        // Act
+        String plan = explain("SELECT COUNT(c.id) FROM clicks c"
+                + " WHERE c.url = " + testUrl.getId()
+                + " AND c.clicked_at >= TIMESTAMP '2024-01-01 00:00:00'");
+
+        // Assert
+        assertTrue(plan.contains("PUBLIC.IDX_URL_CLICKED_AT: URL ="), plan);
+    }
+
+    private List<Click> findAll(Specification<Click> specification) {
+        return clickRepository.findAll(specification, Sort.by(Sort.Order.desc("clickedAt"), Sort.Order.desc("id")));
+    }
+
+    private String explain(String sql) {
+        Object plan = entityManager.getEntityManager()
+                .createNativeQuery("EXPLAIN " + sql)
+                .getSingleResult();
+        return plan.toString().toUpperCase(Locale.ROOT);
+    }
+
+    private URL url(User user, Long id, String shortCode) {
+        URL url = new URL();
+        url.setId(id);
+        url.setShortCode(shortCode);
+        url.setOriginalUrl("https://www.example.com/" + shortCode);
+        url.setUser(user);
+        return entityManager.persist(url);
+    }
+
+    private void click(URL url, String clickedAt, String userAgent) {
+        Click click = new Click();
+        click.setUrl(url);
+        click.setUserAgent(userAgent);
+        entityManager.persist(click);
+        entityManager.flush();
+
+        // clickedAt is set by Hibernate on insert, so backdate it afterwards
+        entityManager.getEntityManager()
+                .createNativeQuery("UPDATE clicks SET clicked_at = ?1 WHERE id = ?2")
+                .setParameter(1, date(clickedAt))
+                .setParameter(2, click.getId())
+                .executeUpdate();
+    }
+
+    private static Date date(String instant) {
+        return Date.from(Instant.parse(instant));
+    }
+
+}
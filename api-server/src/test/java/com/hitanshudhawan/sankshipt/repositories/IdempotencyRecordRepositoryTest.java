@@ -0,0 +1,63 @@
+package com.hitanshudhawan.sankshipt.repositories;
+
+import com.hitanshudhawan.sankshipt.models.IdempotencyRecord;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+class IdempotencyRecordRepositoryTest {
+
+    @Autowired
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    @Test
+    void save_SameUserAndKey_ShouldViolateUniqueIndex() {
+        // Arrange
+        idempotencyRecordRepository.saveAndFlush(record(1L, "retry-1", 60_000));
+
+        // Act & Assert
+        assertThrows(DataIntegrityViolationException.class,
+                () -> idempotencyRecordRepository.saveAndFlush(record(1L, "retry-1", 60_000)));
+    }
+
+    @Test
+    void findByUserIdAndIdempotencyKey_ShouldBeScopedToUser() {
+        // Arrange
+        idempotencyRecordRepository.saveAndFlush(record(1L, "retry-1", 60_000));
+
+        // Act & Assert
+        assertTrue(idempotencyRecordRepository.findByUserIdAndIdempotencyKey(1L, "retry-1").isPresent());
+        assertTrue(idempotencyRecordRepository.findByUserIdAndIdempotencyKey(2L, "retry-1").isEmpty());
+    }
+
+    @Test
+    void deleteExpired_ShouldDeleteOnlyExpiredRecords() {
+        // Arrange
+        idempotencyRecordRepository.saveAndFlush(record(1L, "old", -1_000));
+        idempotencyRecordRepository.saveAndFlush(record(1L, "new", 60_000));
+
+        // Act
+        int deleted = idempotencyRecordRepository.deleteExpired(new Date());
+
+        // Assert
+        assertEquals(1, deleted);
+        assertTrue(idempotencyRecordRepository.findByUserIdAndIdempotencyKey(1L, "new").isPresent());
+    }
+
+    private static IdempotencyRecord record(Long userId, String key, long expiresInMillis) {
+        IdempotencyRecord record = new IdempotencyRecord();
+        record.setUserId(userId);
+        record.setIdempotencyKey(key);
+        record.setRequestHash(new byte[32]);
+        record.setUrlId(1L);
+        record.setExpiresAt(new Date(System.currentTimeMillis() + expiresInMillis));
+        return record;
+    }
+
+}
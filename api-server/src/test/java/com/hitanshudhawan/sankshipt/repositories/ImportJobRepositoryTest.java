@@ -0,0 +1,94 @@
+package com.hitanshudhawan.sankshipt.repositories;
+
+import com.hitanshudhawan.sankshipt.models.ImportJob;
+import com.hitanshudhawan.sankshipt.models.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+class ImportJobRepositoryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ImportJobRepository importJobRepository;
+
+    private Long jobId;
+
+    @BeforeEach
+    void setUp() {
+        User user = new User();
+        user.setEmail("test@example.com");
+        entityManager.persist(user);
+
+        ImportJob importJob = new ImportJob();
+        importJob.setUser(user);
+        importJob.setFormat(ImportJob.Format.CSV);
+        importJob.setStatus(ImportJob.Status.PENDING);
+        importJob.setTotalLines(10L);
+        jobId = entityManager.persistAndGetId(importJob, Long.class);
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private ImportJob reload() {
+        entityManager.clear();
+        return importJobRepository.findById(jobId).orElseThrow();
+    }
+
+    @Test
+    void claim_ShouldOnlySucceedWhileUnclaimedOrExpired() {
+        // Act
+        int first = importJobRepository.claim(jobId, "a", 2000, 1000);
+        int whileHeld = importJobRepository.claim(jobId, "b", 2500, 1500);
+        int afterExpiry = importJobRepository.claim(jobId, "b", 4000, 3000);
+
+        // Assert
+        assertEquals(1, first);
+        assertEquals(0, whileHeld);
+        assertEquals(1, afterExpiry);
+        ImportJob importJob = reload();
+        assertEquals("b", importJob.getClaimedBy());
+        assertEquals(4000, importJob.getClaimExpiresAt());
+        assertEquals(ImportJob.Status.RUNNING, importJob.getStatus());
+    }
+
+    @Test
+    void claim_FinishedJob_ShouldFail() {
+        // Arrange
+        importJobRepository.claim(jobId, "a", 2000, 1000);
+        importJobRepository.finish(jobId, "a", ImportJob.Status.COMPLETED, null);
+
+        // Act & Assert
+        assertEquals(0, importJobRepository.claim(jobId, "b", 2000, 1000));
+        ImportJob importJob = reload();
+        assertEquals(ImportJob.Status.COMPLETED, importJob.getStatus());
+        assertNull(importJob.getClaimedBy());
+    }
+
+    @Test
+    void checkpoint_ShouldOnlySucceedForClaimHolder() {
+        // Arrange
+        importJobRepository.claim(jobId, "a", 2000, 1000);
+
+        // Act
+        int byOther = importJobRepository.checkpoint(jobId, "b", 5, 4, 1, 9000);
+        int byHolder = importJobRepository.checkpoint(jobId, "a", 5, 4, 1, 3000);
+
+        // Assert
+        assertEquals(0, byOther);
+        assertEquals(1, byHolder);
+        ImportJob importJob = reload();
+        assertEquals(5, importJob.getLinesRead());
+        assertEquals(4, importJob.getCreatedUrls());
+        assertEquals(1, importJob.getFailedRows());
+        assertEquals(3000, importJob.getClaimExpiresAt());
+    }
+
+}
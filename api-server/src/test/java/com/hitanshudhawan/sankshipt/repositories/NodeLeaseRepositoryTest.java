@@ -0,0 +1,67 @@
+package com.hitanshudhawan.sankshipt.repositories;
+
+import com.hitanshudhawan.sankshipt.models.NodeLease;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+class NodeLeaseRepositoryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private NodeLeaseRepository nodeLeaseRepository;
+
+    private NodeLease reload(int nodeId) {
+        entityManager.clear();
+        return nodeLeaseRepository.findById(nodeId).orElseThrow();
+    }
+
+    @Test
+    void insertLease_NodeAlreadyLeased_ShouldFail() {
+        // Arrange
+        nodeLeaseRepository.insertLease(1, "a", 1000);
+
+        // Act & Assert
+        assertThrows(DataIntegrityViolationException.class, () -> nodeLeaseRepository.insertLease(1, "b", 2000));
+    }
+
+    @Test
+    void takeOverLease_ShouldOnlySucceedIfUnchangedSinceRead() {
+        // Arrange
+        nodeLeaseRepository.insertLease(1, "a", 1000);
+
+        // Act
+        int stale = nodeLeaseRepository.takeOverLease(1, "b", 5000, 900);
+        int current = nodeLeaseRepository.takeOverLease(1, "b", 5000, 1000);
+
+        // Assert
+        assertEquals(0, stale);
+        assertEquals(1, current);
+        NodeLease lease = reload(1);
+        assertEquals("b", lease.getOwner());
+        assertEquals(5000, lease.getExpiresAt());
+    }
+
+    @Test
+    void renewLease_ShouldOnlySucceedForOwner() {
+        // Arrange
+        nodeLeaseRepository.insertLease(1, "a", 1000);
+
+        // Act
+        int byOther = nodeLeaseRepository.renewLease(1, "b", 9000);
+        int byOwner = nodeLeaseRepository.renewLease(1, "a", 3000);
+
+        // Assert
+        assertEquals(0, byOther);
+        assertEquals(1, byOwner);
+        assertEquals(3000, reload(1).getExpiresAt());
+    }
+
+}
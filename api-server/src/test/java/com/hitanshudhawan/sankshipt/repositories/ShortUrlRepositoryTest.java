@@ -0,0 +1,225 @@
+package com.hitanshudhawan.sankshipt.repositories;
+
+import com.hitanshudhawan.sankshipt.models.URL;
+import com.hitanshudhawan.sankshipt.models.User;
+import com.hitanshudhawan.sankshipt.utils.UrlNormalizer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+class ShortUrlRepositoryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ShortUrlRepository shortUrlRepository;
+
+    private User user;
+    private User otherUser;
+
+    @BeforeEach
+    void setUp() {
+        user = user("test@example.com");
+        otherUser = user("other@example.com");
+
+        url(1L, user, "https://www.example.com/a");
+        url(2L, user, "https://www.example.com/b");
+        url(3L, otherUser, "https://www.example.com/a");
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void findAllByUserIdAndUrlHash_ShouldMatchOnlyUsersOwnUrl() {
+        // Act
+        List<URL> urls = shortUrlRepository.findAllByUserIdAndUrlHash(user.getId(), UrlNormalizer.urlHash("HTTPS://www.example.com/a"));
+
+        // Assert
+        assertEquals(1, urls.size());
+        assertEquals(1L, urls.get(0).getId());
+    }
+
+    @Test
+    void findAllByUserIdAndUrlHashIn_ShouldMatchEveryGivenHash() {
+        // Act
+        List<URL> urls = shortUrlRepository.findAllByUserIdAndUrlHashIn(user.getId(), List.of(
+                UrlNormalizer.urlHash("https://www.example.com/a"),
+                UrlNormalizer.urlHash("https://www.example.com/b"),
+                UrlNormalizer.urlHash("https://www.example.com/c")
+        ));
+
+        // Assert
+        assertEquals(2, urls.size());
+    }
+
+    @Test
+    void findByShortCodeAndUserId_ShouldMatchOnlyOwner() {
+        // Act & Assert
+        assertEquals(1L, shortUrlRepository.findByShortCodeAndUserId("code1", user.getId()).orElseThrow().getId());
+        assertTrue(shortUrlRepository.findByShortCodeAndUserId("code1", otherUser.getId()).isEmpty());
+        assertTrue(shortUrlRepository.findByShortCodeAndUserId("code9", user.getId()).isEmpty());
+    }
+
+    @Test
+    void findMaxId_ShouldReturnHighestId() {
+        assertEquals(3L, shortUrlRepository.findMaxId());
+    }
+
+    @Test
+    void lockById_ShouldReturnIdOnlyForExistingUrl() {
+        assertEquals(2L, shortUrlRepository.lockById(2L).orElseThrow());
+        assertTrue(shortUrlRepository.lockById(9L).isEmpty());
+    }
+
+    @Test
+    void hashLookup_ShouldUseUserUrlHashIndex() {
+        // Act
+        Object plan = entityManager.getEntityManager()
+                .createNativeQuery("EXPLAIN SELECT id FROM urls WHERE user_id = " + user.getId()
+                        + " AND url_hash = X'" + "00".repeat(UrlNormalizer.URL_HASH_LENGTH) + "'")
+                .getSingleResult();
+
+        // Assert
+        assertTrue(plan.toString().toUpperCase(Locale.ROOT).contains("IDX_USER_URL_HASH"), plan.toString());
+    }
+
+    @Test
+    void findAllAliases_ShouldReturnOnlyCustomAliases() {
+        // Arrange
+        URL alias = new URL();
+        alias.setId(4L);
+        alias.setOriginalUrl("https://www.example.com/sale");
+        alias.setUrlHash(UrlNormalizer.urlHash("https://www.example.com/sale"));
+        alias.setShortCode("summer-sale");
+        alias.setCustomAlias(true);
+        alias.setUser(entityManager.find(User.class, user.getId()));
+        entityManager.persistAndFlush(alias);
+
+        // Act & Assert
+        assertEquals(List.of("summer-sale"), shortUrlRepository.findAllAliases());
+        assertEquals(List.of("summer-sale"), shortUrlRepository.findAliasesCreatedSince(new Date(System.currentTimeMillis() - 60_000)));
+        assertTrue(shortUrlRepository.findAliasesCreatedSince(new Date(System.currentTimeMillis() + 60_000)).isEmpty());
+        assertTrue(shortUrlRepository.existsByShortCode("summer-sale"));
+        assertFalse(shortUrlRepository.existsByShortCode("winter-sale"));
+    }
+
+    @Test
+    void incrementClickCount_ShouldStopAtLimitAndSetExpiry() {
+        // Arrange
+        URL url = entityManager.find(URL.class, 1L);
+        url.setMaxClicks(2L);
+        entityManager.persistAndFlush(url);
+        entityManager.clear();
+        Date now = new Date();
+
+        // Act
+        int first = shortUrlRepository.incrementClickCount(1L, now);
+        int second = shortUrlRepository.incrementClickCount(1L, now);
+        int third = shortUrlRepository.incrementClickCount(1L, now);
+
+        // Assert
+        assertEquals(1, first);
+        assertEquals(1, second);
+        assertEquals(0, third);
+        entityManager.clear();
+        URL updated = entityManager.find(URL.class, 1L);
+        assertEquals(2, updated.getClickCount());
+        assertNotNull(updated.getExpiresAt());
+    }
+
+    @Test
+    void incrementClickCount_WithoutLimit_ShouldNotCount() {
+        assertEquals(0, shortUrlRepository.incrementClickCount(1L, new Date()));
+    }
+
+    @Test
+    void findExpiredIds_ShouldReturnOnlyExpiredUrlsOldestFirst() {
+        // Arrange
+        long now = System.currentTimeMillis();
+        expire(1L, new Date(now - 1_000));
+        expire(2L, new Date(now + 60_000));
+        expire(3L, new Date(now - 5_000));
+
+        // Act
+        List<Long> ids = shortUrlRepository.findExpiredIds(new Date(now), PageRequest.of(0, 10));
+
+        // Assert
+        assertEquals(List.of(3L, 1L), ids);
+        assertEquals(List.of(3L), shortUrlRepository.findExpiredIds(new Date(now), PageRequest.of(0, 1)));
+    }
+
+    @Test
+    void findSummaries_ShouldPageNewestFirstBreakingTiesById() {
+        // Arrange
+        url(4L, user, "https://www.example.com/c");
+        url(5L, user, "https://www.example.com/d");
+        entityManager.flush();
+        Date earlier = new Date(1_700_000_000_000L);
+        Date later = new Date(1_700_000_060_000L);
+        entityManager.getEntityManager()
+                .createNativeQuery("UPDATE urls SET created_at = CASE WHEN id = 5 THEN :later ELSE :earlier END")
+                .setParameter("earlier", earlier)
+                .setParameter("later", later)
+                .executeUpdate();
+        entityManager.clear();
+
+        // Act
+        List<ShortUrlRepository.UrlSummary> first = shortUrlRepository.findSummariesByUserId(user.getId(), PageRequest.of(0, 2));
+        ShortUrlRepository.UrlSummary last = first.get(1);
+        List<ShortUrlRepository.UrlSummary> second = shortUrlRepository.findSummariesByUserIdBefore(
+                user.getId(), last.getCreatedAt(), last.getId(), PageRequest.of(0, 2));
+
+        // Assert
+        assertEquals(List.of(5L, 4L), first.stream().map(ShortUrlRepository.UrlSummary::getId).toList());
+        assertEquals(List.of(2L, 1L), second.stream().map(ShortUrlRepository.UrlSummary::getId).toList());
+        assertEquals("code5", first.get(0).getShortCode());
+        assertEquals("https://www.example.com/d", first.get(0).getOriginalUrl());
+        assertEquals(later.getTime(), first.get(0).getCreatedAt().getTime());
+    }
+
+    @Test
+    void summaryListing_ShouldUseUserCreatedAtIndex() {
+        // Act
+        Object plan = entityManager.getEntityManager()
+                .createNativeQuery("EXPLAIN SELECT id FROM urls WHERE user_id = " + user.getId()
+                        + " ORDER BY created_at DESC, id DESC LIMIT 10")
+                .getSingleResult();
+
+        // Assert
+        assertTrue(plan.toString().toUpperCase(Locale.ROOT).contains("IDX_USER_CREATED_AT_ID"), plan.toString());
+    }
+
+    private User user(String email) {
+        User user = new User();
+        user.setEmail(email);
+        return entityManager.persist(user);
+    }
+
+    private void url(Long id, User owner, String originalUrl) {
+        URL url = new URL();
+        url.setId(id);
+        url.setOriginalUrl(originalUrl);
+        url.setUrlHash(UrlNormalizer.urlHash(originalUrl));
+        url.setShortCode("code" + id);
+        url.setUser(owner);
+        entityManager.persist(url);
+    }
+
+    private void expire(Long id, Date expiresAt) {
+        URL url = entityManager.find(URL.class, id);
+        url.setExpiresAt(expiresAt);
+        entityManager.persistAndFlush(url);
+    }
+
+}
@@ -0,0 +1,104 @@
+package com.hitanshudhawan.sankshipt.repositories;
+
+import com.hitanshudhawan.sankshipt.models.URL;
+import com.hitanshudhawan.sankshipt.models.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+class UserRepositoryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User user;
+    private User otherUser;
+
+    @BeforeEach
+    void setUp() {
+        user = user("test@example.com");
+        otherUser = user("other@example.com");
+
+        url(1L, user);
+        url(2L, user);
+        url(3L, otherUser);
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void incrementUrlsVersion_ShouldBumpOnlyThatUser() {
+        // Act
+        userRepository.incrementUrlsVersion(user.getId());
+        userRepository.incrementUrlsVersion(user.getId());
+
+        // Assert
+        assertEquals(2L, userRepository.findUrlsVersionById(user.getId()).orElseThrow());
+        assertEquals(0L, userRepository.findUrlsVersionById(otherUser.getId()).orElseThrow());
+        assertTrue(userRepository.findUrlsVersionById(-1L).isEmpty());
+    }
+
+    @Test
+    void incrementUrlsVersionForUrls_ShouldBumpEachOwnerOnce() {
+        // Act
+        int updated = userRepository.incrementUrlsVersionForUrls(List.of(1L, 2L, 4L));
+
+        // Assert
+        assertEquals(1, updated);
+        assertEquals(1L, userRepository.findUrlsVersionById(user.getId()).orElseThrow());
+        assertEquals(0L, userRepository.findUrlsVersionById(otherUser.getId()).orElseThrow());
+    }
+
+    @Test
+    void save_ShouldNotOverwriteUrlsVersion() {
+        // Arrange
+        User stale = userRepository.findById(user.getId()).orElseThrow();
+        userRepository.incrementUrlsVersion(user.getId());
+
+        // Act
+        stale.setEmail("renamed@example.com");
+        userRepository.saveAndFlush(stale);
+        entityManager.clear();
+
+        // Assert
+        assertEquals(1L, userRepository.findUrlsVersionById(user.getId()).orElseThrow());
+    }
+
+    @Test
+    void findIdByAuthUserId_ShouldOnlyFindLinkedUser() {
+        // Arrange
+        User linked = userRepository.findById(user.getId()).orElseThrow();
+        linked.setAuthUserId(7L);
+        userRepository.saveAndFlush(linked);
+
+        // Act & Assert
+        assertEquals(user.getId(), userRepository.findIdByAuthUserId(7L).orElseThrow());
+        assertTrue(userRepository.findIdByAuthUserId(8L).isEmpty());
+    }
+
+    private User user(String email) {
+        User user = new User();
+        user.setEmail(email);
+        return entityManager.persist(user);
+    }
+
+    private void url(Long id, User owner) {
+        URL url = new URL();
+        url.setId(id);
+        url.setOriginalUrl("https://www.example.com/" + id);
+        url.setShortCode("code" + id);
+        url.setUser(owner);
+        entityManager.persist(url);
+    }
+
+}
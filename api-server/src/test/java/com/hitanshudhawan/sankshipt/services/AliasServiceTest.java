@@ -0,0 +1,109 @@
+package com.hitanshudhawan.sankshipt.services;
+
+import com.hitanshudhawan.sankshipt.repositories.ShortUrlRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AliasServiceTest {
+
+    @Mock
+    private ShortUrlRepository shortUrlRepository;
+
+    private AliasServiceImpl aliasService;
+
+    @BeforeEach
+    void setUp() {
+        aliasService = new AliasServiceImpl(shortUrlRepository, 1000, 0.01);
+    }
+
+    @Test
+    void isAliasTaken_BeforeLoad_ShouldAskDatabase() {
+        // Arrange
+        when(shortUrlRepository.existsByShortCode("summer-sale")).thenReturn(true);
+
+        // Act & Assert
+        assertTrue(aliasService.isAliasTaken("summer-sale"));
+        verify(shortUrlRepository).existsByShortCode("summer-sale");
+    }
+
+    @Test
+    void isAliasTaken_UnknownAlias_ShouldAnswerFromMemory() {
+        // Arrange
+        when(shortUrlRepository.findAllAliases()).thenReturn(List.of("summer-sale"));
+        aliasService.reloadAliases();
+
+        // Act
+        boolean taken = aliasService.isAliasTaken("winter-sale");
+
+        // Assert
+        assertFalse(taken);
+        verify(shortUrlRepository, never()).existsByShortCode(anyString());
+    }
+
+    @Test
+    void isAliasTaken_KnownAlias_ShouldConfirmInDatabase() {
+        // Arrange
+        when(shortUrlRepository.findAllAliases()).thenReturn(List.of("summer-sale"));
+        when(shortUrlRepository.existsByShortCode("Summer-Sale")).thenReturn(true);
+        aliasService.reloadAliases();
+
+        // Act & Assert
+        assertTrue(aliasService.isAliasTaken("Summer-Sale"));
+    }
+
+    @Test
+    void recordAlias_ShouldMakeAliasPossiblyTaken() {
+        // Arrange
+        when(shortUrlRepository.findAllAliases()).thenReturn(List.of());
+        aliasService.reloadAliases();
+        when(shortUrlRepository.existsByShortCode("new-alias")).thenReturn(true);
+
+        // Act
+        aliasService.recordAlias("new-alias");
+
+        // Assert
+        assertTrue(aliasService.isAliasTaken("new-alias"));
+    }
+
+    @Test
+    void refreshAliases_ShouldAddAliasesFromOtherInstances() {
+        // Arrange
+        when(shortUrlRepository.findAllAliases()).thenReturn(List.of());
+        aliasService.reloadAliases();
+        when(shortUrlRepository.findAliasesCreatedSince(any(Date.class))).thenReturn(List.of("remote-alias"));
+        when(shortUrlRepository.existsByShortCode("remote-alias")).thenReturn(true);
+
+        // Act
+        aliasService.refreshAliases();
+
+        // Assert
+        assertTrue(aliasService.isAliasTaken("remote-alias"));
+        verify(shortUrlRepository, times(1)).findAllAliases();
+    }
+
+    @Test
+    void refreshAliases_NotLoaded_ShouldReloadEverything() {
+        // Arrange
+        when(shortUrlRepository.findAllAliases()).thenReturn(List.of("summer-sale"));
+
+        // Act
+        aliasService.refreshAliases();
+
+        // Assert
+        verify(shortUrlRepository).findAllAliases();
+        verify(shortUrlRepository, never()).findAliasesCreatedSince(any());
+    }
+
+}
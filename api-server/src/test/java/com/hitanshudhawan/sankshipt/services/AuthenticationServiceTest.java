@@ -1,10 +1,9 @@
 package com.hitanshudhawan.sankshipt.services;
 
-import com.hitanshudhawan.sankshipt.models.User;
+import com.hitanshudhawan.sankshipt.models.UserPrincipal;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockedStatic;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -13,6 +12,9 @@ import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.oauth2.jwt.Jwt;
 
+import java.util.Map;
+import java.util.Optional;
+
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
@@ -31,17 +33,16 @@ class AuthenticationServiceTest {
     @Mock
     private Jwt jwt;
 
-    @InjectMocks
     private AuthenticationServiceImpl authenticationService;
 
-    private User testUser;
+    private UserPrincipal testUser;
     private final String testEmail = "test@example.com";
 
     @BeforeEach
     void setUp() {
-        testUser = new User();
-        testUser.setId(1L);
-        testUser.setEmail(testEmail);
+        authenticationService = new AuthenticationServiceImpl(userService, 2, 60_000);
+
+        testUser = new UserPrincipal(1L, testEmail);
     }
 
     @Test
@@ -51,18 +52,18 @@ class AuthenticationServiceTest {
         when(authentication.isAuthenticated()).thenReturn(true);
         when(authentication.getPrincipal()).thenReturn(jwt);
         when(securityContext.getAuthentication()).thenReturn(authentication);
-        when(userService.getOrCreateUser(testEmail)).thenReturn(testUser);
+        when(userService.getOrCreateUserId(testEmail)).thenReturn(1L);
 
         try (MockedStatic<SecurityContextHolder> mockedStatic = mockStatic(SecurityContextHolder.class)) {
             mockedStatic.when(SecurityContextHolder::getContext).thenReturn(securityContext);
 
             // Act
-            User result = authenticationService.getCurrentUser();
+            UserPrincipal result = authenticationService.getCurrentUser();
 
             // Assert
             assertNotNull(result);
             assertEquals(testUser, result);
-            verify(userService).getOrCreateUser(testEmail);
+            verify(userService).getOrCreateUserId(testEmail);
         }
     }
 
@@ -75,11 +76,11 @@ class AuthenticationServiceTest {
             mockedStatic.when(SecurityContextHolder::getContext).thenReturn(securityContext);
 
             // Act
-            User result = authenticationService.getCurrentUser();
+            UserPrincipal result = authenticationService.getCurrentUser();
 
             // Assert
             assertNull(result);
-            verify(userService, never()).getOrCreateUser(any());
+            verify(userService, never()).getOrCreateUserId(any());
         }
     }
 
@@ -93,11 +94,11 @@ class AuthenticationServiceTest {
             mockedStatic.when(SecurityContextHolder::getContext).thenReturn(securityContext);
 
             // Act
-            User result = authenticationService.getCurrentUser();
+            UserPrincipal result = authenticationService.getCurrentUser();
 
             // Assert
             assertNull(result);
-            verify(userService, never()).getOrCreateUser(any());
+            verify(userService, never()).getOrCreateUserId(any());
         }
     }
 
@@ -112,11 +113,11 @@ class AuthenticationServiceTest {
             mockedStatic.when(SecurityContextHolder::getContext).thenReturn(securityContext);
 
             // Act
-            User result = authenticationService.getCurrentUser();
+            UserPrincipal result = authenticationService.getCurrentUser();
 
             // Assert
             assertNull(result);
-            verify(userService, never()).getOrCreateUser(any());
+            verify(userService, never()).getOrCreateUserId(any());
         }
     }
 
@@ -131,11 +132,11 @@ class AuthenticationServiceTest {
             mockedStatic.when(SecurityContextHolder::getContext).thenReturn(securityContext);
 
             // Act
-            User result = authenticationService.getCurrentUser();
+            UserPrincipal result = authenticationService.getCurrentUser();
 
             // Assert
             assertNull(result);
-            verify(userService, never()).getOrCreateUser(any());
+            verify(userService, never()).getOrCreateUserId(any());
         }
     }
 
@@ -151,11 +152,129 @@ class AuthenticationServiceTest {
             mockedStatic.when(SecurityContextHolder::getContext).thenReturn(securityContext);
 
             // Act
-            User result = authenticationService.getCurrentUser();
+            UserPrincipal result = authenticationService.getCurrentUser();
 
             // Assert
             assertNull(result);
-            verify(userService, never()).getOrCreateUser(any());
+            verify(userService, never()).getOrCreateUserId(any());
+        }
+    }
+
+    @Test
+    void getCurrentUser_RepeatedCalls_ShouldResolveUserIdOnce() {
+        // Arrange
+        when(jwt.getSubject()).thenReturn(testEmail);
+        when(authentication.isAuthenticated()).thenReturn(true);
+        when(authentication.getPrincipal()).thenReturn(jwt);
+        when(securityContext.getAuthentication()).thenReturn(authentication);
+        when(userService.getOrCreateUserId(testEmail)).thenReturn(1L);
+
+        try (MockedStatic<SecurityContextHolder> mockedStatic = mockStatic(SecurityContextHolder.class)) {
+            mockedStatic.when(SecurityContextHolder::getContext).thenReturn(securityContext);
+
+            // Act
+            UserPrincipal first = authenticationService.getCurrentUser();
+            UserPrincipal second = authenticationService.getCurrentUser();
+
+            // Assert
+            assertEquals(testUser, first);
+            assertEquals(testUser, second);
+            verify(userService, times(1)).getOrCreateUserId(testEmail);
+        }
+    }
+
+    @Test
+    void getCurrentUser_CacheFull_ShouldResolveEvictedSubjectAgain() {
+        // Arrange
+        when(authentication.isAuthenticated()).thenReturn(true);
+        when(authentication.getPrincipal()).thenReturn(jwt);
+        when(securityContext.getAuthentication()).thenReturn(authentication);
+        when(userService.getOrCreateUserId(any())).thenReturn(1L, 2L, 3L, 1L);
+
+        try (MockedStatic<SecurityContextHolder> mockedStatic = mockStatic(SecurityContextHolder.class)) {
+            mockedStatic.when(SecurityContextHolder::getContext).thenReturn(securityContext);
+
+            // Act
+            for (String email : new String[]{testEmail, "b@example.com", "c@example.com", testEmail}) {
+                when(jwt.getSubject()).thenReturn(email);
+                authenticationService.getCurrentUser();
+            }
+
+            // Assert
+            verify(userService, times(2)).getOrCreateUserId(testEmail);
+        }
+    }
+
+    @Test
+    void getCurrentUser_CachedIdExpired_ShouldResolveAgain() {
+        // Arrange
+        authenticationService = new AuthenticationServiceImpl(userService, 2, 0);
+        when(jwt.getSubject()).thenReturn(testEmail);
+        when(authentication.isAuthenticated()).thenReturn(true);
+        when(authentication.getPrincipal()).thenReturn(jwt);
+        when(securityContext.getAuthentication()).thenReturn(authentication);
+        when(userService.getOrCreateUserId(testEmail)).thenReturn(1L);
+
+        try (MockedStatic<SecurityContextHolder> mockedStatic = mockStatic(SecurityContextHolder.class)) {
+            mockedStatic.when(SecurityContextHolder::getContext).thenReturn(securityContext);
+
+            // Act
+            authenticationService.getCurrentUser();
+            authenticationService.getCurrentUser();
+
+            // Assert
+            verify(userService, times(2)).getOrCreateUserId(testEmail);
+        }
+    }
+
+    @Test
+    void getCurrentUser_JwtWithUnknownUserIdClaim_ShouldCreateUserByAuthUserId() {
+        // Arrange
+        when(jwt.getSubject()).thenReturn(testEmail);
+        when(jwt.getClaims()).thenReturn(Map.of(AuthenticationServiceImpl.USER_ID_CLAIM, 7L));
+        when(authentication.isAuthenticated()).thenReturn(true);
+        when(authentication.getPrincipal()).thenReturn(jwt);
+        when(securityContext.getAuthentication()).thenReturn(authentication);
+        when(userService.findUserId(7L)).thenReturn(Optional.empty());
+        when(userService.getOrCreateUserId(7L, testEmail)).thenReturn(1L);
+
+        try (MockedStatic<SecurityContextHolder> mockedStatic = mockStatic(SecurityContextHolder.class)) {
+            mockedStatic.when(SecurityContextHolder::getContext).thenReturn(securityContext);
+
+            // Act
+            UserPrincipal result = authenticationService.getCurrentUser();
+
+            // Assert
+            assertEquals(testUser, result);
+            verify(userService, never()).getOrCreateUserId(testEmail);
+        }
+    }
+
+    @Test
+    void getCurrentUser_JwtWithKnownUserIdClaim_ShouldReadIdOnceWithoutWriting() {
+        // Arrange
+        when(jwt.getClaims()).thenReturn(Map.of(AuthenticationServiceImpl.USER_ID_CLAIM, 7L));
+        when(authentication.isAuthenticated()).thenReturn(true);
+        when(authentication.getPrincipal()).thenReturn(jwt);
+        when(securityContext.getAuthentication()).thenReturn(authentication);
+        when(userService.findUserId(7L)).thenReturn(Optional.of(1L));
+
+        try (MockedStatic<SecurityContextHolder> mockedStatic = mockStatic(SecurityContextHolder.class)) {
+            mockedStatic.when(SecurityContextHolder::getContext).thenReturn(securityContext);
+
+            // Act
+            when(jwt.getSubject()).thenReturn(testEmail);
+            UserPrincipal first = authenticationService.getCurrentUser();
+            // The same auth server user after an email change
+            when(jwt.getSubject()).thenReturn("renamed@example.com");
+            UserPrincipal second = authenticationService.getCurrentUser();
+
+            // Assert
+            assertEquals(1L, first.id());
+            assertEquals(1L, second.id());
+            verify(userService, times(1)).findUserId(7L);
+            verify(userService, never()).getOrCreateUserId(anyLong(), anyString());
+            verify(userService, never()).getOrCreateUserId(anyString());
         }
     }
 }
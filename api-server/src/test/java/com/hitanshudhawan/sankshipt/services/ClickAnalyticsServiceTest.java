@@ -2,27 +2,41 @@ package com.hitanshudhawan.sankshipt.services;
 
 import com.hitanshudhawan.sankshipt.models.Click;
 import com.hitanshudhawan.sankshipt.models.URL;
+import com.hitanshudhawan.sankshipt.models.UrlClickStats;
 import com.hitanshudhawan.sankshipt.models.User;
 import com.hitanshudhawan.sankshipt.repositories.ClickRepository;
+import com.hitanshudhawan.sankshipt.repositories.UrlClickStatsRepository;
+import com.hitanshudhawan.sankshipt.repositories.UserRepository;
 import jakarta.servlet.http.HttpServletRequest;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.projection.ProjectionFactory;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Function;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -31,20 +45,37 @@ class ClickAnalyticsServiceTest {
     @Mock
     private ClickRepository clickRepository;
 
+    @Mock
+    private UrlClickStatsRepository urlClickStatsRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private ClickFilterService clickFilterService;
+
+    @Mock
+    private ReferrerAnalyticsService referrerAnalyticsService;
+
+    @Mock
+    private ClickRateService clickRateService;
+
     @Mock
     private HttpServletRequest httpServletRequest;
 
-    @InjectMocks
     private ClickAnalyticsServiceImpl clickAnalyticsService;
 
     private URL testUrl;
     private User testUser;
     private Click testClick;
+    private final ProjectionFactory projectionFactory = new SpelAwareProxyProjectionFactory();
     private final String userAgent = "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36";
     private final String shortCode = "abc123";
 
     @BeforeEach
     void setUp() {
+        clickAnalyticsService = new ClickAnalyticsServiceImpl(clickRepository, urlClickStatsRepository, userRepository, clickFilterService, referrerAnalyticsService, clickRateService, 3, 0);
+
         testUser = new User();
         testUser.setId(1L);
         testUser.setEmail("test@example.com");
@@ -66,6 +97,8 @@ class ClickAnalyticsServiceTest {
     void recordClick_ShouldCreateAndSaveClick() {
         // Arrange
         when(httpServletRequest.getHeader("User-Agent")).thenReturn(userAgent);
+        when(clickFilterService.evaluate(eq(testUrl), eq(userAgent), any()))
+                .thenReturn(ClickFilterService.Decision.ACCEPT);
         when(clickRepository.save(any(Click.class))).thenReturn(testClick);
 
         // Act
@@ -82,7 +115,9 @@ class ClickAnalyticsServiceTest {
     void recordClick_WithNullUserAgent_ShouldStillCreateClick() {
         // Arrange
         when(httpServletRequest.getHeader("User-Agent")).thenReturn(null);
-        
+        when(clickFilterService.evaluate(eq(testUrl), isNull(), any()))
+                .thenReturn(ClickFilterService.Decision.ACCEPT);
+
         Click clickWithNullUserAgent = new Click();
         clickWithNullUserAgent.setId(1L);
         clickWithNullUserAgent.setUrl(testUrl);
@@ -103,49 +138,267 @@ class ClickAnalyticsServiceTest {
     }
 
     @Test
-    void getClickCountForUrl_ShouldReturnCorrectCount() {
+    void recordClick_WithReferer_ShouldStoreAndCountReferrerHost() {
+        // Arrange
+        when(httpServletRequest.getHeader("User-Agent")).thenReturn(userAgent);
+        lenient().when(httpServletRequest.getHeader("Referer")).thenReturn("https://www.Google.com/search?q=sankshipt");
+        when(clickFilterService.evaluate(eq(testUrl), eq(userAgent), any()))
+                .thenReturn(ClickFilterService.Decision.ACCEPT);
+        when(clickRepository.save(any(Click.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        Click result = clickAnalyticsService.recordClick(testUrl, httpServletRequest);
+
+        // Assert
+        assertEquals("google.com", result.getReferrer());
+        verify(referrerAnalyticsService).recordReferrer(testUrl, "google.com");
+        verify(clickRateService).recordClick(testUrl);
+    }
+
+    @Test
+    void recordClick_BotUserAgent_ShouldNotSaveClick() {
+        // Arrange
+        when(httpServletRequest.getHeader("User-Agent")).thenReturn("Slackbot-LinkExpanding 1.0");
+        when(clickFilterService.evaluate(eq(testUrl), eq("Slackbot-LinkExpanding 1.0"), any()))
+                .thenReturn(ClickFilterService.Decision.BOT);
+
+        // Act
+        Click result = clickAnalyticsService.recordClick(testUrl, httpServletRequest);
+
+        // Assert
+        assertNull(result);
+        verify(clickRepository, never()).save(any(Click.class));
+        verify(referrerAnalyticsService, never()).recordReferrer(any(), any());
+        verify(clickRateService, never()).recordClick(any());
+    }
+
+    @Test
+    void recordClick_DuplicateClick_ShouldNotSaveClick() {
+        // Arrange
+        when(httpServletRequest.getHeader("User-Agent")).thenReturn(userAgent);
+        when(httpServletRequest.getRemoteAddr()).thenReturn("203.0.113.7");
+        when(clickFilterService.evaluate(testUrl, userAgent, "203.0.113.7"))
+                .thenReturn(ClickFilterService.Decision.DUPLICATE);
+
+        // Act
+        Click result = clickAnalyticsService.recordClick(testUrl, httpServletRequest);
+
+        // Assert
+        assertNull(result);
+        verify(clickRepository, never()).save(any(Click.class));
+    }
+
+    @Test
+    void recordClick_ShouldUseRemoteAddressAndIgnoreForwardedHeader() {
+        // Arrange
+        when(httpServletRequest.getHeader("User-Agent")).thenReturn(userAgent);
+        when(httpServletRequest.getRemoteAddr()).thenReturn("10.0.0.1");
+        when(clickFilterService.evaluate(testUrl, userAgent, "10.0.0.1"))
+                .thenReturn(ClickFilterService.Decision.ACCEPT);
+        when(clickRepository.save(any(Click.class))).thenReturn(testClick);
+
+        // Act
+        Click result = clickAnalyticsService.recordClick(testUrl, httpServletRequest);
+
+        // Assert
+        assertEquals(testClick, result);
+        verify(clickFilterService).evaluate(testUrl, userAgent, "10.0.0.1");
+        verify(httpServletRequest, never()).getHeader("X-Forwarded-For");
+    }
+
+    @Test
+    void recordClick_AboveSamplingThreshold_ShouldStoreOneInNClicks() {
         // Arrange
-        Long expectedCount = 5L;
-        when(clickRepository.countByUrlShortCode(shortCode)).thenReturn(expectedCount);
+        when(httpServletRequest.getHeader("User-Agent")).thenReturn(userAgent);
+        when(clickFilterService.evaluate(eq(testUrl), eq(userAgent), any()))
+                .thenReturn(ClickFilterService.Decision.ACCEPT);
+        when(clickRepository.save(any(Click.class))).thenAnswer(invocation -> {
+            Click click = invocation.getArgument(0);
+            click.setId(100L);
+            return click;
+        });
+
+        // Act
+        List<Click> results = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            results.add(clickAnalyticsService.recordClick(testUrl, httpServletRequest));
+        }
+
+        // Assert
+        List<Click> stored = results.stream().filter(Objects::nonNull).toList();
+        assertTrue(stored.size() < 12);
+        assertTrue(stored.stream().mapToInt(Click::getSampleRate).sum() <= 12);
+        assertTrue(stored.stream().anyMatch(click -> click.getSampleRate() > 1));
+        verify(clickRepository, times(stored.size())).save(any(Click.class));
+    }
+
+    @Test
+    void recordClick_BelowSamplingThreshold_ShouldStoreEveryClickWithRateOne() {
+        // Arrange
+        when(httpServletRequest.getHeader("User-Agent")).thenReturn(userAgent);
+        when(clickFilterService.evaluate(eq(testUrl), eq(userAgent), any()))
+                .thenReturn(ClickFilterService.Decision.ACCEPT);
+        when(clickRepository.save(any(Click.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        Click first = clickAnalyticsService.recordClick(testUrl, httpServletRequest);
+        Click second = clickAnalyticsService.recordClick(testUrl, httpServletRequest);
+
+        // Assert
+        assertEquals(1, first.getSampleRate());
+        assertEquals(1, second.getSampleRate());
+    }
+
+    @Test
+    void flushSampledClicks_SkippedClicks_ShouldBeAddedToLastStoredClick() {
+        // Arrange
+        when(httpServletRequest.getHeader("User-Agent")).thenReturn(userAgent);
+        when(clickFilterService.evaluate(eq(testUrl), eq(userAgent), any()))
+                .thenReturn(ClickFilterService.Decision.ACCEPT);
+        when(clickRepository.save(any(Click.class))).thenAnswer(invocation -> {
+            Click click = invocation.getArgument(0);
+            click.setId(100L);
+            return click;
+        });
+
+        int storedWeight = 0;
+        for (int i = 0; i < 12; i++) {
+            Click click = clickAnalyticsService.recordClick(testUrl, httpServletRequest);
+            if (click != null) {
+                storedWeight += click.getSampleRate();
+            }
+        }
+
+        // Act
+        clickAnalyticsService.flushSampledClicks();
+
+        // Assert
+        if (storedWeight < 12) {
+            verify(clickRepository).addToSampleRate(100L, 12 - storedWeight);
+        } else {
+            verify(clickRepository, never()).addToSampleRate(anyLong(), anyLong());
+        }
+    }
+
+    @Test
+    void flushClickTotals_ShouldAddEveryAcceptedClickIncludingSampledOnes() {
+        // Arrange
+        when(httpServletRequest.getHeader("User-Agent")).thenReturn(userAgent);
+        when(clickFilterService.evaluate(eq(testUrl), eq(userAgent), any()))
+                .thenReturn(ClickFilterService.Decision.ACCEPT);
+        when(clickRepository.save(any(Click.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        long before = System.currentTimeMillis();
+        for (int i = 0; i < 12; i++) {
+            clickAnalyticsService.recordClick(testUrl, httpServletRequest);
+        }
+
+        // Act
+        clickAnalyticsService.flushClickTotals();
+        clickAnalyticsService.flushClickTotals();
+
+        // Assert
+        verify(urlClickStatsRepository).incrementClicks(eq(1L), eq(12L), argThat(date -> date.getTime() >= before));
+        verify(userRepository).incrementUrlsVersionForUrls(List.of(1L));
+    }
+
+    @Test
+    void flushClickTotals_FilteredClicks_ShouldNotBeCounted() {
+        // Arrange
+        when(httpServletRequest.getHeader("User-Agent")).thenReturn("Slackbot-LinkExpanding 1.0");
+        when(clickFilterService.evaluate(eq(testUrl), eq("Slackbot-LinkExpanding 1.0"), any()))
+                .thenReturn(ClickFilterService.Decision.BOT);
+        clickAnalyticsService.recordClick(testUrl, httpServletRequest);
 
         // Act
-        Long result = clickAnalyticsService.getClickCountForUrl(testUrl);
+        clickAnalyticsService.flushClickTotals();
 
         // Assert
-        assertEquals(expectedCount, result);
-        verify(clickRepository).countByUrlShortCode(shortCode);
+        verify(urlClickStatsRepository, never()).incrementClicks(anyLong(), anyLong(), any());
+        verify(userRepository, never()).incrementUrlsVersionForUrls(any());
     }
 
     @Test
-    void getClickCountForUrl_NoClicks_ShouldReturnZero() {
+    void flushClickTotals_RepositoryFailure_ShouldRetryOnNextFlush() {
         // Arrange
-        when(clickRepository.countByUrlShortCode(shortCode)).thenReturn(0L);
+        when(httpServletRequest.getHeader("User-Agent")).thenReturn(userAgent);
+        when(clickFilterService.evaluate(eq(testUrl), eq(userAgent), any()))
+                .thenReturn(ClickFilterService.Decision.ACCEPT);
+        when(clickRepository.save(any(Click.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        clickAnalyticsService.recordClick(testUrl, httpServletRequest);
+        doThrow(new RuntimeException("Database unavailable"))
+                .doNothing()
+                .when(urlClickStatsRepository).incrementClicks(eq(1L), eq(1L), any());
 
         // Act
-        Long result = clickAnalyticsService.getClickCountForUrl(testUrl);
+        clickAnalyticsService.flushClickTotals();
+        clickAnalyticsService.flushClickTotals();
 
         // Assert
-        assertEquals(0L, result);
-        verify(clickRepository).countByUrlShortCode(shortCode);
+        verify(urlClickStatsRepository, times(2)).incrementClicks(eq(1L), eq(1L), any());
+        verify(userRepository, times(1)).incrementUrlsVersionForUrls(List.of(1L));
+    }
+
+    @Test
+    void getClickCount_ShouldReadTotalAndVersionFromOneRow() {
+        // Arrange
+        UrlClickStats stats = new UrlClickStats();
+        stats.setUrlId(1L);
+        stats.setTotalClicks(42);
+        stats.setClicksVersion(7);
+        when(urlClickStatsRepository.findById(1L)).thenReturn(Optional.of(stats));
+        when(urlClickStatsRepository.findById(2L)).thenReturn(Optional.empty());
+        URL otherUrl = new URL();
+        otherUrl.setId(2L);
+
+        // Act & Assert
+        assertEquals(new ClickAnalyticsService.ClickCount(42, 7), clickAnalyticsService.getClickCount(testUrl));
+        assertEquals(new ClickAnalyticsService.ClickCount(0, 0), clickAnalyticsService.getClickCount(otherUrl));
+        verifyNoInteractions(clickRepository);
+    }
+
+    @Test
+    void getClickTotals_ShouldReadAllUrlsWithOneQuery() {
+        // Arrange
+        Date lastClickedAt = new Date();
+        UrlClickStats stats = new UrlClickStats();
+        stats.setUrlId(1L);
+        stats.setTotalClicks(42);
+        stats.setLastClickedAt(lastClickedAt);
+        when(urlClickStatsRepository.findAllByUrlIdIn(List.of(1L, 2L))).thenReturn(List.of(stats));
+
+        // Act
+        Map<Long, ClickAnalyticsService.ClickTotals> totals = clickAnalyticsService.getClickTotals(List.of(1L, 2L));
+
+        // Assert
+        assertEquals(Map.of(1L, new ClickAnalyticsService.ClickTotals(42, lastClickedAt)), totals);
+        verify(urlClickStatsRepository).findAllByUrlIdIn(List.of(1L, 2L));
+        verifyNoInteractions(clickRepository);
+    }
+
+    @Test
+    void getClickTotals_NoUrls_ShouldNotQuery() {
+        // Act & Assert
+        assertTrue(clickAnalyticsService.getClickTotals(List.of()).isEmpty());
+        verifyNoInteractions(urlClickStatsRepository);
     }
 
     @Test
     void getClicksForUrl_WithDefaults_ShouldReturnPagedResults() {
         // Arrange
-        List<Click> clickList = Arrays.asList(testClick);
-        Page<Click> clickPage = new PageImpl<>(clickList);
+        ClickRepository.ClickView clickView = projectionFactory.createProjection(ClickRepository.ClickView.class, testClick);
+        Page<ClickRepository.ClickView> clickPage = new PageImpl<>(List.of(clickView));
         
-        PageRequest expectedPageRequest = PageRequest.of(0, 20, Sort.by(Sort.Order.desc("clickedAt")));
-        when(clickRepository.findByUrl(eq(testUrl), eq(expectedPageRequest))).thenReturn(clickPage);
+        PageRequest expectedPageRequest = PageRequest.of(0, 20, Sort.by(Sort.Order.desc("clickedAt"), Sort.Order.desc("id")));
+        stubClickPage(expectedPageRequest, clickPage);
 
         // Act
-        Page<Click> result = clickAnalyticsService.getClicksForUrl(testUrl, null, null, null);
+        Page<ClickRepository.ClickView> result = clickAnalyticsService.getClicksForUrl(testUrl, null, null, null, null, null, null);
 
         // Assert
         assertNotNull(result);
         assertEquals(1, result.getContent().size());
-        assertEquals(testClick, result.getContent().get(0));
-        verify(clickRepository).findByUrl(eq(testUrl), eq(expectedPageRequest));
+        assertSame(clickView, result.getContent().get(0));
+        verify(clickRepository).findBy(any(Specification.class), any());
     }
 
     @Test
@@ -155,20 +408,20 @@ class ClickAnalyticsServiceTest {
         int pageSize = 10;
         String sortOrder = "ASC";
         
-        List<Click> clickList = Arrays.asList(testClick);
-        Page<Click> clickPage = new PageImpl<>(clickList);
+        ClickRepository.ClickView clickView = projectionFactory.createProjection(ClickRepository.ClickView.class, testClick);
+        Page<ClickRepository.ClickView> clickPage = new PageImpl<>(List.of(clickView));
         
-        PageRequest expectedPageRequest = PageRequest.of(pageNumber, pageSize, Sort.by(Sort.Order.asc("clickedAt")));
-        when(clickRepository.findByUrl(eq(testUrl), eq(expectedPageRequest))).thenReturn(clickPage);
+        PageRequest expectedPageRequest = PageRequest.of(pageNumber, pageSize, Sort.by(Sort.Order.asc("clickedAt"), Sort.Order.asc("id")));
+        stubClickPage(expectedPageRequest, clickPage);
 
         // Act
-        Page<Click> result = clickAnalyticsService.getClicksForUrl(testUrl, pageNumber, pageSize, sortOrder);
+        Page<ClickRepository.ClickView> result = clickAnalyticsService.getClicksForUrl(testUrl, null, null, null, pageNumber, pageSize, sortOrder);
 
         // Assert
         assertNotNull(result);
         assertEquals(1, result.getContent().size());
-        assertEquals(testClick, result.getContent().get(0));
-        verify(clickRepository).findByUrl(eq(testUrl), eq(expectedPageRequest));
+        assertSame(clickView, result.getContent().get(0));
+        verify(clickRepository).findBy(any(Specification.class), any());
     }
 
     @Test
@@ -178,37 +431,48 @@ class ClickAnalyticsServiceTest {
         int pageSize = 5;
         String sortOrder = "DESC";
         
-        List<Click> clickList = Arrays.asList(testClick);
-        Page<Click> clickPage = new PageImpl<>(clickList);
+        ClickRepository.ClickView clickView = projectionFactory.createProjection(ClickRepository.ClickView.class, testClick);
+        Page<ClickRepository.ClickView> clickPage = new PageImpl<>(List.of(clickView));
         
-        PageRequest expectedPageRequest = PageRequest.of(pageNumber, pageSize, Sort.by(Sort.Order.desc("clickedAt")));
-        when(clickRepository.findByUrl(eq(testUrl), eq(expectedPageRequest))).thenReturn(clickPage);
+        PageRequest expectedPageRequest = PageRequest.of(pageNumber, pageSize, Sort.by(Sort.Order.desc("clickedAt"), Sort.Order.desc("id")));
+        stubClickPage(expectedPageRequest, clickPage);
 
         // Act
-        Page<Click> result = clickAnalyticsService.getClicksForUrl(testUrl, pageNumber, pageSize, sortOrder);
+        Page<ClickRepository.ClickView> result = clickAnalyticsService.getClicksForUrl(testUrl, null, null, null, pageNumber, pageSize, sortOrder);
 
         // Assert
         assertNotNull(result);
         assertEquals(1, result.getContent().size());
-        assertEquals(testClick, result.getContent().get(0));
-        verify(clickRepository).findByUrl(eq(testUrl), eq(expectedPageRequest));
+        assertSame(clickView, result.getContent().get(0));
+        verify(clickRepository).findBy(any(Specification.class), any());
     }
 
     @Test
     void getClicksForUrl_EmptyResults_ShouldReturnEmptyPage() {
         // Arrange
-        Page<Click> emptyPage = new PageImpl<>(Arrays.asList());
+        Page<ClickRepository.ClickView> emptyPage = new PageImpl<>(List.of());
         
-        PageRequest expectedPageRequest = PageRequest.of(0, 20, Sort.by(Sort.Order.desc("clickedAt")));
-        when(clickRepository.findByUrl(eq(testUrl), eq(expectedPageRequest))).thenReturn(emptyPage);
+        PageRequest expectedPageRequest = PageRequest.of(0, 20, Sort.by(Sort.Order.desc("clickedAt"), Sort.Order.desc("id")));
+        stubClickPage(expectedPageRequest, emptyPage);
 
         // Act
-        Page<Click> result = clickAnalyticsService.getClicksForUrl(testUrl, null, null, null);
+        Page<ClickRepository.ClickView> result = clickAnalyticsService.getClicksForUrl(testUrl, null, null, null, null, null, null);
 
         // Assert
         assertNotNull(result);
         assertTrue(result.getContent().isEmpty());
         assertEquals(0, result.getTotalElements());
-        verify(clickRepository).findByUrl(eq(testUrl), eq(expectedPageRequest));
+        verify(clickRepository).findBy(any(Specification.class), any());
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private void stubClickPage(PageRequest expectedPageRequest, Page<ClickRepository.ClickView> clickPage) {
+        // Runs the service's fluent query against a stub that only answers the expected page request
+        when(clickRepository.findBy(any(Specification.class), any())).thenAnswer(invocation -> {
+            JpaSpecificationExecutor.SpecificationFluentQuery query = mock(JpaSpecificationExecutor.SpecificationFluentQuery.class, RETURNS_SELF);
+            when(query.page(expectedPageRequest)).thenReturn(clickPage);
+            Function<JpaSpecificationExecutor.SpecificationFluentQuery, Object> queryFunction = invocation.getArgument(1);
+            return queryFunction.apply(query);
+        });
     }
 }
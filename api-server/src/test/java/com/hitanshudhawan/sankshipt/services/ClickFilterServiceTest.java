@@ -0,0 +1,119 @@
+package com.hitanshudhawan.sankshipt.services;
+
+import com.hitanshudhawan.sankshipt.models.URL;
+import com.hitanshudhawan.sankshipt.repositories.UrlClickStatsRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ClickFilterServiceTest {
+
+    @Mock
+    private UrlClickStatsRepository urlClickStatsRepository;
+
+    private ClickFilterServiceImpl clickFilterService;
+
+    private URL testUrl;
+    private final String userAgent = "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36";
+    private final String clientAddress = "203.0.113.7";
+
+    @BeforeEach
+    void setUp() {
+        clickFilterService = new ClickFilterServiceImpl(urlClickStatsRepository, 100, 60_000, 4);
+
+        testUrl = new URL();
+        testUrl.setId(1L);
+        testUrl.setShortCode("abc123");
+        testUrl.setOriginalUrl("https://www.example.com");
+    }
+
+    @Test
+    void evaluate_FirstBrowserClick_ShouldAccept() {
+        // Act
+        ClickFilterService.Decision result = clickFilterService.evaluate(testUrl, userAgent, clientAddress);
+
+        // Assert
+        assertEquals(ClickFilterService.Decision.ACCEPT, result);
+    }
+
+    @Test
+    void evaluate_BotUserAgent_ShouldReturnBot() {
+        // Act
+        ClickFilterService.Decision result = clickFilterService.evaluate(testUrl, "Twitterbot/1.0", clientAddress);
+
+        // Assert
+        assertEquals(ClickFilterService.Decision.BOT, result);
+    }
+
+    @Test
+    void evaluate_RepeatedClickBySameVisitor_ShouldReturnDuplicate() {
+        // Act
+        clickFilterService.evaluate(testUrl, userAgent, clientAddress);
+        ClickFilterService.Decision result = clickFilterService.evaluate(testUrl, userAgent, clientAddress);
+
+        // Assert
+        assertEquals(ClickFilterService.Decision.DUPLICATE, result);
+    }
+
+    @Test
+    void evaluate_DifferentVisitorsOrUrls_ShouldAccept() {
+        // Arrange
+        URL otherUrl = new URL();
+        otherUrl.setId(2L);
+
+        // Act
+        clickFilterService.evaluate(testUrl, userAgent, clientAddress);
+
+        // Assert
+        assertEquals(ClickFilterService.Decision.ACCEPT, clickFilterService.evaluate(testUrl, userAgent, "198.51.100.4"));
+        assertEquals(ClickFilterService.Decision.ACCEPT, clickFilterService.evaluate(otherUrl, userAgent, clientAddress));
+    }
+
+    @Test
+    void flushFilteredCounts_ShouldWriteAggregatedCounts() {
+        // Arrange
+        clickFilterService.evaluate(testUrl, "Googlebot/2.1", clientAddress);
+        clickFilterService.evaluate(testUrl, "curl/8.4.0", clientAddress);
+        clickFilterService.evaluate(testUrl, userAgent, clientAddress);
+        clickFilterService.evaluate(testUrl, userAgent, clientAddress);
+
+        // Act
+        clickFilterService.flushFilteredCounts();
+
+        // Assert
+        verify(urlClickStatsRepository).incrementFilteredClicks(1L, 2, 1);
+    }
+
+    @Test
+    void flushFilteredCounts_NothingPending_ShouldNotWrite() {
+        // Act
+        clickFilterService.flushFilteredCounts();
+
+        // Assert
+        verify(urlClickStatsRepository, never()).incrementFilteredClicks(anyLong(), anyLong(), anyLong());
+    }
+
+    @Test
+    void flushFilteredCounts_RepositoryFailure_ShouldRetryOnNextFlush() {
+        // Arrange
+        clickFilterService.evaluate(testUrl, "Googlebot/2.1", clientAddress);
+        doThrow(new RuntimeException("Database unavailable"))
+                .doNothing()
+                .when(urlClickStatsRepository).incrementFilteredClicks(1L, 1, 0);
+
+        // Act
+        clickFilterService.flushFilteredCounts();
+        clickFilterService.flushFilteredCounts();
+
+        // Assert
+        verify(urlClickStatsRepository, times(2)).incrementFilteredClicks(1L, 1, 0);
+    }
+
+}
@@ -0,0 +1,89 @@
+package com.hitanshudhawan.sankshipt.services;
+
+import com.hitanshudhawan.sankshipt.models.URL;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ClickRateServiceTest {
+
+    private ClickRateServiceImpl clickRateService;
+
+    private URL testUrl;
+    private URL otherUrl;
+
+    @BeforeEach
+    void setUp() {
+        clickRateService = new ClickRateServiceImpl(4);
+
+        testUrl = new URL();
+        testUrl.setId(1L);
+        testUrl.setShortCode("abc123");
+
+        otherUrl = new URL();
+        otherUrl.setId(2L);
+        otherUrl.setShortCode("def456");
+    }
+
+    @Test
+    void getClickRates_NoClicks_ShouldReturnZeros() {
+        // Act
+        ClickRateService.ClickRates rates = clickRateService.getClickRates(testUrl);
+
+        // Assert
+        assertEquals(new ClickRateService.ClickRates(0, 0, 0), rates);
+        assertEquals(0, clickRateService.trackedUrlCount());
+    }
+
+    @Test
+    void recordClick_ShouldCountInEveryWindow() {
+        // Act
+        clickRateService.recordClick(testUrl);
+        clickRateService.recordClick(testUrl);
+        clickRateService.recordClick(otherUrl);
+
+        // Assert
+        assertEquals(new ClickRateService.ClickRates(2, 2, 2), clickRateService.getClickRates(testUrl));
+        assertEquals(new ClickRateService.ClickRates(1, 1, 1), clickRateService.getClickRates(otherUrl));
+        assertEquals(2, clickRateService.trackedUrlCount());
+    }
+
+    @Test
+    void evictIdleWindows_RecentlyClicked_ShouldKeepWindow() {
+        // Arrange
+        clickRateService.recordClick(testUrl);
+
+        // Act
+        clickRateService.evictIdleWindows();
+
+        // Assert
+        assertEquals(1, clickRateService.trackedUrlCount());
+        assertEquals(1, clickRateService.getClickRates(testUrl).lastDay());
+    }
+
+    @Test
+    void recordClick_ConcurrentClicks_ShouldCountAll() throws InterruptedException {
+        // Arrange
+        Thread[] threads = new Thread[8];
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = new Thread(() -> {
+                for (int j = 0; j < 1_000; j++) {
+                    clickRateService.recordClick(testUrl);
+                }
+            });
+        }
+
+        // Act
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        // Assert
+        assertEquals(8_000, clickRateService.getClickRates(testUrl).lastDay());
+    }
+
+}
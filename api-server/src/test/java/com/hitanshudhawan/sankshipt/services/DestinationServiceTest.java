@@ -0,0 +1,133 @@
+package com.hitanshudhawan.sankshipt.services;
+
+import com.hitanshudhawan.sankshipt.models.URL;
+import com.hitanshudhawan.sankshipt.models.UrlDestination;
+import com.hitanshudhawan.sankshipt.repositories.UrlDestinationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DestinationServiceTest {
+
+    @Mock
+    private UrlDestinationRepository urlDestinationRepository;
+
+    private DestinationServiceImpl destinationService;
+
+    private URL testUrl;
+
+    @BeforeEach
+    void setUp() {
+        destinationService = new DestinationServiceImpl(urlDestinationRepository);
+
+        testUrl = new URL();
+        testUrl.setId(1L);
+        testUrl.setShortCode("abc123");
+        testUrl.setOriginalUrl("https://www.example.com");
+    }
+
+    @Test
+    void selectDestination_NotWeighted_ShouldReturnOriginalUrl() {
+        // Act
+        String result = destinationService.selectDestination(testUrl);
+
+        // Assert
+        assertEquals("https://www.example.com", result);
+        verifyNoInteractions(urlDestinationRepository);
+    }
+
+    @Test
+    void selectDestination_Weighted_ShouldBuildTableOnceAndReuseIt() {
+        // Arrange
+        testUrl.setWeighted(true);
+        when(urlDestinationRepository.findByUrlIdOrderByPosition(1L))
+                .thenReturn(List.of(destination(10L, "https://a.example.com", 1), destination(11L, "https://b.example.com", 1)));
+
+        // Act
+        String first = destinationService.selectDestination(testUrl);
+        String second = destinationService.selectDestination(testUrl);
+
+        // Assert
+        assertTrue(List.of("https://a.example.com", "https://b.example.com").contains(first));
+        assertTrue(List.of("https://a.example.com", "https://b.example.com").contains(second));
+        assertNotNull(testUrl.getDestinationTable());
+        verify(urlDestinationRepository, times(1)).findByUrlIdOrderByPosition(1L);
+    }
+
+    @Test
+    void selectDestination_WeightedWithoutRows_ShouldFallBackToOriginalUrl() {
+        // Arrange
+        testUrl.setWeighted(true);
+        when(urlDestinationRepository.findByUrlIdOrderByPosition(1L)).thenReturn(List.of());
+
+        // Act
+        String result = destinationService.selectDestination(testUrl);
+
+        // Assert
+        assertEquals("https://www.example.com", result);
+        assertNull(testUrl.getDestinationTable());
+    }
+
+    @Test
+    void flushDestinationClicks_ShouldWriteOneIncrementPerDestination() {
+        // Arrange
+        testUrl.setWeighted(true);
+        when(urlDestinationRepository.findByUrlIdOrderByPosition(1L))
+                .thenReturn(List.of(destination(10L, "https://a.example.com", 1)));
+        destinationService.selectDestination(testUrl);
+        destinationService.selectDestination(testUrl);
+        destinationService.selectDestination(testUrl);
+
+        // Act
+        destinationService.flushDestinationClicks();
+        destinationService.flushDestinationClicks();
+
+        // Assert
+        verify(urlDestinationRepository, times(1)).incrementClicks(10L, 3L);
+    }
+
+    @Test
+    void flushDestinationClicks_NothingRecorded_ShouldNotTouchDatabase() {
+        // Act
+        destinationService.flushDestinationClicks();
+
+        // Assert
+        verify(urlDestinationRepository, never()).incrementClicks(anyLong(), anyLong());
+    }
+
+    @Test
+    void flushDestinationClicks_DatabaseFailure_ShouldRetryOnNextFlush() {
+        // Arrange
+        testUrl.setWeighted(true);
+        when(urlDestinationRepository.findByUrlIdOrderByPosition(1L))
+                .thenReturn(List.of(destination(10L, "https://a.example.com", 1)));
+        destinationService.selectDestination(testUrl);
+        doThrow(new RuntimeException("Database error")).doReturn(1)
+                .when(urlDestinationRepository).incrementClicks(10L, 1L);
+
+        // Act
+        destinationService.flushDestinationClicks();
+        destinationService.flushDestinationClicks();
+
+        // Assert
+        verify(urlDestinationRepository, times(2)).incrementClicks(10L, 1L);
+    }
+
+    private static UrlDestination destination(Long id, String destinationUrl, long weight) {
+        UrlDestination destination = new UrlDestination();
+        destination.setId(id);
+        destination.setUrlId(1L);
+        destination.setDestinationUrl(destinationUrl);
+        destination.setWeight(weight);
+        return destination;
+    }
+}
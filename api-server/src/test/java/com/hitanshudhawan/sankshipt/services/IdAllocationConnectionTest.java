@@ -0,0 +1,70 @@
+package com.hitanshudhawan.sankshipt.services;
+
+import com.hitanshudhawan.sankshipt.models.IdBlock;
+import com.hitanshudhawan.sankshipt.repositories.IdBlockRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.transaction.BeforeTransaction;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the block allocator against a pool of a single connection, held by the caller's transaction,
+ * so that reserving a block on the caller's thread would time out instead of handing out an id.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:ids;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.datasource.hikari.maximum-pool-size=1",
+        "spring.datasource.hikari.connection-timeout=250",
+        "sankshipt.ids.block-size=3"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(IdAllocationServiceImpl.class)
+class IdAllocationConnectionTest {
+
+    private static final int BLOCK_SIZE = 3;
+
+    @Autowired
+    private IdAllocationService idAllocationService;
+
+    @Autowired
+    private IdBlockRepository idBlockRepository;
+
+    private long firstId;
+
+    @BeforeTransaction
+    void reserveBlocks() throws InterruptedException {
+        firstId = idAllocationService.nextUrlId();
+        // Wait until the spare block has been reserved as well, while the connection is still free
+        long reservedUpTo = firstId + 2 * BLOCK_SIZE;
+        for (int i = 0; i < 100 && nextUnreservedId() < reservedUpTo; i++) {
+            Thread.sleep(20);
+        }
+        assertEquals(reservedUpTo, nextUnreservedId());
+    }
+
+    private long nextUnreservedId() {
+        return idBlockRepository.findById(IdAllocationServiceImpl.URL_SEQUENCE).map(IdBlock::getNextId).orElse(0L);
+    }
+
+    @Test
+    void nextUrlId_CallerHoldsOnlyConnection_ShouldCrossBlockBoundary() {
+        // Act
+        long[] ids = new long[BLOCK_SIZE + 1];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = idAllocationService.nextUrlId();
+        }
+
+        // Assert
+        for (int i = 0; i < ids.length; i++) {
+            assertEquals(firstId + 1 + i, ids[i]);
+        }
+    }
+
+}
@@ -0,0 +1,177 @@
+package com.hitanshudhawan.sankshipt.services;
+
+import com.hitanshudhawan.sankshipt.models.IdBlock;
+import com.hitanshudhawan.sankshipt.repositories.IdBlockRepository;
+import com.hitanshudhawan.sankshipt.repositories.ShortUrlRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class IdAllocationServiceTest {
+
+    @Mock
+    private IdBlockRepository idBlockRepository;
+
+    @Mock
+    private ShortUrlRepository shortUrlRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private IdAllocationServiceImpl idAllocationService;
+
+    private IdBlock urlBlock;
+
+    @BeforeEach
+    void setUp() {
+        // Reserve blocks on the calling thread, so each test sees the reservations it triggers
+        idAllocationService = new IdAllocationServiceImpl(idBlockRepository, shortUrlRepository, transactionManager, 3, 1_000, Runnable::run);
+
+        urlBlock = new IdBlock();
+        urlBlock.setName(IdAllocationServiceImpl.URL_SEQUENCE);
+        urlBlock.setNextId(100);
+    }
+
+    @Test
+    void nextUrlId_ShouldHandOutBlockFromMemoryWithSpareReserved() {
+        // Arrange
+        when(idBlockRepository.findByNameForUpdate(IdAllocationServiceImpl.URL_SEQUENCE)).thenReturn(Optional.of(urlBlock));
+
+        // Act
+        long first = idAllocationService.nextUrlId();
+        long second = idAllocationService.nextUrlId();
+        long third = idAllocationService.nextUrlId();
+
+        // Assert
+        assertEquals(100, first);
+        assertEquals(101, second);
+        assertEquals(102, third);
+        assertEquals(106, urlBlock.getNextId());
+        verify(idBlockRepository, times(2)).findByNameForUpdate(IdAllocationServiceImpl.URL_SEQUENCE);
+        verify(idBlockRepository, times(2)).save(urlBlock);
+    }
+
+    @Test
+    void nextUrlId_BlockExhausted_ShouldSwitchToSpareAndReserveAnother() {
+        // Arrange
+        when(idBlockRepository.findByNameForUpdate(IdAllocationServiceImpl.URL_SEQUENCE)).thenReturn(Optional.of(urlBlock));
+        for (int i = 0; i < 3; i++) {
+            idAllocationService.nextUrlId();
+        }
+        // Another instance reserved a block in between
+        urlBlock.setNextId(200);
+
+        // Act
+        long fromSpare = idAllocationService.nextUrlId();
+        idAllocationService.nextUrlId();
+        idAllocationService.nextUrlId();
+        long fromNewSpare = idAllocationService.nextUrlId();
+
+        // Assert
+        assertEquals(103, fromSpare);
+        assertEquals(200, fromNewSpare);
+        verify(idBlockRepository, times(4)).save(urlBlock);
+    }
+
+    @Test
+    void nextUrlId_NoSequenceYet_ShouldContinueAfterExistingUrls() {
+        // Arrange
+        urlBlock.setNextId(61);
+        when(idBlockRepository.findByNameForUpdate(IdAllocationServiceImpl.URL_SEQUENCE))
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of(urlBlock));
+        when(shortUrlRepository.findMaxId()).thenReturn(57L);
+
+        // Act
+        long id = idAllocationService.nextUrlId();
+
+        // Assert
+        assertEquals(58, id);
+        ArgumentCaptor<IdBlock> captor = ArgumentCaptor.forClass(IdBlock.class);
+        verify(idBlockRepository, times(2)).save(captor.capture());
+        IdBlock created = captor.getAllValues().get(0);
+        assertEquals(IdAllocationServiceImpl.URL_SEQUENCE, created.getName());
+        assertEquals(61, created.getNextId());
+        assertEquals(64, urlBlock.getNextId());
+    }
+
+    @Test
+    void nextUrlId_ConcurrentSequenceCreation_ShouldRetry() {
+        // Arrange
+        when(idBlockRepository.findByNameForUpdate(IdAllocationServiceImpl.URL_SEQUENCE))
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of(urlBlock));
+        when(shortUrlRepository.findMaxId()).thenReturn(0L);
+        when(idBlockRepository.save(any(IdBlock.class)))
+                .thenThrow(new DataIntegrityViolationException("Duplicate entry 'urls'"))
+                .thenReturn(urlBlock);
+
+        // Act
+        long id = idAllocationService.nextUrlId();
+
+        // Assert
+        assertEquals(100, id);
+        // Two reads for the first block, one for the spare
+        verify(idBlockRepository, times(3)).findByNameForUpdate(IdAllocationServiceImpl.URL_SEQUENCE);
+    }
+
+    @Test
+    void nextUrlId_ReservationFails_ShouldThrowAndRetryOnNextCall() {
+        // Arrange
+        when(idBlockRepository.findByNameForUpdate(IdAllocationServiceImpl.URL_SEQUENCE))
+                .thenThrow(new IllegalStateException("Database unavailable"))
+                .thenReturn(Optional.of(urlBlock));
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> idAllocationService.nextUrlId());
+        assertEquals(100, idAllocationService.nextUrlId());
+    }
+
+    @Test
+    void nextUrlId_ConcurrentCallers_ShouldNeverRepeatIds() throws InterruptedException {
+        // Arrange
+        when(idBlockRepository.findByNameForUpdate(IdAllocationServiceImpl.URL_SEQUENCE)).thenReturn(Optional.of(urlBlock));
+        Set<Long> ids = Collections.synchronizedSet(new HashSet<>());
+        Thread[] threads = new Thread[4];
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = new Thread(() -> {
+                for (int j = 0; j < 250; j++) {
+                    ids.add(idAllocationService.nextUrlId());
+                }
+            });
+        }
+
+        // Act
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        // Assert
+        assertEquals(1_000, ids.size());
+    }
+
+    @Test
+    void constructor_InvalidBlockSize_ShouldThrowException() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new IdAllocationServiceImpl(idBlockRepository, shortUrlRepository, transactionManager, 0, 1_000, Runnable::run));
+    }
+
+}
@@ -0,0 +1,241 @@
+package com.hitanshudhawan.sankshipt.services;
+
+import com.hitanshudhawan.sankshipt.exceptions.AliasUnavailableException;
+import com.hitanshudhawan.sankshipt.exceptions.IdempotencyKeyMismatchException;
+import com.hitanshudhawan.sankshipt.exceptions.UrlNotFoundException;
+import com.hitanshudhawan.sankshipt.models.IdempotencyRecord;
+import com.hitanshudhawan.sankshipt.models.URL;
+import com.hitanshudhawan.sankshipt.models.User;
+import com.hitanshudhawan.sankshipt.models.UserPrincipal;
+import com.hitanshudhawan.sankshipt.repositories.IdempotencyRecordRepository;
+import com.hitanshudhawan.sankshipt.repositories.ShortUrlRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.Date;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotencyServiceTest {
+
+    private static final long TTL = 60_000L;
+    private static final String KEY = "retry-1";
+    private static final String REQUEST = "https://www.example.com";
+
+    @Mock
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    @Mock
+    private ShortUrlRepository shortUrlRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private IdempotencyServiceImpl idempotencyService;
+
+    private UserPrincipal testUser;
+
+    private User testOwner;
+    private URL testUrl;
+    private final AtomicInteger creations = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        idempotencyService = new IdempotencyServiceImpl(idempotencyRecordRepository, shortUrlRepository, transactionManager, TTL, 100);
+
+        testUser = new UserPrincipal(1L, "test@example.com");
+        testOwner = new User();
+        testOwner.setId(1L);
+        testOwner.setEmail("test@example.com");
+
+        testUrl = new URL();
+        testUrl.setId(42L);
+        testUrl.setShortCode("abc123");
+        testUrl.setOriginalUrl(REQUEST);
+        testUrl.setUser(testOwner);
+    }
+
+    @Test
+    void createOnce_NewKey_ShouldCreateUrlAndRecordKey() throws Exception {
+        // Arrange
+        when(idempotencyRecordRepository.findByUserIdAndIdempotencyKey(1L, KEY)).thenReturn(Optional.empty());
+
+        // Act
+        URL result = idempotencyService.createOnce(KEY, REQUEST, testUser, this::create);
+
+        // Assert
+        assertSame(testUrl, result);
+        assertEquals(1, creations.get());
+        ArgumentCaptor<IdempotencyRecord> captor = ArgumentCaptor.forClass(IdempotencyRecord.class);
+        verify(idempotencyRecordRepository).saveAndFlush(captor.capture());
+        IdempotencyRecord record = captor.getValue();
+        assertEquals(1L, record.getUserId());
+        assertEquals(KEY, record.getIdempotencyKey());
+        assertEquals(42L, record.getUrlId());
+        assertArrayEquals(IdempotencyServiceImpl.requestHash(REQUEST), record.getRequestHash());
+        assertTrue(record.getExpiresAt().getTime() > System.currentTimeMillis());
+    }
+
+    @Test
+    void createOnce_Retry_ShouldReplayFromMemoryWithoutReadingKey() throws Exception {
+        // Arrange
+        when(idempotencyRecordRepository.findByUserIdAndIdempotencyKey(1L, KEY)).thenReturn(Optional.empty());
+        when(shortUrlRepository.existsById(42L)).thenReturn(true);
+        idempotencyService.createOnce(KEY, REQUEST, testUser, this::create);
+
+        // Act
+        URL result = idempotencyService.createOnce(KEY, REQUEST, testUser, this::create);
+
+        // Assert
+        assertSame(testUrl, result);
+        assertEquals(1, creations.get());
+        verify(idempotencyRecordRepository, times(1)).findByUserIdAndIdempotencyKey(1L, KEY);
+    }
+
+    @Test
+    void createOnce_KeyOfOtherUser_ShouldNotShareResult() throws Exception {
+        // Arrange
+        UserPrincipal otherUser = new UserPrincipal(2L, "other@example.com");
+        when(idempotencyRecordRepository.findByUserIdAndIdempotencyKey(any(), any())).thenReturn(Optional.empty());
+        idempotencyService.createOnce(KEY, REQUEST, testUser, this::create);
+
+        // Act
+        idempotencyService.createOnce(KEY, REQUEST, otherUser, this::create);
+
+        // Assert
+        assertEquals(2, creations.get());
+    }
+
+    @Test
+    void createOnce_StoredRecord_ShouldReplayFromDatabase() throws Exception {
+        // Arrange
+        when(idempotencyRecordRepository.findByUserIdAndIdempotencyKey(1L, KEY)).thenReturn(Optional.of(record(REQUEST, TTL)));
+        when(shortUrlRepository.findById(42L)).thenReturn(Optional.of(testUrl));
+
+        // Act
+        URL result = idempotencyService.createOnce(KEY, REQUEST, testUser, this::create);
+
+        // Assert
+        assertSame(testUrl, result);
+        assertEquals(0, creations.get());
+        verify(idempotencyRecordRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    void createOnce_StoredRecordForDifferentRequest_ShouldThrowException() {
+        // Arrange
+        when(idempotencyRecordRepository.findByUserIdAndIdempotencyKey(1L, KEY)).thenReturn(Optional.of(record("https://other.example.com", TTL)));
+
+        // Act & Assert
+        assertThrows(IdempotencyKeyMismatchException.class,
+                () -> idempotencyService.createOnce(KEY, REQUEST, testUser, this::create));
+        assertEquals(0, creations.get());
+    }
+
+    @Test
+    void createOnce_StoredUrlDeleted_ShouldThrowException() {
+        // Arrange
+        when(idempotencyRecordRepository.findByUserIdAndIdempotencyKey(1L, KEY)).thenReturn(Optional.of(record(REQUEST, TTL)));
+        when(shortUrlRepository.findById(42L)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThrows(UrlNotFoundException.class,
+                () -> idempotencyService.createOnce(KEY, REQUEST, testUser, this::create));
+    }
+
+    @Test
+    void createOnce_ExpiredRecord_ShouldReplaceItAndCreateAgain() throws Exception {
+        // Arrange
+        IdempotencyRecord expired = record(REQUEST, -1_000);
+        when(idempotencyRecordRepository.findByUserIdAndIdempotencyKey(1L, KEY)).thenReturn(Optional.of(expired));
+
+        // Act
+        idempotencyService.createOnce(KEY, REQUEST, testUser, this::create);
+
+        // Assert
+        assertEquals(1, creations.get());
+        verify(idempotencyRecordRepository).delete(expired);
+        verify(idempotencyRecordRepository).flush();
+        verify(idempotencyRecordRepository).saveAndFlush(any(IdempotencyRecord.class));
+    }
+
+    @Test
+    void createOnce_ConcurrentRequestWins_ShouldReplayItsResult() throws Exception {
+        // Arrange
+        when(idempotencyRecordRepository.findByUserIdAndIdempotencyKey(1L, KEY))
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of(record(REQUEST, TTL)));
+        when(idempotencyRecordRepository.saveAndFlush(any(IdempotencyRecord.class))).thenThrow(new DataIntegrityViolationException("duplicate"));
+        when(shortUrlRepository.findById(42L)).thenReturn(Optional.of(testUrl));
+
+        // Act
+        URL result = idempotencyService.createOnce(KEY, REQUEST, testUser, this::create);
+
+        // Assert
+        assertSame(testUrl, result);
+        assertEquals(0, creations.get());
+        verify(transactionManager).rollback(any());
+    }
+
+    @Test
+    void createOnce_AliasTaken_ShouldPropagateAndRollBack() {
+        // Act & Assert
+        when(idempotencyRecordRepository.findByUserIdAndIdempotencyKey(1L, KEY)).thenReturn(Optional.empty());
+        assertThrows(AliasUnavailableException.class, () -> idempotencyService.createOnce(KEY, REQUEST, testUser, () -> {
+            throw new AliasUnavailableException("Alias is already taken: summer-sale");
+        }));
+        verify(idempotencyRecordRepository).saveAndFlush(any(IdempotencyRecord.class));
+        verify(transactionManager).rollback(any());
+    }
+
+    @Test
+    void createOnce_CachedUrlDeleted_ShouldThrowAndForgetResult() throws Exception {
+        // Arrange
+        when(idempotencyRecordRepository.findByUserIdAndIdempotencyKey(1L, KEY)).thenReturn(Optional.empty());
+        idempotencyService.createOnce(KEY, REQUEST, testUser, this::create);
+        when(shortUrlRepository.existsById(42L)).thenReturn(false);
+
+        // Act & Assert
+        assertThrows(UrlNotFoundException.class,
+                () -> idempotencyService.createOnce(KEY, REQUEST, testUser, this::create));
+        idempotencyService.createOnce(KEY, REQUEST, testUser, this::create);
+        assertEquals(2, creations.get());
+        verify(idempotencyRecordRepository, times(2)).findByUserIdAndIdempotencyKey(1L, KEY);
+    }
+
+    @Test
+    void purgeExpiredKeys_ShouldDeleteExpiredRecords() {
+        // Act
+        idempotencyService.purgeExpiredKeys();
+
+        // Assert
+        verify(idempotencyRecordRepository).deleteExpired(any(Date.class));
+    }
+
+    private URL create() {
+        creations.incrementAndGet();
+        return testUrl;
+    }
+
+    private IdempotencyRecord record(String request, long expiresInMillis) {
+        IdempotencyRecord record = new IdempotencyRecord();
+        record.setUserId(1L);
+        record.setIdempotencyKey(KEY);
+        record.setRequestHash(IdempotencyServiceImpl.requestHash(request));
+        record.setUrlId(42L);
+        record.setExpiresAt(new Date(System.currentTimeMillis() + expiresInMillis));
+        return record;
+    }
+
+}
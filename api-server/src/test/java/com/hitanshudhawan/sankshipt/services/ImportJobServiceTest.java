@@ -0,0 +1,380 @@
+package com.hitanshudhawan.sankshipt.services;
+
+import com.hitanshudhawan.sankshipt.exceptions.ImportJobNotFoundException;
+import com.hitanshudhawan.sankshipt.models.ImportJob;
+import com.hitanshudhawan.sankshipt.models.ImportJobChunk;
+import com.hitanshudhawan.sankshipt.models.ImportJobError;
+import com.hitanshudhawan.sankshipt.models.User;
+import com.hitanshudhawan.sankshipt.models.UserPrincipal;
+import com.hitanshudhawan.sankshipt.repositories.ImportJobChunkRepository;
+import com.hitanshudhawan.sankshipt.repositories.ImportJobErrorRepository;
+import com.hitanshudhawan.sankshipt.repositories.ImportJobRepository;
+import com.hitanshudhawan.sankshipt.repositories.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ImportJobServiceTest {
+
+    @Mock
+    private ImportJobRepository importJobRepository;
+
+    @Mock
+    private ImportJobChunkRepository importJobChunkRepository;
+
+    @Mock
+    private ImportJobErrorRepository importJobErrorRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private ShortUrlService shortUrlService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ImportJobServiceImpl importJobService;
+
+    @TempDir
+    private Path tempDir;
+
+    private UserPrincipal testUser;
+
+    private User testOwner;
+
+    // Copies of every batch passed to the short URL service, since the service reuses its batch list
+    private final List<List<String>> batches = new ArrayList<>();
+
+    // Stored chunks of the job, in file order
+    private final List<ImportJobChunk> chunks = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        // Run jobs on the calling thread so the tests can assert on their outcome; 20-byte chunks hold one or two lines
+        importJobService = new ImportJobServiceImpl(importJobRepository, importJobChunkRepository, importJobErrorRepository,
+                userRepository, shortUrlService, transactionManager, Runnable::run, 2, 20, 60000);
+
+        testUser = new UserPrincipal(1L, "test@example.com");
+        testOwner = new User();
+        testOwner.setId(1L);
+        testOwner.setEmail("test@example.com");
+        lenient().when(userRepository.getReferenceById(1L)).thenReturn(testOwner);
+        lenient().when(userRepository.findById(1L)).thenReturn(Optional.of(testOwner));
+    }
+
+    private ImportJob stubRepository(ImportJob importJob) {
+        importJob.setId(5L);
+        lenient().when(importJobRepository.findById(5L)).thenReturn(Optional.of(importJob));
+        lenient().when(importJobRepository.claim(eq(5L), anyString(), anyLong(), anyLong())).thenReturn(1);
+        lenient().when(importJobRepository.checkpoint(eq(5L), anyString(), anyLong(), anyLong(), anyLong(), anyLong())).thenReturn(1);
+        lenient().when(importJobRepository.finish(eq(5L), anyString(), any(), any())).thenReturn(1);
+        lenient().when(importJobChunkRepository.findIdsAfterLine(eq(5L), anyLong())).thenAnswer(invocation -> chunks.stream()
+                .filter(chunk -> chunk.getFirstLine() + chunk.getLineCount() > invocation.<Long>getArgument(1))
+                .map(ImportJobChunk::getId)
+                .toList());
+        lenient().when(importJobChunkRepository.findById(anyLong())).thenAnswer(invocation -> chunks.stream()
+                .filter(chunk -> chunk.getId().equals(invocation.getArgument(0)))
+                .findFirst());
+        return importJob;
+    }
+
+    private void recordBatches() {
+        when(shortUrlService.createShortUrls(anyList(), eq(testUser), anyBoolean())).thenAnswer(invocation -> {
+            batches.add(new ArrayList<>(invocation.<List<String>>getArgument(0)));
+            return List.of();
+        });
+    }
+
+    private void addChunk(long firstLine, String... lines) {
+        ImportJobChunk chunk = new ImportJobChunk();
+        chunk.setId((long) chunks.size() + 1);
+        chunk.setImportJobId(5L);
+        chunk.setFirstLine(firstLine);
+        chunk.setLineCount(lines.length);
+        chunk.setContent((String.join("\n", lines) + "\n").getBytes(StandardCharsets.UTF_8));
+        chunks.add(chunk);
+    }
+
+    /**
+     * Builds a running job whose upload is stored two lines per chunk.
+     */
+    private ImportJob storedJob(String content, ImportJob.Format format, long linesRead) {
+        String[] lines = content.split("\n", -1);
+        int lineCount = content.endsWith("\n") ? lines.length - 1 : lines.length;
+        for (int i = 0; i < lineCount; i += 2) {
+            addChunk(i, i + 1 < lineCount ? new String[]{lines[i], lines[i + 1]} : new String[]{lines[i]});
+        }
+
+        ImportJob importJob = new ImportJob();
+        importJob.setUser(testOwner);
+        importJob.setFormat(format);
+        importJob.setStatus(ImportJob.Status.RUNNING);
+        importJob.setTotalLines((long) lineCount);
+        importJob.setLinesRead(linesRead);
+        return stubRepository(importJob);
+    }
+
+    @Test
+    void createImportJob_ShouldStoreChunksAndProcessThemInBatches() throws Exception {
+        // Arrange
+        when(importJobRepository.save(any(ImportJob.class))).thenAnswer(invocation -> stubRepository(invocation.getArgument(0)));
+        when(importJobChunkRepository.save(any(ImportJobChunk.class))).thenAnswer(invocation -> {
+            ImportJobChunk chunk = invocation.getArgument(0);
+            chunk.setId((long) chunks.size() + 1);
+            chunks.add(chunk);
+            return chunk;
+        });
+        when(importJobRepository.renewClaim(eq(5L), anyString(), anyLong())).thenReturn(1);
+        when(importJobRepository.markUploaded(eq(5L), anyString(), eq(4L))).thenAnswer(invocation -> {
+            importJobRepository.findById(5L).orElseThrow().setTotalLines(4L);
+            return 1;
+        });
+        recordBatches();
+        Path upload = Files.writeString(tempDir.resolve("links.upload"), "original_url\r\nhttps://a.com\nhttps://b.com\nhttps://c.com");
+
+        // Act
+        ImportJob importJob = importJobService.createImportJob(upload, "links.csv", ImportJob.Format.CSV, true, testUser);
+
+        // Assert
+        assertEquals(2, chunks.size());
+        assertEquals(0, chunks.get(0).getFirstLine());
+        assertEquals(2, chunks.get(0).getLineCount());
+        assertEquals("original_url\nhttps://a.com\n", new String(chunks.get(0).getContent(), StandardCharsets.UTF_8));
+        assertEquals(2, chunks.get(1).getFirstLine());
+
+        assertEquals(ImportJob.Status.COMPLETED, importJob.getStatus());
+        assertEquals(4, importJob.getLinesRead());
+        assertEquals(3, importJob.getCreatedUrls());
+        assertEquals(0, importJob.getFailedRows());
+        assertEquals("links.csv", importJob.getFileName());
+        assertEquals(List.of(List.of("https://a.com", "https://b.com"), List.of("https://c.com")), batches);
+        verify(shortUrlService, times(2)).createShortUrls(anyList(), eq(testUser), eq(true));
+        verify(importJobRepository).finish(eq(5L), anyString(), eq(ImportJob.Status.COMPLETED), isNull());
+        verify(importJobChunkRepository).deleteByImportJobId(5L);
+        assertFalse(Files.exists(upload));
+    }
+
+    @Test
+    void createImportJob_ShouldReturnBeforeUploadIsStored() throws Exception {
+        // Arrange
+        List<Runnable> queued = new ArrayList<>();
+        importJobService = new ImportJobServiceImpl(importJobRepository, importJobChunkRepository, importJobErrorRepository,
+                userRepository, shortUrlService, transactionManager, queued::add, 2, 20, 60000);
+        when(importJobRepository.save(any(ImportJob.class))).thenAnswer(invocation -> stubRepository(invocation.getArgument(0)));
+        Path upload = Files.writeString(tempDir.resolve("links.upload"), "https://a.com\n");
+
+        // Act
+        ImportJob importJob = importJobService.createImportJob(upload, "links.csv", ImportJob.Format.CSV, false, testUser);
+
+        // Assert
+        assertEquals(ImportJob.Status.PENDING, importJob.getStatus());
+        assertNull(importJob.getTotalLines());
+        assertEquals(1, queued.size());
+        assertTrue(Files.exists(upload));
+        verifyNoInteractions(importJobChunkRepository);
+    }
+
+    @Test
+    void createImportJob_UploadUnreadable_ShouldMarkFailed() {
+        // Arrange
+        when(importJobRepository.save(any(ImportJob.class))).thenAnswer(invocation -> stubRepository(invocation.getArgument(0)));
+
+        // Act
+        ImportJob importJob = importJobService.createImportJob(tempDir.resolve("missing.upload"), "links.csv", ImportJob.Format.CSV, false, testUser);
+
+        // Assert
+        assertEquals(ImportJob.Status.FAILED, importJob.getStatus());
+        verify(importJobRepository).finish(eq(5L), anyString(), eq(ImportJob.Status.FAILED), eq("The upload could not be stored"));
+        verify(importJobChunkRepository).deleteByImportJobId(5L);
+        verify(importJobRepository, never()).claim(anyLong(), anyString(), anyLong(), anyLong());
+    }
+
+    @Test
+    void runImportJob_FromCheckpoint_ShouldSkipCommittedLinesAndChunks() {
+        // Arrange
+        ImportJob importJob = storedJob("https://a.com\nhttps://b.com\nhttps://c.com\nhttps://d.com\nhttps://e.com\n", ImportJob.Format.CSV, 3);
+        importJob.setCreatedUrls(3);
+        recordBatches();
+
+        // Act
+        importJobService.runImportJob(5L);
+
+        // Assert
+        assertEquals(List.of(List.of("https://d.com", "https://e.com")), batches);
+        assertEquals(ImportJob.Status.COMPLETED, importJob.getStatus());
+        assertEquals(5, importJob.getLinesRead());
+        assertEquals(5, importJob.getCreatedUrls());
+        verify(importJobChunkRepository, never()).findById(1L);
+        verify(importJobRepository).checkpoint(eq(5L), anyString(), eq(5L), eq(5L), eq(0L), anyLong());
+    }
+
+    @Test
+    void runImportJob_InvalidLines_ShouldRecordErrorsAndContinue() {
+        // Arrange
+        List<ImportJobError> savedErrors = new ArrayList<>();
+        when(importJobErrorRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            savedErrors.addAll(invocation.<List<ImportJobError>>getArgument(0));
+            return List.of();
+        });
+        ImportJob importJob = storedJob("{\"originalUrl\":\"https://a.com\"}\nnot json\n\n{\"originalUrl\":\"https://b.com\"}\n", ImportJob.Format.NDJSON, 0);
+        recordBatches();
+
+        // Act
+        importJobService.runImportJob(5L);
+
+        // Assert
+        assertEquals(1, savedErrors.size());
+        assertEquals(2, savedErrors.get(0).getLineNumber());
+        assertEquals(5L, savedErrors.get(0).getImportJobId());
+
+        assertEquals(List.of(List.of("https://a.com"), List.of("https://b.com")), batches);
+        assertEquals(ImportJob.Status.COMPLETED, importJob.getStatus());
+        assertEquals(2, importJob.getCreatedUrls());
+        assertEquals(1, importJob.getFailedRows());
+        assertEquals(4, importJob.getLinesRead());
+    }
+
+    @Test
+    void runImportJob_BatchFails_ShouldKeepLastCheckpointAndMarkFailed() {
+        // Arrange
+        ImportJob importJob = storedJob("https://a.com\nhttps://b.com\nhttps://c.com\nhttps://d.com\n", ImportJob.Format.CSV, 0);
+        when(shortUrlService.createShortUrls(anyList(), eq(testUser), anyBoolean()))
+                .thenReturn(List.of())
+                .thenThrow(new RuntimeException("Database unavailable"));
+
+        // Act
+        importJobService.runImportJob(5L);
+
+        // Assert
+        assertEquals(ImportJob.Status.FAILED, importJob.getStatus());
+        assertEquals("Database unavailable", importJob.getFailureReason());
+        assertEquals(2, importJob.getLinesRead());
+        assertEquals(2, importJob.getCreatedUrls());
+        verify(importJobRepository).finish(eq(5L), anyString(), eq(ImportJob.Status.FAILED), eq("Database unavailable"));
+        verify(importJobChunkRepository).deleteByImportJobId(5L);
+    }
+
+    @Test
+    void runImportJob_ClaimLost_ShouldStopWithoutFailingJob() {
+        // Arrange
+        ImportJob importJob = storedJob("https://a.com\nhttps://b.com\nhttps://c.com\n", ImportJob.Format.CSV, 0);
+        when(importJobRepository.checkpoint(eq(5L), anyString(), anyLong(), anyLong(), anyLong(), anyLong())).thenReturn(0);
+        recordBatches();
+
+        // Act
+        importJobService.runImportJob(5L);
+
+        // Assert
+        assertEquals(1, batches.size());
+        assertEquals(ImportJob.Status.RUNNING, importJob.getStatus());
+        assertEquals(0, importJob.getLinesRead());
+        verify(importJobRepository, never()).finish(anyLong(), anyString(), any(), any());
+        verify(importJobChunkRepository, never()).deleteByImportJobId(anyLong());
+    }
+
+    @Test
+    void runImportJob_InterruptedUpload_ShouldMarkFailed() {
+        // Arrange
+        ImportJob importJob = storedJob("https://a.com\n", ImportJob.Format.CSV, 0);
+        importJob.setTotalLines(null);
+
+        // Act
+        importJobService.runImportJob(5L);
+
+        // Assert
+        assertEquals(ImportJob.Status.FAILED, importJob.getStatus());
+        verify(importJobRepository).finish(eq(5L), anyString(), eq(ImportJob.Status.FAILED), eq("The upload was interrupted"));
+        verify(shortUrlService, never()).createShortUrls(anyList(), any(), anyBoolean());
+    }
+
+    @Test
+    void runImportJob_MissingChunk_ShouldMarkFailed() {
+        // Arrange
+        ImportJob importJob = storedJob("https://a.com\nhttps://b.com\nhttps://c.com\n", ImportJob.Format.CSV, 0);
+        chunks.remove(1);
+        recordBatches();
+
+        // Act
+        importJobService.runImportJob(5L);
+
+        // Assert
+        assertEquals(ImportJob.Status.FAILED, importJob.getStatus());
+        assertEquals("The stored upload is incomplete", importJob.getFailureReason());
+    }
+
+    @Test
+    void runImportJob_ClaimedElsewhereOrFinished_ShouldDoNothing() {
+        // Arrange
+        storedJob("https://a.com\n", ImportJob.Format.CSV, 0);
+        when(importJobRepository.claim(eq(5L), anyString(), anyLong(), anyLong())).thenReturn(0);
+
+        // Act
+        importJobService.runImportJob(5L);
+
+        // Assert
+        verify(importJobRepository, never()).findById(anyLong());
+        verify(shortUrlService, never()).createShortUrls(anyList(), any(), anyBoolean());
+    }
+
+    @Test
+    void resumeImportJobs_ShouldRunPendingAndInterruptedJobs() {
+        // Arrange
+        ImportJob importJob = storedJob("https://a.com\nhttps://b.com\n", ImportJob.Format.CSV, 1);
+        ImportJob heldElsewhere = new ImportJob();
+        heldElsewhere.setId(6L);
+        heldElsewhere.setClaimedBy("other");
+        heldElsewhere.setClaimExpiresAt(System.currentTimeMillis() + 60000);
+        when(importJobRepository.findAllByStatusIn(List.of(ImportJob.Status.PENDING, ImportJob.Status.RUNNING)))
+                .thenReturn(List.of(importJob, heldElsewhere));
+        recordBatches();
+
+        // Act
+        importJobService.resumeImportJobs();
+
+        // Assert
+        assertEquals(List.of(List.of("https://b.com")), batches);
+        assertEquals(ImportJob.Status.COMPLETED, importJob.getStatus());
+        verify(importJobRepository, never()).claim(eq(6L), anyString(), anyLong(), anyLong());
+    }
+
+    @Test
+    void getImportJob_NotFound_ShouldThrowException() {
+        // Arrange
+        when(importJobRepository.findById(9L)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        ImportJobNotFoundException exception = assertThrows(ImportJobNotFoundException.class,
+                () -> importJobService.getImportJob(9L));
+        assertEquals("No import job found with id: 9", exception.getMessage());
+    }
+
+    @Test
+    void isImportJobOwner_ShouldCompareIds() {
+        // Arrange
+        ImportJob importJob = new ImportJob();
+        importJob.setUser(testOwner);
+        UserPrincipal otherUser = new UserPrincipal(2L, "other@example.com");
+
+        // Act & Assert
+        assertTrue(importJobService.isImportJobOwner(importJob, testUser));
+        assertFalse(importJobService.isImportJobOwner(importJob, otherUser));
+    }
+
+}
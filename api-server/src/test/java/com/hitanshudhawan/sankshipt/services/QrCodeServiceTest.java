@@ -0,0 +1,114 @@
+package com.hitanshudhawan.sankshipt.services;
+
+import com.google.zxing.BinaryBitmap;
+import com.google.zxing.RGBLuminanceSource;
+import com.google.zxing.common.HybridBinarizer;
+import com.google.zxing.qrcode.QRCodeReader;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QrCodeServiceTest {
+
+    private QrCodeServiceImpl qrCodeService;
+
+    @BeforeEach
+    void setUp() {
+        qrCodeService = new QrCodeServiceImpl("https://sankshipt.example/", 1_000_000);
+    }
+
+    @Test
+    void render_Png_ShouldEncodeShortLinkAtRequestedSize() throws Exception {
+        // Act
+        QrCodeService.QrCode qrCode = qrCodeService.render("abc123", 256, QrCodeService.Format.PNG);
+
+        // Assert
+        BufferedImage image = ImageIO.read(new ByteArrayInputStream(qrCode.content()));
+        assertEquals(256, image.getWidth());
+        assertEquals(256, image.getHeight());
+        assertEquals("https://sankshipt.example/abc123", decode(image));
+        assertEquals(QrCodeService.Format.PNG, qrCode.format());
+    }
+
+    @Test
+    void render_Svg_ShouldReturnScalableImage() {
+        // Act
+        QrCodeService.QrCode qrCode = qrCodeService.render("abc123", 512, QrCodeService.Format.SVG);
+
+        // Assert
+        String svg = new String(qrCode.content(), StandardCharsets.UTF_8);
+        assertTrue(svg.startsWith("<svg xmlns=\"http://www.w3.org/2000/svg\" width=\"512\" height=\"512\" viewBox=\"0 0 "));
+        assertTrue(svg.contains("<path fill=\"#000\" d=\"M4 4h7v1h-7z"));
+        assertTrue(svg.endsWith("\"/></svg>"));
+    }
+
+    @Test
+    void render_SameRequest_ShouldReturnCachedImage() {
+        // Act
+        QrCodeService.QrCode first = qrCodeService.render("abc123", 256, QrCodeService.Format.PNG);
+        QrCodeService.QrCode second = qrCodeService.render("abc123", 256, QrCodeService.Format.PNG);
+
+        // Assert
+        assertSame(first, second);
+        assertEquals(first.content().length, qrCodeService.cachedBytes());
+    }
+
+    @Test
+    void render_DifferentRequests_ShouldHaveDifferentEtags() {
+        // Act
+        QrCodeService.QrCode png = qrCodeService.render("abc123", 256, QrCodeService.Format.PNG);
+        QrCodeService.QrCode larger = qrCodeService.render("abc123", 512, QrCodeService.Format.PNG);
+        QrCodeService.QrCode other = qrCodeService.render("xyz789", 256, QrCodeService.Format.PNG);
+
+        // Assert
+        assertTrue(png.etag().matches("\"[0-9a-f]{32}\""));
+        assertNotEquals(png.etag(), larger.etag());
+        assertNotEquals(png.etag(), other.etag());
+    }
+
+    @Test
+    void render_CacheFull_ShouldEvictLeastRecentlyUsed() {
+        // Arrange
+        int imageBytes = new QrCodeServiceImpl("https://sankshipt.example", 1_000_000)
+                .render("abc123", 64, QrCodeService.Format.SVG).content().length;
+        qrCodeService = new QrCodeServiceImpl("https://sankshipt.example", imageBytes * 2L + imageBytes / 2);
+        QrCodeService.QrCode first = qrCodeService.render("abc123", 64, QrCodeService.Format.SVG);
+        QrCodeService.QrCode second = qrCodeService.render("abc123", 65, QrCodeService.Format.SVG);
+        qrCodeService.render("abc123", 64, QrCodeService.Format.SVG);
+
+        // Act
+        qrCodeService.render("abc123", 66, QrCodeService.Format.SVG);
+
+        // Assert
+        assertSame(first, qrCodeService.render("abc123", 64, QrCodeService.Format.SVG));
+        assertNotSame(second, qrCodeService.render("abc123", 65, QrCodeService.Format.SVG));
+        assertTrue(qrCodeService.cachedBytes() <= imageBytes * 2L + imageBytes / 2);
+    }
+
+    @Test
+    void render_ImageLargerThanCache_ShouldNotBeCached() {
+        // Arrange
+        qrCodeService = new QrCodeServiceImpl("https://sankshipt.example", 10);
+
+        // Act
+        QrCodeService.QrCode first = qrCodeService.render("abc123", 256, QrCodeService.Format.PNG);
+        QrCodeService.QrCode second = qrCodeService.render("abc123", 256, QrCodeService.Format.PNG);
+
+        // Assert
+        assertNotSame(first, second);
+        assertEquals(first.etag(), second.etag());
+        assertEquals(0, qrCodeService.cachedBytes());
+    }
+
+    private static String decode(BufferedImage image) throws Exception {
+        int[] pixels = image.getRGB(0, 0, image.getWidth(), image.getHeight(), null, 0, image.getWidth());
+        RGBLuminanceSource source = new RGBLuminanceSource(image.getWidth(), image.getHeight(), pixels);
+        return new QRCodeReader().decode(new BinaryBitmap(new HybridBinarizer(source))).getText();
+    }
+}
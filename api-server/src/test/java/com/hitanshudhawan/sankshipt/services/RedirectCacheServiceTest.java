@@ -0,0 +1,156 @@
+package com.hitanshudhawan.sankshipt.services;
+
+import com.hitanshudhawan.sankshipt.models.RedirectEviction;
+import com.hitanshudhawan.sankshipt.models.URL;
+import com.hitanshudhawan.sankshipt.repositories.RedirectEvictionRepository;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class RedirectCacheServiceTest {
+
+    private static final long TTL = 60_000L;
+
+    private static final long LOOKBACK = 30_000L;
+
+    private final RedirectEvictionRepository redirectEvictionRepository = mock(RedirectEvictionRepository.class);
+
+    private final RedirectCacheServiceImpl redirectCacheService = new RedirectCacheServiceImpl(redirectEvictionRepository, 2, TTL, 1_000L, LOOKBACK);
+
+    @Test
+    void get_AfterPut_ShouldReturnUrl() {
+        // Arrange
+        URL url = url("abc123", null);
+
+        // Act
+        redirectCacheService.put(url);
+
+        // Assert
+        assertSame(url, redirectCacheService.get("abc123"));
+        assertNull(redirectCacheService.get("other"));
+    }
+
+    @Test
+    void get_PastExpiry_ShouldReturnNullAndDropEntry() {
+        // Arrange
+        redirectCacheService.put(url("abc123", new Date(System.currentTimeMillis() - 1_000)));
+
+        // Act & Assert
+        assertNull(redirectCacheService.get("abc123"));
+        assertEquals(0, redirectCacheService.size());
+    }
+
+    @Test
+    void put_WhenFull_ShouldEvictLeastRecentlyUsed() {
+        // Arrange
+        redirectCacheService.put(url("a", null));
+        redirectCacheService.put(url("b", null));
+        redirectCacheService.get("a");
+
+        // Act
+        redirectCacheService.put(url("c", null));
+
+        // Assert
+        assertNotNull(redirectCacheService.get("a"));
+        assertNull(redirectCacheService.get("b"));
+        assertNotNull(redirectCacheService.get("c"));
+    }
+
+    @Test
+    void evict_ShouldRemoveEntry() {
+        // Arrange
+        redirectCacheService.put(url("abc123", null));
+
+        // Act
+        redirectCacheService.evict("abc123");
+
+        // Assert
+        assertNull(redirectCacheService.get("abc123"));
+    }
+
+    @Test
+    void evictExpired_ShouldRemoveEntriesAtTheirDeadline() {
+        // Arrange
+        long now = System.currentTimeMillis();
+        redirectCacheService.put(url("soon", new Date(now + 5_000)));
+        redirectCacheService.put(url("later", null));
+
+        // Act
+        redirectCacheService.evictExpired(now + 4_000);
+        int beforeDeadline = redirectCacheService.size();
+        redirectCacheService.evictExpired(now + 6_000);
+        int afterDeadline = redirectCacheService.size();
+        redirectCacheService.evictExpired(now + TTL + 2_000);
+
+        // Assert
+        assertEquals(2, beforeDeadline);
+        assertEquals(1, afterDeadline);
+        assertEquals(0, redirectCacheService.size());
+    }
+
+    @Test
+    void evictExpired_ShouldKeepEntryPutAgainWithLaterDeadline() {
+        // Arrange
+        long now = System.currentTimeMillis();
+        redirectCacheService.put(url("abc123", new Date(now + 5_000)));
+        redirectCacheService.put(url("abc123", new Date(now + 30_000)));
+
+        // Act
+        redirectCacheService.evictExpired(now + 6_000);
+
+        // Assert
+        assertEquals(1, redirectCacheService.size());
+    }
+
+    @Test
+    void publishEviction_ShouldRecordShortCodeWithoutEvictingLocally() {
+        // Arrange
+        redirectCacheService.put(url("abc123", null));
+
+        // Act
+        redirectCacheService.publishEviction("abc123");
+
+        // Assert
+        ArgumentCaptor<RedirectEviction> captor = ArgumentCaptor.forClass(RedirectEviction.class);
+        verify(redirectEvictionRepository).save(captor.capture());
+        assertEquals("abc123", captor.getValue().getShortCode());
+        assertNotNull(redirectCacheService.get("abc123"));
+    }
+
+    @Test
+    void pollEvictions_ShouldEvictPublishedShortCodesAndPurgeOldRows() {
+        // Arrange
+        redirectCacheService.put(url("a", null));
+        redirectCacheService.put(url("b", null));
+        when(redirectEvictionRepository.findShortCodesCreatedSince(any(Date.class))).thenReturn(List.of("a", "missing"));
+        long before = System.currentTimeMillis();
+
+        // Act
+        redirectCacheService.pollEvictions();
+
+        // Assert
+        assertNull(redirectCacheService.get("a"));
+        assertNotNull(redirectCacheService.get("b"));
+        ArgumentCaptor<Date> since = ArgumentCaptor.forClass(Date.class);
+        verify(redirectEvictionRepository).findShortCodesCreatedSince(since.capture());
+        assertTrue(since.getValue().getTime() <= before - LOOKBACK);
+        ArgumentCaptor<Date> purgeBefore = ArgumentCaptor.forClass(Date.class);
+        verify(redirectEvictionRepository).deleteCreatedBefore(purgeBefore.capture());
+        assertTrue(purgeBefore.getValue().getTime() <= System.currentTimeMillis() - TTL - LOOKBACK);
+    }
+
+    private static URL url(String shortCode, Date expiresAt) {
+        URL url = new URL();
+        url.setShortCode(shortCode);
+        url.setOriginalUrl("https://www.example.com/" + shortCode);
+        url.setExpiresAt(expiresAt);
+        return url;
+    }
+
+}
@@ -0,0 +1,147 @@
+package com.hitanshudhawan.sankshipt.services;
+
+import com.hitanshudhawan.sankshipt.models.URL;
+import com.hitanshudhawan.sankshipt.models.UrlReferrer;
+import com.hitanshudhawan.sankshipt.repositories.ShortUrlRepository;
+import com.hitanshudhawan.sankshipt.repositories.UrlReferrerRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReferrerAnalyticsServiceTest {
+
+    @Mock
+    private UrlReferrerRepository urlReferrerRepository;
+
+    @Mock
+    private ShortUrlRepository shortUrlRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ReferrerAnalyticsServiceImpl referrerAnalyticsService;
+
+    private URL testUrl;
+
+    @BeforeEach
+    void setUp() {
+        referrerAnalyticsService = new ReferrerAnalyticsServiceImpl(urlReferrerRepository, shortUrlRepository, transactionManager, 2);
+
+        testUrl = new URL();
+        testUrl.setId(1L);
+        testUrl.setShortCode("abc123");
+        testUrl.setOriginalUrl("https://www.example.com");
+    }
+
+    @Test
+    void getTopReferrers_ShouldReadFromReferrerTable() {
+        // Arrange
+        UrlReferrer referrer = referrer("google.com", 10, 0);
+        when(urlReferrerRepository.findByUrlIdOrderByClicksDesc(1L)).thenReturn(List.of(referrer));
+
+        // Act
+        List<UrlReferrer> result = referrerAnalyticsService.getTopReferrers(testUrl);
+
+        // Assert
+        assertEquals(List.of(referrer), result);
+    }
+
+    @Test
+    void flushReferrers_NothingRecorded_ShouldNotTouchDatabase() {
+        // Act
+        referrerAnalyticsService.recordReferrer(testUrl, null);
+        referrerAnalyticsService.flushReferrers();
+
+        // Assert
+        verifyNoInteractions(urlReferrerRepository);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void flushReferrers_ShouldMergeIntoStoredTableAndKeepTopK() {
+        // Arrange
+        UrlReferrer google = referrer("google.com", 10, 0);
+        UrlReferrer bing = referrer("bing.com", 2, 0);
+        when(shortUrlRepository.lockById(1L)).thenReturn(Optional.of(1L));
+        when(urlReferrerRepository.findByUrlIdOrderByClicksDesc(1L)).thenReturn(new ArrayList<>(List.of(google, bing)));
+
+        for (int i = 0; i < 5; i++) {
+            referrerAnalyticsService.recordReferrer(testUrl, "t.co");
+        }
+        referrerAnalyticsService.recordReferrer(testUrl, "google.com");
+
+        // Act
+        referrerAnalyticsService.flushReferrers();
+
+        // Assert
+        ArgumentCaptor<Collection<UrlReferrer>> deleted = ArgumentCaptor.forClass(Collection.class);
+        ArgumentCaptor<List<UrlReferrer>> saved = ArgumentCaptor.forClass(List.class);
+        verify(urlReferrerRepository).deleteAllInBatch(deleted.capture());
+        verify(urlReferrerRepository).saveAll(saved.capture());
+
+        assertEquals(List.of(bing), new ArrayList<>(deleted.getValue()));
+        assertEquals(2, saved.getValue().size());
+        assertSame(google, saved.getValue().get(0));
+        assertEquals(11, google.getClicks());
+        assertEquals("t.co", saved.getValue().get(1).getHost());
+        assertEquals(1L, saved.getValue().get(1).getUrlId());
+    }
+
+    @Test
+    void flushReferrers_RepositoryFailure_ShouldRetryOnNextFlush() {
+        // Arrange
+        when(shortUrlRepository.lockById(1L)).thenReturn(Optional.of(1L));
+        when(urlReferrerRepository.findByUrlIdOrderByClicksDesc(1L))
+                .thenThrow(new RuntimeException("Database unavailable"))
+                .thenReturn(new ArrayList<>());
+        referrerAnalyticsService.recordReferrer(testUrl, "google.com");
+
+        // Act
+        referrerAnalyticsService.flushReferrers();
+        referrerAnalyticsService.flushReferrers();
+
+        // Assert
+        verify(urlReferrerRepository, times(2)).findByUrlIdOrderByClicksDesc(anyLong());
+        verify(urlReferrerRepository).saveAll(any());
+    }
+
+    @Test
+    void flushReferrers_DeletedUrl_ShouldDropCountsWithoutWriting() {
+        // Arrange
+        when(shortUrlRepository.lockById(1L)).thenReturn(Optional.empty());
+        referrerAnalyticsService.recordReferrer(testUrl, "google.com");
+
+        // Act
+        referrerAnalyticsService.flushReferrers();
+        referrerAnalyticsService.flushReferrers();
+
+        // Assert
+        verify(shortUrlRepository, times(1)).lockById(1L);
+        verifyNoInteractions(urlReferrerRepository);
+    }
+
+    private UrlReferrer referrer(String host, long clicks, long error) {
+        UrlReferrer referrer = new UrlReferrer();
+        referrer.setUrlId(1L);
+        referrer.setHost(host);
+        referrer.setClicks(clicks);
+        referrer.setError(error);
+        return referrer;
+    }
+
+}
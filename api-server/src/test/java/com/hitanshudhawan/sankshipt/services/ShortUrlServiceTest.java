@@ -1,23 +1,44 @@
 package com.hitanshudhawan.sankshipt.services;
 
+import com.hitanshudhawan.sankshipt.exceptions.AliasUnavailableException;
+import com.hitanshudhawan.sankshipt.exceptions.UrlExpiredException;
 import com.hitanshudhawan.sankshipt.exceptions.UrlNotFoundException;
 import com.hitanshudhawan.sankshipt.models.URL;
+import com.hitanshudhawan.sankshipt.models.UrlDestination;
 import com.hitanshudhawan.sankshipt.models.User;
+import com.hitanshudhawan.sankshipt.models.UserPrincipal;
+import com.hitanshudhawan.sankshipt.repositories.ClickRepository;
 import com.hitanshudhawan.sankshipt.repositories.ShortUrlRepository;
+import com.hitanshudhawan.sankshipt.repositories.UrlClickStatsRepository;
+import com.hitanshudhawan.sankshipt.repositories.UrlDestinationRepository;
+import com.hitanshudhawan.sankshipt.repositories.UrlReferrerRepository;
+import com.hitanshudhawan.sankshipt.repositories.UserRepository;
+import com.hitanshudhawan.sankshipt.utils.PageCursor;
 import com.hitanshudhawan.sankshipt.utils.ShortCodeGenerator;
+import com.hitanshudhawan.sankshipt.utils.UrlNormalizer;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockedStatic;
 import org.mockito.junit.jupiter.MockitoExtension;
-
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -26,62 +47,198 @@ class ShortUrlServiceTest {
     @Mock
     private ShortUrlRepository shortUrlRepository;
 
+    @Mock
+    private ClickRepository clickRepository;
+
+    @Mock
+    private UrlClickStatsRepository urlClickStatsRepository;
+
+    @Mock
+    private UrlReferrerRepository urlReferrerRepository;
+
+    @Mock
+    private UrlDestinationRepository urlDestinationRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private IdAllocationService idAllocationService;
+
+    @Mock
+    private AliasService aliasService;
+
+    @Mock
+    private RedirectCacheService redirectCacheService;
+
+    @Mock
+    private UrlSearchService urlSearchService;
+
     @InjectMocks
     private ShortUrlServiceImpl shortUrlService;
 
-    private User testUser;
+    private UserPrincipal testUser;
+
+    private User testOwner;
     private URL testUrl;
     private final String originalUrl = "https://www.example.com";
     private final String shortCode = "abc123";
 
     @BeforeEach
     void setUp() {
-        testUser = new User();
-        testUser.setId(1L);
-        testUser.setEmail("test@example.com");
+        testUser = new UserPrincipal(1L, "test@example.com");
+        testOwner = new User();
+        testOwner.setId(1L);
+        testOwner.setEmail("test@example.com");
 
         testUrl = new URL();
         testUrl.setId(1L);
         testUrl.setOriginalUrl(originalUrl);
         testUrl.setShortCode(shortCode);
-        testUrl.setUser(testUser);
+        testUrl.setUser(testOwner);
+        lenient().when(userRepository.getReferenceById(testUser.id())).thenReturn(testOwner);
     }
 
     @Test
     void createShortUrl_ShouldCreateAndReturnUrl() {
         // Arrange
-        URL savedUrlWithId = new URL();
-        savedUrlWithId.setId(1L);
-        savedUrlWithId.setOriginalUrl(originalUrl);
-        savedUrlWithId.setUser(testUser);
-
-        URL finalSavedUrl = new URL();
-        finalSavedUrl.setId(1L);
-        finalSavedUrl.setOriginalUrl(originalUrl);
-        finalSavedUrl.setShortCode(shortCode);
-        finalSavedUrl.setUser(testUser);
-
-        when(shortUrlRepository.save(any(URL.class)))
-                .thenReturn(savedUrlWithId)
-                .thenReturn(finalSavedUrl);
+        when(idAllocationService.nextUrlId()).thenReturn(1L);
+        when(shortUrlRepository.save(any(URL.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
         try (MockedStatic<ShortCodeGenerator> mockedStatic = mockStatic(ShortCodeGenerator.class)) {
             mockedStatic.when(() -> ShortCodeGenerator.generateShortCode(1L, originalUrl))
                     .thenReturn(shortCode);
 
             // Act
-            URL result = shortUrlService.createShortUrl(originalUrl, testUser);
+            URL result = shortUrlService.createShortUrl(originalUrl, testUser, false);
 
             // Assert
             assertNotNull(result);
+            assertEquals(1L, result.getId());
             assertEquals(originalUrl, result.getOriginalUrl());
             assertEquals(shortCode, result.getShortCode());
-            assertEquals(testUser, result.getUser());
-            verify(shortUrlRepository, times(2)).save(any(URL.class));
+            assertSame(testOwner, result.getUser());
+            verify(idAllocationService).nextUrlId();
             mockedStatic.verify(() -> ShortCodeGenerator.generateShortCode(1L, originalUrl));
         }
     }
 
+    @Test
+    void createShortUrl_ShouldInsertCompleteRowOnce() {
+        // Arrange
+        when(idAllocationService.nextUrlId()).thenReturn(42L);
+        when(shortUrlRepository.save(any(URL.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        shortUrlService.createShortUrl(originalUrl, testUser, false);
+
+        // Assert
+        ArgumentCaptor<URL> captor = ArgumentCaptor.forClass(URL.class);
+        verify(shortUrlRepository, times(1)).save(captor.capture());
+        URL saved = captor.getValue();
+        assertEquals(42L, saved.getId());
+        assertEquals(ShortCodeGenerator.generateShortCode(42L, originalUrl), saved.getShortCode());
+        assertTrue(saved.isNew());
+        verify(userRepository).incrementUrlsVersion(testUser.id());
+        verify(urlSearchService).addUrls(testUser, List.of(saved));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void createShortUrls_ShouldSaveAllUrlsInOneCall() {
+        // Arrange
+        List<String> originalUrls = List.of("https://www.example.com/a", "https://www.example.com/b");
+        when(idAllocationService.nextUrlId()).thenReturn(10L, 11L);
+        when(shortUrlRepository.saveAll(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        List<URL> result = shortUrlService.createShortUrls(originalUrls, testUser, false);
+
+        // Assert
+        assertEquals(2, result.size());
+        assertEquals(10L, result.get(0).getId());
+        assertEquals("https://www.example.com/a", result.get(0).getOriginalUrl());
+        assertEquals(ShortCodeGenerator.generateShortCode(10L, "https://www.example.com/a"), result.get(0).getShortCode());
+        assertEquals(11L, result.get(1).getId());
+        assertEquals(ShortCodeGenerator.generateShortCode(11L, "https://www.example.com/b"), result.get(1).getShortCode());
+        assertTrue(result.stream().allMatch(url -> url.getUser() == testOwner));
+
+        ArgumentCaptor<List<URL>> captor = ArgumentCaptor.forClass(List.class);
+        verify(shortUrlRepository).saveAll(captor.capture());
+        assertEquals(2, captor.getValue().size());
+        verify(shortUrlRepository, never()).save(any(URL.class));
+    }
+
+    @Test
+    void createShortUrl_ShouldStoreHashOfNormalizedUrl() {
+        // Arrange
+        when(idAllocationService.nextUrlId()).thenReturn(1L);
+        when(shortUrlRepository.save(any(URL.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        URL result = shortUrlService.createShortUrl("HTTPS://WWW.Example.com:443", testUser, false);
+
+        // Assert
+        assertArrayEquals(UrlNormalizer.urlHash(originalUrl), result.getUrlHash());
+        verify(shortUrlRepository, never()).findAllByUserIdAndUrlHash(any(), any());
+    }
+
+    @Test
+    void createShortUrl_DeduplicateWithExistingUrl_ShouldReturnExistingWithoutInsert() {
+        // Arrange
+        when(shortUrlRepository.findAllByUserIdAndUrlHash(eq(testUser.id()), any())).thenReturn(List.of(testUrl));
+
+        // Act
+        URL result = shortUrlService.createShortUrl("https://WWW.EXAMPLE.com/#section", testUser, true);
+
+        // Assert
+        assertSame(testUrl, result);
+        verify(shortUrlRepository).findAllByUserIdAndUrlHash(eq(testUser.id()), argThat(hash -> Arrays.equals(hash, UrlNormalizer.urlHash(originalUrl))));
+        verify(shortUrlRepository, never()).save(any(URL.class));
+        verifyNoInteractions(idAllocationService, userRepository);
+    }
+
+    @Test
+    void createShortUrl_DeduplicateWithHashCollision_ShouldInsertNewUrl() {
+        // Arrange
+        URL collidingUrl = new URL();
+        collidingUrl.setOriginalUrl("https://www.other.com");
+        when(shortUrlRepository.findAllByUserIdAndUrlHash(eq(testUser.id()), any())).thenReturn(List.of(collidingUrl));
+        when(idAllocationService.nextUrlId()).thenReturn(2L);
+        when(shortUrlRepository.save(any(URL.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        URL result = shortUrlService.createShortUrl(originalUrl, testUser, true);
+
+        // Assert
+        assertEquals(2L, result.getId());
+        assertEquals(originalUrl, result.getOriginalUrl());
+        verify(shortUrlRepository).save(any(URL.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void createShortUrls_Deduplicate_ShouldReuseExistingAndShareRepeatedUrls() {
+        // Arrange
+        List<String> originalUrls = List.of(originalUrl, "https://www.example.com/new", "HTTPS://www.example.com/new#again");
+        when(shortUrlRepository.findAllByUserIdAndUrlHashIn(eq(testUser.id()), any())).thenReturn(List.of(testUrl));
+        when(idAllocationService.nextUrlId()).thenReturn(20L);
+
+        // Act
+        List<URL> result = shortUrlService.createShortUrls(originalUrls, testUser, true);
+
+        // Assert
+        assertEquals(3, result.size());
+        assertSame(testUrl, result.get(0));
+        assertEquals(20L, result.get(1).getId());
+        assertSame(result.get(1), result.get(2));
+
+        ArgumentCaptor<List<URL>> captor = ArgumentCaptor.forClass(List.class);
+        verify(shortUrlRepository).saveAll(captor.capture());
+        assertEquals(1, captor.getValue().size());
+        verify(idAllocationService, times(1)).nextUrlId();
+    }
+
     @Test
     void resolveShortCode_ValidShortCode_ShouldReturnUrl() throws UrlNotFoundException {
         // Arrange
@@ -135,7 +292,7 @@ class ShortUrlServiceTest {
     @Test
     void deleteShortUrl_ValidUserAndUrl_ShouldDeleteUrl() throws UrlNotFoundException {
         // Arrange
-        when(shortUrlRepository.findByShortCodeAndUser(shortCode, testUser))
+        when(shortUrlRepository.findByShortCodeAndUserId(shortCode, testUser.id()))
                 .thenReturn(Optional.of(testUrl));
 
         try (MockedStatic<ShortCodeGenerator> mockedStatic = mockStatic(ShortCodeGenerator.class)) {
@@ -143,33 +300,65 @@ class ShortUrlServiceTest {
                     .thenReturn(true);
 
             // Act
-            shortUrlService.deleteShortUrl(shortCode, testUser);
+            URL result = shortUrlService.deleteShortUrl(shortCode, testUser);
 
             // Assert
-            verify(shortUrlRepository).findByShortCodeAndUser(shortCode, testUser);
-            verify(shortUrlRepository).delete(testUrl);
+            assertSame(testUrl, result);
+            verify(shortUrlRepository).findByShortCodeAndUserId(shortCode, testUser.id());
+            verify(shortUrlRepository, never()).findByShortCode(any());
+            verify(clickRepository).deleteAllByUrlIdIn(List.of(testUrl.getId()));
+            verify(shortUrlRepository).deleteAllByIdIn(List.of(testUrl.getId()));
+            verify(redirectCacheService).publishEviction(shortCode);
+            verify(redirectCacheService).evict(shortCode);
+            verify(urlClickStatsRepository).deleteByUrlId(testUrl.getId());
+            verify(urlReferrerRepository).deleteByUrlId(testUrl.getId());
+            verify(userRepository).incrementUrlsVersion(testUser.id());
+            verify(urlSearchService).removeUrl(testUser, testUrl.getId());
             mockedStatic.verify(() -> ShortCodeGenerator.validateShortCode(shortCode, originalUrl));
         }
     }
 
+    @Test
+    void deleteShortUrl_RolledBack_ShouldKeepUrlInSearchIndex() throws UrlNotFoundException {
+        // Arrange
+        when(shortUrlRepository.findByShortCodeAndUserId(shortCode, testUser.id()))
+                .thenReturn(Optional.of(testUrl));
+        TransactionSynchronizationManager.initSynchronization();
+        try (MockedStatic<ShortCodeGenerator> mockedStatic = mockStatic(ShortCodeGenerator.class)) {
+            mockedStatic.when(() -> ShortCodeGenerator.validateShortCode(shortCode, originalUrl))
+                    .thenReturn(true);
+
+            // Act
+            shortUrlService.deleteShortUrl(shortCode, testUser);
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+            // Assert
+            verify(urlSearchService, never()).removeUrl(any(), any());
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
     @Test
     void deleteShortUrl_NonExistentUrl_ShouldThrowException() {
         // Arrange
-        when(shortUrlRepository.findByShortCodeAndUser(shortCode, testUser))
+        when(shortUrlRepository.findByShortCodeAndUserId(shortCode, testUser.id()))
                 .thenReturn(Optional.empty());
+        when(shortUrlRepository.existsByShortCode(shortCode)).thenReturn(false);
 
         // Act & Assert
         UrlNotFoundException exception = assertThrows(UrlNotFoundException.class, 
                 () -> shortUrlService.deleteShortUrl(shortCode, testUser));
         assertTrue(exception.getMessage().contains("No URL mapping found"));
-        verify(shortUrlRepository).findByShortCodeAndUser(shortCode, testUser);
-        verify(shortUrlRepository, never()).delete(any());
+        verify(shortUrlRepository).findByShortCodeAndUserId(shortCode, testUser.id());
+        verify(shortUrlRepository, never()).deleteAllByIdIn(any());
     }
 
     @Test
     void deleteShortUrl_InvalidShortCode_ShouldThrowException() {
         // Arrange
-        when(shortUrlRepository.findByShortCodeAndUser(shortCode, testUser))
+        when(shortUrlRepository.findByShortCodeAndUserId(shortCode, testUser.id()))
                 .thenReturn(Optional.of(testUrl));
 
         try (MockedStatic<ShortCodeGenerator> mockedStatic = mockStatic(ShortCodeGenerator.class)) {
@@ -180,49 +369,368 @@ class ShortUrlServiceTest {
             UrlNotFoundException exception = assertThrows(UrlNotFoundException.class, 
                     () -> shortUrlService.deleteShortUrl(shortCode, testUser));
             assertTrue(exception.getMessage().contains("failed validation"));
-            verify(shortUrlRepository).findByShortCodeAndUser(shortCode, testUser);
-            verify(shortUrlRepository, never()).delete(any());
+            verify(shortUrlRepository).findByShortCodeAndUserId(shortCode, testUser.id());
+            verify(shortUrlRepository, never()).deleteAllByIdIn(any());
         }
     }
 
     @Test
-    void isUrlOwner_UserOwnsUrl_ShouldReturnTrue() throws UrlNotFoundException {
+    void deleteShortUrl_UserDoesNotOwnUrl_ShouldReturnNullWithoutDeleting() throws UrlNotFoundException {
         // Arrange
-        when(shortUrlRepository.findByShortCode(shortCode)).thenReturn(Optional.of(testUrl));
+        when(shortUrlRepository.findByShortCodeAndUserId(shortCode, testUser.id()))
+                .thenReturn(Optional.empty());
+        when(shortUrlRepository.existsByShortCode(shortCode)).thenReturn(true);
 
         // Act
-        boolean result = shortUrlService.isUrlOwner(shortCode, testUser);
+        URL result = shortUrlService.deleteShortUrl(shortCode, testUser);
 
         // Assert
-        assertTrue(result);
-        verify(shortUrlRepository).findByShortCode(shortCode);
+        assertNull(result);
+        verify(shortUrlRepository, never()).deleteAllByIdIn(any());
+        verify(redirectCacheService, never()).evict(any());
     }
 
     @Test
-    void isUrlOwner_UserDoesNotOwnUrl_ShouldReturnFalse() throws UrlNotFoundException {
+    void findOwnedUrl_UserOwnsUrl_ShouldReturnUrlWithSingleQuery() throws UrlNotFoundException {
         // Arrange
-        User differentUser = new User();
-        differentUser.setEmail("different@example.com");
-        
-        when(shortUrlRepository.findByShortCode(shortCode)).thenReturn(Optional.of(testUrl));
+        when(shortUrlRepository.findByShortCodeAndUserId(shortCode, testUser.id()))
+                .thenReturn(Optional.of(testUrl));
 
         // Act
-        boolean result = shortUrlService.isUrlOwner(shortCode, differentUser);
+        URL result = shortUrlService.findOwnedUrl(shortCode, testUser);
 
         // Assert
-        assertFalse(result);
-        verify(shortUrlRepository).findByShortCode(shortCode);
+        assertSame(testUrl, result);
+        verify(shortUrlRepository).findByShortCodeAndUserId(shortCode, testUser.id());
+        verifyNoMoreInteractions(shortUrlRepository);
     }
 
     @Test
-    void isUrlOwner_NonExistentUrl_ShouldThrowException() {
+    void findOwnedUrl_PrincipalWithOnlyId_ShouldMatchOnId() throws UrlNotFoundException {
         // Arrange
-        when(shortUrlRepository.findByShortCode(shortCode)).thenReturn(Optional.empty());
+        UserPrincipal principal = new UserPrincipal(testUser.id(), null);
+
+        when(shortUrlRepository.findByShortCodeAndUserId(shortCode, testUser.id()))
+                .thenReturn(Optional.of(testUrl));
+
+        // Act & Assert
+        assertSame(testUrl, shortUrlService.findOwnedUrl(shortCode, principal));
+    }
+
+    @Test
+    void findOwnedUrl_UserDoesNotOwnUrl_ShouldReturnNull() throws UrlNotFoundException {
+        // Arrange
+        UserPrincipal differentUser = new UserPrincipal(99L, testUser.email());
+
+        when(shortUrlRepository.findByShortCodeAndUserId(shortCode, 99L)).thenReturn(Optional.empty());
+        when(shortUrlRepository.existsByShortCode(shortCode)).thenReturn(true);
+
+        // Act
+        URL result = shortUrlService.findOwnedUrl(shortCode, differentUser);
+
+        // Assert
+        assertNull(result);
+        verify(shortUrlRepository).existsByShortCode(shortCode);
+    }
+
+    @Test
+    void findOwnedUrl_NonExistentUrl_ShouldThrowException() {
+        // Arrange
+        when(shortUrlRepository.findByShortCodeAndUserId(shortCode, testUser.id()))
+                .thenReturn(Optional.empty());
+        when(shortUrlRepository.existsByShortCode(shortCode)).thenReturn(false);
 
         // Act & Assert
         UrlNotFoundException exception = assertThrows(UrlNotFoundException.class, 
-                () -> shortUrlService.isUrlOwner(shortCode, testUser));
+                () -> shortUrlService.findOwnedUrl(shortCode, testUser));
         assertTrue(exception.getMessage().contains("No URL mapping found"));
-        verify(shortUrlRepository).findByShortCode(shortCode);
+    }
+
+    @Test
+    void createCustomShortUrl_ShouldUseAliasAsShortCode() throws AliasUnavailableException {
+        // Arrange
+        when(aliasService.isAliasTaken("summer-sale")).thenReturn(false);
+        when(idAllocationService.nextUrlId()).thenReturn(5L);
+        when(shortUrlRepository.saveAndFlush(any(URL.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        URL result = shortUrlService.createCustomShortUrl(originalUrl, "summer-sale", null, null, null, testUser);
+
+        // Assert
+        assertEquals(5L, result.getId());
+        assertEquals("summer-sale", result.getShortCode());
+        assertTrue(result.isCustomAlias());
+        assertSame(testOwner, result.getUser());
+        verify(aliasService).recordAlias("summer-sale");
+    }
+
+    @Test
+    void createCustomShortUrl_InTransaction_ShouldRecordAliasOnlyAfterCommit() throws AliasUnavailableException {
+        // Arrange
+        when(aliasService.isAliasTaken("summer-sale")).thenReturn(false);
+        when(idAllocationService.nextUrlId()).thenReturn(5L);
+        when(shortUrlRepository.saveAndFlush(any(URL.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // Act
+            shortUrlService.createCustomShortUrl(originalUrl, "summer-sale", null, null, null, testUser);
+            verify(aliasService, never()).recordAlias(anyString());
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+            // Assert
+            verify(aliasService).recordAlias("summer-sale");
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void createCustomShortUrl_AliasTaken_ShouldThrowException() {
+        // Arrange
+        when(aliasService.isAliasTaken("summer-sale")).thenReturn(true);
+
+        // Act & Assert
+        assertThrows(AliasUnavailableException.class,
+                () -> shortUrlService.createCustomShortUrl(originalUrl, "summer-sale", null, null, null, testUser));
+        verify(shortUrlRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    void createCustomShortUrl_ConcurrentInsert_ShouldThrowException() {
+        // Arrange
+        when(aliasService.isAliasTaken("summer-sale")).thenReturn(false);
+        when(idAllocationService.nextUrlId()).thenReturn(5L);
+        when(shortUrlRepository.saveAndFlush(any(URL.class))).thenThrow(new DataIntegrityViolationException("duplicate"));
+
+        // Act & Assert
+        assertThrows(AliasUnavailableException.class,
+                () -> shortUrlService.createCustomShortUrl(originalUrl, "summer-sale", null, null, null, testUser));
+        verify(aliasService, never()).recordAlias(anyString());
+    }
+
+    @Test
+    void createCustomShortUrl_InvalidAlias_ShouldThrowException() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class,
+                () -> shortUrlService.createCustomShortUrl(originalUrl, "a1b2c3d4", null, null, null, testUser));
+        verifyNoInteractions(aliasService);
+    }
+
+    @Test
+    void resolveShortCode_CustomAlias_ShouldSkipChecksumValidation() throws UrlNotFoundException {
+        // Arrange
+        testUrl.setShortCode("summer-sale");
+        testUrl.setCustomAlias(true);
+        when(shortUrlRepository.findByShortCode("summer-sale")).thenReturn(Optional.of(testUrl));
+
+        // Act
+        URL result = shortUrlService.resolveShortCode("summer-sale");
+
+        // Assert
+        assertEquals(testUrl, result);
+    }
+
+    @Test
+    void createCustomShortUrl_ExpiryWithoutAlias_ShouldKeepGeneratedShortCode() throws AliasUnavailableException {
+        // Arrange
+        Date expiresAt = new Date(System.currentTimeMillis() + 60_000);
+        when(idAllocationService.nextUrlId()).thenReturn(5L);
+        when(shortUrlRepository.save(any(URL.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        URL result = shortUrlService.createCustomShortUrl(originalUrl, null, expiresAt, 10L, null, testUser);
+
+        // Assert
+        assertEquals(ShortCodeGenerator.generateShortCode(5L, originalUrl), result.getShortCode());
+        assertFalse(result.isCustomAlias());
+        assertEquals(expiresAt, result.getExpiresAt());
+        assertEquals(10L, result.getMaxClicks());
+        verifyNoInteractions(aliasService);
+    }
+
+    @Test
+    void createCustomShortUrl_NonPositiveMaxClicks_ShouldThrowException() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class,
+                () -> shortUrlService.createCustomShortUrl(originalUrl, null, null, 0L, null, testUser));
+        verify(shortUrlRepository, never()).save(any());
+    }
+
+    @Test
+    void resolveShortCode_Cached_ShouldNotQueryRepository() throws UrlNotFoundException {
+        // Arrange
+        when(redirectCacheService.get(shortCode)).thenReturn(testUrl);
+
+        // Act
+        URL result = shortUrlService.resolveShortCode(shortCode);
+
+        // Assert
+        assertEquals(testUrl, result);
+        verifyNoInteractions(shortUrlRepository);
+    }
+
+    @Test
+    void resolveShortCode_ShouldCacheResolvedUrl() throws UrlNotFoundException {
+        // Arrange
+        testUrl.setCustomAlias(true);
+        when(shortUrlRepository.findByShortCode(shortCode)).thenReturn(Optional.of(testUrl));
+
+        // Act
+        shortUrlService.resolveShortCode(shortCode);
+
+        // Assert
+        verify(redirectCacheService).put(testUrl);
+    }
+
+    @Test
+    void resolveShortCode_PastExpiry_ShouldThrowUrlExpiredException() {
+        // Arrange
+        testUrl.setCustomAlias(true);
+        testUrl.setExpiresAt(new Date(System.currentTimeMillis() - 1000));
+        when(shortUrlRepository.findByShortCode(shortCode)).thenReturn(Optional.of(testUrl));
+
+        // Act & Assert
+        assertThrows(UrlExpiredException.class, () -> shortUrlService.resolveShortCode(shortCode));
+        verify(redirectCacheService, never()).put(any());
+    }
+
+    @Test
+    void resolveShortCode_ClickLimitReached_ShouldThrowUrlExpiredException() {
+        // Arrange
+        testUrl.setCustomAlias(true);
+        testUrl.setMaxClicks(3L);
+        testUrl.setClickCount(3);
+        when(shortUrlRepository.findByShortCode(shortCode)).thenReturn(Optional.of(testUrl));
+
+        // Act & Assert
+        assertThrows(UrlExpiredException.class, () -> shortUrlService.resolveShortCode(shortCode));
+    }
+
+    @Test
+    void recordRedirect_NoClickLimit_ShouldNotTouchRepository() throws UrlExpiredException {
+        // Act
+        shortUrlService.recordRedirect(testUrl);
+
+        // Assert
+        verifyNoInteractions(shortUrlRepository);
+    }
+
+    @Test
+    void recordRedirect_WithinLimit_ShouldIncrementClickCount() throws UrlExpiredException {
+        // Arrange
+        testUrl.setMaxClicks(3L);
+        when(shortUrlRepository.incrementClickCount(eq(1L), any(Date.class))).thenReturn(1);
+
+        // Act
+        shortUrlService.recordRedirect(testUrl);
+
+        // Assert
+        verify(redirectCacheService, never()).evict(anyString());
+    }
+
+    @Test
+    void recordRedirect_LimitReached_ShouldEvictAndThrowException() {
+        // Arrange
+        testUrl.setMaxClicks(3L);
+        when(shortUrlRepository.incrementClickCount(eq(1L), any(Date.class))).thenReturn(0);
+
+        // Act & Assert
+        assertThrows(UrlExpiredException.class, () -> shortUrlService.recordRedirect(testUrl));
+        verify(redirectCacheService).evict(shortCode);
+    }
+
+    @Test
+    void createCustomShortUrl_WithDestinations_ShouldSaveThemInOrder() throws AliasUnavailableException {
+        // Arrange
+        when(idAllocationService.nextUrlId()).thenReturn(5L);
+        when(shortUrlRepository.save(any(URL.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        List<UrlDestination> destinations = List.of(destination("https://a.example.com", 3), destination("https://b.example.com", 1));
+
+        // Act
+        URL result = shortUrlService.createCustomShortUrl(originalUrl, null, null, null, destinations, testUser);
+
+        // Assert
+        assertTrue(result.isWeighted());
+        verify(urlDestinationRepository).saveAll(destinations);
+        assertEquals(5L, destinations.get(0).getUrlId());
+        assertEquals(0, destinations.get(0).getPosition());
+        assertEquals(5L, destinations.get(1).getUrlId());
+        assertEquals(1, destinations.get(1).getPosition());
+    }
+
+    @Test
+    void createCustomShortUrl_NonPositiveDestinationWeight_ShouldThrowException() {
+        // Arrange
+        when(idAllocationService.nextUrlId()).thenReturn(5L);
+        when(shortUrlRepository.save(any(URL.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> shortUrlService.createCustomShortUrl(
+                originalUrl, null, null, null, List.of(destination("https://a.example.com", 0)), testUser));
+        verify(urlDestinationRepository, never()).saveAll(any());
+    }
+
+    @Test
+    void deleteShortUrl_ShouldDeleteDestinations() throws UrlNotFoundException {
+        // Arrange
+        testUrl.setCustomAlias(true);
+        when(shortUrlRepository.findByShortCodeAndUserId(shortCode, testUser.id())).thenReturn(Optional.of(testUrl));
+
+        // Act
+        shortUrlService.deleteShortUrl(shortCode, testUser);
+
+        // Assert
+        verify(urlDestinationRepository).deleteByUrlId(1L);
+    }
+
+    @Test
+    void getUrlsForUser_MoreRowsThanLimit_ShouldReturnPageWithCursorOfLastRow() {
+        // Arrange
+        List<ShortUrlRepository.UrlSummary> rows = List.of(summary(5L, 3_000L), summary(4L, 2_000L), summary(3L, 1_000L));
+        when(shortUrlRepository.findSummariesByUserId(testUser.id(), PageRequest.of(0, 3))).thenReturn(rows);
+
+        // Act
+        ShortUrlService.UrlPage page = shortUrlService.getUrlsForUser(testUser, null, 2);
+
+        // Assert
+        assertEquals(rows.subList(0, 2), page.urls());
+        assertEquals(new PageCursor(2_000L, 4L), PageCursor.decode(page.nextCursor()));
+    }
+
+    @Test
+    void getUrlsForUser_WithCursor_ShouldContinueAfterIt() {
+        // Arrange
+        List<ShortUrlRepository.UrlSummary> rows = List.of(summary(3L, 1_000L));
+        when(shortUrlRepository.findSummariesByUserIdBefore(testUser.id(), new Date(2_000L), 4L, PageRequest.of(0, 3)))
+                .thenReturn(rows);
+
+        // Act
+        ShortUrlService.UrlPage page = shortUrlService.getUrlsForUser(testUser, new PageCursor(2_000L, 4L).encode(), 2);
+
+        // Assert
+        assertEquals(rows, page.urls());
+        assertNull(page.nextCursor());
+        verify(shortUrlRepository, never()).findSummariesByUserId(any(), any());
+    }
+
+    @Test
+    void getUrlsForUser_InvalidCursor_ShouldThrowException() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> shortUrlService.getUrlsForUser(testUser, "not a cursor", 2));
+        verifyNoInteractions(shortUrlRepository);
+    }
+
+    private static ShortUrlRepository.UrlSummary summary(long id, long createdAtMillis) {
+        ShortUrlRepository.UrlSummary summary = mock(ShortUrlRepository.UrlSummary.class);
+        lenient().when(summary.getId()).thenReturn(id);
+        lenient().when(summary.getCreatedAt()).thenReturn(new Date(createdAtMillis));
+        return summary;
+    }
+
+    private static UrlDestination destination(String destinationUrl, long weight) {
+        UrlDestination destination = new UrlDestination();
+        destination.setDestinationUrl(destinationUrl);
+        destination.setWeight(weight);
+        return destination;
     }
 }
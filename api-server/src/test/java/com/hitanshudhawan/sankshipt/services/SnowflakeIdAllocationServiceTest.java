@@ -0,0 +1,204 @@
+package com.hitanshudhawan.sankshipt.services;
+
+import com.hitanshudhawan.sankshipt.models.NodeLease;
+import com.hitanshudhawan.sankshipt.repositories.NodeLeaseRepository;
+import com.hitanshudhawan.sankshipt.utils.SnowflakeIdGenerator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SnowflakeIdAllocationServiceTest {
+
+    private static final long LEASE_TTL = 30_000;
+    private static final long LEASE_WAIT = 100;
+
+    @Mock
+    private NodeLeaseRepository nodeLeaseRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SnowflakeIdAllocationServiceImpl idAllocationService;
+
+    @BeforeEach
+    void setUp() {
+        idAllocationService = new SnowflakeIdAllocationServiceImpl(nodeLeaseRepository, transactionManager, LEASE_TTL, LEASE_WAIT);
+    }
+
+    private NodeLease lease(int nodeId, long expiresAt) {
+        NodeLease lease = new NodeLease();
+        lease.setNodeId(nodeId);
+        lease.setOwner("other");
+        lease.setExpiresAt(expiresAt);
+        return lease;
+    }
+
+    @Test
+    void nextUrlId_ShouldGenerateLocallyFromLeasedNode() {
+        // Arrange
+        when(nodeLeaseRepository.findAll()).thenReturn(Collections.emptyList());
+        when(nodeLeaseRepository.insertLease(eq(0), anyString(), anyLong())).thenReturn(1);
+        idAllocationService.heartbeat();
+
+        // Act
+        Set<Long> ids = new HashSet<>();
+        for (int i = 0; i < 1000; i++) {
+            ids.add(idAllocationService.nextUrlId());
+        }
+
+        // Assert
+        assertEquals(1000, ids.size());
+        ids.forEach(id -> assertEquals(0, SnowflakeIdGenerator.nodeIdOf(id)));
+        verify(nodeLeaseRepository, times(1)).insertLease(eq(0), anyString(), anyLong());
+        verify(nodeLeaseRepository, never()).renewLease(anyInt(), anyString(), anyLong());
+    }
+
+    @Test
+    void nextUrlId_NoLease_ShouldFailWithoutTouchingDatabase() {
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> idAllocationService.nextUrlId());
+        verifyNoInteractions(nodeLeaseRepository);
+    }
+
+    @Test
+    void nextUrlId_NoLeaseYet_ShouldWaitForHeartbeat() throws Exception {
+        // Arrange
+        idAllocationService = new SnowflakeIdAllocationServiceImpl(nodeLeaseRepository, transactionManager, LEASE_TTL, 10_000);
+        when(nodeLeaseRepository.findAll()).thenReturn(Collections.emptyList());
+        when(nodeLeaseRepository.insertLease(eq(0), anyString(), anyLong())).thenReturn(1);
+        CompletableFuture<Long> id = CompletableFuture.supplyAsync(idAllocationService::nextUrlId);
+
+        // Act
+        idAllocationService.heartbeat();
+
+        // Assert
+        assertEquals(0, SnowflakeIdGenerator.nodeIdOf(id.get(5, TimeUnit.SECONDS)));
+    }
+
+    @Test
+    void heartbeat_NodeTakenConcurrently_ShouldTryNextNode() {
+        // Arrange
+        when(nodeLeaseRepository.findAll()).thenReturn(Collections.emptyList());
+        doThrow(new DataIntegrityViolationException("duplicate")).when(nodeLeaseRepository).insertLease(eq(0), anyString(), anyLong());
+        doReturn(1).when(nodeLeaseRepository).insertLease(eq(1), anyString(), anyLong());
+
+        // Act
+        idAllocationService.heartbeat();
+        long id = idAllocationService.nextUrlId();
+
+        // Assert
+        assertEquals(1, SnowflakeIdGenerator.nodeIdOf(id));
+    }
+
+    @Test
+    void heartbeat_AllNodesUsed_ShouldTakeOverExpiredLeaseAfterItsExpiry() {
+        // Arrange
+        long now = System.currentTimeMillis();
+        List<NodeLease> leases = new ArrayList<>();
+        for (int nodeId = 0; nodeId <= SnowflakeIdGenerator.MAX_NODE_ID; nodeId++) {
+            leases.add(lease(nodeId, now + LEASE_TTL));
+        }
+        long previousExpiry = now - 100;
+        leases.set(7, lease(7, previousExpiry));
+        when(nodeLeaseRepository.findAll()).thenReturn(leases);
+        when(nodeLeaseRepository.takeOverLease(eq(7), anyString(), anyLong(), eq(previousExpiry))).thenReturn(1);
+
+        // Act
+        idAllocationService.heartbeat();
+        long id = idAllocationService.nextUrlId();
+
+        // Assert
+        assertEquals(7, SnowflakeIdGenerator.nodeIdOf(id));
+        assertTrue(SnowflakeIdGenerator.timestampMillisOf(id) > previousExpiry);
+        verify(nodeLeaseRepository, never()).insertLease(anyInt(), anyString(), anyLong());
+    }
+
+    @Test
+    void nextUrlId_NoFreeNode_ShouldThrowException() {
+        // Arrange
+        long now = System.currentTimeMillis();
+        List<NodeLease> leases = new ArrayList<>();
+        for (int nodeId = 0; nodeId <= SnowflakeIdGenerator.MAX_NODE_ID; nodeId++) {
+            leases.add(lease(nodeId, now + LEASE_TTL));
+        }
+        when(nodeLeaseRepository.findAll()).thenReturn(leases);
+
+        // Act
+        idAllocationService.heartbeat();
+
+        // Assert
+        assertThrows(IllegalStateException.class, () -> idAllocationService.nextUrlId());
+    }
+
+    @Test
+    void heartbeat_LeaseLost_ShouldAcquireNewNode() {
+        // Arrange
+        when(nodeLeaseRepository.findAll()).thenReturn(Collections.emptyList());
+        when(nodeLeaseRepository.insertLease(anyInt(), anyString(), anyLong())).thenReturn(1);
+        idAllocationService.heartbeat();
+        when(nodeLeaseRepository.renewLease(eq(0), anyString(), anyLong())).thenReturn(0);
+
+        // Act
+        idAllocationService.heartbeat();
+        idAllocationService.nextUrlId();
+
+        // Assert
+        verify(nodeLeaseRepository, times(2)).insertLease(eq(0), anyString(), anyLong());
+    }
+
+    @Test
+    void heartbeat_ShouldRenewHeldLease() {
+        // Arrange
+        when(nodeLeaseRepository.findAll()).thenReturn(Collections.emptyList());
+        when(nodeLeaseRepository.insertLease(anyInt(), anyString(), anyLong())).thenReturn(1);
+        idAllocationService.heartbeat();
+        when(nodeLeaseRepository.renewLease(eq(0), anyString(), anyLong())).thenReturn(1);
+
+        // Act
+        idAllocationService.heartbeat();
+        idAllocationService.nextUrlId();
+
+        // Assert
+        verify(nodeLeaseRepository, times(1)).renewLease(eq(0), anyString(), anyLong());
+        verify(nodeLeaseRepository, times(1)).insertLease(anyInt(), anyString(), anyLong());
+    }
+
+    @Test
+    void releaseLease_ShouldRecordLastUsedSecond() {
+        // Arrange
+        when(nodeLeaseRepository.findAll()).thenReturn(Collections.emptyList());
+        when(nodeLeaseRepository.insertLease(anyInt(), anyString(), anyLong())).thenReturn(1);
+        idAllocationService.heartbeat();
+        long id = idAllocationService.nextUrlId();
+
+        // Act
+        idAllocationService.releaseLease();
+
+        // Assert
+        verify(nodeLeaseRepository).renewLease(eq(0), anyString(), eq(SnowflakeIdGenerator.timestampMillisOf(id)));
+    }
+
+    @Test
+    void constructor_ShortLeaseTtl_ShouldThrowException() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new SnowflakeIdAllocationServiceImpl(nodeLeaseRepository, transactionManager, 5_000, LEASE_WAIT));
+    }
+
+}
@@ -0,0 +1,200 @@
+package com.hitanshudhawan.sankshipt.services;
+
+import com.hitanshudhawan.sankshipt.models.Click;
+import com.hitanshudhawan.sankshipt.models.URL;
+import com.hitanshudhawan.sankshipt.models.UrlClickStats;
+import com.hitanshudhawan.sankshipt.models.User;
+import com.hitanshudhawan.sankshipt.models.UserPrincipal;
+import com.hitanshudhawan.sankshipt.repositories.ClickRepository;
+import com.hitanshudhawan.sankshipt.repositories.ShortUrlRepository;
+import com.hitanshudhawan.sankshipt.utils.UrlNormalizer;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pins the number of SQL statements behind each endpoint, so that an eager association
+ * or a per-row lookup fails the build instead of slipping into production.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import({ShortUrlServiceImpl.class, ClickAnalyticsServiceImpl.class})
+class StatementCountTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ShortUrlService shortUrlService;
+
+    @Autowired
+    private ClickAnalyticsService clickAnalyticsService;
+
+    @MockBean
+    private IdAllocationService idAllocationService;
+
+    @MockBean
+    private AliasService aliasService;
+
+    @MockBean
+    private RedirectCacheService redirectCacheService;
+
+    @MockBean
+    private UrlSearchService urlSearchService;
+
+    @MockBean
+    private ClickFilterService clickFilterService;
+
+    @MockBean
+    private ReferrerAnalyticsService referrerAnalyticsService;
+
+    @MockBean
+    private ClickRateService clickRateService;
+
+    private Statistics statistics;
+    private User user;
+    private UserPrincipal principal;
+
+    @BeforeEach
+    void setUp() {
+        user = new User();
+        user.setEmail("test@example.com");
+        entityManager.persist(user);
+        principal = new UserPrincipal(user.getId(), user.getEmail());
+
+        URL url = url(1L, "summer-sale");
+        url(2L, "winter-sale");
+        click(url, "2024-01-01T10:00:00Z");
+        click(url, "2024-01-02T10:00:00Z");
+        click(url, "2024-01-03T10:00:00Z");
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void listUrlsWithClickTotals_ShouldUseTwoStatements() {
+        // Act
+        ShortUrlService.UrlPage page = shortUrlService.getUrlsForUser(principal, null, 10);
+        Map<Long, ClickAnalyticsService.ClickTotals> totals = clickAnalyticsService.getClickTotals(
+                page.urls().stream().map(ShortUrlRepository.UrlSummary::getId).toList());
+
+        // Assert
+        assertEquals(2, page.urls().size());
+        assertTrue(totals.isEmpty());
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void urlsVersion_ShouldUseOneStatement() {
+        // Act
+        long version = shortUrlService.getUrlsVersion(principal);
+
+        // Assert - this is all a conditional listing request costs when nothing changed
+        assertEquals(0L, version);
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void resolveShortCode_ShouldUseOneStatement() throws Exception {
+        // Act
+        URL url = shortUrlService.resolveShortCode("summer-sale");
+
+        // Assert
+        assertEquals(1L, url.getId());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void clickCount_ShouldUseTwoStatements() throws Exception {
+        // Arrange
+        UrlClickStats stats = new UrlClickStats();
+        stats.setUrlId(1L);
+        stats.setTotalClicks(3);
+        stats.setClicksVersion(1);
+        entityManager.persistAndFlush(stats);
+        entityManager.clear();
+        statistics.clear();
+
+        // Act
+        URL url = shortUrlService.findOwnedUrl("summer-sale", principal);
+        ClickAnalyticsService.ClickCount count = clickAnalyticsService.getClickCount(url);
+
+        // Assert
+        assertEquals(3L, count.totalClicks());
+        assertEquals(1L, count.version());
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void clicksPage_ShouldUseThreeStatements() throws Exception {
+        // Act
+        URL url = shortUrlService.findOwnedUrl("summer-sale", principal);
+        Page<ClickRepository.ClickView> clicks = clickAnalyticsService.getClicksForUrl(url, null, null, null, 0, 2, null);
+
+        // Assert - owner lookup, page and total count; no URL or user is loaded per click
+        assertEquals(2, clicks.getContent().size());
+        assertEquals(3, clicks.getTotalElements());
+        assertEquals(date("2024-01-03T10:00:00Z"), clicks.getContent().get(0).getClickedAt());
+        assertEquals(3, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void deleteShortUrl_ShouldUseSevenStatements() throws Exception {
+        // Act
+        URL deleted = shortUrlService.deleteShortUrl("summer-sale", principal);
+
+        // Assert - owner lookup, one bulk delete per table regardless of the number of clicks, and the listing version bump
+        assertNotNull(deleted);
+        assertEquals(7, statistics.getPrepareStatementCount());
+        entityManager.clear();
+        assertNull(entityManager.find(URL.class, 1L));
+    }
+
+    private URL url(Long id, String alias) {
+        URL url = new URL();
+        url.setId(id);
+        url.setOriginalUrl("https://www.example.com/" + alias);
+        url.setUrlHash(UrlNormalizer.urlHash(url.getOriginalUrl()));
+        url.setShortCode(alias);
+        url.setCustomAlias(true);
+        url.setUser(user);
+        return entityManager.persist(url);
+    }
+
+    private void click(URL url, String clickedAt) {
+        Click click = new Click();
+        click.setUrl(url);
+        click.setUserAgent("Mozilla/5.0 Firefox/120.0");
+        entityManager.persist(click);
+        entityManager.flush();
+
+        // clickedAt is set by Hibernate on insert, so backdate it afterwards
+        entityManager.getEntityManager()
+                .createNativeQuery("UPDATE clicks SET clicked_at = ?1 WHERE id = ?2")
+                .setParameter(1, date(clickedAt))
+                .setParameter(2, click.getId())
+                .executeUpdate();
+    }
+
+    private static Date date(String instant) {
+        return Date.from(Instant.parse(instant));
+    }
+
+}
@@ -0,0 +1,102 @@
+package com.hitanshudhawan.sankshipt.services;
+
+import com.hitanshudhawan.sankshipt.repositories.ArchivedUrlRepository;
+import com.hitanshudhawan.sankshipt.repositories.ClickRepository;
+import com.hitanshudhawan.sankshipt.repositories.ShortUrlRepository;
+import com.hitanshudhawan.sankshipt.repositories.UrlClickStatsRepository;
+import com.hitanshudhawan.sankshipt.repositories.UrlDestinationRepository;
+import com.hitanshudhawan.sankshipt.repositories.UrlReferrerRepository;
+import com.hitanshudhawan.sankshipt.repositories.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UrlExpiryServiceTest {
+
+    @Mock
+    private ShortUrlRepository shortUrlRepository;
+
+    @Mock
+    private ArchivedUrlRepository archivedUrlRepository;
+
+    @Mock
+    private ClickRepository clickRepository;
+
+    @Mock
+    private UrlClickStatsRepository urlClickStatsRepository;
+
+    @Mock
+    private UrlReferrerRepository urlReferrerRepository;
+
+    @Mock
+    private UrlDestinationRepository urlDestinationRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private UrlExpiryServiceImpl urlExpiryService;
+
+    @BeforeEach
+    void setUp() {
+        urlExpiryService = new UrlExpiryServiceImpl(shortUrlRepository, archivedUrlRepository, clickRepository,
+                urlClickStatsRepository, urlReferrerRepository, urlDestinationRepository, userRepository, transactionManager, 2);
+    }
+
+    @Test
+    void archiveExpiredUrls_NothingExpired_ShouldDoNothing() {
+        // Arrange
+        when(shortUrlRepository.findExpiredIds(any(Date.class), any(Pageable.class))).thenReturn(List.of());
+
+        // Act
+        int archived = urlExpiryService.archiveExpiredUrls();
+
+        // Assert
+        assertEquals(0, archived);
+        verifyNoInteractions(archivedUrlRepository, clickRepository);
+        verify(shortUrlRepository, never()).deleteAllByIdIn(any());
+    }
+
+    @Test
+    void archiveExpiredUrls_ShouldArchiveInBatchesUntilShortBatch() {
+        // Arrange
+        when(shortUrlRepository.findExpiredIds(any(Date.class), any(Pageable.class)))
+                .thenReturn(List.of(1L, 2L))
+                .thenReturn(List.of(3L));
+
+        // Act
+        int archived = urlExpiryService.archiveExpiredUrls();
+
+        // Assert
+        assertEquals(3, archived);
+        verify(shortUrlRepository, times(2)).findExpiredIds(any(Date.class), any(Pageable.class));
+        verify(transactionManager, times(2)).commit(any());
+
+        InOrder inOrder = inOrder(archivedUrlRepository, userRepository, clickRepository, urlClickStatsRepository, urlReferrerRepository, urlDestinationRepository, shortUrlRepository);
+        inOrder.verify(archivedUrlRepository).archiveUrls(List.of(1L, 2L));
+        inOrder.verify(userRepository).incrementUrlsVersionForUrls(List.of(1L, 2L));
+        inOrder.verify(clickRepository).deleteAllByUrlIdIn(List.of(1L, 2L));
+        inOrder.verify(urlClickStatsRepository).deleteAllByUrlIdIn(List.of(1L, 2L));
+        inOrder.verify(urlReferrerRepository).deleteAllByUrlIdIn(List.of(1L, 2L));
+        inOrder.verify(urlDestinationRepository).deleteAllByUrlIdIn(List.of(1L, 2L));
+        inOrder.verify(shortUrlRepository).deleteAllByIdIn(List.of(1L, 2L));
+        inOrder.verify(archivedUrlRepository).archiveUrls(List.of(3L));
+        inOrder.verify(shortUrlRepository).deleteAllByIdIn(List.of(3L));
+    }
+
+}
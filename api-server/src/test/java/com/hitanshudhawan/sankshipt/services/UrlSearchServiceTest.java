@@ -0,0 +1,156 @@
+package com.hitanshudhawan.sankshipt.services;
+
+import com.hitanshudhawan.sankshipt.models.URL;
+import com.hitanshudhawan.sankshipt.models.UserPrincipal;
+import com.hitanshudhawan.sankshipt.repositories.ShortUrlRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UrlSearchServiceTest {
+
+    @Mock
+    private ShortUrlRepository shortUrlRepository;
+
+    private UrlSearchServiceImpl urlSearchService;
+
+    private UserPrincipal testUser;
+
+    @BeforeEach
+    void setUp() {
+        urlSearchService = new UrlSearchServiceImpl(shortUrlRepository, 600000, 1800000);
+
+        testUser = new UserPrincipal(1L, null);
+    }
+
+    @Test
+    void search_ShouldBuildIndexOnceAndReadMatchesBack() {
+        // Arrange
+        ShortUrlRepository.UrlSummary docs = summary(1L, "abc123", "https://docs.example.com", 1000);
+        ShortUrlRepository.UrlSummary blog = summary(2L, "def456", "https://blog.example.com", 2000);
+        when(shortUrlRepository.findSummariesByUserId(1L, Pageable.unpaged())).thenReturn(List.of(docs, blog));
+        when(shortUrlRepository.findSummariesByUserIdAndIdIn(1L, List.of(2L, 1L))).thenReturn(List.of(blog, docs));
+        when(shortUrlRepository.findSummariesByUserIdAndIdIn(1L, List.of(2L))).thenReturn(List.of(blog));
+
+        // Act
+        List<ShortUrlRepository.UrlSummary> all = urlSearchService.search(testUser, "EXAMPLE", 10);
+        List<ShortUrlRepository.UrlSummary> byCode = urlSearchService.search(testUser, "def", 10);
+
+        // Assert
+        assertEquals(List.of(blog, docs), all);
+        assertEquals(List.of(blog), byCode);
+        verify(shortUrlRepository, times(1)).findSummariesByUserId(1L, Pageable.unpaged());
+        assertEquals(1, urlSearchService.indexedUserCount());
+    }
+
+    @Test
+    void search_NoMatches_ShouldNotQueryRows() {
+        // Arrange
+        ShortUrlRepository.UrlSummary docs = summary(1L, "abc123", "https://docs.example.com", 1000);
+        when(shortUrlRepository.findSummariesByUserId(1L, Pageable.unpaged())).thenReturn(List.of(docs));
+
+        // Act
+        List<ShortUrlRepository.UrlSummary> result = urlSearchService.search(testUser, "missing", 10);
+
+        // Assert
+        assertTrue(result.isEmpty());
+        verify(shortUrlRepository, never()).findSummariesByUserIdAndIdIn(anyLong(), any());
+    }
+
+    @Test
+    void addUrlsAndRemoveUrl_ShouldUpdateLoadedIndex() {
+        // Arrange
+        ShortUrlRepository.UrlSummary docs = summary(1L, "abc123", "https://docs.example.com", 1000);
+        when(shortUrlRepository.findSummariesByUserId(1L, Pageable.unpaged())).thenReturn(List.of(docs));
+        urlSearchService.search(testUser, "docs", 10);
+
+        // Act
+        urlSearchService.addUrls(testUser, List.of(url(2L, "xyz789", "https://docs.example.org")));
+        urlSearchService.removeUrl(testUser, 1L);
+        urlSearchService.search(testUser, "docs", 10);
+
+        // Assert
+        verify(shortUrlRepository).findSummariesByUserIdAndIdIn(1L, List.of(2L));
+        verify(shortUrlRepository, times(1)).findSummariesByUserId(1L, Pageable.unpaged());
+    }
+
+    @Test
+    void addUrls_WithoutIndex_ShouldNotBuildOne() {
+        // Act
+        urlSearchService.addUrls(testUser, List.of(url(2L, "xyz789", "https://docs.example.org")));
+        urlSearchService.removeUrl(testUser, 2L);
+
+        // Assert
+        assertEquals(0, urlSearchService.indexedUserCount());
+        verifyNoInteractions(shortUrlRepository);
+    }
+
+    @Test
+    void evictIdleIndexes_RecentlyUsed_ShouldKeepIndex() {
+        // Arrange
+        urlSearchService.search(testUser, "docs", 10);
+
+        // Act
+        urlSearchService.evictIdleIndexes();
+
+        // Assert
+        assertEquals(1, urlSearchService.indexedUserCount());
+    }
+
+    @Test
+    void evictIdleIndexes_IdleIndex_ShouldDropItAndRebuildOnNextSearch() {
+        // Arrange
+        urlSearchService = new UrlSearchServiceImpl(shortUrlRepository, 0, 1800000);
+        urlSearchService.search(testUser, "docs", 10);
+
+        // Act
+        urlSearchService.evictIdleIndexes();
+        urlSearchService.search(testUser, "docs", 10);
+
+        // Assert
+        verify(shortUrlRepository, times(2)).findSummariesByUserId(1L, Pageable.unpaged());
+    }
+
+    @Test
+    void search_IndexPastTimeToLive_ShouldRebuildIt() {
+        // Arrange
+        urlSearchService = new UrlSearchServiceImpl(shortUrlRepository, 600000, 0);
+
+        // Act
+        urlSearchService.search(testUser, "docs", 10);
+        urlSearchService.search(testUser, "docs", 10);
+
+        // Assert
+        verify(shortUrlRepository, times(2)).findSummariesByUserId(1L, Pageable.unpaged());
+    }
+
+    private static ShortUrlRepository.UrlSummary summary(Long id, String shortCode, String originalUrl, long createdAtMillis) {
+        ShortUrlRepository.UrlSummary summary = mock(ShortUrlRepository.UrlSummary.class);
+        lenient().when(summary.getId()).thenReturn(id);
+        lenient().when(summary.getShortCode()).thenReturn(shortCode);
+        lenient().when(summary.getOriginalUrl()).thenReturn(originalUrl);
+        lenient().when(summary.getCreatedAt()).thenReturn(new Date(createdAtMillis));
+        return summary;
+    }
+
+    private static URL url(Long id, String shortCode, String originalUrl) {
+        URL url = new URL();
+        url.setId(id);
+        url.setShortCode(shortCode);
+        url.setOriginalUrl(originalUrl);
+        return url;
+    }
+
+}
@@ -1,10 +1,9 @@
 package com.hitanshudhawan.sankshipt.services;
 
-import com.hitanshudhawan.sankshipt.models.User;
 import com.hitanshudhawan.sankshipt.repositories.UserRepository;
-import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -24,94 +23,76 @@ class UserServiceTest {
     @InjectMocks
     private UserServiceImpl userService;
 
-    private User existingUser;
     private final String testEmail = "test@example.com";
 
-    @BeforeEach
-    void setUp() {
-        existingUser = new User();
-        existingUser.setId(1L);
-        existingUser.setEmail(testEmail);
+    @Test
+    void getOrCreateUserId_ShouldUpsertThenReadId() {
+        // Arrange
+        when(userRepository.upsertByEmail(testEmail)).thenReturn(1);
+        when(userRepository.lastInsertId()).thenReturn(1L);
+
+        // Act
+        Long result = userService.getOrCreateUserId(testEmail);
+
+        // Assert
+        assertEquals(1L, result);
+        InOrder inOrder = inOrder(userRepository);
+        inOrder.verify(userRepository).upsertByEmail(testEmail);
+        inOrder.verify(userRepository).lastInsertId();
     }
 
     @Test
-    void getOrCreateUser_ExistingUser_ShouldReturnExistingUser() {
+    void getOrCreateUserId_ShouldNotFindOrSaveSeparately() {
         // Arrange
-        when(userRepository.findByEmail(testEmail)).thenReturn(Optional.of(existingUser));
+        when(userRepository.lastInsertId()).thenReturn(2L);
 
         // Act
-        User result = userService.getOrCreateUser(testEmail);
+        userService.getOrCreateUserId(testEmail);
 
         // Assert
-        assertNotNull(result);
-        assertEquals(existingUser, result);
-        assertEquals(testEmail, result.getEmail());
-        verify(userRepository).findByEmail(testEmail);
-        verify(userRepository, never()).save(any(User.class));
+        verify(userRepository, never()).findByEmail(any());
+        verify(userRepository, never()).save(any());
     }
 
     @Test
-    void getOrCreateUser_NewUser_ShouldCreateAndReturnNewUser() {
+    void getOrCreateUserId_EmptyEmail_ShouldStillUpsert() {
         // Arrange
-        User newUser = new User();
-        newUser.setId(2L);
-        newUser.setEmail(testEmail);
-
-        when(userRepository.findByEmail(testEmail)).thenReturn(Optional.empty());
-        when(userRepository.save(any(User.class))).thenReturn(newUser);
+        when(userRepository.lastInsertId()).thenReturn(4L);
 
         // Act
-        User result = userService.getOrCreateUser(testEmail);
+        Long result = userService.getOrCreateUserId("");
 
         // Assert
-        assertNotNull(result);
-        assertEquals(newUser, result);
-        assertEquals(testEmail, result.getEmail());
-        verify(userRepository).findByEmail(testEmail);
-        verify(userRepository).save(any(User.class));
+        assertEquals(4L, result);
+        verify(userRepository).upsertByEmail("");
     }
 
     @Test
-    void getOrCreateUser_NullEmail_ShouldHandleGracefully() {
+    void getOrCreateUserId_WithAuthUserId_ShouldUpsertByAuthUserId() {
         // Arrange
-        when(userRepository.findByEmail(null)).thenReturn(Optional.empty());
-        
-        User newUser = new User();
-        newUser.setId(3L);
-        newUser.setEmail(null);
-        
-        when(userRepository.save(any(User.class))).thenReturn(newUser);
+        when(userRepository.lastInsertId()).thenReturn(3L);
 
         // Act
-        User result = userService.getOrCreateUser(null);
+        Long result = userService.getOrCreateUserId(7L, testEmail);
 
         // Assert
-        assertNotNull(result);
-        assertEquals(newUser, result);
-        assertNull(result.getEmail());
-        verify(userRepository).findByEmail(null);
-        verify(userRepository).save(any(User.class));
+        assertEquals(3L, result);
+        InOrder inOrder = inOrder(userRepository);
+        inOrder.verify(userRepository).upsertByAuthUserId(7L, testEmail);
+        inOrder.verify(userRepository).lastInsertId();
+        verify(userRepository, never()).upsertByEmail(any());
     }
 
     @Test
-    void getOrCreateUser_EmptyEmail_ShouldCreateUserWithEmptyEmail() {
+    void findUserId_ShouldReadByAuthUserIdWithoutWriting() {
         // Arrange
-        String emptyEmail = "";
-        User newUser = new User();
-        newUser.setId(4L);
-        newUser.setEmail(emptyEmail);
-
-        when(userRepository.findByEmail(emptyEmail)).thenReturn(Optional.empty());
-        when(userRepository.save(any(User.class))).thenReturn(newUser);
+        when(userRepository.findIdByAuthUserId(7L)).thenReturn(Optional.of(3L));
 
         // Act
-        User result = userService.getOrCreateUser(emptyEmail);
+        Optional<Long> result = userService.findUserId(7L);
 
         // Assert
-        assertNotNull(result);
-        assertEquals(newUser, result);
-        assertEquals(emptyEmail, result.getEmail());
-        verify(userRepository).findByEmail(emptyEmail);
-        verify(userRepository).save(any(User.class));
+        assertEquals(Optional.of(3L), result);
+        verify(userRepository, never()).upsertByAuthUserId(any(), any());
     }
 }
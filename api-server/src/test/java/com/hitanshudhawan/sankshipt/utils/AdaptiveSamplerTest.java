@@ -0,0 +1,123 @@
+package com.hitanshudhawan.sankshipt.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for AdaptiveSampler utility
+ */
+class AdaptiveSamplerTest {
+
+    private final AdaptiveSampler sampler = new AdaptiveSampler(10);
+
+    @Test
+    void testSample_BelowThreshold_KeepsEveryEvent() {
+        for (int i = 0; i < 10; i++) {
+            assertEquals(1, sampler.sample(1L, 1_000 + i));
+        }
+    }
+
+    @Test
+    void testSample_AboveThreshold_WeightsSumToEventCount() {
+        long kept = 0;
+        long weightSum = 0;
+        for (int i = 0; i < 1_000; i++) {
+            long weight = sampler.sample(1L, 1_000);
+            if (weight > 0) {
+                kept++;
+                weightSum += weight;
+            }
+        }
+
+        // Far fewer rows than events, and only the tail of the burst is still pending
+        assertTrue(kept < 100, "kept " + kept);
+        assertTrue(weightSum <= 1_000);
+        assertTrue(1_000 - weightSum < 100);
+    }
+
+    @Test
+    void testSample_PreviousSecondRateKeepsSampling() {
+        for (int i = 0; i < 100; i++) {
+            sampler.sample(1L, 1_000);
+        }
+
+        // The first event of the next second is still sampled, based on the previous rate
+        assertEquals(0, sampler.sample(1L, 2_000));
+    }
+
+    @Test
+    void testSample_KeysAreIndependent() {
+        for (int i = 0; i < 100; i++) {
+            sampler.sample(1L, 1_000);
+        }
+
+        assertEquals(1, sampler.sample(2L, 1_000));
+    }
+
+    @Test
+    void testSample_CoolDownKeepsEveryEventAgain() {
+        for (int i = 0; i < 100; i++) {
+            sampler.sample(1L, 1_000);
+        }
+
+        // Two seconds later the key is cold again; the next kept event carries the skipped ones
+        long weight = sampler.sample(1L, 3_000);
+        assertTrue(weight >= 1);
+        assertEquals(1, sampler.sample(1L, 3_001));
+    }
+
+    @Test
+    void testDrainIdle_ReturnsSkippedEventsOfQuietKeys() {
+        long weightSum = 0;
+        for (int i = 0; i < 100; i++) {
+            long weight = sampler.sample(1L, 1_000);
+            if (weight > 0) {
+                weightSum += weight;
+                sampler.stored(1L, 42L);
+            }
+        }
+
+        List<AdaptiveSampler.CarryOver> carryOvers = sampler.drainIdle(10_000, 5_000);
+
+        long carried = carryOvers.stream().mapToLong(AdaptiveSampler.CarryOver::skipped).sum();
+        assertEquals(100, weightSum + carried);
+        carryOvers.forEach(carryOver -> assertEquals(42L, carryOver.lastStoredId()));
+        assertEquals(0, sampler.size());
+    }
+
+    @Test
+    void testDrainIdle_KeepsActiveKeys() {
+        sampler.sample(1L, 9_000);
+
+        assertTrue(sampler.drainIdle(10_000, 5_000).isEmpty());
+        assertEquals(1, sampler.size());
+    }
+
+    @Test
+    void testDrainIdle_DropsQuietKeysWithoutStoredEvent() {
+        for (int i = 0; i < 100; i++) {
+            sampler.sample(1L, 1_000);
+        }
+
+        assertTrue(sampler.drainIdle(10_000, 5_000).isEmpty());
+        assertEquals(0, sampler.size());
+    }
+
+    @Test
+    void testRestore_CarryOverIsReturnedOnNextDrain() {
+        AdaptiveSampler.CarryOver carryOver = new AdaptiveSampler.CarryOver(1L, 42L, 7);
+
+        sampler.restore(carryOver);
+
+        assertEquals(List.of(carryOver), sampler.drainIdle(10_000, 5_000));
+    }
+
+    @Test
+    void testConstructor_InvalidThreshold() {
+        assertThrows(IllegalArgumentException.class, () -> new AdaptiveSampler(0));
+    }
+
+}
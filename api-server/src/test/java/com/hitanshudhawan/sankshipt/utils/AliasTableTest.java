@@ -0,0 +1,74 @@
+package com.hitanshudhawan.sankshipt.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for AliasTable utility
+ */
+class AliasTableTest {
+
+    @Test
+    void testSample_SingleItem_AlwaysReturned() {
+        AliasTable<String> table = new AliasTable<>(List.of("a"), new long[]{7});
+
+        assertEquals("a", table.sample(0, 0.0));
+        assertEquals("a", table.sample(0, 0.999));
+    }
+
+    @Test
+    void testSample_EqualWeights_EachColumnKeepsItsItem() {
+        AliasTable<String> table = new AliasTable<>(List.of("a", "b", "c"), new long[]{1, 1, 1});
+
+        assertEquals("a", table.sample(0, 0.999));
+        assertEquals("b", table.sample(1, 0.999));
+        assertEquals("c", table.sample(2, 0.999));
+    }
+
+    @Test
+    void testSample_UnevenWeights_SmallColumnAliasesToLargeItem() {
+        // Scaled weights are 1.5 and 0.5, so column 1 keeps "b" half of the time and gives the rest to "a"
+        AliasTable<String> table = new AliasTable<>(List.of("a", "b"), new long[]{3, 1});
+
+        assertEquals("a", table.sample(0, 0.999));
+        assertEquals("b", table.sample(1, 0.25));
+        assertEquals("a", table.sample(1, 0.75));
+    }
+
+    @Test
+    void testSample_DistributionFollowsWeights() {
+        AliasTable<Integer> table = new AliasTable<>(List.of(0, 1, 2, 3), new long[]{1, 2, 3, 4});
+        SplittableRandom random = new SplittableRandom(42);
+        int draws = 200_000;
+        int[] counts = new int[4];
+
+        for (int i = 0; i < draws; i++) {
+            counts[table.sample(random)]++;
+        }
+
+        for (int i = 0; i < 4; i++) {
+            assertEquals((i + 1) / 10.0, counts[i] / (double) draws, 0.01);
+        }
+    }
+
+    @Test
+    void testItems_KeepsOriginalOrder() {
+        AliasTable<String> table = new AliasTable<>(List.of("x", "y", "z"), new long[]{5, 1, 9});
+
+        assertEquals(List.of("x", "y", "z"), table.items());
+        assertEquals(3, table.size());
+    }
+
+    @Test
+    void testConstructor_InvalidInput() {
+        assertThrows(IllegalArgumentException.class, () -> new AliasTable<>(List.of(), new long[0]));
+        assertThrows(IllegalArgumentException.class, () -> new AliasTable<>(List.of("a", "b"), new long[]{1}));
+        assertThrows(IllegalArgumentException.class, () -> new AliasTable<>(List.of("a", "b"), new long[]{1, 0}));
+        assertThrows(IllegalArgumentException.class, () -> new AliasTable<>(List.of("a"), new long[]{-3}));
+    }
+
+}
@@ -0,0 +1,52 @@
+package com.hitanshudhawan.sankshipt.utils;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for AliasValidator utility
+ */
+class AliasValidatorTest {
+
+    @Test
+    void testValidate_ValidAliases() {
+        assertNull(AliasValidator.validate("summer-sale"));
+        assertNull(AliasValidator.validate("Docs_v2"));
+        assertNull(AliasValidator.validate("abc"));
+        assertNull(AliasValidator.validate("z".repeat(AliasValidator.MAX_LENGTH)));
+    }
+
+    @Test
+    void testValidate_Length() {
+        assertNotNull(AliasValidator.validate(null));
+        assertNotNull(AliasValidator.validate("ab"));
+        assertNotNull(AliasValidator.validate("a".repeat(AliasValidator.MAX_LENGTH + 1)));
+    }
+
+    @Test
+    void testValidate_Characters() {
+        assertNotNull(AliasValidator.validate("summer sale"));
+        assertNotNull(AliasValidator.validate("sale.html"));
+        assertNotNull(AliasValidator.validate("sale/2024"));
+    }
+
+    @Test
+    void testValidate_Reserved() {
+        assertNotNull(AliasValidator.validate("api"));
+        assertNotNull(AliasValidator.validate("Swagger-UI"));
+    }
+
+    @Test
+    void testValidate_GeneratedShape() {
+        assertNotNull(AliasValidator.validate(ShortCodeGenerator.generateShortCode(500L, "https://example.com")));
+        assertNotNull(AliasValidator.validate("coffee00"));
+        assertNotNull(AliasValidator.validate("xyzABCDEF"));
+    }
+
+    @Test
+    void testNormalize() {
+        assertEquals("summer-sale", AliasValidator.normalize("Summer-SALE"));
+    }
+
+}
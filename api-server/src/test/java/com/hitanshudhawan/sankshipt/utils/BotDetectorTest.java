@@ -0,0 +1,81 @@
+package com.hitanshudhawan.sankshipt.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for BotDetector utility
+ */
+class BotDetectorTest {
+
+    private final BotDetector botDetector = new BotDetector(100);
+
+    @Test
+    void testIsBot_Browser() {
+        assertFalse(botDetector.isBot("Mozilla/5.0 (Macintosh; Intel Mac OS X 10_15_7) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/139.0.0.0 Safari/537.36"));
+        assertFalse(botDetector.isBot("Mozilla/5.0 (iPhone; CPU iPhone OS 17_0 like Mac OS X) AppleWebKit/605.1.15 (KHTML, like Gecko) Version/17.0 Mobile/15E148 Safari/604.1"));
+    }
+
+    @Test
+    void testIsBot_Crawlers() {
+        assertTrue(botDetector.isBot("Mozilla/5.0 (compatible; Googlebot/2.1; +http://www.google.com/bot.html)"));
+        assertTrue(botDetector.isBot("facebookexternalhit/1.1 (+http://www.facebook.com/externalhit_uatext.php)"));
+        assertTrue(botDetector.isBot("Slackbot-LinkExpanding 1.0 (+https://api.slack.com/robots)"));
+        assertTrue(botDetector.isBot("WhatsApp/2.23.20.0"));
+    }
+
+    @Test
+    void testIsBot_MonitorsAndLibraries() {
+        assertTrue(botDetector.isBot("Mozilla/5.0 (compatible; UptimeRobot/2.0; http://www.uptimerobot.com/)"));
+        assertTrue(botDetector.isBot("curl/8.4.0"));
+        assertTrue(botDetector.isBot("python-requests/2.31.0"));
+    }
+
+    @Test
+    void testIsBot_CaseInsensitive() {
+        assertTrue(botDetector.isBot("MY-CUSTOM-BOT/1.0"));
+    }
+
+    @Test
+    void testIsBot_MissingUserAgent() {
+        assertFalse(botDetector.isBot(null));
+        assertFalse(botDetector.isBot(""));
+        assertFalse(botDetector.isBot("   "));
+    }
+
+    @Test
+    void testIsBot_CustomPatterns() {
+        BotDetector custom = new BotDetector(List.of("Internal-Probe"), 10);
+
+        assertTrue(custom.isBot("internal-probe/1.0"));
+        assertFalse(custom.isBot("curl/8.4.0"));
+    }
+
+    @Test
+    void testIsBot_CachesVerdicts() {
+        botDetector.isBot("curl/8.4.0");
+        botDetector.isBot("curl/8.4.0");
+
+        assertEquals(1, botDetector.cacheSize());
+    }
+
+    @Test
+    void testIsBot_CacheStaysBounded() {
+        BotDetector small = new BotDetector(3);
+
+        for (int i = 0; i < 10; i++) {
+            small.isBot("Agent-" + i);
+        }
+
+        assertTrue(small.cacheSize() <= 3);
+    }
+
+    @Test
+    void testConstructor_InvalidCacheSize() {
+        assertThrows(IllegalArgumentException.class, () -> new BotDetector(0));
+    }
+
+}
@@ -0,0 +1,93 @@
+package com.hitanshudhawan.sankshipt.utils;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for ClickRateWindow utility
+ */
+class ClickRateWindowTest {
+
+    private static final long MINUTE = 60_000L;
+    private static final long HOUR = 60 * MINUTE;
+
+    // Start of an hour, so minute and hour buckets line up
+    private static final long START = 1_000 * HOUR;
+
+    private final ClickRateWindow window = new ClickRateWindow();
+
+    @Test
+    void testEmptyWindow() {
+        assertEquals(0, window.countLastMinutes(5, START));
+        assertEquals(0, window.countLastMinutes(60, START));
+        assertEquals(0, window.countLastDay(START));
+        assertEquals(Long.MIN_VALUE, window.lastActivityMillis());
+    }
+
+    @Test
+    void testCountLastMinutes() {
+        window.record(START);
+        window.record(START + 2 * MINUTE);
+        window.record(START + 10 * MINUTE);
+
+        long now = START + 10 * MINUTE;
+        assertEquals(1, window.countLastMinutes(5, now));
+        assertEquals(3, window.countLastMinutes(60, now));
+        assertEquals(3, window.countLastDay(now));
+    }
+
+    @Test
+    void testCountLastMinutes_OldBucketsExpire() {
+        window.record(START);
+        window.record(START + 30 * MINUTE);
+
+        // Reading later without recording anything still ignores expired buckets
+        assertEquals(1, window.countLastMinutes(60, START + 60 * MINUTE));
+        assertEquals(0, window.countLastMinutes(60, START + 90 * MINUTE));
+    }
+
+    @Test
+    void testRecord_ReusesBucketsAfterWrapAround() {
+        window.record(START);
+        window.record(START + 61 * MINUTE);
+
+        // The bucket of minute 1 was reset when minute 61 reused its slot
+        assertEquals(1, window.countLastMinutes(60, START + 61 * MINUTE));
+        assertEquals(2, window.countLastDay(START + 61 * MINUTE));
+    }
+
+    @Test
+    void testCountLastDay() {
+        window.record(START);
+        window.record(START + 5 * HOUR);
+        window.record(START + 23 * HOUR);
+
+        assertEquals(3, window.countLastDay(START + 23 * HOUR));
+        assertEquals(2, window.countLastDay(START + 24 * HOUR));
+        assertEquals(0, window.countLastDay(START + 48 * HOUR));
+    }
+
+    @Test
+    void testRecord_EventOlderThanWindow_IsIgnored() {
+        window.record(START + 2 * HOUR);
+        window.record(START);
+
+        assertEquals(1, window.countLastMinutes(60, START + 2 * HOUR));
+        assertEquals(1, window.countLastDay(START + 2 * HOUR));
+    }
+
+    @Test
+    void testCountLastMinutes_InvalidWindow_ThrowsException() {
+        assertThrows(IllegalArgumentException.class, () -> window.countLastMinutes(0, START));
+        assertThrows(IllegalArgumentException.class, () -> window.countLastMinutes(61, START));
+    }
+
+    @Test
+    void testLastActivityMillis() {
+        window.record(START + 3 * MINUTE + 500);
+
+        assertEquals(START + 3 * MINUTE, window.lastActivityMillis());
+    }
+
+}
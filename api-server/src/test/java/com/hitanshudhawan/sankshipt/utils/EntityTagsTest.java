@@ -0,0 +1,31 @@
+package com.hitanshudhawan.sankshipt.utils;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for EntityTags utility
+ */
+class EntityTagsTest {
+
+    @Test
+    void testOf_QuotesJoinedParts() {
+        assertEquals("\"42-7\"", EntityTags.of(42L, 7L));
+        assertEquals("\"5\"", EntityTags.of(5));
+    }
+
+    @Test
+    void testMatches() {
+        String etag = EntityTags.of(42L, 7L);
+
+        assertTrue(EntityTags.matches("\"42-7\"", etag));
+        assertTrue(EntityTags.matches("W/\"42-7\"", etag));
+        assertTrue(EntityTags.matches("\"1-1\", \"42-7\"", etag));
+        assertTrue(EntityTags.matches("*", etag));
+        assertFalse(EntityTags.matches("\"42-8\"", etag));
+        assertFalse(EntityTags.matches("42-7", etag));
+        assertFalse(EntityTags.matches(null, etag));
+    }
+
+}
@@ -0,0 +1,91 @@
+package com.hitanshudhawan.sankshipt.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for HierarchicalTimerWheel utility
+ */
+class HierarchicalTimerWheelTest {
+
+    private static final long TICK = 1_000L;
+    private static final long START = 1_000_000 * TICK;
+
+    private final HierarchicalTimerWheel<String> wheel = new HierarchicalTimerWheel<>(TICK, START);
+
+    @Test
+    void testExpiresAtDeadline() {
+        wheel.schedule("a", START + 5 * TICK);
+
+        assertTrue(wheel.advance(START + 4 * TICK).isEmpty());
+        assertEquals(List.of("a"), wheel.advance(START + 5 * TICK));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void testDeadlineRoundsUpToNextTick() {
+        wheel.schedule("a", START + 2 * TICK + 1);
+
+        assertTrue(wheel.advance(START + 2 * TICK).isEmpty());
+        assertEquals(List.of("a"), wheel.advance(START + 3 * TICK));
+    }
+
+    @Test
+    void testPastDeadlineExpiresOnNextTick() {
+        wheel.schedule("a", START - 10 * TICK);
+
+        assertEquals(List.of("a"), wheel.advance(START + TICK));
+    }
+
+    @Test
+    void testCascadesFromHigherLevels() {
+        // One per level, plus one beyond the last wheel
+        long[] offsets = {10, 100, 10_000, 1_000_000, 20_000_000};
+        for (long offset : offsets) {
+            wheel.schedule("t" + offset, START + offset * TICK);
+        }
+        assertEquals(offsets.length, wheel.size());
+
+        for (long offset : offsets) {
+            assertTrue(wheel.advance(START + (offset - 1) * TICK).isEmpty(), "early at " + offset);
+            assertEquals(List.of("t" + offset), wheel.advance(START + offset * TICK));
+        }
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void testAdvanceReturnsKeysInDeadlineOrder() {
+        wheel.schedule("c", START + 300 * TICK);
+        wheel.schedule("a", START + 3 * TICK);
+        wheel.schedule("b", START + 70 * TICK);
+
+        assertEquals(List.of("a", "b", "c"), wheel.advance(START + 1_000 * TICK));
+    }
+
+    @Test
+    void testManyKeysAllExpireExactlyOnce() {
+        List<String> expected = new ArrayList<>();
+        for (int i = 1; i <= 5_000; i++) {
+            wheel.schedule("k" + i, START + i * 7L * TICK);
+            expected.add("k" + i);
+        }
+
+        List<String> expired = new ArrayList<>();
+        for (long now = START; now <= START + 35_000 * TICK; now += 997 * TICK) {
+            expired.addAll(wheel.advance(now));
+        }
+        expired.addAll(wheel.advance(START + 36_000 * TICK));
+
+        assertEquals(expected, expired);
+    }
+
+    @Test
+    void testInvalidTick() {
+        assertThrows(IllegalArgumentException.class, () -> new HierarchicalTimerWheel<String>(0, START));
+    }
+
+}
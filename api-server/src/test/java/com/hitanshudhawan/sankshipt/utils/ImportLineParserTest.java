@@ -0,0 +1,57 @@
+package com.hitanshudhawan.sankshipt.utils;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for ImportLineParser utility
+ */
+class ImportLineParserTest {
+
+    @Test
+    void testParseCsvLine_FirstColumn() {
+        assertEquals("https://example.com/a", ImportLineParser.parseCsvLine("https://example.com/a", 2));
+        assertEquals("https://example.com/b", ImportLineParser.parseCsvLine(" https://example.com/b ,campaign,42", 2));
+    }
+
+    @Test
+    void testParseCsvLine_QuotedField() {
+        assertEquals("https://example.com/?a=1,2", ImportLineParser.parseCsvLine("\"https://example.com/?a=1,2\",x", 2));
+        assertEquals("https://example.com/\"q\"", ImportLineParser.parseCsvLine("\"https://example.com/\"\"q\"\"\"", 2));
+    }
+
+    @Test
+    void testParseCsvLine_SkipsHeaderAndBlankLines() {
+        assertNull(ImportLineParser.parseCsvLine("original_url,tag", 1));
+        assertNull(ImportLineParser.parseCsvLine("\uFEFFurl", 1));
+        assertNull(ImportLineParser.parseCsvLine("   ", 5));
+    }
+
+    @Test
+    void testParseCsvLine_HeaderOnlyOnFirstLine() {
+        assertEquals("url", ImportLineParser.parseCsvLine("url", 2));
+    }
+
+    @Test
+    void testParseCsvLine_Invalid() {
+        assertThrows(IllegalArgumentException.class, () -> ImportLineParser.parseCsvLine(",tag", 2));
+        assertThrows(IllegalArgumentException.class, () -> ImportLineParser.parseCsvLine("\"https://example.com", 2));
+    }
+
+    @Test
+    void testParseNdjsonLine_OriginalUrlOrUrlField() {
+        assertEquals("https://example.com/a", ImportLineParser.parseNdjsonLine("{\"originalUrl\":\"https://example.com/a\"}"));
+        assertEquals("https://example.com/b", ImportLineParser.parseNdjsonLine("{\"url\":\" https://example.com/b \",\"tag\":1}"));
+        assertNull(ImportLineParser.parseNdjsonLine(""));
+    }
+
+    @Test
+    void testParseNdjsonLine_Invalid() {
+        assertThrows(IllegalArgumentException.class, () -> ImportLineParser.parseNdjsonLine("{not json"));
+        assertThrows(IllegalArgumentException.class, () -> ImportLineParser.parseNdjsonLine("[\"https://example.com\"]"));
+        assertThrows(IllegalArgumentException.class, () -> ImportLineParser.parseNdjsonLine("{\"originalUrl\":42}"));
+        assertThrows(IllegalArgumentException.class, () -> ImportLineParser.parseNdjsonLine("{\"originalUrl\":\"  \"}"));
+    }
+
+}
@@ -0,0 +1,130 @@
+package com.hitanshudhawan.sankshipt.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for LongObjectHashMap utility
+ */
+class LongObjectHashMapTest {
+
+    private final LongObjectHashMap<String> map = new LongObjectHashMap<>();
+
+    @Test
+    void testPutAndGet() {
+        assertNull(map.put(1L, "one"));
+        assertNull(map.put(2L, "two"));
+
+        assertEquals("one", map.get(1L));
+        assertEquals("two", map.get(2L));
+        assertNull(map.get(3L));
+        assertEquals(2, map.size());
+    }
+
+    @Test
+    void testPut_ExistingKey_ReplacesValue() {
+        map.put(1L, "one");
+
+        assertEquals("one", map.put(1L, "uno"));
+        assertEquals("uno", map.get(1L));
+        assertEquals(1, map.size());
+    }
+
+    @Test
+    void testPut_NullValue_ThrowsException() {
+        assertThrows(IllegalArgumentException.class, () -> map.put(1L, null));
+    }
+
+    @Test
+    void testZeroAndNegativeKeys() {
+        map.put(0L, "zero");
+        map.put(-1L, "minus one");
+        map.put(Long.MIN_VALUE, "min");
+
+        assertEquals("zero", map.get(0L));
+        assertEquals("minus one", map.get(-1L));
+        assertEquals("min", map.get(Long.MIN_VALUE));
+        assertEquals(3, map.size());
+
+        assertEquals("zero", map.remove(0L));
+        assertNull(map.get(0L));
+        assertEquals(2, map.size());
+    }
+
+    @Test
+    void testRemove() {
+        map.put(1L, "one");
+
+        assertEquals("one", map.remove(1L));
+        assertNull(map.remove(1L));
+        assertNull(map.get(1L));
+        assertEquals(0, map.size());
+    }
+
+    @Test
+    void testRemoveIf() {
+        for (long i = 0; i < 100; i++) {
+            map.put(i, "value" + i);
+        }
+
+        int removed = map.removeIf((key, value) -> key % 2 == 0);
+
+        assertEquals(50, removed);
+        assertEquals(50, map.size());
+        for (long i = 0; i < 100; i++) {
+            assertEquals(i % 2 == 0 ? null : "value" + i, map.get(i));
+        }
+    }
+
+    @Test
+    void testForEach() {
+        map.put(0L, "zero");
+        map.put(1L, "one");
+        map.put(-7L, "minus seven");
+        Map<Long, String> seen = new HashMap<>();
+
+        map.forEach(seen::put);
+
+        assertEquals(Map.of(0L, "zero", 1L, "one", -7L, "minus seven"), seen);
+    }
+
+    @Test
+    void testClear() {
+        map.put(0L, "zero");
+        map.put(1L, "one");
+
+        map.clear();
+
+        assertEquals(0, map.size());
+        assertNull(map.get(0L));
+        assertNull(map.get(1L));
+    }
+
+    @Test
+    void testRandomOperations_MatchHashMap() {
+        Map<Long, String> expected = new HashMap<>();
+        Random random = new Random(42);
+
+        for (int i = 0; i < 50_000; i++) {
+            // A small key range forces many collisions, resizes and backward shifts
+            long key = random.nextInt(2_000) - 1_000;
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(key), map.remove(key));
+            } else {
+                String value = "v" + i;
+                assertEquals(expected.put(key, value), map.put(key, value));
+            }
+        }
+
+        assertEquals(expected.size(), map.size());
+        for (long key = -1_000; key < 1_000; key++) {
+            assertEquals(expected.get(key), map.get(key));
+        }
+    }
+
+}
@@ -0,0 +1,37 @@
+package com.hitanshudhawan.sankshipt.utils;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for PageCursor utility
+ */
+class PageCursorTest {
+
+    @Test
+    void testEncode_IsUrlSafeAndOpaque() {
+        String encoded = new PageCursor(1700000000000L, 42L).encode();
+
+        assertEquals("MTcwMDAwMDAwMDAwMDo0Mg", encoded);
+        assertTrue(encoded.matches("[A-Za-z0-9_-]+"));
+    }
+
+    @Test
+    void testDecode_RoundTrip() {
+        PageCursor cursor = new PageCursor(1700000000123L, Long.MAX_VALUE);
+
+        assertEquals(cursor, PageCursor.decode(cursor.encode()));
+    }
+
+    @Test
+    void testDecode_Invalid() {
+        assertThrows(IllegalArgumentException.class, () -> PageCursor.decode(null));
+        assertThrows(IllegalArgumentException.class, () -> PageCursor.decode(""));
+        assertThrows(IllegalArgumentException.class, () -> PageCursor.decode("not base64!"));
+        assertThrows(IllegalArgumentException.class, () -> PageCursor.decode("NDI")); // "42", no separator
+        assertThrows(IllegalArgumentException.class, () -> PageCursor.decode("YTpi")); // "a:b"
+        assertThrows(IllegalArgumentException.class, () -> PageCursor.decode("A".repeat(100)));
+    }
+
+}
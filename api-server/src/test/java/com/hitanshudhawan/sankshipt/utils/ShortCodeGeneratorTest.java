@@ -242,4 +242,14 @@ class ShortCodeGeneratorTest {
         Long extractedId = ShortCodeGenerator.extractIdFromShortCode(shortCode);
         assertEquals(id, extractedId);
     }
+
+    @Test
+    void testIsGeneratedShortCode() {
+        assertTrue(ShortCodeGenerator.isGeneratedShortCode(ShortCodeGenerator.generateShortCode(500L, "https://example.com")));
+        assertTrue(ShortCodeGenerator.isGeneratedShortCode("Zz1ABCDEF"));
+        assertFalse(ShortCodeGenerator.isGeneratedShortCode("abcdef"));
+        assertFalse(ShortCodeGenerator.isGeneratedShortCode("summer-sale"));
+        assertFalse(ShortCodeGenerator.isGeneratedShortCode("promo2024"));
+        assertFalse(ShortCodeGenerator.isGeneratedShortCode(null));
+    }
 }
@@ -0,0 +1,65 @@
+package com.hitanshudhawan.sankshipt.utils;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for SlidingWindowDeduplicator utility
+ */
+class SlidingWindowDeduplicatorTest {
+
+    private final SlidingWindowDeduplicator deduplicator = new SlidingWindowDeduplicator(1000, 4);
+
+    @Test
+    void testIsDuplicate_FirstOccurrence() {
+        assertFalse(deduplicator.isDuplicate(42L, 10_000));
+    }
+
+    @Test
+    void testIsDuplicate_RepeatWithinWindow() {
+        assertFalse(deduplicator.isDuplicate(42L, 10_000));
+        assertTrue(deduplicator.isDuplicate(42L, 10_500));
+    }
+
+    @Test
+    void testIsDuplicate_RepeatAcrossBucketBoundary() {
+        // 10_900 and 11_100 fall into adjacent buckets but are only 200ms apart
+        assertFalse(deduplicator.isDuplicate(42L, 10_900));
+        assertTrue(deduplicator.isDuplicate(42L, 11_100));
+    }
+
+    @Test
+    void testIsDuplicate_RepeatAfterWindow() {
+        assertFalse(deduplicator.isDuplicate(42L, 10_000));
+        assertFalse(deduplicator.isDuplicate(42L, 11_000));
+    }
+
+    @Test
+    void testIsDuplicate_DistinctKeys() {
+        assertFalse(deduplicator.isDuplicate(1L, 10_000));
+        assertFalse(deduplicator.isDuplicate(2L, 10_000));
+        assertTrue(deduplicator.isDuplicate(1L, 10_001));
+    }
+
+    @Test
+    void testSize_OldBucketsAreDropped() {
+        for (long key = 0; key < 100; key++) {
+            deduplicator.isDuplicate(key, 10_000);
+        }
+        assertEquals(100, deduplicator.size());
+
+        // Touch every stripe far in the future so that old buckets are discarded
+        for (long key = 0; key < 100; key++) {
+            deduplicator.isDuplicate(key, 50_000);
+        }
+        assertEquals(100, deduplicator.size());
+    }
+
+    @Test
+    void testConstructor_InvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new SlidingWindowDeduplicator(0, 4));
+        assertThrows(IllegalArgumentException.class, () -> new SlidingWindowDeduplicator(1000, 0));
+    }
+
+}
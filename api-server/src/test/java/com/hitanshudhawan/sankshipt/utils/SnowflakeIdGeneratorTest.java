@@ -0,0 +1,102 @@
+package com.hitanshudhawan.sankshipt.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for SnowflakeIdGenerator utility
+ */
+class SnowflakeIdGeneratorTest {
+
+    // 2026-01-01T00:00:00Z
+    private static final long NOW = 1_767_225_600_000L;
+
+    @Test
+    void testNextId_PacksTimeAndNode() {
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(3, 0, 5);
+
+        long id = generator.nextId(NOW + 250);
+
+        assertEquals(3, SnowflakeIdGenerator.nodeIdOf(id));
+        assertEquals(NOW, SnowflakeIdGenerator.timestampMillisOf(id));
+        assertEquals(id + 1, generator.nextId(NOW + 900));
+    }
+
+    @Test
+    void testNextId_DifferentNodesNeverCollide() {
+        SnowflakeIdGenerator first = new SnowflakeIdGenerator(0, 0, 5);
+        SnowflakeIdGenerator second = new SnowflakeIdGenerator(1, 0, 5);
+        Set<Long> ids = new HashSet<>();
+
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(ids.add(first.nextId(NOW)));
+            assertTrue(ids.add(second.nextId(NOW)));
+        }
+    }
+
+    @Test
+    void testNextId_ShortBase62Codes() {
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(SnowflakeIdGenerator.MAX_NODE_ID, 0, 5);
+
+        String shortCode = ShortCodeGenerator.generateShortCode(generator.nextId(NOW), "https://example.com");
+
+        // 8 Base62 characters + 6 checksum characters
+        assertEquals(14, shortCode.length());
+    }
+
+    @Test
+    void testNextId_ClockGoesBack_StaysIncreasing() {
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(0, 0, 5);
+
+        long first = generator.nextId(NOW + 5_000);
+        long second = generator.nextId(NOW);
+
+        assertTrue(second > first);
+    }
+
+    @Test
+    void testNextId_SequenceExhausted_BorrowsUpToLimit() {
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(0, 0, 1);
+        for (int i = 0; i < SnowflakeIdGenerator.SEQUENCE_LIMIT; i++) {
+            generator.nextId(NOW);
+        }
+
+        long borrowed = generator.nextId(NOW);
+        assertEquals(NOW + 1000, SnowflakeIdGenerator.timestampMillisOf(borrowed));
+
+        for (int i = 1; i < SnowflakeIdGenerator.SEQUENCE_LIMIT; i++) {
+            generator.nextId(NOW);
+        }
+        assertEquals(-1, generator.nextId(NOW));
+        assertTrue(generator.nextId(NOW + 1000) > borrowed);
+    }
+
+    @Test
+    void testNextId_StartsAfterPreviousOwner() {
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(0, NOW + 500, 5);
+
+        long id = generator.nextId(NOW);
+
+        assertEquals(NOW + 1000, SnowflakeIdGenerator.timestampMillisOf(id));
+        assertEquals(NOW + 1000, generator.lastSecondMillis());
+    }
+
+    @Test
+    void testConstructor_InvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new SnowflakeIdGenerator(-1, 0, 5));
+        assertThrows(IllegalArgumentException.class, () -> new SnowflakeIdGenerator(SnowflakeIdGenerator.MAX_NODE_ID + 1, 0, 5));
+        assertThrows(IllegalArgumentException.class, () -> new SnowflakeIdGenerator(0, 0, -1));
+    }
+
+    @Test
+    void testNextId_ClockBeforeEpoch() {
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(0, 0, 5);
+
+        assertThrows(IllegalStateException.class, () -> generator.nextId(SnowflakeIdGenerator.EPOCH_MILLIS - 1));
+    }
+
+}
@@ -0,0 +1,93 @@
+package com.hitanshudhawan.sankshipt.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for SpaceSavingCounter utility
+ */
+class SpaceSavingCounterTest {
+
+    @Test
+    void testOffer_BelowCapacity_CountsAreExact() {
+        SpaceSavingCounter counter = new SpaceSavingCounter(3);
+
+        counter.offer("google.com");
+        counter.offer("google.com");
+        counter.offer("t.co");
+
+        List<SpaceSavingCounter.ItemCount> top = counter.top();
+        assertEquals(2, top.size());
+        assertEquals(new SpaceSavingCounter.ItemCount("google.com", 2, 0), top.get(0));
+        assertEquals(new SpaceSavingCounter.ItemCount("t.co", 1, 0), top.get(1));
+    }
+
+    @Test
+    void testOffer_AboveCapacity_SizeStaysBounded() {
+        SpaceSavingCounter counter = new SpaceSavingCounter(5);
+
+        for (int i = 0; i < 1_000; i++) {
+            counter.offer("host-" + i + ".example.com");
+        }
+
+        assertEquals(5, counter.size());
+    }
+
+    @Test
+    void testOffer_HeavyHittersSurviveLongTail() {
+        SpaceSavingCounter counter = new SpaceSavingCounter(5);
+
+        for (int i = 0; i < 500; i++) {
+            counter.offer("google.com");
+            counter.offer("tail-" + i + ".example.com");
+            if (i % 2 == 0) {
+                counter.offer("t.co");
+            }
+        }
+
+        List<SpaceSavingCounter.ItemCount> top = counter.top();
+        assertEquals("google.com", top.get(0).item());
+        assertEquals("t.co", top.get(1).item());
+        // Counts are upper bounds whose overestimation is bounded by the error
+        assertTrue(top.get(0).count() >= 500);
+        assertTrue(top.get(0).count() - top.get(0).error() <= 500);
+    }
+
+    @Test
+    void testOffer_ReplacementInheritsMinimumAsError() {
+        SpaceSavingCounter counter = new SpaceSavingCounter(1);
+
+        counter.offer("a.com");
+        counter.offer("a.com");
+        counter.offer("b.com");
+
+        assertEquals(List.of(new SpaceSavingCounter.ItemCount("b.com", 3, 2)), counter.top());
+    }
+
+    @Test
+    void testMerge_CombinesCounts() {
+        SpaceSavingCounter first = new SpaceSavingCounter(3);
+        first.offer("google.com", 10, 0);
+        first.offer("t.co", 4, 1);
+
+        SpaceSavingCounter second = new SpaceSavingCounter(3);
+        second.offer("google.com");
+        second.offer("bing.com");
+
+        first.merge(second);
+
+        List<SpaceSavingCounter.ItemCount> top = first.top();
+        assertEquals(new SpaceSavingCounter.ItemCount("google.com", 11, 0), top.get(0));
+        assertEquals(new SpaceSavingCounter.ItemCount("t.co", 4, 1), top.get(1));
+        assertEquals(new SpaceSavingCounter.ItemCount("bing.com", 1, 0), top.get(2));
+    }
+
+    @Test
+    void testConstructor_InvalidCapacity() {
+        assertThrows(IllegalArgumentException.class, () -> new SpaceSavingCounter(0));
+    }
+
+}
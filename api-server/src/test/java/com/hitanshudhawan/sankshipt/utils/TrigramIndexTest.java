@@ -0,0 +1,101 @@
+package com.hitanshudhawan.sankshipt.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for TrigramIndex utility
+ */
+class TrigramIndexTest {
+
+    private final TrigramIndex index = new TrigramIndex();
+
+    @Test
+    void testSearch_MatchesSubstringOfAnyFieldIgnoringCase() {
+        index.add(1L, 100L, "abc123", "https://www.Example.com/Summer-Sale");
+        index.add(2L, 200L, "def456", "https://shop.example.org/winter");
+        index.add(3L, 300L, "promo", "https://news.site.com/");
+
+        assertArrayEquals(new long[]{1L}, index.search("summer", 10));
+        assertArrayEquals(new long[]{2L, 1L}, index.search("EXAMPLE", 10));
+        assertArrayEquals(new long[]{3L}, index.search("PROMO", 10));
+        assertArrayEquals(new long[0], index.search("autumn", 10));
+    }
+
+    @Test
+    void testSearch_RequiresAdjacentTrigrams() {
+        // Contains both "abc" and "bcd"... but never "abcd"
+        index.add(1L, 0L, "abcxbcd");
+
+        assertArrayEquals(new long[0], index.search("abcd", 10));
+        assertArrayEquals(new long[]{1L}, index.search("xbcd", 10));
+    }
+
+    @Test
+    void testSearch_ShortQueryScansAllDocuments() {
+        index.add(1L, 0L, "go.dev");
+        index.add(2L, 0L, "rust-lang.org");
+
+        assertArrayEquals(new long[]{1L}, index.search("go", 10));
+        assertArrayEquals(new long[]{2L, 1L}, index.search(".", 10));
+        assertArrayEquals(new long[]{2L, 1L}, index.search("", 10));
+    }
+
+    @Test
+    void testSearch_OrdersByRankThenIdAndLimits() {
+        index.add(5L, 10L, "link");
+        index.add(7L, 30L, "link");
+        index.add(9L, 10L, "link");
+
+        assertArrayEquals(new long[]{7L, 9L, 5L}, index.search("link", 10));
+        assertArrayEquals(new long[]{7L, 9L}, index.search("link", 2));
+    }
+
+    @Test
+    void testAddAndRemove_KeepPostingsConsistent() {
+        index.add(1L, 0L, "https://example.com/a");
+        index.add(2L, 0L, "https://example.com/b");
+
+        assertTrue(index.remove(1L));
+        assertFalse(index.remove(1L));
+        assertArrayEquals(new long[]{2L}, index.search("example", 10));
+
+        // Re-adding replaces the earlier text
+        index.add(2L, 0L, "https://other.net/");
+        assertArrayEquals(new long[0], index.search("example", 10));
+        assertEquals(1, index.size());
+
+        assertTrue(index.remove(2L));
+        assertEquals(0, index.size());
+        assertEquals(0, index.gramCount());
+    }
+
+    @Test
+    void testSearch_AgreesWithScanOnRandomData() {
+        Random random = new Random(42);
+        String[] texts = new String[500];
+        for (int i = 0; i < texts.length; i++) {
+            StringBuilder text = new StringBuilder();
+            for (int j = 0; j < 12; j++) {
+                text.append((char) ('a' + random.nextInt(4)));
+            }
+            texts[i] = text.toString();
+            // Out-of-order ids exercise insertion into the middle of posting lists
+            index.add((i * 7919L) % 1000, 0L, texts[i]);
+        }
+
+        for (String query : new String[]{"abca", "dddd", "cab", "abcdabcd"}) {
+            int expected = 0;
+            for (String text : texts) {
+                if (text.contains(query)) {
+                    expected++;
+                }
+            }
+            assertEquals(expected, index.search(query, Integer.MAX_VALUE).length, query);
+        }
+    }
+
+}
@@ -0,0 +1,76 @@
+package com.hitanshudhawan.sankshipt.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for UrlNormalizer utility
+ */
+class UrlNormalizerTest {
+
+    @Test
+    void testReferrerHost_FullUrl() {
+        assertEquals("google.com", UrlNormalizer.referrerHost("https://www.google.com/search?q=sankshipt"));
+    }
+
+    @Test
+    void testReferrerHost_LowerCasesHost() {
+        assertEquals("news.ycombinator.com", UrlNormalizer.referrerHost("https://News.YCombinator.com/item?id=1"));
+    }
+
+    @Test
+    void testReferrerHost_StripsPortAndTrailingDot() {
+        assertEquals("example.com", UrlNormalizer.referrerHost("http://example.com.:8080/page"));
+    }
+
+    @Test
+    void testReferrerHost_KeepsOtherSubdomains() {
+        assertEquals("m.facebook.com", UrlNormalizer.referrerHost("https://m.facebook.com/"));
+    }
+
+    @Test
+    void testReferrerHost_MissingOrInvalid() {
+        assertNull(UrlNormalizer.referrerHost(null));
+        assertNull(UrlNormalizer.referrerHost(""));
+        assertNull(UrlNormalizer.referrerHost("not a url"));
+        assertNull(UrlNormalizer.referrerHost("android-app://"));
+    }
+
+    @Test
+    void testNormalize_LowerCasesSchemeAndHost() {
+        assertEquals("https://www.example.com/Path?Q=A", UrlNormalizer.normalize("HTTPS://WWW.Example.COM/Path?Q=A"));
+    }
+
+    @Test
+    void testNormalize_DropsDefaultPortAndFragment() {
+        assertEquals("https://example.com/", UrlNormalizer.normalize("https://example.com:443#top"));
+        assertEquals("http://example.com/a", UrlNormalizer.normalize("http://example.com:80/a#b"));
+        assertEquals("http://example.com:8080/a", UrlNormalizer.normalize("http://example.com:8080/a"));
+    }
+
+    @Test
+    void testNormalize_AddsRootPathAndTrims() {
+        assertEquals("https://example.com/", UrlNormalizer.normalize("  https://example.com  "));
+        assertEquals("https://example.com/?a=1", UrlNormalizer.normalize("https://example.com?a=1"));
+    }
+
+    @Test
+    void testNormalize_Unparseable_ReturnsTrimmedInput() {
+        assertNull(UrlNormalizer.normalize(null));
+        assertEquals("not a url", UrlNormalizer.normalize(" not a url "));
+        assertEquals("mailto:someone@example.com", UrlNormalizer.normalize("mailto:someone@example.com"));
+    }
+
+    @Test
+    void testUrlHash_FixedWidthAndNormalized() {
+        byte[] hash = UrlNormalizer.urlHash("https://example.com");
+
+        assertEquals(UrlNormalizer.URL_HASH_LENGTH, hash.length);
+        assertArrayEquals(hash, UrlNormalizer.urlHash("HTTPS://Example.com:443/#top"));
+        assertFalse(Arrays.equals(hash, UrlNormalizer.urlHash("https://example.com/other")));
+    }
+
+}
@@ -1,5 +1,6 @@
 package com.hitanshudhawan.sankshipt.configs;
 
+import com.hitanshudhawan.sankshipt.services.SankshiptUserDetails;
 import com.nimbusds.jose.jwk.JWKSet;
 import com.nimbusds.jose.jwk.RSAKey;
 import com.nimbusds.jose.jwk.source.ImmutableJWKSet;
@@ -43,6 +44,11 @@ import java.util.stream.Collectors;
 @Configuration
 public class AuthorizationServerConfig {
 
+    /**
+     * Claim carrying the user's id in this server, which stays the same even if the email changes.
+     */
+    public static final String USER_ID_CLAIM = "user_id";
+
     private final PasswordEncoder passwordEncoder;
 
     public AuthorizationServerConfig(PasswordEncoder passwordEncoder) {
@@ -92,6 +98,12 @@ public class AuthorizationServerConfig {
                 // Add user email as subject
                 claims.subject(principal.getName());
 
+                // Add the user id, so resource servers can identify the user without looking up the email;
+                // it comes with the authenticated principal, so issuing a token needs no query
+                if (principal.getPrincipal() instanceof SankshiptUserDetails userDetails) {
+                    claims.claim(USER_ID_CLAIM, userDetails.getId());
+                }
+
                 // Add roles to claims
                 List<String> roles = principal.getAuthorities().stream()
                         .map(GrantedAuthority::getAuthority)
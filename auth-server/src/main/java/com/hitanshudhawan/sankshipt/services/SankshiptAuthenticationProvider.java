@@ -35,8 +35,9 @@ public class SankshiptAuthenticationProvider implements AuthenticationProvider {
             throw new BadCredentialsException("Bad Credentials");
         }
 
+        // The user details are kept as the principal, so the token customizer can read the user's id from them
         return new UsernamePasswordAuthenticationToken(
-                userDetails.getUsername(),
+                userDetails,
                 userDetails.getPassword(),
                 userDetails.getAuthorities()
         );
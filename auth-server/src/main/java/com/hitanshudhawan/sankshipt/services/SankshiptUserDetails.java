@@ -0,0 +1,25 @@
+package com.hitanshudhawan.sankshipt.services;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+import java.util.Collection;
+
+/**
+ * User details that also carry the user's id, so tokens can be issued for the authenticated principal
+ * without looking the user up again.
+ */
+public class SankshiptUserDetails extends User {
+
+    private final Long id;
+
+    public SankshiptUserDetails(Long id, String email, String password, Collection<? extends GrantedAuthority> authorities) {
+        super(email, password, true, true, true, true, authorities);
+        this.id = id;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+}
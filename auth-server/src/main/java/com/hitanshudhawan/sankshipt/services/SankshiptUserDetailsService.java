@@ -30,13 +30,10 @@ public class SankshiptUserDetailsService implements UserDetailsService {
             throw new UsernameNotFoundException("User not found");
         }
 
-        return new org.springframework.security.core.userdetails.User(
+        return new SankshiptUserDetails(
+                userOptional.get().getId(),
                 userOptional.get().getEmail(),
                 userOptional.get().getPassword(),
-                true,
-                true,
-                true,
-                true,
                 getAuthorities(userOptional.get().getRoles())
         );
     }
@@ -99,12 +99,27 @@ import { API_SERVER_URL } from '../config';
 interface UrlData {
     originalUrl: string;
     shortCode: string;
+    expiresAt?: string | null;
+    maxClicks?: number | null;
+    totalClicks?: number | null;
+    lastClickedAt?: string | null;
 }
 
 interface UrlDataWithClicks extends UrlData {
     clicks: number;
 }
 
+interface UrlPage {
+    urls: UrlData[];
+    nextCursor: string | null;
+}
+
+interface AliasAvailability {
+    alias: string;
+    available: boolean;
+    reason: string | null;
+}
+
 // #endregion
 
 
@@ -372,9 +387,45 @@ const CreateUrlDialog = ({ children, onUrlCreated }: CreateUrlDialogProps) => {
     // State for form input
     const [originalUrl, setOriginalUrl] = useState('');
 
+    // State for the optional custom alias and whether it can be used
+    const [customAlias, setCustomAlias] = useState('');
+    const [aliasError, setAliasError] = useState<string | null>(null);
+
+    // State for the optional expiry time and click limit
+    const [expiresAt, setExpiresAt] = useState('');
+    const [maxClicks, setMaxClicks] = useState('');
+
     // State for tracking submission status
     const [isSubmitting, setIsSubmitting] = useState(false);
 
+    /**
+     * Checks the custom alias shortly after the user stops typing
+     */
+    useEffect(() => {
+        const alias = customAlias.trim();
+        setAliasError(null);
+        if (!alias) {
+            return;
+        }
+
+        let cancelled = false;
+        const timeout = setTimeout(async () => {
+            try {
+                const response = await apiClient.get<AliasAvailability>(`/api/urls/aliases/${encodeURIComponent(alias)}`);
+                if (!cancelled && !response.data.available) {
+                    setAliasError(response.data.reason);
+                }
+            } catch (error) {
+                console.error('Error checking alias:', error);
+            }
+        }, 250);
+
+        return () => {
+            cancelled = true;
+            clearTimeout(timeout);
+        };
+    }, [customAlias]);
+
     /**
      * Handles form submission to create a new shortened URL
      */
@@ -391,8 +442,12 @@ const CreateUrlDialog = ({ children, onUrlCreated }: CreateUrlDialogProps) => {
             setIsSubmitting(true);
 
             // Make API call to create shortened URL
+            const alias = customAlias.trim();
             const response = await apiClient.post<UrlData>('/api/urls', {
-                originalUrl: originalUrl.trim()
+                originalUrl: originalUrl.trim(),
+                ...(alias && { customAlias: alias }),
+                ...(expiresAt && { expiresAt: new Date(expiresAt).toISOString() }),
+                ...(maxClicks && { maxClicks: Number(maxClicks) })
             });
 
             // Create new URL data with initial click count of 0
@@ -406,6 +461,9 @@ const CreateUrlDialog = ({ children, onUrlCreated }: CreateUrlDialogProps) => {
 
             // Reset form and close dialog
             setOriginalUrl('');
+            setCustomAlias('');
+            setExpiresAt('');
+            setMaxClicks('');
             setOpen(false);
 
             // Show success message
@@ -450,6 +508,46 @@ const CreateUrlDialog = ({ children, onUrlCreated }: CreateUrlDialogProps) => {
                         />
                     </div>
 
+                    <div className="space-y-2">
+                        <Label htmlFor="customAlias">Custom alias (optional)</Label>
+                        <Input
+                            id="customAlias"
+                            type="text"
+                            placeholder="summer-sale"
+                            value={customAlias}
+                            onChange={(e) => setCustomAlias(e.target.value)}
+                            disabled={isSubmitting}
+                        />
+                        {aliasError && (
+                            <p className="text-sm text-destructive">{aliasError}</p>
+                        )}
+                    </div>
+
+                    <div className="grid grid-cols-2 gap-4">
+                        <div className="space-y-2">
+                            <Label htmlFor="expiresAt">Expires at (optional)</Label>
+                            <Input
+                                id="expiresAt"
+                                type="datetime-local"
+                                value={expiresAt}
+                                onChange={(e) => setExpiresAt(e.target.value)}
+                                disabled={isSubmitting}
+                            />
+                        </div>
+                        <div className="space-y-2">
+                            <Label htmlFor="maxClicks">Max clicks (optional)</Label>
+                            <Input
+                                id="maxClicks"
+                                type="number"
+                                min={1}
+                                placeholder="100"
+                                value={maxClicks}
+                                onChange={(e) => setMaxClicks(e.target.value)}
+                                disabled={isSubmitting}
+                            />
+                        </div>
+                    </div>
+
                     <DialogFooter>
                         <Button
                             type="button"
@@ -460,7 +558,7 @@ const CreateUrlDialog = ({ children, onUrlCreated }: CreateUrlDialogProps) => {
                         </Button>
                         <Button
                             type="submit"
-                            disabled={isSubmitting || !originalUrl.trim()}>
+                            disabled={isSubmitting || !originalUrl.trim() || !!aliasError}>
                             {isSubmitting ? (
                                 <>
                                     <Spinner className="h-4 w-4" />
@@ -624,6 +722,12 @@ const Dashboard = () => {
     // Holds any error message that occurs during data fetching (null when no error)
     const [error, setError] = useState<string | null>(null);
 
+    // Cursor of the next page of URLs (null when every page has been loaded)
+    const [nextCursor, setNextCursor] = useState<string | null>(null);
+
+    // Tracks whether a further page is currently being fetched
+    const [loadingMore, setLoadingMore] = useState(false);
+
     // Navigation hook
     const navigate = useNavigate();
 
@@ -661,67 +765,49 @@ const Dashboard = () => {
     const columns = createColumns(handleViewAnalytics, handleUrlDeleted);
 
     /**
-     * Fetches all URLs and their corresponding click analytics
-     * This function combines data from two API endpoints:
-     * 1. /api/urls - Gets all shortened URLs for the user
-     * 2. /api/analytics/{shortCode}/count - Gets click count for each URL
+     * Fetches one page of URLs together with their click totals
+     * The /api/urls endpoint returns the click totals of the whole page when asked with includeClicks,
+     * so no separate analytics request is needed per URL
+     * @param cursor - The cursor of the page to load, or undefined for the first page
      */
-    const fetchUrlsWithClicks = useCallback(async () => {
+    const fetchUrlsWithClicks = useCallback(async (cursor?: string) => {
         try {
             // Reset states at the start of data fetching
-            setLoading(true);
+            if (cursor) {
+                setLoadingMore(true);
+            } else {
+                setLoading(true);
+            }
             setError(null);
 
-            // Fetch all URLs from the main API endpoint
-            const urlsResponse = await apiClient.get<UrlData[]>('/api/urls');
-            const urls = urlsResponse.data;
+            // Fetch one page of URLs with their click totals from the main API endpoint
+            const urlsResponse = await apiClient.get<UrlPage>('/api/urls', {
+                params: cursor ? { cursor, includeClicks: true } : { includeClicks: true }
+            });
+            const urls = urlsResponse.data?.urls;
 
             // Validate response format to ensure we received an array
             if (!Array.isArray(urls)) {
                 throw new Error('Invalid response format - expected array of URLs');
             }
 
-            // Fetch click analytics for each URL in parallel
-            // Using Promise.all for better performance than sequential fetching
-            const urlsWithClicks: UrlDataWithClicks[] = await Promise.all(
-                urls.map(async (url) => {
-                    try {
-                        // Attempt to fetch click count for this specific URL
-                        const analyticsResponse = await apiClient.get<number>(
-                            `/api/analytics/${url.shortCode}/count`
-                        );
-
-                        // Ensure we have a valid number, default to 0 if not
-                        const clicks = typeof analyticsResponse.data === 'number'
-                            ? analyticsResponse.data
-                            : 0;
-
-                        // Combine original URL data with click analytics
-                        return {
-                            ...url,
-                            clicks
-                        };
-                    } catch (analyticsError) {
-                        // If analytics fetch fails, log warning but continue with 0 clicks
-                        // This ensures the dashboard still works even if analytics service is down
-                        console.error(`Failed to fetch analytics for ${url.shortCode}:`, analyticsError);
-                        return {
-                            ...url,
-                            clicks: 0
-                        };
-                    }
-                })
-            );
+            // Ensure we have a valid number for every URL, default to 0 if not
+            const urlsWithClicks: UrlDataWithClicks[] = urls.map(url => ({
+                ...url,
+                clicks: typeof url.totalClicks === 'number' ? url.totalClicks : 0
+            }));
 
-            // Update state with the combined data, reversed to show latest URLs first
-            setUrlsData(urlsWithClicks.reverse());
+            // Pages arrive newest first, so later pages are appended below the loaded ones
+            setUrlsData(prevUrls => cursor ? [...prevUrls, ...urlsWithClicks] : urlsWithClicks);
+            setNextCursor(urlsResponse.data.nextCursor ?? null);
         } catch (error) {
             // Handle any errors that occurred during the main URL fetching
             console.error('Error fetching URLs:', error);
             setError(error instanceof Error ? error.message : 'Failed to load URLs data');
         } finally {
-            // Always set loading to false when done, regardless of success or failure
+            // Always reset the loading flags when done, regardless of success or failure
             setLoading(false);
+            setLoadingMore(false);
         }
     }, []);
 
@@ -773,7 +859,7 @@ const Dashboard = () => {
                     <div>
                         <h1 className="text-3xl font-bold">Sankshipt Dashboard</h1>
                         <p className="text-muted-foreground mt-2">
-                            Manage and monitor your shortened URLs ({urlsData.length} total)
+                            Manage and monitor your shortened URLs ({urlsData.length}{nextCursor ? '+' : ''} total)
                         </p>
                     </div>
                     <CreateUrlDialog onUrlCreated={handleUrlCreated}>
@@ -791,13 +877,27 @@ const Dashboard = () => {
                         <p className="text-muted-foreground">No URLs found</p>
                     </div>
                 ) : (
-                    // Data table showing all URLs when data exists
+                    // Data table showing the loaded URLs when data exists
                     <DataTable
                         columns={columns}
                         data={urlsData}
                     />
                 )}
 
+                {/* Button to load the next page of URLs, if there is one */}
+                {nextCursor && (
+                    <div className="flex justify-center">
+                        <Button
+                            variant="outline"
+                            onClick={() => fetchUrlsWithClicks(nextCursor)}
+                            disabled={loadingMore}
+                        >
+                            {loadingMore && <Spinner className="h-4 w-4" />}
+                            Load more
+                        </Button>
+                    </div>
+                )}
+
             </div>
         </div>
     );